@@ -36,8 +36,11 @@ import com.speedment.core.code.model.java.manager.EntityManagerTranslator;
 import com.speedment.core.config.model.Column;
 import com.speedment.core.config.model.ForeignKey;
 import com.speedment.core.config.model.ForeignKeyColumn;
+import com.speedment.core.config.model.PrimaryKeyColumn;
 import com.speedment.core.config.model.Table;
 import com.speedment.core.core.entity.Entity;
+import com.speedment.core.manager.ForeignKeyCache;
+import com.speedment.core.manager.ForeignKeyReferenceCache;
 import com.speedment.core.manager.metaresult.MetaResult;
 import com.speedment.core.exception.SpeedmentException;
 import com.speedment.util.Pluralis;
@@ -99,6 +102,24 @@ public class EntityTranslator extends BaseEntityAndManagerTranslator<Interface>
                 //.add("        .stream().filter(" + variableName(fu.getTable()) + " -> Objects.equals(this." + GETTER_METHOD_PREFIX + typeName(fu.getForeignColumn()) + "(), " + variableName(fu.getTable()) + "." + GETTER_METHOD_PREFIX + typeName(fu.getColumn()) + "()));");
                 .add("        .stream().filter(" + typeName(fu.getTable()) + "Field." + JavaLanguage.javaStaticFieldName(fu.getColumn().getName()) + ".equal(this." + GETTER_METHOD_PREFIX + typeName(fu.getForeignColumn()) + "()));");
                 i.add(method);
+
+                // Navigation through a ForeignKeyReferenceCache that is
+                // shared by a stream of entities, so that the referencing
+                // entities are loaded in chunks
+                file.add(Import.of(Type.of(ForeignKeyReferenceCache.class)));
+                final Type cacheType = Type.of(ForeignKeyReferenceCache.class)
+                    .add(Generic.of().add(ENTITY.getType()))
+                    .add(Generic.of().add(Type.of(fu.getForeignColumn().getMapping())))
+                    .add(Generic.of().add(fu.getEmt().ENTITY.getType()));
+                i.add(Method.of("cacheFor" + Formatting.ucfirst(methodName), cacheType).static_()
+                    .add("return new ForeignKeyReferenceCache<>(\n" + indent(
+                        variableName() + " -> " + variableName() + ".get" + typeName(fu.getForeignColumn()) + "()" + orElseNull(fu.getForeignColumn()) + ",\n"
+                        + "keys -> " + managerTypeName(fu.getTable()) + ".get().findAllBy(" + typeName(fu.getTable()) + "Field." + JavaLanguage.javaStaticFieldName(fu.getColumn().getName()) + ".getColumn(), keys),\n"
+                        + variableName(fu.getTable()) + " -> " + variableName(fu.getTable()) + ".get" + typeName(fu.getColumn()) + "()" + orElseNull(fu.getColumn())
+                    ) + "\n);"));
+                i.add(Method.of(methodName, returnType).default_()
+                    .add(Field.of("cache", cacheType))
+                    .add("return cache.find(this);"));
             })
             .addForeignKeyConsumer((i, fk) -> {
                 
@@ -159,6 +180,32 @@ public class EntityTranslator extends BaseEntityAndManagerTranslator<Interface>
 //                //method.add("        .stream().filter(" + variableName(fu.getForeignTable()) + " -> Objects.equals(this." + GETTER_METHOD_PREFIX + typeName(fu.getColumn()) + "(), " + variableName(fu.getForeignTable()) + "." + GETTER_METHOD_PREFIX + typeName(fu.getForeignColumn()) + "())).findAny()" + getCode + ";");
 //                method.add("        .stream().filter(" + typeName(fu.getForeignTable()) + "Field." + JavaLanguage.javaStaticFieldName(fu.getForeignColumn().getName()) + ".equal(this." + GETTER_METHOD_PREFIX + typeName(fu.getColumn()) + "())).findAny()" + getCode + ";");
                 i.add(method);
+
+                // Navigation through a ForeignKeyCache that is shared by a
+                // stream of entities, so that each foreign entity is only
+                // loaded once and in chunks
+                file.add(Import.of(Type.of(ForeignKeyCache.class)));
+                final Type cacheType = Type.of(ForeignKeyCache.class)
+                    .add(Generic.of().add(ENTITY.getType()))
+                    .add(Generic.of().add(Type.of(fu.getColumn().getMapping())))
+                    .add(Generic.of().add(fu.getForeignEmt().ENTITY.getType()));
+                i.add(Method.of("cacheFor" + typeName(fu.getColumn()), cacheType).static_()
+                    .add("return new ForeignKeyCache<>(\n" + indent(
+                        variableName() + " -> " + variableName() + ".get" + typeName(fu.getColumn()) + "()" + orElseNull(fu.getColumn()) + ",\n"
+                        + foreignKeyLoader(fu) + ",\n"
+                        + variableName(fu.getForeignTable()) + " -> " + variableName(fu.getForeignTable()) + ".get" + typeName(fu.getForeignColumn()) + "()" + orElseNull(fu.getForeignColumn())
+                    ) + "\n);"));
+
+                final Method cachedMethod = Method.of("find" + typeName(fu.getColumn()), returnType).default_()
+                    .add(Field.of("cache", cacheType));
+                if (fu.getColumn().isNullable()) {
+                    cachedMethod.add("return cache.find(this);");
+                } else {
+                    cachedMethod.add("return cache.find(this).orElseThrow(() -> new SpeedmentException(\n" + indent(
+                        "\"Foreign key constraint error. " + typeName(fu.getForeignTable()) + " is set to \" + get" + typeName(fu.getColumn()) + "()"
+                    ) + "\n));");
+                }
+                i.add(cachedMethod);
             })
             .build()
             .public_();
@@ -204,6 +251,29 @@ public class EntityTranslator extends BaseEntityAndManagerTranslator<Interface>
         return iface;
     }
 
+    private String orElseNull(Column column) {
+        return column.isNullable() ? ".orElse(null)" : "";
+    }
+
+    /**
+     * Returns the code of a function that loads the foreign entities of the
+     * given foreign key for a collection of keys. The keys are looked up
+     * with IN-list queries on the foreign column.
+     *
+     * @param fu the foreign key
+     * @return the code of the loader function
+     */
+    private String foreignKeyLoader(FkUtil fu) {
+        final List<Column> foreignPrimaryKeyColumns = fu.getForeignTable().streamOf(PrimaryKeyColumn.class)
+            .map(PrimaryKeyColumn::getColumn)
+            .collect(Collectors.toList());
+        if (foreignPrimaryKeyColumns.size() == 1 && foreignPrimaryKeyColumns.get(0).equals(fu.getForeignColumn())) {
+            return fu.getForeignEmt().MANAGER.getName() + ".get()::findAllByPrimaryKeys";
+        }
+        return "keys -> " + fu.getForeignEmt().MANAGER.getName() + ".get().findAllBy("
+            + typeName(fu.getForeignTable()) + "Field." + JavaLanguage.javaStaticFieldName(fu.getForeignColumn().getName()) + ".getColumn(), keys)";
+    }
+
     public String pluralis(Table table) {
         return Pluralis.INSTANCE.pluralizeJavaIdentifier(variableName(table));
     }
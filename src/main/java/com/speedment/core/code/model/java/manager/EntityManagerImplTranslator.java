@@ -37,6 +37,7 @@ import com.speedment.core.runtime.typemapping.JavaTypeMapping;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Stream;
 
 /**
@@ -125,6 +126,9 @@ public class EntityManagerImplTranslator extends BaseEntityAndManagerTranslator<
         final JavaTypeMapperComponent mapperComponent = Platform.get().get(JavaTypeMapperComponent.class);
         final Stream.Builder<String> streamBuilder = Stream.builder();
 
+        // The columns are read by ordinal in the order of sqlColumnList() so
+        // that the driver does not have to look up each column by name
+        final AtomicInteger ordinal = new AtomicInteger();
         columns().forEachOrdered(c -> {
 
             final JavaTypeMapping mapping = mapperComponent.apply(dbms().getType(), c.getMapping());
@@ -141,15 +145,13 @@ public class EntityManagerImplTranslator extends BaseEntityAndManagerTranslator<
             &&  !c.isNullable()) {
                 sb
                     .append("resultSet.")
-                    .append("get")
-                    .append(mapping.getResultSetMethodName(dbms()))
-                    .append("(\"").append(c.getName()).append("\")");
+                    .append(getterName)
+                    .append("(").append(ordinal.incrementAndGet()).append(")");
             } else {
                 sb
-                    .append("get")
-                    .append(mapping.getResultSetMethodName(dbms()))
+                    .append(getterName)
                     .append("(resultSet, ")
-                    .append("\"").append(c.getName()).append("\")");
+                    .append(ordinal.incrementAndGet()).append(")");
             }
             sb.append(");");
             streamBuilder.add(sb.toString());
@@ -87,6 +87,85 @@ public interface Dbms extends ConfigEntity, DbmsTypeable, Child<Project>, Parent
     @External(type = String.class, isSecret = true)
     void setPassword(String password);
 
+    @External(type = Integer.class)
+    Optional<Integer> getConnectionPoolMinSize();
+
+    @External(type = Integer.class)
+    void setConnectionPoolMinSize(Integer minSize);
+
+    @External(type = Integer.class)
+    Optional<Integer> getConnectionPoolMaxSize();
+
+    @External(type = Integer.class)
+    void setConnectionPoolMaxSize(Integer maxSize);
+
+    /**
+     * Returns the number of milliseconds an idle pooled connection may stay
+     * open before it is closed.
+     *
+     * @return the idle timeout in milliseconds
+     */
+    @External(type = Integer.class)
+    Optional<Integer> getConnectionPoolIdleTimeout();
+
+    @External(type = Integer.class)
+    void setConnectionPoolIdleTimeout(Integer idleTimeout);
+
+    /**
+     * Returns the maximum number of milliseconds to wait for a pooled
+     * connection to become available.
+     *
+     * @return the acquire timeout in milliseconds
+     */
+    @External(type = Integer.class)
+    Optional<Integer> getConnectionPoolAcquireTimeout();
+
+    @External(type = Integer.class)
+    void setConnectionPoolAcquireTimeout(Integer acquireTimeout);
+
+    /**
+     * Returns the number of milliseconds a pooled connection may be leased
+     * before it is reported as a possible leak. Zero disables leak detection.
+     *
+     * @return the leak detection threshold in milliseconds
+     */
+    @External(type = Integer.class)
+    Optional<Integer> getConnectionPoolLeakDetectionThreshold();
+
+    @External(type = Integer.class)
+    void setConnectionPoolLeakDetectionThreshold(Integer leakDetectionThreshold);
+
+    @External(type = String.class)
+    Optional<String> getConnectionPoolValidationQuery();
+
+    @External(type = String.class)
+    void setConnectionPoolValidationQuery(String validationQuery);
+
+    /**
+     * Returns the maximum number of prepared statements that are cached for
+     * each pooled connection. Zero disables statement caching.
+     *
+     * @return the statement cache size per connection
+     */
+    @External(type = Integer.class)
+    Optional<Integer> getConnectionPoolStatementCacheSize();
+
+    @External(type = Integer.class)
+    void setConnectionPoolStatementCacheSize(Integer statementCacheSize);
+
+    /**
+     * Returns the default fetch size used when tables in this Dbms are
+     * streamed. For MySQL, {@link Integer#MIN_VALUE} streams the rows one by
+     * one instead of reading the entire result into memory.
+     *
+     * @return the default fetch size
+     */
+    @External(type = Integer.class)
+    Optional<Integer> getFetchSize();
+
+    @External(type = Integer.class)
+    void setFetchSize(Integer fetchSize);
+
     // Groovy
     default Schema schema(Closure<?> c) {
         return ConfigEntityUtil.groovyDelegatorHelper(c, this::addNewSchema);
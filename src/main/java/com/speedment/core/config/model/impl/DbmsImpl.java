@@ -36,6 +36,12 @@ public class DbmsImpl extends AbstractNamedConfigEntity implements Dbms {
     private String ipAddress;
     private Integer port;
     private String username, password;
+    private Integer connectionPoolMinSize, connectionPoolMaxSize;
+    private Integer connectionPoolIdleTimeout, connectionPoolAcquireTimeout;
+    private Integer connectionPoolLeakDetectionThreshold;
+    private String connectionPoolValidationQuery;
+    private Integer connectionPoolStatementCacheSize;
+    private Integer fetchSize;
     private DbmsHandler dbmsHandler;
 
     public DbmsImpl() {
@@ -101,6 +107,86 @@ public class DbmsImpl extends AbstractNamedConfigEntity implements Dbms {
         this.password = password;
     }
 
+    @Override
+    public Optional<Integer> getConnectionPoolMinSize() {
+        return Optional.ofNullable(connectionPoolMinSize);
+    }
+
+    @Override
+    public void setConnectionPoolMinSize(Integer minSize) {
+        this.connectionPoolMinSize = minSize;
+    }
+
+    @Override
+    public Optional<Integer> getConnectionPoolMaxSize() {
+        return Optional.ofNullable(connectionPoolMaxSize);
+    }
+
+    @Override
+    public void setConnectionPoolMaxSize(Integer maxSize) {
+        this.connectionPoolMaxSize = maxSize;
+    }
+
+    @Override
+    public Optional<Integer> getConnectionPoolIdleTimeout() {
+        return Optional.ofNullable(connectionPoolIdleTimeout);
+    }
+
+    @Override
+    public void setConnectionPoolIdleTimeout(Integer idleTimeout) {
+        this.connectionPoolIdleTimeout = idleTimeout;
+    }
+
+    @Override
+    public Optional<Integer> getConnectionPoolAcquireTimeout() {
+        return Optional.ofNullable(connectionPoolAcquireTimeout);
+    }
+
+    @Override
+    public void setConnectionPoolAcquireTimeout(Integer acquireTimeout) {
+        this.connectionPoolAcquireTimeout = acquireTimeout;
+    }
+
+    @Override
+    public Optional<Integer> getConnectionPoolLeakDetectionThreshold() {
+        return Optional.ofNullable(connectionPoolLeakDetectionThreshold);
+    }
+
+    @Override
+    public void setConnectionPoolLeakDetectionThreshold(Integer leakDetectionThreshold) {
+        this.connectionPoolLeakDetectionThreshold = leakDetectionThreshold;
+    }
+
+    @Override
+    public Optional<String> getConnectionPoolValidationQuery() {
+        return Optional.ofNullable(connectionPoolValidationQuery);
+    }
+
+    @Override
+    public void setConnectionPoolValidationQuery(String validationQuery) {
+        this.connectionPoolValidationQuery = validationQuery;
+    }
+
+    @Override
+    public Optional<Integer> getConnectionPoolStatementCacheSize() {
+        return Optional.ofNullable(connectionPoolStatementCacheSize);
+    }
+
+    @Override
+    public void setConnectionPoolStatementCacheSize(Integer statementCacheSize) {
+        this.connectionPoolStatementCacheSize = statementCacheSize;
+    }
+
+    @Override
+    public Optional<Integer> getFetchSize() {
+        return Optional.ofNullable(fetchSize);
+    }
+
+    @Override
+    public void setFetchSize(Integer fetchSize) {
+        this.fetchSize = fetchSize;
+    }
+
     @Override
     public void setParentTo(Parent<?> parent) {
         setParentHelper(parent, Project.class)
@@ -58,4 +58,24 @@ public interface DbmsType {
 
     Set<String> getSchemaExcludSet();
 
+    /**
+     * Returns if this type of database accepts insert statements with more
+     * than one row in the values clause, like
+     * {@code insert into t(a, b) values (?, ?), (?, ?)}.
+     *
+     * @return if multi-row insert statements are supported
+     */
+    boolean isMultiRowInsertSupported();
+
+    /**
+     * Returns the clause that is appended to a query to skip and limit its
+     * rows, like {@code LIMIT ? OFFSET ?}. The first parameter marker of the
+     * clause is the maximum number of rows and the second is the number of
+     * rows to skip. An empty value is returned if this type of database has no
+     * supported syntax, in which case rows are skipped and limited in memory.
+     *
+     * @return the clause that skips and limits the rows of a query
+     */
+    Optional<String> getLimitOffsetClause();
+
 }
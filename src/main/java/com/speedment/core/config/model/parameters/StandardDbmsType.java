@@ -44,7 +44,9 @@ public enum StandardDbmsType implements EnumHelper<StandardDbmsType>, DbmsType {
             "mysql",
             "`",
             "`",
-            Collections.unmodifiableSet(new HashSet<>(Arrays.asList("MySQL", "information_schema")))
+            Collections.unmodifiableSet(new HashSet<>(Arrays.asList("MySQL", "information_schema"))),
+            true,
+            " LIMIT ? OFFSET ?"
     ),
     MARIADB(
             "MariaDB",
@@ -57,7 +59,9 @@ public enum StandardDbmsType implements EnumHelper<StandardDbmsType>, DbmsType {
             "mariadb",
             "`",
             "`",
-            Collections.unmodifiableSet(new HashSet<>(Arrays.asList("MySQL", "information_schema")))
+            Collections.unmodifiableSet(new HashSet<>(Arrays.asList("MySQL", "information_schema"))),
+            true,
+            " LIMIT ? OFFSET ?"
     );
 //    
 //    ORACLE("Oracle", "Oracle JDBC Driver", 1521, ".", "SID"),
@@ -80,7 +84,9 @@ public enum StandardDbmsType implements EnumHelper<StandardDbmsType>, DbmsType {
             final String jdbcConnectorName,
             final String fieldEncloserStart,
             final String fieldEncloserEnd,
-            final Set<String> schemaExcludSet
+            final Set<String> schemaExcludSet,
+            final boolean multiRowInsertSupported,
+            final String limitOffsetClause
     ) {
         this.name = name;
         this.driverManagerName = driverManagerName;
@@ -93,6 +99,8 @@ public enum StandardDbmsType implements EnumHelper<StandardDbmsType>, DbmsType {
         this.fieldEncloserStart = fieldEncloserStart;
         this.fieldEncloserEnd = fieldEncloserEnd;
         this.schemaExcludSet = schemaExcludSet;
+        this.multiRowInsertSupported = multiRowInsertSupported;
+        this.limitOffsetClause = limitOffsetClause;
     }
     private final String name;
     private final String driverManagerName;
@@ -105,6 +113,8 @@ public enum StandardDbmsType implements EnumHelper<StandardDbmsType>, DbmsType {
     private final String fieldEncloserStart;
     private final String fieldEncloserEnd;
     private final Set<String> schemaExcludSet;
+    private final boolean multiRowInsertSupported;
+    private final String limitOffsetClause;
 
     @Override
     public String getName() {
@@ -185,4 +195,14 @@ public enum StandardDbmsType implements EnumHelper<StandardDbmsType>, DbmsType {
     public Set<String> getSchemaExcludSet() {
         return schemaExcludSet;
     }
+
+    @Override
+    public boolean isMultiRowInsertSupported() {
+        return multiRowInsertSupported;
+    }
+
+    @Override
+    public Optional<String> getLimitOffsetClause() {
+        return Optional.ofNullable(limitOffsetClause);
+    }
 }
@@ -34,6 +34,7 @@ public enum StorageEngineType implements EnumHelper<StorageEngineType> {
 
     INHERIT("Inherit from parent", ConcurrentHashMap.class, true),
     ON_HEAP("On Heap", ConcurrentHashMap.class, true),
+    ON_HEAP_COLUMNAR("On Heap Columnar", ConcurrentHashMap.class, true),
     OFF_HEAP("Off Heap", ConcurrentHashMap.class, true),
     HAZELCAST("Hazelcast", ConcurrentHashMap.class, false);
     private final String name;
@@ -71,7 +72,7 @@ public enum StorageEngineType implements EnumHelper<StorageEngineType> {
      * @return if this StorageEngine shall generate code for on-heap storage
      */
     public boolean isOnHeap() {
-        return this == ON_HEAP;
+        return this == ON_HEAP || this == ON_HEAP_COLUMNAR;
     }
 
     /**
@@ -45,4 +45,15 @@ public interface AsynchronousQueryResult<T> extends AutoCloseable {
 
     void setRsMapper(Function<ResultSet, T> rsMapper);
 
+    int getFetchSize();
+
+    /**
+     * Sets the fetch size hint that is given to the driver when the query is
+     * executed. Zero leaves the choice to the driver. MySQL streams the rows
+     * one by one if the fetch size is {@link Integer#MIN_VALUE}.
+     *
+     * @param fetchSize the fetch size hint
+     */
+    void setFetchSize(int fetchSize);
+
 }
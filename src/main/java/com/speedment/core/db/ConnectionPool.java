@@ -0,0 +1,78 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.core.db;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * A bounded pool of JDBC connections to a single Dbms. Connections obtained
+ * from the pool are handed back to it when they are closed.
+ *
+ * @author pemi
+ */
+public interface ConnectionPool extends AutoCloseable {
+
+    /**
+     * Returns a Connection from the pool, waiting at most the configured
+     * acquire timeout for one to become available. The returned Connection
+     * must be closed by the caller in order to return it to the pool.
+     *
+     * @return a Connection from the pool
+     * @throws SQLException if no Connection could be obtained
+     */
+    Connection getConnection() throws SQLException;
+
+    /**
+     * Returns the number of Connections that are currently leased from the
+     * pool.
+     *
+     * @return the number of leased Connections
+     */
+    int getLeasedCount();
+
+    /**
+     * Returns the number of Connections that are currently idle in the pool.
+     *
+     * @return the number of idle Connections
+     */
+    int getIdleCount();
+
+    /**
+     * Returns the number of times a PreparedStatement could be reused from
+     * the statement cache of a pooled Connection.
+     *
+     * @return the number of statement cache hits
+     */
+    long getStatementCacheHitCount();
+
+    /**
+     * Returns the number of times a PreparedStatement had to be prepared
+     * because it was not found in the statement cache of a pooled Connection.
+     *
+     * @return the number of statement cache misses
+     */
+    long getStatementCacheMissCount();
+
+    /**
+     * Closes all idle Connections and prevents new Connections from being
+     * leased. Connections that are leased are closed as they are returned.
+     */
+    @Override
+    void close();
+
+}
@@ -20,9 +20,11 @@ import com.speedment.core.config.model.Dbms;
 import com.speedment.core.config.model.Schema;
 import com.speedment.core.config.model.Table;
 import com.speedment.core.db.impl.SqlFunction;
+import com.speedment.core.manager.sql.SqlUpdateStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.List;
+import java.util.OptionalLong;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Stream;
@@ -59,4 +61,35 @@ public interface DbmsHandler {
 
     public void executeUpdate(final String sql, final List<?> values, Consumer<List<Long>> generatedKeyConsumer) throws SQLException;
 
+    /**
+     * Executes the given statements in a single transaction. Consecutive
+     * statements with the same SQL text are sent to the database in JDBC
+     * batches of at most {@code batchSize} statements. Generated keys are
+     * handed to the statements in order once the transaction is committed.
+     * The number of rows affected by each statement is set on the statement,
+     * if the driver reports it.
+     *
+     * @param sqlStatementList the statements to execute
+     * @param batchSize the maximum number of statements in a batch
+     * @throws SQLException if the transaction could not be completed
+     */
+    public void executeBatch(final List<SqlUpdateStatement> sqlStatementList, int batchSize) throws SQLException;
+
+    /**
+     * Returns the maximum number of bytes a single statement, including its
+     * parameters, may occupy when it is sent to the database. An empty value
+     * is returned if the limit is unknown.
+     *
+     * @return the maximum statement size in bytes
+     */
+    default OptionalLong getMaxStatementSize() {
+        return OptionalLong.empty();
+    }
+
+    /**
+     * Releases the resources held by this handler, such as pooled
+     * connections. The handler must not be used after it has been closed.
+     */
+    default void close() {}
+
 }
@@ -30,10 +30,12 @@ import com.speedment.core.config.model.parameters.OrderType;
 import com.speedment.core.manager.sql.SqlStatement;
 import com.speedment.core.manager.sql.SqlUpdateStatement;
 import com.speedment.core.db.AsynchronousQueryResult;
+import com.speedment.core.db.ConnectionPool;
 import com.speedment.core.db.DbmsHandler;
 import com.speedment.core.exception.SpeedmentException;
 import com.speedment.core.platform.Platform;
 import com.speedment.core.platform.component.SqlTypeMapperComponent;
+import com.speedment.util.PreparedStatementUtil;
 import com.speedment.util.java.sql.TypeInfo;
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
@@ -68,12 +70,14 @@ public abstract class AbstractRelationalDbmsHandler implements DbmsHandler {
     private static final Logger LOGGER = LogManager.getLogger(AbstractRelationalDbmsHandler.class);
 
     private final Dbms dbms;
+    private final ConnectionPool connectionPool;
     private transient Map<String, Class<?>> typeMapping;
 
     private static final Boolean SHOW_METADATA = false;
 
     public AbstractRelationalDbmsHandler(Dbms dbms) {
         this.dbms = dbms;
+        this.connectionPool = new ConnectionPoolImpl(dbms, this::newConnection);
         typeMapping = new ConcurrentHashMap<>();
     }
 
@@ -82,20 +86,41 @@ public abstract class AbstractRelationalDbmsHandler implements DbmsHandler {
         return dbms;
     }
 
-    // Todo: Use DataSoruce instead: http://docs.oracle.com/javase/tutorial/jdbc/basics/sqldatasources.html
+    /**
+     * Returns a Connection from the ConnectionPool of this handler. The
+     * Connection is returned to the pool when it is closed.
+     *
+     * @return a pooled Connection
+     */
     public Connection getConnection() {
-        Connection conn;
-        final Properties connectionProps = new Properties();
-        dbms.getUsername().ifPresent(u -> connectionProps.put("user", u));
-        dbms.getPassword().ifPresent(p -> connectionProps.put("password", p));
         try {
-            conn = DriverManager.getConnection(getUrl(), connectionProps);
+            return connectionPool.getConnection();
         } catch (SQLException sqle) {
             final String msg = "Unable to get connection for " + dbms;
             LOGGER.error(msg, sqle);
             throw new SpeedmentException(msg, sqle);
         }
-        return conn;
+    }
+
+    public ConnectionPool getConnectionPool() {
+        return connectionPool;
+    }
+
+    /**
+     * Closes the ConnectionPool of this handler. Connections that are leased
+     * are closed as they are returned.
+     */
+    @Override
+    public void close() {
+        connectionPool.close();
+    }
+
+    // Todo: Use DataSoruce instead: http://docs.oracle.com/javase/tutorial/jdbc/basics/sqldatasources.html
+    protected Connection newConnection() throws SQLException {
+        final Properties connectionProps = new Properties();
+        dbms.getUsername().ifPresent(u -> connectionProps.put("user", u));
+        dbms.getPassword().ifPresent(p -> connectionProps.put("password", p));
+        return DriverManager.getConnection(getUrl(), connectionProps);
     }
 
     public String getUrl() {
@@ -386,10 +411,7 @@ public abstract class AbstractRelationalDbmsHandler implements DbmsHandler {
     @Override
     public <T> Stream<T> executeQuery(final String sql, final List<?> values, final SqlFunction<ResultSet, T> rsMapper) {
         try (final Connection connection = getConnection(); final PreparedStatement ps = connection.prepareStatement(sql)) {
-            int i = 1;
-            for (final Object o : values) {
-                ps.setObject(i++, o);
-            }
+            PreparedStatementUtil.setValues(ps, values);
             final ResultSet rs = ps.executeQuery();
 
             // Todo: Make a transparent stream with closeHandler added.
@@ -436,10 +458,17 @@ public abstract class AbstractRelationalDbmsHandler implements DbmsHandler {
         final List<SqlUpdateStatement> sqlStatementList = new ArrayList<>();
         final SqlUpdateStatement sqlUpdateStatement = new SqlUpdateStatement(sql, values, generatedKeysConsumer);
         sqlStatementList.add(sqlUpdateStatement);
-        executeUpdate(sqlStatementList);
+        executeUpdate(sqlStatementList, 1);
+    }
+
+    @Override
+    public void executeBatch(final List<SqlUpdateStatement> sqlStatementList, final int batchSize) throws SQLException {
+        if (!sqlStatementList.isEmpty()) {
+            executeUpdate(sqlStatementList, Math.max(1, batchSize));
+        }
     }
 
-    private void executeUpdate(final List<SqlUpdateStatement> sqlStatementList) throws SQLException {
+    private void executeUpdate(final List<SqlUpdateStatement> sqlStatementList, final int batchSize) throws SQLException {
 
         int retryCount = 5;
         boolean transactionCompleted = false;
@@ -448,32 +477,40 @@ public abstract class AbstractRelationalDbmsHandler implements DbmsHandler {
             SqlStatement lastSqlStatement = null;
             Connection conn = null;
             try {
+                sqlStatementList.forEach(SqlUpdateStatement::clearGeneratedKeys);
                 conn = getConnection();
                 conn.setAutoCommit(false);
-                for (final SqlUpdateStatement sqlStatement : sqlStatementList) {
-                    try (final PreparedStatement ps = conn.prepareStatement(sqlStatement.getSql(), Statement.RETURN_GENERATED_KEYS)) {
-
-                        int i = 1;
-                        for (Object o : sqlStatement.getValues()) {
-                            ps.setObject(i++, o);
-                        }
+                int start = 0;
+                while (start < sqlStatementList.size()) {
+                    final SqlUpdateStatement first = sqlStatementList.get(start);
+                    lastSqlStatement = first;
+
+                    // Group consecutive statements with the same SQL text
+                    int end = start + 1;
+                    while (end < sqlStatementList.size()
+                        && end - start < batchSize
+                        && sqlStatementList.get(end).getSql().equals(first.getSql())) {
+                        end++;
+                    }
 
-                        ps.executeUpdate();
-
-                        try (final ResultSet generatedKeys = ps.getGeneratedKeys()) {
-                            while (generatedKeys.next()) {
-                                final Object genKey = generatedKeys.getObject(1);
-                                if (!"oracle.sql.ROWID".equals(genKey.getClass()
-                                    .getName())) {
-                                    sqlStatement.addGeneratedKey(generatedKeys.getLong(1));
-                                } else {
-                                    // Handle ROWID, make result = map<,String>
-                                    // instead...
-                                }
+                    final List<SqlUpdateStatement> batch = sqlStatementList.subList(start, end);
+                    try (final PreparedStatement ps = conn.prepareStatement(first.getSql(), Statement.RETURN_GENERATED_KEYS)) {
+                        if (batch.size() == 1) {
+                            setValues(ps, first);
+                            first.setUpdateCount(ps.executeUpdate());
+                        } else {
+                            for (final SqlUpdateStatement sqlStatement : batch) {
+                                setValues(ps, sqlStatement);
+                                ps.addBatch();
+                            }
+                            final int[] updateCounts = ps.executeBatch();
+                            for (int i = 0; i < updateCounts.length && i < batch.size(); i++) {
+                                batch.get(i).setUpdateCount(updateCounts[i]);
                             }
                         }
-
+                        addGeneratedKeys(ps, batch);
                     }
+                    start = end;
                 }
                 conn.commit();
                 conn.close();
@@ -493,7 +530,7 @@ public abstract class AbstractRelationalDbmsHandler implements DbmsHandler {
                 }
             } finally {
 
-                if (!transactionCompleted) {
+                if (!transactionCompleted && conn != null) {
                     try {
                         // If we got here, and conn is not null, the
                         // transaction should be rolled back, as not
@@ -521,6 +558,39 @@ public abstract class AbstractRelationalDbmsHandler implements DbmsHandler {
         }
     }
 
+    private void setValues(final PreparedStatement ps, final SqlStatement sqlStatement) throws SQLException {
+        PreparedStatementUtil.setValues(ps, sqlStatement.getValues());
+    }
+
+    private void addGeneratedKeys(final PreparedStatement ps, final List<SqlUpdateStatement> batch) throws SQLException {
+        final List<Long> generatedKeys = new ArrayList<>();
+        try (final ResultSet rs = ps.getGeneratedKeys()) {
+            while (rs.next()) {
+                final Object genKey = rs.getObject(1);
+                if (genKey != null && !"oracle.sql.ROWID".equals(genKey.getClass().getName())) {
+                    generatedKeys.add(rs.getLong(1));
+                } else {
+                    // Handle ROWID, make result = map<,String>
+                    // instead...
+                }
+            }
+        }
+        if (generatedKeys.isEmpty()) {
+            return;
+        }
+        // The keys of a batch are returned in the order the statements were added
+        if (generatedKeys.size() % batch.size() != 0) {
+            LOGGER.warn("Unable to map " + generatedKeys.size() + " generated keys to " + batch.size() + " statements");
+            return;
+        }
+        final int keysPerStatement = generatedKeys.size() / batch.size();
+        for (int i = 0; i < batch.size(); i++) {
+            for (int j = 0; j < keysPerStatement; j++) {
+                batch.get(i).addGeneratedKey(generatedKeys.get(i * keysPerStatement + j));
+            }
+        }
+    }
+
     <T> Supplier<T> wrapSupplierInSpeedmentException(final SqlSupplier<T> innerSupplier) {
 
         return () -> {
@@ -23,12 +23,15 @@ package com.speedment.core.db.impl;
 
 import com.speedment.core.db.AsynchronousQueryResult;
 import com.speedment.core.exception.SpeedmentException;
+import com.speedment.util.PreparedStatementUtil;
 import com.speedment.util.stream.StreamUtil;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 import static java.util.Objects.requireNonNull;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -48,6 +51,7 @@ public class AsynchronousQueryResultImpl<T> implements AsynchronousQueryResult<T
     private String sql;
     private List<?> values;
     private Function<ResultSet, T> rsMapper;
+    private int fetchSize;
     private final Supplier<Connection> connectionSupplier;
     private Connection connection;
     private PreparedStatement ps;
@@ -73,23 +77,38 @@ public class AsynchronousQueryResultImpl<T> implements AsynchronousQueryResult<T
         debug();
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The Connection is closed if the query can not be executed, when the
+     * returned Stream is closed and as soon as the last row has been read, so
+     * that a Stream that is fully consumed does not hold on to its Connection
+     * even if it is never closed.
+     *
+     * @return a Stream of the mapped rows
+     */
     @Override
     public Stream<T> stream() {
         setState(State.ESTABLISH);
         try {
             connection = connectionSupplier.get();
-            ps = connection.prepareStatement(getSql());
-            int i = 1;
-            for (final Object o : getValues()) {
-                ps.setObject(i++, o);
+            // Forward only and read only so that drivers may stream the rows
+            ps = connection.prepareStatement(getSql(), ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            if (fetchSize != 0) {
+                ps.setFetchSize(fetchSize);
             }
+            PreparedStatementUtil.setValues(ps, getValues());
             rs = ps.executeQuery();
         } catch (SQLException sqle) {
             LOGGER.error("Error executing " + getSql(), sqle);
+            close();
             throw new SpeedmentException(sqle);
+        } catch (RuntimeException re) {
+            close();
+            throw re;
         }
         setState(State.OPEN);
-        return StreamUtil.asStream(rs, getRsMapper());
+        return StreamUtil.asStream(new ClosingIterator(), false).onClose(this::close);
     }
 
     @Override
@@ -97,6 +116,9 @@ public class AsynchronousQueryResultImpl<T> implements AsynchronousQueryResult<T
         closeSilently(rs);
         closeSilently(ps);
         closeSilently(connection);
+        rs = null;
+        ps = null;
+        connection = null;
         setState(State.CLOSED);
     }
 
@@ -113,7 +135,7 @@ public class AsynchronousQueryResultImpl<T> implements AsynchronousQueryResult<T
 
     @Override
     public String toString() {
-        return getState() + " \"" + getSql() + "\" <- " + getValues();
+        return getState() + " \"" + getSql() + "\" <- " + getValues() + (fetchSize == 0 ? "" : " (fetchSize=" + fetchSize + ")");
     }
 
     @Override
@@ -146,6 +168,16 @@ public class AsynchronousQueryResultImpl<T> implements AsynchronousQueryResult<T
         this.rsMapper = requireNonNull(rsMapper);
     }
 
+    @Override
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    @Override
+    public void setFetchSize(int fetchSize) {
+        this.fetchSize = fetchSize;
+    }
+
     public State getState() {
         return state;
     }
@@ -155,6 +187,47 @@ public class AsynchronousQueryResultImpl<T> implements AsynchronousQueryResult<T
         debug();
     }
 
+    /**
+     * Iterates over the ResultSet and closes this query result when the last
+     * row has been read or when reading fails.
+     */
+    private class ClosingIterator implements Iterator<T> {
+
+        private final ResultSet resultSet = rs;
+        private final Function<ResultSet, T> mapper = getRsMapper();
+        private boolean hasNext;
+        private boolean advanced;
+
+        @Override
+        public boolean hasNext() {
+            if (!advanced) {
+                if (getState() == State.CLOSED) {
+                    return false;
+                }
+                try {
+                    hasNext = resultSet.next();
+                } catch (SQLException sqle) {
+                    close();
+                    throw new SpeedmentException("Error iterating over a ResultSet", sqle);
+                }
+                advanced = true;
+                if (!hasNext) {
+                    close();
+                }
+            }
+            return hasNext;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            advanced = false;
+            return mapper.apply(resultSet);
+        }
+    }
+
     private void debug() {
         // LOGGER.debug(this);
     }
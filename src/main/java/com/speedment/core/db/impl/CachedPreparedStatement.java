@@ -0,0 +1,712 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.core.db.impl;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.net.URL;
+import java.sql.Array;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.NClob;
+import java.sql.ParameterMetaData;
+import java.sql.PreparedStatement;
+import java.sql.Ref;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.RowId;
+import java.sql.SQLException;
+import java.sql.SQLType;
+import java.sql.SQLWarning;
+import java.sql.SQLXML;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.Calendar;
+import java.util.Objects;
+
+/**
+ * A PreparedStatement that is checked out from a
+ * {@link PreparedStatementCache}. All calls are delegated to the underlying
+ * physical PreparedStatement except {@link #close()} that hands the statement
+ * back to the cache instead of closing it. The ResultSets of the statement are
+ * wrapped so that {@link ResultSet#getStatement()} returns this statement
+ * rather than the physical one.
+ * <p>
+ * The fetch size, max rows and query timeout are restored to their defaults
+ * when the statement is handed back. Statements where other settings have been changed are
+ * closed rather than reused.
+ *
+ * @author pemi
+ */
+public class CachedPreparedStatement implements PreparedStatement {
+
+    private final PreparedStatementCache cache;
+    private final PreparedStatementCache.Key key;
+    private final PreparedStatement delegate;
+    private final Connection connection;
+    private boolean reusable;
+    private boolean settingsModified;
+    private boolean closed;
+    private CachedResultSet resultSet;
+
+    CachedPreparedStatement(
+        final PreparedStatementCache cache,
+        final PreparedStatementCache.Key key,
+        final PreparedStatement delegate,
+        final Connection connection
+    ) {
+        this.cache = Objects.requireNonNull(cache);
+        this.key = Objects.requireNonNull(key);
+        this.delegate = Objects.requireNonNull(delegate);
+        this.connection = Objects.requireNonNull(connection);
+        this.reusable = true;
+    }
+
+    PreparedStatementCache.Key getKey() {
+        return key;
+    }
+
+    PreparedStatement getDelegate() {
+        return delegate;
+    }
+
+    boolean isReusable() {
+        return reusable;
+    }
+
+    /**
+     * Prepares the underlying statement for the next user by closing any open
+     * ResultSet, clearing parameters, batches and warnings and restoring the
+     * settings that could have been changed.
+     *
+     * @throws SQLException if the statement could not be reset
+     */
+    void reset() throws SQLException {
+        final ResultSet resultSet = delegate.getResultSet();
+        if (resultSet != null) {
+            resultSet.close();
+        }
+        delegate.clearParameters();
+        delegate.clearBatch();
+        delegate.clearWarnings();
+        if (settingsModified) {
+            delegate.setFetchSize(0);
+            delegate.setMaxRows(0);
+            delegate.setQueryTimeout(0);
+        }
+    }
+
+    /**
+     * Returns the given ResultSet of the underlying statement wrapped so that
+     * it reports this statement as its statement. The same wrapper is
+     * returned for the same ResultSet.
+     *
+     * @param rs the ResultSet of the underlying statement, or null
+     * @return the wrapped ResultSet, or null
+     */
+    private ResultSet wrap(ResultSet rs) {
+        if (rs == null) {
+            return null;
+        }
+        final CachedResultSet current = resultSet;
+        if (current != null && current.getDelegate() == rs) {
+            return current;
+        }
+        return resultSet = new CachedResultSet(rs, this);
+    }
+
+    private PreparedStatement delegate() throws SQLException {
+        if (closed) {
+            throw new SQLException("The statement is closed");
+        }
+        return delegate;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        if (!closed) {
+            closed = true;
+            cache.release(this);
+        }
+    }
+
+    @Override
+    public boolean isClosed() throws SQLException {
+        return closed || delegate.isClosed();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        delegate();
+        return connection;
+    }
+
+    @Override
+    public void setFetchSize(int rows) throws SQLException {
+        settingsModified = true;
+        delegate().setFetchSize(rows);
+    }
+
+    @Override
+    public void setMaxRows(int max) throws SQLException {
+        settingsModified = true;
+        delegate().setMaxRows(max);
+    }
+
+    @Override
+    public void setQueryTimeout(int seconds) throws SQLException {
+        settingsModified = true;
+        delegate().setQueryTimeout(seconds);
+    }
+
+    @Override
+    public void setMaxFieldSize(int max) throws SQLException {
+        reusable = false;
+        delegate().setMaxFieldSize(max);
+    }
+
+    @Override
+    public void setEscapeProcessing(boolean enable) throws SQLException {
+        reusable = false;
+        delegate().setEscapeProcessing(enable);
+    }
+
+    @Override
+    public void setCursorName(String name) throws SQLException {
+        reusable = false;
+        delegate().setCursorName(name);
+    }
+
+    @Override
+    public void setFetchDirection(int direction) throws SQLException {
+        reusable = false;
+        delegate().setFetchDirection(direction);
+    }
+
+    @Override
+    public void setPoolable(boolean poolable) throws SQLException {
+        reusable = false;
+        delegate().setPoolable(poolable);
+    }
+
+    @Override
+    public void setLargeMaxRows(long max) throws SQLException {
+        reusable = false;
+        delegate().setLargeMaxRows(max);
+    }
+
+    @Override
+    public void closeOnCompletion() throws SQLException {
+        reusable = false;
+        delegate().closeOnCompletion();
+    }
+
+    @Override
+    public ResultSet executeQuery() throws SQLException {
+        return wrap(delegate().executeQuery());
+    }
+
+    @Override
+    public int executeUpdate() throws SQLException {
+        return delegate().executeUpdate();
+    }
+
+    @Override
+    public void setNull(int parameterIndex, int sqlType) throws SQLException {
+        delegate().setNull(parameterIndex, sqlType);
+    }
+
+    @Override
+    public void setBoolean(int parameterIndex, boolean x) throws SQLException {
+        delegate().setBoolean(parameterIndex, x);
+    }
+
+    @Override
+    public void setByte(int parameterIndex, byte x) throws SQLException {
+        delegate().setByte(parameterIndex, x);
+    }
+
+    @Override
+    public void setShort(int parameterIndex, short x) throws SQLException {
+        delegate().setShort(parameterIndex, x);
+    }
+
+    @Override
+    public void setInt(int parameterIndex, int x) throws SQLException {
+        delegate().setInt(parameterIndex, x);
+    }
+
+    @Override
+    public void setLong(int parameterIndex, long x) throws SQLException {
+        delegate().setLong(parameterIndex, x);
+    }
+
+    @Override
+    public void setFloat(int parameterIndex, float x) throws SQLException {
+        delegate().setFloat(parameterIndex, x);
+    }
+
+    @Override
+    public void setDouble(int parameterIndex, double x) throws SQLException {
+        delegate().setDouble(parameterIndex, x);
+    }
+
+    @Override
+    public void setBigDecimal(int parameterIndex, BigDecimal x) throws SQLException {
+        delegate().setBigDecimal(parameterIndex, x);
+    }
+
+    @Override
+    public void setString(int parameterIndex, String x) throws SQLException {
+        delegate().setString(parameterIndex, x);
+    }
+
+    @Override
+    public void setBytes(int parameterIndex, byte[] x) throws SQLException {
+        delegate().setBytes(parameterIndex, x);
+    }
+
+    @Override
+    public void setDate(int parameterIndex, Date x) throws SQLException {
+        delegate().setDate(parameterIndex, x);
+    }
+
+    @Override
+    public void setTime(int parameterIndex, Time x) throws SQLException {
+        delegate().setTime(parameterIndex, x);
+    }
+
+    @Override
+    public void setTimestamp(int parameterIndex, Timestamp x) throws SQLException {
+        delegate().setTimestamp(parameterIndex, x);
+    }
+
+    @Override
+    public void setAsciiStream(int parameterIndex, InputStream x, int length) throws SQLException {
+        delegate().setAsciiStream(parameterIndex, x, length);
+    }
+
+    @Override
+    @Deprecated
+    public void setUnicodeStream(int parameterIndex, InputStream x, int length) throws SQLException {
+        delegate().setUnicodeStream(parameterIndex, x, length);
+    }
+
+    @Override
+    public void setBinaryStream(int parameterIndex, InputStream x, int length) throws SQLException {
+        delegate().setBinaryStream(parameterIndex, x, length);
+    }
+
+    @Override
+    public void clearParameters() throws SQLException {
+        delegate().clearParameters();
+    }
+
+    @Override
+    public void setObject(int parameterIndex, Object x, int targetSqlType) throws SQLException {
+        delegate().setObject(parameterIndex, x, targetSqlType);
+    }
+
+    @Override
+    public void setObject(int parameterIndex, Object x) throws SQLException {
+        delegate().setObject(parameterIndex, x);
+    }
+
+    @Override
+    public boolean execute() throws SQLException {
+        return delegate().execute();
+    }
+
+    @Override
+    public void addBatch() throws SQLException {
+        delegate().addBatch();
+    }
+
+    @Override
+    public void setCharacterStream(int parameterIndex, Reader reader, int length) throws SQLException {
+        delegate().setCharacterStream(parameterIndex, reader, length);
+    }
+
+    @Override
+    public void setRef(int parameterIndex, Ref x) throws SQLException {
+        delegate().setRef(parameterIndex, x);
+    }
+
+    @Override
+    public void setBlob(int parameterIndex, Blob x) throws SQLException {
+        delegate().setBlob(parameterIndex, x);
+    }
+
+    @Override
+    public void setClob(int parameterIndex, Clob x) throws SQLException {
+        delegate().setClob(parameterIndex, x);
+    }
+
+    @Override
+    public void setArray(int parameterIndex, Array x) throws SQLException {
+        delegate().setArray(parameterIndex, x);
+    }
+
+    @Override
+    public ResultSetMetaData getMetaData() throws SQLException {
+        return delegate().getMetaData();
+    }
+
+    @Override
+    public void setDate(int parameterIndex, Date x, Calendar cal) throws SQLException {
+        delegate().setDate(parameterIndex, x, cal);
+    }
+
+    @Override
+    public void setTime(int parameterIndex, Time x, Calendar cal) throws SQLException {
+        delegate().setTime(parameterIndex, x, cal);
+    }
+
+    @Override
+    public void setTimestamp(int parameterIndex, Timestamp x, Calendar cal) throws SQLException {
+        delegate().setTimestamp(parameterIndex, x, cal);
+    }
+
+    @Override
+    public void setNull(int parameterIndex, int sqlType, String typeName) throws SQLException {
+        delegate().setNull(parameterIndex, sqlType, typeName);
+    }
+
+    @Override
+    public void setURL(int parameterIndex, URL x) throws SQLException {
+        delegate().setURL(parameterIndex, x);
+    }
+
+    @Override
+    public ParameterMetaData getParameterMetaData() throws SQLException {
+        return delegate().getParameterMetaData();
+    }
+
+    @Override
+    public void setRowId(int parameterIndex, RowId x) throws SQLException {
+        delegate().setRowId(parameterIndex, x);
+    }
+
+    @Override
+    public void setNString(int parameterIndex, String value) throws SQLException {
+        delegate().setNString(parameterIndex, value);
+    }
+
+    @Override
+    public void setNCharacterStream(int parameterIndex, Reader reader, long length) throws SQLException {
+        delegate().setNCharacterStream(parameterIndex, reader, length);
+    }
+
+    @Override
+    public void setNClob(int parameterIndex, NClob value) throws SQLException {
+        delegate().setNClob(parameterIndex, value);
+    }
+
+    @Override
+    public void setClob(int parameterIndex, Reader reader, long length) throws SQLException {
+        delegate().setClob(parameterIndex, reader, length);
+    }
+
+    @Override
+    public void setBlob(int parameterIndex, InputStream inputStream, long length) throws SQLException {
+        delegate().setBlob(parameterIndex, inputStream, length);
+    }
+
+    @Override
+    public void setNClob(int parameterIndex, Reader reader, long length) throws SQLException {
+        delegate().setNClob(parameterIndex, reader, length);
+    }
+
+    @Override
+    public void setSQLXML(int parameterIndex, SQLXML x) throws SQLException {
+        delegate().setSQLXML(parameterIndex, x);
+    }
+
+    @Override
+    public void setObject(int parameterIndex, Object x, int targetSqlType, int scaleOrLength) throws SQLException {
+        delegate().setObject(parameterIndex, x, targetSqlType, scaleOrLength);
+    }
+
+    @Override
+    public void setAsciiStream(int parameterIndex, InputStream x, long length) throws SQLException {
+        delegate().setAsciiStream(parameterIndex, x, length);
+    }
+
+    @Override
+    public void setBinaryStream(int parameterIndex, InputStream x, long length) throws SQLException {
+        delegate().setBinaryStream(parameterIndex, x, length);
+    }
+
+    @Override
+    public void setCharacterStream(int parameterIndex, Reader reader, long length) throws SQLException {
+        delegate().setCharacterStream(parameterIndex, reader, length);
+    }
+
+    @Override
+    public void setAsciiStream(int parameterIndex, InputStream x) throws SQLException {
+        delegate().setAsciiStream(parameterIndex, x);
+    }
+
+    @Override
+    public void setBinaryStream(int parameterIndex, InputStream x) throws SQLException {
+        delegate().setBinaryStream(parameterIndex, x);
+    }
+
+    @Override
+    public void setCharacterStream(int parameterIndex, Reader reader) throws SQLException {
+        delegate().setCharacterStream(parameterIndex, reader);
+    }
+
+    @Override
+    public void setNCharacterStream(int parameterIndex, Reader reader) throws SQLException {
+        delegate().setNCharacterStream(parameterIndex, reader);
+    }
+
+    @Override
+    public void setClob(int parameterIndex, Reader reader) throws SQLException {
+        delegate().setClob(parameterIndex, reader);
+    }
+
+    @Override
+    public void setBlob(int parameterIndex, InputStream inputStream) throws SQLException {
+        delegate().setBlob(parameterIndex, inputStream);
+    }
+
+    @Override
+    public void setNClob(int parameterIndex, Reader reader) throws SQLException {
+        delegate().setNClob(parameterIndex, reader);
+    }
+
+    @Override
+    public void setObject(int parameterIndex, Object x, SQLType targetSqlType, int scaleOrLength) throws SQLException {
+        delegate().setObject(parameterIndex, x, targetSqlType, scaleOrLength);
+    }
+
+    @Override
+    public void setObject(int parameterIndex, Object x, SQLType targetSqlType) throws SQLException {
+        delegate().setObject(parameterIndex, x, targetSqlType);
+    }
+
+    @Override
+    public long executeLargeUpdate() throws SQLException {
+        return delegate().executeLargeUpdate();
+    }
+
+    @Override
+    public ResultSet executeQuery(String sql) throws SQLException {
+        return wrap(delegate().executeQuery(sql));
+    }
+
+    @Override
+    public int executeUpdate(String sql) throws SQLException {
+        return delegate().executeUpdate(sql);
+    }
+
+    @Override
+    public int getMaxFieldSize() throws SQLException {
+        return delegate().getMaxFieldSize();
+    }
+
+    @Override
+    public int getMaxRows() throws SQLException {
+        return delegate().getMaxRows();
+    }
+
+    @Override
+    public int getQueryTimeout() throws SQLException {
+        return delegate().getQueryTimeout();
+    }
+
+    @Override
+    public void cancel() throws SQLException {
+        delegate().cancel();
+    }
+
+    @Override
+    public SQLWarning getWarnings() throws SQLException {
+        return delegate().getWarnings();
+    }
+
+    @Override
+    public void clearWarnings() throws SQLException {
+        delegate().clearWarnings();
+    }
+
+    @Override
+    public boolean execute(String sql) throws SQLException {
+        return delegate().execute(sql);
+    }
+
+    @Override
+    public ResultSet getResultSet() throws SQLException {
+        return wrap(delegate().getResultSet());
+    }
+
+    @Override
+    public int getUpdateCount() throws SQLException {
+        return delegate().getUpdateCount();
+    }
+
+    @Override
+    public boolean getMoreResults() throws SQLException {
+        return delegate().getMoreResults();
+    }
+
+    @Override
+    public int getFetchDirection() throws SQLException {
+        return delegate().getFetchDirection();
+    }
+
+    @Override
+    public int getFetchSize() throws SQLException {
+        return delegate().getFetchSize();
+    }
+
+    @Override
+    public int getResultSetConcurrency() throws SQLException {
+        return delegate().getResultSetConcurrency();
+    }
+
+    @Override
+    public int getResultSetType() throws SQLException {
+        return delegate().getResultSetType();
+    }
+
+    @Override
+    public void addBatch(String sql) throws SQLException {
+        delegate().addBatch(sql);
+    }
+
+    @Override
+    public void clearBatch() throws SQLException {
+        delegate().clearBatch();
+    }
+
+    @Override
+    public int[] executeBatch() throws SQLException {
+        return delegate().executeBatch();
+    }
+
+    @Override
+    public boolean getMoreResults(int current) throws SQLException {
+        return delegate().getMoreResults(current);
+    }
+
+    @Override
+    public ResultSet getGeneratedKeys() throws SQLException {
+        // Generated keys come in a ResultSet of their own
+        final ResultSet rs = delegate().getGeneratedKeys();
+        return rs == null ? null : new CachedResultSet(rs, this);
+    }
+
+    @Override
+    public int executeUpdate(String sql, int autoGeneratedKeys) throws SQLException {
+        return delegate().executeUpdate(sql, autoGeneratedKeys);
+    }
+
+    @Override
+    public int executeUpdate(String sql, int[] columnIndexes) throws SQLException {
+        return delegate().executeUpdate(sql, columnIndexes);
+    }
+
+    @Override
+    public int executeUpdate(String sql, String[] columnNames) throws SQLException {
+        return delegate().executeUpdate(sql, columnNames);
+    }
+
+    @Override
+    public boolean execute(String sql, int autoGeneratedKeys) throws SQLException {
+        return delegate().execute(sql, autoGeneratedKeys);
+    }
+
+    @Override
+    public boolean execute(String sql, int[] columnIndexes) throws SQLException {
+        return delegate().execute(sql, columnIndexes);
+    }
+
+    @Override
+    public boolean execute(String sql, String[] columnNames) throws SQLException {
+        return delegate().execute(sql, columnNames);
+    }
+
+    @Override
+    public int getResultSetHoldability() throws SQLException {
+        return delegate().getResultSetHoldability();
+    }
+
+    @Override
+    public boolean isPoolable() throws SQLException {
+        return delegate().isPoolable();
+    }
+
+    @Override
+    public boolean isCloseOnCompletion() throws SQLException {
+        return delegate().isCloseOnCompletion();
+    }
+
+    @Override
+    public long getLargeUpdateCount() throws SQLException {
+        return delegate().getLargeUpdateCount();
+    }
+
+    @Override
+    public long getLargeMaxRows() throws SQLException {
+        return delegate().getLargeMaxRows();
+    }
+
+    @Override
+    public long[] executeLargeBatch() throws SQLException {
+        return delegate().executeLargeBatch();
+    }
+
+    @Override
+    public long executeLargeUpdate(String sql) throws SQLException {
+        return delegate().executeLargeUpdate(sql);
+    }
+
+    @Override
+    public long executeLargeUpdate(String sql, int autoGeneratedKeys) throws SQLException {
+        return delegate().executeLargeUpdate(sql, autoGeneratedKeys);
+    }
+
+    @Override
+    public long executeLargeUpdate(String sql, int[] columnIndexes) throws SQLException {
+        return delegate().executeLargeUpdate(sql, columnIndexes);
+    }
+
+    @Override
+    public long executeLargeUpdate(String sql, String[] columnNames) throws SQLException {
+        return delegate().executeLargeUpdate(sql, columnNames);
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+        return delegate().unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this) || delegate().isWrapperFor(iface);
+    }
+
+}
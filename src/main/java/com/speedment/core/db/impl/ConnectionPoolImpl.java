@@ -0,0 +1,445 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.core.db.impl;
+
+import com.speedment.core.config.model.Dbms;
+import com.speedment.core.db.ConnectionPool;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * A bounded ConnectionPool that is configured from a Dbms node.
+ * <p>
+ * At most {@code maxSize} Connections are open at any time. Idle Connections
+ * that have not been used for {@code idleTimeout} milliseconds are closed
+ * until only {@code minSize} Connections remain. Once the first Connection has
+ * been leased, the pool is filled up to {@code minSize} Connections in the
+ * background so that a pool that is never used does not open any Connections. Connections that have been
+ * idle for a while are validated before they are leased again, either using
+ * the configured validation query or {@link Connection#isValid(int)}. If a
+ * Connection is leased for longer than the leak detection threshold, a
+ * warning with the stack trace of the lease is logged.
+ * <p>
+ * When a Connection is returned, any open transaction is rolled back and the
+ * read only flag, transaction isolation, catalog and holdability are restored
+ * to the values the physical Connection had when it was opened. A physical
+ * Connection whose session state could not be restored is closed instead of
+ * being reused.
+ * <p>
+ * Each physical Connection has its own {@link PreparedStatementCache} so that
+ * statements that are prepared repeatedly are reused across leases.
+ *
+ * @author pemi
+ */
+public class ConnectionPoolImpl implements ConnectionPool {
+
+    private static final Logger LOGGER = LogManager.getLogger(ConnectionPoolImpl.class);
+
+    public static final int DEFAULT_MIN_SIZE = 1;
+    public static final int DEFAULT_MAX_SIZE = 20;
+    public static final int DEFAULT_IDLE_TIMEOUT = 600_000;
+    public static final int DEFAULT_ACQUIRE_TIMEOUT = 30_000;
+    public static final int DEFAULT_LEAK_DETECTION_THRESHOLD = 0; // Disabled
+
+    private static final long VALIDATION_INTERVAL = 1_000;
+    private static final int VALIDATION_TIMEOUT_SECONDS = 5;
+
+    private final Dbms dbms;
+    private final SqlSupplier<Connection> connectionFactory;
+    private final int minSize;
+    private final int maxSize;
+    private final long idleTimeout;
+    private final long acquireTimeout;
+    private final long leakDetectionThreshold;
+    private final Optional<String> validationQuery;
+    private final int statementCacheSize;
+
+    private final Semaphore permits;
+    private final Deque<IdleConnection> idle;
+    private final Set<PooledConnection> leased;
+    private final ScheduledExecutorService housekeeper;
+    private final LongAdder discardedStatementCacheHits;
+    private final LongAdder discardedStatementCacheMisses;
+    private final AtomicBoolean started;
+    private volatile boolean closed;
+
+    public ConnectionPoolImpl(final Dbms dbms, final SqlSupplier<Connection> connectionFactory) {
+        this.dbms = Objects.requireNonNull(dbms);
+        this.connectionFactory = Objects.requireNonNull(connectionFactory);
+        this.maxSize = Math.max(1, dbms.getConnectionPoolMaxSize().orElse(DEFAULT_MAX_SIZE));
+        this.minSize = Math.min(maxSize, Math.max(0, dbms.getConnectionPoolMinSize().orElse(DEFAULT_MIN_SIZE)));
+        this.idleTimeout = dbms.getConnectionPoolIdleTimeout().orElse(DEFAULT_IDLE_TIMEOUT);
+        this.acquireTimeout = dbms.getConnectionPoolAcquireTimeout().orElse(DEFAULT_ACQUIRE_TIMEOUT);
+        this.leakDetectionThreshold = dbms.getConnectionPoolLeakDetectionThreshold().orElse(DEFAULT_LEAK_DETECTION_THRESHOLD);
+        this.validationQuery = dbms.getConnectionPoolValidationQuery().filter(q -> !q.isEmpty());
+        this.statementCacheSize = Math.max(0, dbms.getConnectionPoolStatementCacheSize().orElse(PreparedStatementCache.DEFAULT_MAX_SIZE));
+
+        this.permits = new Semaphore(maxSize, true);
+        this.idle = new ConcurrentLinkedDeque<>();
+        this.leased = ConcurrentHashMap.newKeySet();
+        this.discardedStatementCacheHits = new LongAdder();
+        this.discardedStatementCacheMisses = new LongAdder();
+        this.started = new AtomicBoolean();
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            final Thread thread = new Thread(r, "ConnectionPool-" + dbms.getName());
+            thread.setDaemon(true);
+            return thread;
+        });
+        final long period = Math.max(VALIDATION_INTERVAL, Math.min(idleTimeout, leakDetectionThreshold > 0 ? leakDetectionThreshold : idleTimeout) / 2);
+        housekeeper.scheduleWithFixedDelay(this::houseKeep, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        assertNotClosed();
+        if (!started.getAndSet(true)) {
+            housekeeper.execute(this::houseKeep);
+        }
+        try {
+            if (!permits.tryAcquire(acquireTimeout, TimeUnit.MILLISECONDS)) {
+                throw new SQLException(
+                    "Timeout after " + acquireTimeout + " ms waiting for a connection to "
+                    + dbms + " (" + leased.size() + " leased, max " + maxSize + ")"
+                );
+            }
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a connection to " + dbms, ie);
+        }
+
+        try {
+            final IdleConnection raw = acquireRawConnection();
+            final PooledConnection result = new PooledConnection(
+                this, raw.getConnection(), raw.getStatementCache(), raw.getSessionState(), leakDetectionThreshold > 0
+            );
+            leased.add(result);
+            return result;
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private IdleConnection acquireRawConnection() throws SQLException {
+        IdleConnection candidate;
+        while ((candidate = idle.pollFirst()) != null) {
+            if (isValid(candidate)) {
+                return candidate;
+            }
+            discard(candidate);
+        }
+        return openConnection();
+    }
+
+    private IdleConnection openConnection() throws SQLException {
+        final Connection connection = connectionFactory.get();
+        try {
+            return new IdleConnection(connection, new PreparedStatementCache(statementCacheSize), SessionState.of(connection));
+        } catch (SQLException | RuntimeException e) {
+            closeSilently(connection);
+            throw e;
+        }
+    }
+
+    /**
+     * Returns a Connection that was leased from this pool. This method is
+     * invoked by {@link PooledConnection#close()}.
+     *
+     * @param pooledConnection the connection to return
+     */
+    void release(final PooledConnection pooledConnection) {
+        if (!leased.remove(pooledConnection)) {
+            return; // Already returned
+        }
+        final Connection connection = pooledConnection.getDelegate();
+        final PreparedStatementCache statementCache = pooledConnection.getStatementCache();
+        try {
+            statementCache.releaseAll();
+            if (closed || connection.isClosed() || pooledConnection.isSessionStateLost()) {
+                discard(connection, statementCache);
+            } else {
+                if (!connection.getAutoCommit()) {
+                    connection.rollback();
+                    connection.setAutoCommit(true);
+                }
+                if (pooledConnection.isSessionStateChanged()) {
+                    pooledConnection.getSessionState().restore(connection);
+                }
+                connection.clearWarnings();
+                idle.offerFirst(new IdleConnection(connection, statementCache, pooledConnection.getSessionState()));
+            }
+        } catch (SQLException sqle) {
+            LOGGER.info("Discarding a connection to " + dbms + " that could not be reset", sqle);
+            discard(connection, statementCache);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private boolean isValid(final IdleConnection candidate) {
+        final Connection connection = candidate.getConnection();
+        try {
+            if (connection.isClosed()) {
+                return false;
+            }
+            if (System.currentTimeMillis() - candidate.getIdleSince() < VALIDATION_INTERVAL) {
+                return true;
+            }
+            if (validationQuery.isPresent()) {
+                try (final Statement statement = connection.createStatement()) {
+                    statement.setQueryTimeout(VALIDATION_TIMEOUT_SECONDS);
+                    statement.execute(validationQuery.get());
+                }
+                return true;
+            }
+            return connection.isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException sqle) {
+            LOGGER.debug("Discarding an invalid connection to " + dbms, sqle);
+            return false;
+        }
+    }
+
+    private void houseKeep() {
+        try {
+            evictIdle();
+            fillToMinSize();
+            detectLeaks();
+        } catch (RuntimeException re) {
+            // Never let the housekeeper thread die
+            LOGGER.error("Error maintaining the connection pool for " + dbms, re);
+        }
+    }
+
+    private void evictIdle() {
+        final long now = System.currentTimeMillis();
+        final Iterator<IdleConnection> iterator = idle.descendingIterator(); // Oldest first
+        while (iterator.hasNext() && idle.size() + leased.size() > minSize) {
+            final IdleConnection candidate = iterator.next();
+            if (now - candidate.getIdleSince() > idleTimeout && idle.removeFirstOccurrence(candidate)) {
+                discard(candidate);
+            }
+        }
+    }
+
+    private void fillToMinSize() {
+        if (!started.get()) {
+            return;
+        }
+        while (!closed && idle.size() + leased.size() < minSize && permits.tryAcquire()) {
+            try {
+                idle.offerLast(openConnection());
+            } catch (SQLException sqle) {
+                LOGGER.debug("Unable to open a connection to " + dbms + " while filling the pool", sqle);
+                return;
+            } finally {
+                permits.release();
+            }
+        }
+        if (closed) {
+            // The pool was closed while it was being filled
+            IdleConnection ic;
+            while ((ic = idle.pollFirst()) != null) {
+                discard(ic);
+            }
+        }
+    }
+
+    private void detectLeaks() {
+        if (leakDetectionThreshold <= 0) {
+            return;
+        }
+        final long now = System.currentTimeMillis();
+        leased.stream()
+            .filter(pc -> !pc.isLeakReported())
+            .filter(pc -> now - pc.getLeasedSince() > leakDetectionThreshold)
+            .forEach(pc -> {
+                pc.setLeakReported();
+                LOGGER.warn(
+                    "A connection to " + dbms + " has been leased for more than " + leakDetectionThreshold
+                    + " ms and might have leaked. Make sure that streams and connections are closed.",
+                    pc.getLeaseTrace()
+                );
+            });
+    }
+
+    @Override
+    public int getLeasedCount() {
+        return leased.size();
+    }
+
+    @Override
+    public int getIdleCount() {
+        return idle.size();
+    }
+
+    @Override
+    public long getStatementCacheHitCount() {
+        return discardedStatementCacheHits.sum()
+            + idle.stream().mapToLong(ic -> ic.getStatementCache().getHitCount()).sum()
+            + leased.stream().mapToLong(pc -> pc.getStatementCache().getHitCount()).sum();
+    }
+
+    @Override
+    public long getStatementCacheMissCount() {
+        return discardedStatementCacheMisses.sum()
+            + idle.stream().mapToLong(ic -> ic.getStatementCache().getMissCount()).sum()
+            + leased.stream().mapToLong(pc -> pc.getStatementCache().getMissCount()).sum();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        housekeeper.shutdownNow();
+        IdleConnection ic;
+        while ((ic = idle.pollFirst()) != null) {
+            discard(ic);
+        }
+    }
+
+    private void assertNotClosed() throws SQLException {
+        if (closed) {
+            throw new SQLException("The connection pool for " + dbms + " is closed");
+        }
+    }
+
+    private void discard(final IdleConnection idleConnection) {
+        discard(idleConnection.getConnection(), idleConnection.getStatementCache());
+    }
+
+    private void discard(final Connection connection, final PreparedStatementCache statementCache) {
+        discardedStatementCacheHits.add(statementCache.getHitCount());
+        discardedStatementCacheMisses.add(statementCache.getMissCount());
+        statementCache.close();
+        closeSilently(connection);
+    }
+
+    private void closeSilently(final Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException sqle) {
+            LOGGER.debug("Error closing a connection to " + dbms, sqle);
+            // Just log the error. No re-throw
+        }
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + " {dbms=" + dbms + ", leased=" + leased.size() + ", idle=" + idle.size()
+            + ", minSize=" + minSize + ", maxSize=" + maxSize + "}";
+    }
+
+    private static class IdleConnection {
+
+        private final Connection connection;
+        private final PreparedStatementCache statementCache;
+        private final SessionState sessionState;
+        private final long idleSince;
+
+        public IdleConnection(Connection connection, PreparedStatementCache statementCache, SessionState sessionState) {
+            this.connection = connection;
+            this.statementCache = statementCache;
+            this.sessionState = sessionState;
+            this.idleSince = System.currentTimeMillis();
+        }
+
+        public Connection getConnection() {
+            return connection;
+        }
+
+        public PreparedStatementCache getStatementCache() {
+            return statementCache;
+        }
+
+        public SessionState getSessionState() {
+            return sessionState;
+        }
+
+        public long getIdleSince() {
+            return idleSince;
+        }
+    }
+
+    /**
+     * The session state of a physical Connection as it was when the Connection
+     * was opened.
+     */
+    static final class SessionState {
+
+        private final boolean readOnly;
+        private final int transactionIsolation;
+        private final String catalog;
+        private final int holdability;
+
+        private SessionState(boolean readOnly, int transactionIsolation, String catalog, int holdability) {
+            this.readOnly = readOnly;
+            this.transactionIsolation = transactionIsolation;
+            this.catalog = catalog;
+            this.holdability = holdability;
+        }
+
+        static SessionState of(Connection connection) throws SQLException {
+            return new SessionState(
+                connection.isReadOnly(),
+                connection.getTransactionIsolation(),
+                connection.getCatalog(),
+                connection.getHoldability()
+            );
+        }
+
+        /**
+         * Restores the given Connection to this state. The Connection must not
+         * be in a transaction.
+         *
+         * @param connection the physical Connection to restore
+         * @throws SQLException if the state could not be restored
+         */
+        void restore(Connection connection) throws SQLException {
+            if (connection.isReadOnly() != readOnly) {
+                connection.setReadOnly(readOnly);
+            }
+            if (connection.getTransactionIsolation() != transactionIsolation) {
+                connection.setTransactionIsolation(transactionIsolation);
+            }
+            if (!Objects.equals(connection.getCatalog(), catalog)) {
+                if (catalog == null) {
+                    throw new SQLException("Unable to restore an undefined catalog");
+                }
+                connection.setCatalog(catalog);
+            }
+            if (connection.getHoldability() != holdability) {
+                connection.setHoldability(holdability);
+            }
+        }
+    }
+
+}
@@ -19,8 +19,13 @@ package com.speedment.core.db.impl;
 import com.speedment.core.config.model.Dbms;
 import com.speedment.core.config.model.Table;
 import com.speedment.core.db.DbmsHandler;
+import com.speedment.core.exception.SpeedmentException;
 import java.sql.ResultSet;
+import java.util.OptionalLong;
 import java.util.function.Consumer;
+import java.util.stream.Stream;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
 /**
  *
@@ -28,10 +33,35 @@ import java.util.function.Consumer;
  */
 public class MySqlDbmsHandler extends AbstractRelationalDbmsHandler implements DbmsHandler {
 
+    private static final Logger LOGGER = LogManager.getLogger(MySqlDbmsHandler.class);
+
+    private volatile OptionalLong maxAllowedPacket;
+
     public MySqlDbmsHandler(final Dbms dbms) {
         super(dbms);
     }
 
+    /**
+     * Returns the max_allowed_packet setting of the server. The setting is
+     * read from the server the first time this method is called.
+     *
+     * @return the max_allowed_packet setting of the server
+     */
+    @Override
+    public OptionalLong getMaxStatementSize() {
+        OptionalLong result = maxAllowedPacket;
+        if (result == null) {
+            try (final Stream<Long> stream = executeQuery("select @@max_allowed_packet", rs -> rs.getLong(1))) {
+                result = stream.findFirst().map(OptionalLong::of).orElse(OptionalLong.empty());
+            } catch (SpeedmentException se) {
+                LOGGER.warn("Unable to read max_allowed_packet from " + getDbms(), se);
+                result = OptionalLong.empty();
+            }
+            maxAllowedPacket = result;
+        }
+        return result;
+    }
+
     @Override
     public <ENTITY> long readAll(Consumer<ENTITY> consumer) {
         throw new UnsupportedOperationException("Not supported yet."); //To change body of generated methods, choose Tools | Templates.
@@ -0,0 +1,446 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.core.db.impl;
+
+import java.sql.Array;
+import java.sql.Blob;
+import java.sql.CallableStatement;
+import java.sql.Clob;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.NClob;
+import java.sql.PreparedStatement;
+import java.sql.SQLClientInfoException;
+import java.sql.SQLException;
+import java.sql.SQLWarning;
+import java.sql.SQLXML;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.sql.Struct;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.concurrent.Executor;
+
+/**
+ * A Connection leased from a {@link ConnectionPoolImpl}. All calls are
+ * delegated to the underlying physical Connection except {@link #close()} that
+ * returns the physical Connection to the pool instead of closing it.
+ * <p>
+ * PreparedStatements are taken from the {@link PreparedStatementCache} of the
+ * physical Connection, keyed by their SQL text and the arguments of the
+ * {@code prepareStatement} method used. A statement prepared without an
+ * explicit holdability keeps the holdability the Connection had when the
+ * statement was first prepared. Plain Statements and CallableStatements are
+ * not cached.
+ * <p>
+ * Changes to the read only flag, the transaction isolation, the catalog and the
+ * holdability are tracked so that the pool can restore the state the physical
+ * Connection had when it was opened. Other session state, such as the schema
+ * or the type map, cannot be restored and the physical Connection is then
+ * discarded when it is returned.
+ *
+ * @author pemi
+ */
+public class PooledConnection implements Connection {
+
+    private final ConnectionPoolImpl pool;
+    private final Connection delegate;
+    private final PreparedStatementCache statementCache;
+    private final ConnectionPoolImpl.SessionState sessionState;
+    private final long leasedSince;
+    private final Throwable leaseTrace;
+    private volatile boolean leakReported;
+    private volatile boolean closed;
+    private boolean sessionStateChanged;
+    private boolean sessionStateLost;
+
+    PooledConnection(
+        final ConnectionPoolImpl pool,
+        final Connection delegate,
+        final PreparedStatementCache statementCache,
+        final ConnectionPoolImpl.SessionState sessionState,
+        final boolean traceLease
+    ) {
+        this.pool = Objects.requireNonNull(pool);
+        this.delegate = Objects.requireNonNull(delegate);
+        this.statementCache = Objects.requireNonNull(statementCache);
+        this.sessionState = Objects.requireNonNull(sessionState);
+        this.leasedSince = System.currentTimeMillis();
+        this.leaseTrace = traceLease ? new Throwable("Connection leased here") : null;
+    }
+
+    Connection getDelegate() {
+        return delegate;
+    }
+
+    PreparedStatementCache getStatementCache() {
+        return statementCache;
+    }
+
+    ConnectionPoolImpl.SessionState getSessionState() {
+        return sessionState;
+    }
+
+    /**
+     * Returns if the read only flag, the transaction isolation, the catalog or
+     * the holdability may have been changed during this lease.
+     *
+     * @return if the session state may have been changed
+     */
+    boolean isSessionStateChanged() {
+        return sessionStateChanged;
+    }
+
+    /**
+     * Returns if session state that the pool cannot restore may have been
+     * changed during this lease.
+     *
+     * @return if the physical Connection must be discarded when it is returned
+     */
+    boolean isSessionStateLost() {
+        return sessionStateLost;
+    }
+
+    long getLeasedSince() {
+        return leasedSince;
+    }
+
+    Throwable getLeaseTrace() {
+        return leaseTrace;
+    }
+
+    boolean isLeakReported() {
+        return leakReported;
+    }
+
+    void setLeakReported() {
+        this.leakReported = true;
+    }
+
+    private Connection delegate() throws SQLException {
+        if (closed) {
+            throw new SQLException("The connection has been returned to the pool");
+        }
+        return delegate;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        if (!closed) {
+            closed = true;
+            pool.release(this);
+        }
+    }
+
+    @Override
+    public boolean isClosed() throws SQLException {
+        return closed || delegate.isClosed();
+    }
+
+    @Override
+    public Statement createStatement() throws SQLException {
+        return delegate().createStatement();
+    }
+
+    @Override
+    public PreparedStatement prepareStatement(String sql) throws SQLException {
+        return statementCache.prepare(this, delegate(), PreparedStatementCache.Key.of(sql));
+    }
+
+    @Override
+    public CallableStatement prepareCall(String sql) throws SQLException {
+        return delegate().prepareCall(sql);
+    }
+
+    @Override
+    public String nativeSQL(String sql) throws SQLException {
+        return delegate().nativeSQL(sql);
+    }
+
+    @Override
+    public void setAutoCommit(boolean autoCommit) throws SQLException {
+        delegate().setAutoCommit(autoCommit);
+    }
+
+    @Override
+    public boolean getAutoCommit() throws SQLException {
+        return delegate().getAutoCommit();
+    }
+
+    @Override
+    public void commit() throws SQLException {
+        delegate().commit();
+    }
+
+    @Override
+    public void rollback() throws SQLException {
+        delegate().rollback();
+    }
+
+    @Override
+    public DatabaseMetaData getMetaData() throws SQLException {
+        return delegate().getMetaData();
+    }
+
+    @Override
+    public void setReadOnly(boolean readOnly) throws SQLException {
+        final Connection connection = delegate();
+        sessionStateChanged = true;
+        connection.setReadOnly(readOnly);
+    }
+
+    @Override
+    public boolean isReadOnly() throws SQLException {
+        return delegate().isReadOnly();
+    }
+
+    @Override
+    public void setCatalog(String catalog) throws SQLException {
+        final Connection connection = delegate();
+        sessionStateChanged = true;
+        connection.setCatalog(catalog);
+    }
+
+    @Override
+    public String getCatalog() throws SQLException {
+        return delegate().getCatalog();
+    }
+
+    @Override
+    public void setTransactionIsolation(int level) throws SQLException {
+        final Connection connection = delegate();
+        sessionStateChanged = true;
+        connection.setTransactionIsolation(level);
+    }
+
+    @Override
+    public int getTransactionIsolation() throws SQLException {
+        return delegate().getTransactionIsolation();
+    }
+
+    @Override
+    public SQLWarning getWarnings() throws SQLException {
+        return delegate().getWarnings();
+    }
+
+    @Override
+    public void clearWarnings() throws SQLException {
+        delegate().clearWarnings();
+    }
+
+    @Override
+    public Statement createStatement(int resultSetType, int resultSetConcurrency) throws SQLException {
+        return delegate().createStatement(resultSetType, resultSetConcurrency);
+    }
+
+    @Override
+    public PreparedStatement prepareStatement(String sql, int resultSetType, int resultSetConcurrency) throws SQLException {
+        return statementCache.prepare(this, delegate(), PreparedStatementCache.Key.of(sql, resultSetType, resultSetConcurrency));
+    }
+
+    @Override
+    public CallableStatement prepareCall(String sql, int resultSetType, int resultSetConcurrency) throws SQLException {
+        return delegate().prepareCall(sql, resultSetType, resultSetConcurrency);
+    }
+
+    @Override
+    public Map<String, Class<?>> getTypeMap() throws SQLException {
+        return delegate().getTypeMap();
+    }
+
+    @Override
+    public void setTypeMap(Map<String, Class<?>> map) throws SQLException {
+        final Connection connection = delegate();
+        sessionStateLost = true;
+        connection.setTypeMap(map);
+    }
+
+    @Override
+    public void setHoldability(int holdability) throws SQLException {
+        final Connection connection = delegate();
+        sessionStateChanged = true;
+        connection.setHoldability(holdability);
+    }
+
+    @Override
+    public int getHoldability() throws SQLException {
+        return delegate().getHoldability();
+    }
+
+    @Override
+    public Savepoint setSavepoint() throws SQLException {
+        return delegate().setSavepoint();
+    }
+
+    @Override
+    public Savepoint setSavepoint(String name) throws SQLException {
+        return delegate().setSavepoint(name);
+    }
+
+    @Override
+    public void rollback(Savepoint savepoint) throws SQLException {
+        delegate().rollback(savepoint);
+    }
+
+    @Override
+    public void releaseSavepoint(Savepoint savepoint) throws SQLException {
+        delegate().releaseSavepoint(savepoint);
+    }
+
+    @Override
+    public Statement createStatement(int resultSetType, int resultSetConcurrency, int resultSetHoldability) throws SQLException {
+        return delegate().createStatement(resultSetType, resultSetConcurrency, resultSetHoldability);
+    }
+
+    @Override
+    public PreparedStatement prepareStatement(String sql, int resultSetType, int resultSetConcurrency, int resultSetHoldability) throws SQLException {
+        return statementCache.prepare(this, delegate(), PreparedStatementCache.Key.of(sql, resultSetType, resultSetConcurrency, resultSetHoldability));
+    }
+
+    @Override
+    public CallableStatement prepareCall(String sql, int resultSetType, int resultSetConcurrency, int resultSetHoldability) throws SQLException {
+        return delegate().prepareCall(sql, resultSetType, resultSetConcurrency, resultSetHoldability);
+    }
+
+    @Override
+    public PreparedStatement prepareStatement(String sql, int autoGeneratedKeys) throws SQLException {
+        return statementCache.prepare(this, delegate(), PreparedStatementCache.Key.of(sql, autoGeneratedKeys));
+    }
+
+    @Override
+    public PreparedStatement prepareStatement(String sql, int[] columnIndexes) throws SQLException {
+        return statementCache.prepare(this, delegate(), PreparedStatementCache.Key.of(sql, columnIndexes));
+    }
+
+    @Override
+    public PreparedStatement prepareStatement(String sql, String[] columnNames) throws SQLException {
+        return statementCache.prepare(this, delegate(), PreparedStatementCache.Key.of(sql, columnNames));
+    }
+
+    @Override
+    public Clob createClob() throws SQLException {
+        return delegate().createClob();
+    }
+
+    @Override
+    public Blob createBlob() throws SQLException {
+        return delegate().createBlob();
+    }
+
+    @Override
+    public NClob createNClob() throws SQLException {
+        return delegate().createNClob();
+    }
+
+    @Override
+    public SQLXML createSQLXML() throws SQLException {
+        return delegate().createSQLXML();
+    }
+
+    @Override
+    public boolean isValid(int timeout) throws SQLException {
+        if (closed) {
+            return false;
+        }
+        return delegate().isValid(timeout);
+    }
+
+    @Override
+    public void setClientInfo(String name, String value) throws SQLClientInfoException {
+        if (closed) {
+            throw new SQLClientInfoException();
+        }
+        delegate.setClientInfo(name, value);
+    }
+
+    @Override
+    public void setClientInfo(Properties properties) throws SQLClientInfoException {
+        if (closed) {
+            throw new SQLClientInfoException();
+        }
+        delegate.setClientInfo(properties);
+    }
+
+    @Override
+    public String getClientInfo(String name) throws SQLException {
+        return delegate().getClientInfo(name);
+    }
+
+    @Override
+    public Properties getClientInfo() throws SQLException {
+        return delegate().getClientInfo();
+    }
+
+    @Override
+    public Array createArrayOf(String typeName, Object[] elements) throws SQLException {
+        return delegate().createArrayOf(typeName, elements);
+    }
+
+    @Override
+    public Struct createStruct(String typeName, Object[] attributes) throws SQLException {
+        return delegate().createStruct(typeName, attributes);
+    }
+
+    @Override
+    public void setSchema(String schema) throws SQLException {
+        final Connection connection = delegate();
+        sessionStateLost = true;
+        connection.setSchema(schema);
+    }
+
+    @Override
+    public String getSchema() throws SQLException {
+        return delegate().getSchema();
+    }
+
+    @Override
+    public void abort(Executor executor) throws SQLException {
+        delegate().abort(executor);
+    }
+
+    @Override
+    public void setNetworkTimeout(Executor executor, int milliseconds) throws SQLException {
+        final Connection connection = delegate();
+        sessionStateLost = true;
+        connection.setNetworkTimeout(executor, milliseconds);
+    }
+
+    @Override
+    public int getNetworkTimeout() throws SQLException {
+        return delegate().getNetworkTimeout();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+        return delegate().unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this) || delegate().isWrapperFor(iface);
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + " {closed=" + closed + ", delegate=" + delegate + "}";
+    }
+
+}
@@ -0,0 +1,336 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.core.db.impl;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * A least recently used cache of PreparedStatements that belongs to a single
+ * physical Connection. Statements are keyed by their SQL text and the
+ * arguments they were prepared with.
+ * <p>
+ * A cached statement can only be checked out once at a time. If a statement
+ * with the same key is already checked out, a new statement that is not
+ * cached is prepared instead. When the cache is full, the least recently used
+ * statement is closed.
+ * <p>
+ * A cache is only used by the thread that currently leases the Connection it
+ * belongs to and is therefore not thread safe. The hit and miss counters may
+ * be read from any thread.
+ *
+ * @author pemi
+ */
+public class PreparedStatementCache implements AutoCloseable {
+
+    private static final Logger LOGGER = LogManager.getLogger(PreparedStatementCache.class);
+
+    public static final int DEFAULT_MAX_SIZE = 64;
+
+    private final int maxSize;
+    private final Map<Key, PreparedStatement> statements;
+    private final Set<Key> checkedOut;
+    private final Set<CachedPreparedStatement> outstanding;
+    private volatile long hitCount;
+    private volatile long missCount;
+
+    public PreparedStatementCache(final int maxSize) {
+        this.maxSize = maxSize;
+        this.statements = new LinkedHashMap<Key, PreparedStatement>(16, 0.75f, true) {
+
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, PreparedStatement> eldest) {
+                if (size() > PreparedStatementCache.this.maxSize) {
+                    // Statements that are checked out are closed when they are released
+                    if (!checkedOut.contains(eldest.getKey())) {
+                        closeSilently(eldest.getValue());
+                    }
+                    return true;
+                }
+                return false;
+            }
+        };
+        this.checkedOut = new HashSet<>();
+        this.outstanding = new HashSet<>();
+    }
+
+    /**
+     * Returns a PreparedStatement for the given key. A cached statement is
+     * returned if there is one that is not checked out. Otherwise a new
+     * statement is prepared using the given Connection.
+     *
+     * @param owner the Connection that the returned statement reports as its
+     * Connection
+     * @param connection the physical Connection used to prepare new statements
+     * @param key the SQL text and arguments of the statement
+     * @return a PreparedStatement for the given key
+     * @throws SQLException if a new statement could not be prepared
+     */
+    public PreparedStatement prepare(final Connection owner, final Connection connection, final Key key) throws SQLException {
+        Objects.requireNonNull(owner);
+        Objects.requireNonNull(connection);
+        Objects.requireNonNull(key);
+        if (maxSize <= 0) {
+            missCount++;
+            return key.prepare(connection);
+        }
+        if (checkedOut.contains(key)) {
+            // Already in use, so the statement can not be shared
+            missCount++;
+            return key.prepare(connection);
+        }
+        PreparedStatement statement = statements.get(key);
+        if (statement != null && statement.isClosed()) {
+            statements.remove(key);
+            statement = null;
+        }
+        if (statement == null) {
+            missCount++;
+            statement = key.prepare(connection);
+            statements.put(key, statement);
+        } else {
+            hitCount++;
+        }
+        checkedOut.add(key);
+        final CachedPreparedStatement result = new CachedPreparedStatement(this, key, statement, owner);
+        outstanding.add(result);
+        return result;
+    }
+
+    /**
+     * Hands back a statement that was checked out from this cache. This method
+     * is invoked by {@link CachedPreparedStatement#close()}.
+     *
+     * @param cachedStatement the statement to hand back
+     */
+    void release(final CachedPreparedStatement cachedStatement) {
+        if (!outstanding.remove(cachedStatement)) {
+            return; // Already released
+        }
+        final Key key = cachedStatement.getKey();
+        final PreparedStatement statement = cachedStatement.getDelegate();
+        checkedOut.remove(key);
+        if (cachedStatement.isReusable() && statements.get(key) == statement) {
+            try {
+                if (!statement.isClosed()) {
+                    cachedStatement.reset();
+                    return;
+                }
+            } catch (SQLException sqle) {
+                LOGGER.debug("Discarding a cached statement that could not be reset", sqle);
+            }
+            statements.remove(key);
+        } else if (statements.get(key) == statement) {
+            statements.remove(key);
+        }
+        closeSilently(statement);
+    }
+
+    /**
+     * Hands back all statements that are still checked out. This method is
+     * invoked when the Connection that the cache belongs to is returned to its
+     * pool.
+     */
+    public void releaseAll() {
+        new ArrayList<>(outstanding).forEach(cs -> {
+            try {
+                cs.close();
+            } catch (SQLException sqle) {
+                LOGGER.debug("Error releasing a cached statement", sqle);
+                // Just log the error. No re-throw
+            }
+        });
+    }
+
+    /**
+     * Returns the number of times a cached statement could be reused.
+     *
+     * @return the number of cache hits
+     */
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Returns the number of times a new statement had to be prepared.
+     *
+     * @return the number of cache misses
+     */
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Returns the number of statements that are currently cached.
+     *
+     * @return the number of cached statements
+     */
+    public int size() {
+        return statements.size();
+    }
+
+    /**
+     * Closes all cached statements.
+     */
+    @Override
+    public void close() {
+        releaseAll();
+        statements.values().forEach(this::closeSilently);
+        statements.clear();
+    }
+
+    private void closeSilently(final PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException sqle) {
+            LOGGER.debug("Error closing a cached statement", sqle);
+            // Just log the error. No re-throw
+        }
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + " {size=" + statements.size() + ", maxSize=" + maxSize
+            + ", hits=" + hitCount + ", misses=" + missCount + "}";
+    }
+
+    /**
+     * The SQL text and the arguments a statement is prepared with. There is
+     * a key for each of the {@code prepareStatement} methods of a Connection.
+     */
+    public static final class Key {
+
+        private static final int UNSPECIFIED = Integer.MIN_VALUE;
+
+        private final String sql;
+        private final int autoGeneratedKeys;
+        private final int resultSetType;
+        private final int resultSetConcurrency;
+        private final int resultSetHoldability;
+        private final int[] columnIndexes;
+        private final String[] columnNames;
+
+        private Key(
+            String sql,
+            int autoGeneratedKeys,
+            int resultSetType,
+            int resultSetConcurrency,
+            int resultSetHoldability,
+            int[] columnIndexes,
+            String[] columnNames
+        ) {
+            this.sql = Objects.requireNonNull(sql);
+            this.autoGeneratedKeys = autoGeneratedKeys;
+            this.resultSetType = resultSetType;
+            this.resultSetConcurrency = resultSetConcurrency;
+            this.resultSetHoldability = resultSetHoldability;
+            this.columnIndexes = columnIndexes;
+            this.columnNames = columnNames;
+        }
+
+        public static Key of(String sql) {
+            return new Key(sql, UNSPECIFIED, UNSPECIFIED, UNSPECIFIED, UNSPECIFIED, null, null);
+        }
+
+        public static Key of(String sql, int autoGeneratedKeys) {
+            return new Key(sql, autoGeneratedKeys, UNSPECIFIED, UNSPECIFIED, UNSPECIFIED, null, null);
+        }
+
+        public static Key of(String sql, int resultSetType, int resultSetConcurrency) {
+            return new Key(sql, UNSPECIFIED, resultSetType, resultSetConcurrency, UNSPECIFIED, null, null);
+        }
+
+        public static Key of(String sql, int resultSetType, int resultSetConcurrency, int resultSetHoldability) {
+            return new Key(sql, UNSPECIFIED, resultSetType, resultSetConcurrency, resultSetHoldability, null, null);
+        }
+
+        public static Key of(String sql, int[] columnIndexes) {
+            return new Key(sql, UNSPECIFIED, UNSPECIFIED, UNSPECIFIED, UNSPECIFIED, columnIndexes.clone(), null);
+        }
+
+        public static Key of(String sql, String[] columnNames) {
+            return new Key(sql, UNSPECIFIED, UNSPECIFIED, UNSPECIFIED, UNSPECIFIED, null, columnNames.clone());
+        }
+
+        private PreparedStatement prepare(Connection connection) throws SQLException {
+            if (autoGeneratedKeys != UNSPECIFIED) {
+                return connection.prepareStatement(sql, autoGeneratedKeys);
+            }
+            if (columnIndexes != null) {
+                return connection.prepareStatement(sql, columnIndexes.clone());
+            }
+            if (columnNames != null) {
+                return connection.prepareStatement(sql, columnNames.clone());
+            }
+            if (resultSetHoldability != UNSPECIFIED) {
+                return connection.prepareStatement(sql, resultSetType, resultSetConcurrency, resultSetHoldability);
+            }
+            if (resultSetType != UNSPECIFIED) {
+                return connection.prepareStatement(sql, resultSetType, resultSetConcurrency);
+            }
+            return connection.prepareStatement(sql);
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = sql.hashCode();
+            hash = 31 * hash + autoGeneratedKeys;
+            hash = 31 * hash + resultSetType;
+            hash = 31 * hash + resultSetConcurrency;
+            hash = 31 * hash + resultSetHoldability;
+            hash = 31 * hash + Arrays.hashCode(columnIndexes);
+            hash = 31 * hash + Arrays.hashCode(columnNames);
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            final Key that = (Key) obj;
+            return autoGeneratedKeys == that.autoGeneratedKeys
+                && resultSetType == that.resultSetType
+                && resultSetConcurrency == that.resultSetConcurrency
+                && resultSetHoldability == that.resultSetHoldability
+                && Arrays.equals(columnIndexes, that.columnIndexes)
+                && Arrays.equals(columnNames, that.columnNames)
+                && sql.equals(that.sql);
+        }
+
+        @Override
+        public String toString() {
+            return sql;
+        }
+    }
+
+}
@@ -0,0 +1,121 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.core.field;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * A Comparator that orders entities by one or more Fields. Since the Fields
+ * are known, a FieldComparator can be translated into an ORDER BY clause
+ * instead of being evaluated in the JVM. That is only done if the database
+ * orders the columns exactly like the FieldComparator does, so the result is
+ * the same wherever the sort is made. Strings, which a database orders by
+ * its collation, are always sorted in the JVM.
+ * <p>
+ * Null values are considered smaller than any other value.
+ *
+ * @author pemi
+ * @param <ENTITY> The entity type
+ */
+public class FieldComparator<ENTITY> implements Comparator<ENTITY> {
+
+    private final List<SortKey> sortKeys;
+    private final Comparator<ENTITY> comparator;
+
+    public FieldComparator(final Field<ENTITY> field, final Comparator<ENTITY> comparator) {
+        this(Collections.singletonList(new SortKey(field, true)), comparator);
+    }
+
+    private FieldComparator(final List<SortKey> sortKeys, final Comparator<ENTITY> comparator) {
+        this.sortKeys = Collections.unmodifiableList(sortKeys);
+        this.comparator = Objects.requireNonNull(comparator);
+    }
+
+    @Override
+    public int compare(ENTITY first, ENTITY second) {
+        return comparator.compare(first, second);
+    }
+
+    @Override
+    public FieldComparator<ENTITY> reversed() {
+        return new FieldComparator<>(
+            sortKeys.stream().map(SortKey::reversed).collect(toList()),
+            comparator.reversed()
+        );
+    }
+
+    @Override
+    public Comparator<ENTITY> thenComparing(Comparator<? super ENTITY> other) {
+        if (other instanceof FieldComparator) {
+            final List<SortKey> newSortKeys = new ArrayList<>(sortKeys);
+            newSortKeys.addAll(((FieldComparator<?>) other).getSortKeys());
+            return new FieldComparator<>(newSortKeys, comparator.thenComparing(other));
+        }
+        return Comparator.super.thenComparing(other);
+    }
+
+    public List<SortKey> getSortKeys() {
+        return sortKeys;
+    }
+
+    public Stream<SortKey> stream() {
+        return sortKeys.stream();
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + " " + sortKeys;
+    }
+
+    /**
+     * A Field and the direction it is ordered in.
+     */
+    public static final class SortKey {
+
+        private final Field<?> field;
+        private final boolean ascending;
+
+        private SortKey(final Field<?> field, final boolean ascending) {
+            this.field = Objects.requireNonNull(field);
+            this.ascending = ascending;
+        }
+
+        public Field<?> getField() {
+            return field;
+        }
+
+        public boolean isAscending() {
+            return ascending;
+        }
+
+        private SortKey reversed() {
+            return new SortKey(field, !ascending);
+        }
+
+        @Override
+        public String toString() {
+            return field.getColumn().getName() + (ascending ? " ASC" : " DESC");
+        }
+    }
+
+}
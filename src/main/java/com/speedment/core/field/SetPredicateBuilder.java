@@ -0,0 +1,40 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.core.field;
+
+import java.util.List;
+
+/**
+ * A predicate builder that tests if the value of a field is one of a set of
+ * values.
+ *
+ * @author pemi
+ * @param <ENTITY> Entity type
+ * @param <V> Value type
+ */
+public interface SetPredicateBuilder<ENTITY, V> extends PredicateBuilder<ENTITY> {
+
+    /**
+     * Returns the distinct values of the set, in the order they were given.
+     *
+     * @return the distinct values of the set
+     */
+    List<V> getValuesAsObjects();
+
+    @Override
+    public StandardSetOperator getOperator();
+}
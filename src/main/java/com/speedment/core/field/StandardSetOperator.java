@@ -0,0 +1,43 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.core.field;
+
+/**
+ *
+ * @author pemi
+ */
+public enum StandardSetOperator implements Operator {
+
+    IN(true),
+    NOT_IN(false);
+
+    private final boolean contained;
+
+    private StandardSetOperator(boolean contained) {
+        this.contained = contained;
+    }
+
+    /**
+     * Returns if a value matches this operator.
+     *
+     * @param contains if the value is contained in the set of values
+     * @return if the value matches this operator
+     */
+    public boolean test(boolean contains) {
+        return contains == contained;
+    }
+}
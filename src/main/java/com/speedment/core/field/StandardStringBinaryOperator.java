@@ -29,7 +29,9 @@ public enum StandardStringBinaryOperator implements BinaryOperator {
     ENDS_WITH(String::endsWith),
     CONTAINS(String::contains),
     EQUAL_IGNORE_CASE(String::equalsIgnoreCase),
-    NOT_EQUAL_IGNORE_CASE((s0, s1) -> !s0.equalsIgnoreCase(s1));
+    NOT_EQUAL_IGNORE_CASE((s0, s1) -> !s0.equalsIgnoreCase(s1)),
+    EQUAL_BY_COLLATION(String::equalsIgnoreCase),
+    NOT_EQUAL_BY_COLLATION((s0, s1) -> !s0.equalsIgnoreCase(s1));
 
     private final BiPredicate<String, String> biPredicate;
 
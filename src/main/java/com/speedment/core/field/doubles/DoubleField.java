@@ -18,17 +18,31 @@ package com.speedment.core.field.doubles;
 
 import com.speedment.core.config.model.Column;
 import com.speedment.core.field.Field;
+import com.speedment.core.field.FieldComparator;
 import com.speedment.core.field.StandardBinaryOperator;
+import com.speedment.core.field.StandardRangeOperator;
+import com.speedment.core.field.StandardSetOperator;
 import com.speedment.core.field.StandardUnaryOperator;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.function.Supplier;
 import java.util.function.ToDoubleFunction;
 
 /**
+ * A field of a primitive double column. All predicates of this field, as well
+ * as its {@link #comparator()}, compare values like
+ * {@link Double#compare(double, double)} does: negative zero is less than
+ * positive zero and NaN is equal to itself and greater than all other values.
+ * Equality thus agrees with {@link Double#equals(Object)}, with the
+ * predicates of a {@code ComparableReferenceField} of Doubles and with the
+ * entity stores. A database that is given such a predicate may consider the
+ * two zeros equal, so a column that holds negative zero can match
+ * differently in SQL than in memory.
  *
  * @author pemi
  * @param <ENTITY> the entity type
  */
-public class DoubleField<ENTITY> implements Field<ENTITY> {
+public class DoubleField<ENTITY> implements Field<ENTITY>, ToDoubleFunction<ENTITY> {
 
     private final Supplier<Column> columnSupplier;
     private final ToDoubleFunction<ENTITY> getter;
@@ -62,6 +76,49 @@ public class DoubleField<ENTITY> implements Field<ENTITY> {
         return newBinary(value, StandardBinaryOperator.GREATER_OR_EQUAL);
     }
 
+    public DoubleSetPredicateBuilder<ENTITY> in(double... values) {
+        return newSet(values, StandardSetOperator.IN);
+    }
+
+    public DoubleSetPredicateBuilder<ENTITY> in(Collection<Double> values) {
+        return newSet(values.stream().mapToDouble(Double::doubleValue).toArray(), StandardSetOperator.IN);
+    }
+
+    public DoubleSetPredicateBuilder<ENTITY> notIn(double... values) {
+        return newSet(values, StandardSetOperator.NOT_IN);
+    }
+
+    public DoubleSetPredicateBuilder<ENTITY> notIn(Collection<Double> values) {
+        return newSet(values.stream().mapToDouble(Double::doubleValue).toArray(), StandardSetOperator.NOT_IN);
+    }
+
+    /**
+     * Returns a predicate that tests if the value of this field is between
+     * the given values, inclusive.
+     *
+     * @param lower the lowest matching value
+     * @param upper the highest matching value
+     * @return a predicate that tests if the value of this field is between
+     * the given values
+     */
+    public DoubleRangePredicateBuilder<ENTITY> between(double lower, double upper) {
+        return newRange(lower, upper, StandardRangeOperator.BETWEEN);
+    }
+
+    public DoubleRangePredicateBuilder<ENTITY> notBetween(double lower, double upper) {
+        return newRange(lower, upper, StandardRangeOperator.NOT_BETWEEN);
+    }
+
+    /**
+     * Returns a Comparator that orders entities by this field in ascending
+     * order. Use {@link FieldComparator#reversed()} for descending order.
+     *
+     * @return a Comparator that orders entities by this field
+     */
+    public FieldComparator<ENTITY> comparator() {
+        return new FieldComparator<>(this, Comparator.comparingDouble(getter));
+    }
+
     @Override
     public boolean isNullIn(ENTITY entity) {
         return false;
@@ -71,6 +128,19 @@ public class DoubleField<ENTITY> implements Field<ENTITY> {
         return getter.applyAsDouble(entity);
     }
 
+    /**
+     * Returns the value of this field in the given entity. A field can thus
+     * be used directly as a mapper, like {@code mapToDouble(field)}, which
+     * lets the SQL stream terminator recognise the projected column.
+     *
+     * @param entity the entity
+     * @return the value of this field in the given entity
+     */
+    @Override
+    public double applyAsDouble(ENTITY entity) {
+        return getFrom(entity);
+    }
+
     @Override
     public Column getColumn() {
         return columnSupplier.get();
@@ -80,6 +150,14 @@ public class DoubleField<ENTITY> implements Field<ENTITY> {
         return new DoubleBinaryPredicateBuilder<>(this, value, binaryOperator);
     }
 
+    public DoubleSetPredicateBuilder<ENTITY> newSet(double[] values, StandardSetOperator setOperator) {
+        return new DoubleSetPredicateBuilder<>(this, values, setOperator);
+    }
+
+    public DoubleRangePredicateBuilder<ENTITY> newRange(double lower, double upper, StandardRangeOperator rangeOperator) {
+        return new DoubleRangePredicateBuilder<>(this, lower, upper, rangeOperator);
+    }
+
     public DoubleUnaryPredicateBuilder<ENTITY> newUnary(StandardUnaryOperator unaryOperator) {
         return new DoubleUnaryPredicateBuilder<>(this, unaryOperator);
     }
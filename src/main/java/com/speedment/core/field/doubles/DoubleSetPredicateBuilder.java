@@ -0,0 +1,93 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.core.field.doubles;
+
+import com.speedment.core.field.BasePredicate;
+import com.speedment.core.field.SetPredicateBuilder;
+import com.speedment.core.field.StandardSetOperator;
+import com.speedment.util.LongHashSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Predicate;
+
+/**
+ *
+ * @author pemi
+ * @param <ENTITY> Entity type
+ */
+public class DoubleSetPredicateBuilder<ENTITY> extends BasePredicate<ENTITY> implements Predicate<ENTITY>, SetPredicateBuilder<ENTITY, Double> {
+
+    private final DoubleField<ENTITY> field;
+    private final List<Double> values;
+    private final LongHashSet valueSet;
+    private final StandardSetOperator setOperator;
+
+    public DoubleSetPredicateBuilder(
+        final DoubleField<ENTITY> field,
+        final double[] values,
+        final StandardSetOperator setOperator
+    ) {
+        this.field = Objects.requireNonNull(field);
+        this.values = new ArrayList<>(values.length);
+        this.valueSet = new LongHashSet(values.length);
+        for (final double value : values) {
+            if (valueSet.add(keyOf(value))) {
+                this.values.add(value);
+            }
+        }
+        this.setOperator = Objects.requireNonNull(setOperator);
+    }
+
+    @Override
+    public boolean test(ENTITY entity) {
+        return test(field.getFrom(entity));
+    }
+
+    public boolean test(double value) {
+        return setOperator.test(valueSet.contains(keyOf(value)));
+    }
+
+    /**
+     * Returns the key of the given value in the set of values. Two values
+     * have the same key if and only if {@link Double#compare(double, double)}
+     * considers them equal, so all NaN values share a key while negative and
+     * positive zero do not.
+     *
+     * @param value the value
+     * @return the key of the value
+     */
+    private static long keyOf(double value) {
+        return Double.doubleToLongBits(value);
+    }
+
+    @Override
+    public DoubleField<ENTITY> getField() {
+        return field;
+    }
+
+    @Override
+    public StandardSetOperator getOperator() {
+        return setOperator;
+    }
+
+    @Override
+    public List<Double> getValuesAsObjects() {
+        return values;
+    }
+
+}
@@ -18,8 +18,13 @@ package com.speedment.core.field.ints;
 
 import com.speedment.core.config.model.Column;
 import com.speedment.core.field.Field;
+import com.speedment.core.field.FieldComparator;
 import com.speedment.core.field.StandardBinaryOperator;
+import com.speedment.core.field.StandardRangeOperator;
+import com.speedment.core.field.StandardSetOperator;
 import com.speedment.core.field.StandardUnaryOperator;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.function.Supplier;
 import java.util.function.ToIntFunction;
 
@@ -28,7 +33,7 @@ import java.util.function.ToIntFunction;
  * @author pemi
  * @param <ENTITY> The entity field
  */
-public class IntField<ENTITY> implements Field<ENTITY> {
+public class IntField<ENTITY> implements Field<ENTITY>, ToIntFunction<ENTITY> {
 
     private final Supplier<Column> columnSupplier;
     private final ToIntFunction<ENTITY> getter;
@@ -62,6 +67,49 @@ public class IntField<ENTITY> implements Field<ENTITY> {
         return newBinary(value, StandardBinaryOperator.GREATER_OR_EQUAL);
     }
 
+    public IntSetPredicateBuilder<ENTITY> in(int... values) {
+        return newSet(values, StandardSetOperator.IN);
+    }
+
+    public IntSetPredicateBuilder<ENTITY> in(Collection<Integer> values) {
+        return newSet(values.stream().mapToInt(Integer::intValue).toArray(), StandardSetOperator.IN);
+    }
+
+    public IntSetPredicateBuilder<ENTITY> notIn(int... values) {
+        return newSet(values, StandardSetOperator.NOT_IN);
+    }
+
+    public IntSetPredicateBuilder<ENTITY> notIn(Collection<Integer> values) {
+        return newSet(values.stream().mapToInt(Integer::intValue).toArray(), StandardSetOperator.NOT_IN);
+    }
+
+    /**
+     * Returns a predicate that tests if the value of this field is between
+     * the given values, inclusive.
+     *
+     * @param lower the lowest matching value
+     * @param upper the highest matching value
+     * @return a predicate that tests if the value of this field is between
+     * the given values
+     */
+    public IntRangePredicateBuilder<ENTITY> between(int lower, int upper) {
+        return newRange(lower, upper, StandardRangeOperator.BETWEEN);
+    }
+
+    public IntRangePredicateBuilder<ENTITY> notBetween(int lower, int upper) {
+        return newRange(lower, upper, StandardRangeOperator.NOT_BETWEEN);
+    }
+
+    /**
+     * Returns a Comparator that orders entities by this field in ascending
+     * order. Use {@link FieldComparator#reversed()} for descending order.
+     *
+     * @return a Comparator that orders entities by this field
+     */
+    public FieldComparator<ENTITY> comparator() {
+        return new FieldComparator<>(this, Comparator.comparingInt(getter));
+    }
+
     @Override
     public boolean isNullIn(ENTITY entity) {
         return false;
@@ -71,6 +119,19 @@ public class IntField<ENTITY> implements Field<ENTITY> {
         return getter.applyAsInt(entity);
     }
 
+    /**
+     * Returns the value of this field in the given entity. A field can thus
+     * be used directly as a mapper, like {@code mapToInt(field)}, which
+     * lets the SQL stream terminator recognise the projected column.
+     *
+     * @param entity the entity
+     * @return the value of this field in the given entity
+     */
+    @Override
+    public int applyAsInt(ENTITY entity) {
+        return getFrom(entity);
+    }
+
     @Override
     public Column getColumn() {
         return columnSupplier.get();
@@ -80,6 +141,14 @@ public class IntField<ENTITY> implements Field<ENTITY> {
         return new IntBinaryPredicateBuilder<>(this, value, binaryOperator);
     }
 
+    public IntSetPredicateBuilder<ENTITY> newSet(int[] values, StandardSetOperator setOperator) {
+        return new IntSetPredicateBuilder<>(this, values, setOperator);
+    }
+
+    public IntRangePredicateBuilder<ENTITY> newRange(int lower, int upper, StandardRangeOperator rangeOperator) {
+        return new IntRangePredicateBuilder<>(this, lower, upper, rangeOperator);
+    }
+
     public IntUnaryPredicateBuilder<ENTITY> newUnary(StandardUnaryOperator unaryOperator) {
         return new IntUnaryPredicateBuilder<>(this, unaryOperator);
     }
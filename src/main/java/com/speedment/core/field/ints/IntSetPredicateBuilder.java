@@ -0,0 +1,80 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.core.field.ints;
+
+import com.speedment.core.field.BasePredicate;
+import com.speedment.core.field.SetPredicateBuilder;
+import com.speedment.core.field.StandardSetOperator;
+import com.speedment.util.LongHashSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Predicate;
+
+/**
+ *
+ * @author pemi
+ * @param <ENTITY> Entity type
+ */
+public class IntSetPredicateBuilder<ENTITY> extends BasePredicate<ENTITY> implements Predicate<ENTITY>, SetPredicateBuilder<ENTITY, Integer> {
+
+    private final IntField<ENTITY> field;
+    private final List<Integer> values;
+    private final LongHashSet valueSet;
+    private final StandardSetOperator setOperator;
+
+    public IntSetPredicateBuilder(
+        final IntField<ENTITY> field,
+        final int[] values,
+        final StandardSetOperator setOperator
+    ) {
+        this.field = Objects.requireNonNull(field);
+        this.values = new ArrayList<>(values.length);
+        this.valueSet = new LongHashSet(values.length);
+        for (final int value : values) {
+            if (valueSet.add(value)) {
+                this.values.add(value);
+            }
+        }
+        this.setOperator = Objects.requireNonNull(setOperator);
+    }
+
+    @Override
+    public boolean test(ENTITY entity) {
+        return test(field.getFrom(entity));
+    }
+
+    public boolean test(int value) {
+        return setOperator.test(valueSet.contains(value));
+    }
+
+    @Override
+    public IntField<ENTITY> getField() {
+        return field;
+    }
+
+    @Override
+    public StandardSetOperator getOperator() {
+        return setOperator;
+    }
+
+    @Override
+    public List<Integer> getValuesAsObjects() {
+        return values;
+    }
+
+}
@@ -18,8 +18,13 @@ package com.speedment.core.field.longs;
 
 import com.speedment.core.config.model.Column;
 import com.speedment.core.field.Field;
+import com.speedment.core.field.FieldComparator;
 import com.speedment.core.field.StandardBinaryOperator;
+import com.speedment.core.field.StandardRangeOperator;
+import com.speedment.core.field.StandardSetOperator;
 import com.speedment.core.field.StandardUnaryOperator;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.function.Supplier;
 import java.util.function.ToLongFunction;
 
@@ -28,7 +33,7 @@ import java.util.function.ToLongFunction;
  * @author pemi
  * @param <ENTITY> The entity type
  */
-public class LongField<ENTITY> implements Field<ENTITY> {
+public class LongField<ENTITY> implements Field<ENTITY>, ToLongFunction<ENTITY> {
 
     private final Supplier<Column> columnSupplier;
     private final ToLongFunction<ENTITY> getter;
@@ -62,6 +67,49 @@ public class LongField<ENTITY> implements Field<ENTITY> {
         return newBinary(value, StandardBinaryOperator.GREATER_OR_EQUAL);
     }
 
+    public LongSetPredicateBuilder<ENTITY> in(long... values) {
+        return newSet(values, StandardSetOperator.IN);
+    }
+
+    public LongSetPredicateBuilder<ENTITY> in(Collection<Long> values) {
+        return newSet(values.stream().mapToLong(Long::longValue).toArray(), StandardSetOperator.IN);
+    }
+
+    public LongSetPredicateBuilder<ENTITY> notIn(long... values) {
+        return newSet(values, StandardSetOperator.NOT_IN);
+    }
+
+    public LongSetPredicateBuilder<ENTITY> notIn(Collection<Long> values) {
+        return newSet(values.stream().mapToLong(Long::longValue).toArray(), StandardSetOperator.NOT_IN);
+    }
+
+    /**
+     * Returns a predicate that tests if the value of this field is between
+     * the given values, inclusive.
+     *
+     * @param lower the lowest matching value
+     * @param upper the highest matching value
+     * @return a predicate that tests if the value of this field is between
+     * the given values
+     */
+    public LongRangePredicateBuilder<ENTITY> between(long lower, long upper) {
+        return newRange(lower, upper, StandardRangeOperator.BETWEEN);
+    }
+
+    public LongRangePredicateBuilder<ENTITY> notBetween(long lower, long upper) {
+        return newRange(lower, upper, StandardRangeOperator.NOT_BETWEEN);
+    }
+
+    /**
+     * Returns a Comparator that orders entities by this field in ascending
+     * order. Use {@link FieldComparator#reversed()} for descending order.
+     *
+     * @return a Comparator that orders entities by this field
+     */
+    public FieldComparator<ENTITY> comparator() {
+        return new FieldComparator<>(this, Comparator.comparingLong(getter));
+    }
+
     @Override
     public boolean isNullIn(ENTITY entity) {
         return false;
@@ -71,6 +119,19 @@ public class LongField<ENTITY> implements Field<ENTITY> {
         return getter.applyAsLong(entity);
     }
 
+    /**
+     * Returns the value of this field in the given entity. A field can thus
+     * be used directly as a mapper, like {@code mapToLong(field)}, which
+     * lets the SQL stream terminator recognise the projected column.
+     *
+     * @param entity the entity
+     * @return the value of this field in the given entity
+     */
+    @Override
+    public long applyAsLong(ENTITY entity) {
+        return getFrom(entity);
+    }
+
     @Override
     public Column getColumn() {
         return columnSupplier.get();
@@ -80,6 +141,14 @@ public class LongField<ENTITY> implements Field<ENTITY> {
         return new LongBinaryPredicateBuilder<>(this, value, binaryOperator);
     }
 
+    public LongSetPredicateBuilder<ENTITY> newSet(long[] values, StandardSetOperator setOperator) {
+        return new LongSetPredicateBuilder<>(this, values, setOperator);
+    }
+
+    public LongRangePredicateBuilder<ENTITY> newRange(long lower, long upper, StandardRangeOperator rangeOperator) {
+        return new LongRangePredicateBuilder<>(this, lower, upper, rangeOperator);
+    }
+
     public LongUnaryPredicateBuilder<ENTITY> newUnary(StandardUnaryOperator unaryOperator) {
         return new LongUnaryPredicateBuilder<>(this, unaryOperator);
     }
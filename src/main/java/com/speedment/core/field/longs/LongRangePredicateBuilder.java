@@ -0,0 +1,86 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.core.field.longs;
+
+import com.speedment.core.field.BasePredicate;
+import com.speedment.core.field.RangePredicateBuilder;
+import com.speedment.core.field.StandardRangeOperator;
+import java.util.Objects;
+import java.util.function.Predicate;
+
+/**
+ *
+ * @author pemi
+ * @param <ENTITY> Entity type
+ */
+public class LongRangePredicateBuilder<ENTITY> extends BasePredicate<ENTITY> implements Predicate<ENTITY>, RangePredicateBuilder<ENTITY, Long> {
+
+    private final LongField<ENTITY> field;
+    private final long lower;
+    private final long upper;
+    private final StandardRangeOperator rangeOperator;
+
+    public LongRangePredicateBuilder(
+        final LongField<ENTITY> field,
+        final long lower,
+        final long upper,
+        final StandardRangeOperator rangeOperator
+    ) {
+        this.field = Objects.requireNonNull(field);
+        this.lower = lower;
+        this.upper = upper;
+        this.rangeOperator = Objects.requireNonNull(rangeOperator);
+    }
+
+    @Override
+    public boolean test(ENTITY entity) {
+        return test(field.getFrom(entity));
+    }
+
+    public boolean test(long value) {
+        return rangeOperator.test(Long.compare(value, lower) >= 0 && Long.compare(value, upper) <= 0);
+    }
+
+    @Override
+    public LongField<ENTITY> getField() {
+        return field;
+    }
+
+    @Override
+    public StandardRangeOperator getOperator() {
+        return rangeOperator;
+    }
+
+    public long getLower() {
+        return lower;
+    }
+
+    public long getUpper() {
+        return upper;
+    }
+
+    @Override
+    public Long getLowerAsObject() {
+        return getLower();
+    }
+
+    @Override
+    public Long getUpperAsObject() {
+        return getUpper();
+    }
+
+}
@@ -17,9 +17,17 @@
 package com.speedment.core.field.reference;
 
 import com.speedment.core.config.model.Column;
+import com.speedment.core.field.FieldComparator;
 import com.speedment.core.field.StandardBinaryOperator;
+import com.speedment.core.field.StandardRangeOperator;
+import com.speedment.core.field.StandardSetOperator;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.function.Function;
 import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
 
 /**
  *
@@ -57,6 +65,80 @@ public class ComparableReferenceField<ENTITY, V extends Comparable<? super V>> e
         return newBinary(value, StandardBinaryOperator.GREATER_OR_EQUAL);
     }
 
+    public ReferenceSetPredicateBuilder<ENTITY, V> in(Collection<? extends V> values) {
+        return newSet(values, StandardSetOperator.IN);
+    }
+
+    public ReferenceSetPredicateBuilder<ENTITY, V> notIn(Collection<? extends V> values) {
+        return newSet(values, StandardSetOperator.NOT_IN);
+    }
+
+    /**
+     * Returns a predicate that tests if the value of this field is between
+     * the given values, inclusive.
+     *
+     * @param lower the lowest matching value
+     * @param upper the highest matching value
+     * @return a predicate that tests if the value of this field is between
+     * the given values
+     */
+    public ReferenceRangePredicateBuilder<ENTITY, V> between(V lower, V upper) {
+        return newRange(lower, upper, StandardRangeOperator.BETWEEN);
+    }
+
+    public ReferenceRangePredicateBuilder<ENTITY, V> notBetween(V lower, V upper) {
+        return newRange(lower, upper, StandardRangeOperator.NOT_BETWEEN);
+    }
+
+    /**
+     * Returns a Comparator that orders entities by this field in ascending
+     * order with null values first. Use {@link FieldComparator#reversed()}
+     * for descending order.
+     *
+     * @return a Comparator that orders entities by this field
+     */
+    public FieldComparator<ENTITY> comparator() {
+        return new FieldComparator<>(this, Comparator.comparing(this::getFrom, Comparator.nullsFirst(Comparator.<V>naturalOrder())));
+    }
+
+    /**
+     * Returns a mapper that unboxes the value of this field to an int, for
+     * use in {@code mapToInt}. The values of this field must be Numbers.
+     *
+     * @return a mapper that unboxes the value of this field to an int
+     */
+    public ToIntFunction<ENTITY> asInt() {
+        return new ReferenceNumberMapper<>(this);
+    }
+
+    /**
+     * Returns a mapper that unboxes the value of this field to a long, for
+     * use in {@code mapToLong}. The values of this field must be Numbers.
+     *
+     * @return a mapper that unboxes the value of this field to a long
+     */
+    public ToLongFunction<ENTITY> asLong() {
+        return new ReferenceNumberMapper<>(this);
+    }
+
+    /**
+     * Returns a mapper that unboxes the value of this field to a double, for
+     * use in {@code mapToDouble}. The values of this field must be Numbers.
+     *
+     * @return a mapper that unboxes the value of this field to a double
+     */
+    public ToDoubleFunction<ENTITY> asDouble() {
+        return new ReferenceNumberMapper<>(this);
+    }
+
+    public ReferenceSetPredicateBuilder<ENTITY, V> newSet(Collection<? extends V> values, StandardSetOperator setOperator) {
+        return new ReferenceSetPredicateBuilder<>(this, values, setOperator);
+    }
+
+    public ReferenceRangePredicateBuilder<ENTITY, V> newRange(V lower, V upper, StandardRangeOperator rangeOperator) {
+        return new ReferenceRangePredicateBuilder<>(this, lower, upper, rangeOperator);
+    }
+
     public ReferenceBinaryPredicateBuilder<ENTITY, V> newBinary(V value, StandardBinaryOperator binaryOperator) {
         return new ReferenceBinaryPredicateBuilder<>(this, value, binaryOperator);
     }
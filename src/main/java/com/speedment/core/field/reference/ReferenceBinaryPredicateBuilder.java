@@ -73,6 +73,10 @@ public class ReferenceBinaryPredicateBuilder<ENTITY, V extends Comparable<? supe
         return value;
     }
 
+    public Comparator<V> getComparator() {
+        return entityComparator;
+    }
+
     @Override
     public StandardBinaryOperator getOperator() {
         return binaryOperator;
@@ -29,7 +29,7 @@ import java.util.function.Supplier;
  * @param <ENTITY> The entity type
  * @param <V> The value type
  */
-public class ReferenceField<ENTITY, V> implements Field<ENTITY> {
+public class ReferenceField<ENTITY, V> implements Field<ENTITY>, Function<ENTITY, V> {
 
     private final Supplier<Column> columnSupplier;
     private final Function<ENTITY, V> getter;
@@ -56,6 +56,19 @@ public class ReferenceField<ENTITY, V> implements Field<ENTITY> {
         return getter.apply(entity);
     }
 
+    /**
+     * Returns the value of this field in the given entity. A field can thus
+     * be used directly as a mapper, like {@code map(field)}, which lets the
+     * SQL stream terminator select only the column of this field.
+     *
+     * @param entity the entity
+     * @return the value of this field in the given entity
+     */
+    @Override
+    public V apply(ENTITY entity) {
+        return getFrom(entity);
+    }
+
     @Override
     public Column getColumn() {
         return columnSupplier.get();
@@ -0,0 +1,76 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.core.field.reference;
+
+import com.speedment.core.config.model.Column;
+import com.speedment.core.field.Field;
+import java.util.Objects;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Unboxes the value of a {@link ReferenceField} whose values are Numbers, so
+ * that the field can be used in {@code mapToInt}, {@code mapToLong} and
+ * {@code mapToDouble}. Since the mapper is a {@link Field}, aggregates over
+ * it can be computed by the database.
+ *
+ * @author pemi
+ * @param <ENTITY> The entity type
+ */
+public class ReferenceNumberMapper<ENTITY> implements Field<ENTITY>, ToIntFunction<ENTITY>, ToLongFunction<ENTITY>, ToDoubleFunction<ENTITY> {
+
+    private final ReferenceField<ENTITY, ?> field;
+
+    public ReferenceNumberMapper(ReferenceField<ENTITY, ?> field) {
+        this.field = Objects.requireNonNull(field);
+    }
+
+    @Override
+    public int applyAsInt(ENTITY entity) {
+        return numberIn(entity).intValue();
+    }
+
+    @Override
+    public long applyAsLong(ENTITY entity) {
+        return numberIn(entity).longValue();
+    }
+
+    @Override
+    public double applyAsDouble(ENTITY entity) {
+        return numberIn(entity).doubleValue();
+    }
+
+    @Override
+    public boolean isNullIn(ENTITY entity) {
+        return field.isNullIn(entity);
+    }
+
+    @Override
+    public Column getColumn() {
+        return field.getColumn();
+    }
+
+    public ReferenceField<ENTITY, ?> getField() {
+        return field;
+    }
+
+    private Number numberIn(ENTITY entity) {
+        return (Number) field.getFrom(entity);
+    }
+
+}
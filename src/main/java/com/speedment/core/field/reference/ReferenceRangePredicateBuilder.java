@@ -0,0 +1,79 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.core.field.reference;
+
+import com.speedment.core.field.BasePredicate;
+import com.speedment.core.field.RangePredicateBuilder;
+import com.speedment.core.field.StandardRangeOperator;
+import java.util.Objects;
+import java.util.function.Predicate;
+
+/**
+ * A predicate builder that tests if the value of a field is within an
+ * inclusive range. Just like in SQL, a null value never matches, neither
+ * BETWEEN nor NOT BETWEEN.
+ *
+ * @author pemi
+ * @param <ENTITY> Entity type
+ * @param <V> Value type
+ */
+public class ReferenceRangePredicateBuilder<ENTITY, V extends Comparable<? super V>> extends BasePredicate<ENTITY> implements Predicate<ENTITY>, RangePredicateBuilder<ENTITY, V> {
+
+    private final ReferenceField<ENTITY, V> field;
+    private final V lower;
+    private final V upper;
+    private final StandardRangeOperator rangeOperator;
+
+    public ReferenceRangePredicateBuilder(
+        final ReferenceField<ENTITY, V> field,
+        final V lower,
+        final V upper,
+        final StandardRangeOperator rangeOperator
+    ) {
+        this.field = Objects.requireNonNull(field);
+        this.lower = Objects.requireNonNull(lower);
+        this.upper = Objects.requireNonNull(upper);
+        this.rangeOperator = Objects.requireNonNull(rangeOperator);
+    }
+
+    @Override
+    public boolean test(ENTITY entity) {
+        final V value = field.getFrom(entity);
+        return value != null && rangeOperator.test(value.compareTo(lower) >= 0 && value.compareTo(upper) <= 0);
+    }
+
+    @Override
+    public ReferenceField<ENTITY, V> getField() {
+        return field;
+    }
+
+    @Override
+    public StandardRangeOperator getOperator() {
+        return rangeOperator;
+    }
+
+    @Override
+    public V getLowerAsObject() {
+        return lower;
+    }
+
+    @Override
+    public V getUpperAsObject() {
+        return upper;
+    }
+
+}
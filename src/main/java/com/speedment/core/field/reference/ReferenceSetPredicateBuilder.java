@@ -0,0 +1,88 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.core.field.reference;
+
+import com.speedment.core.field.BasePredicate;
+import com.speedment.core.field.SetPredicateBuilder;
+import com.speedment.core.field.StandardSetOperator;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * A predicate builder that tests if the value of a field is one of a set of
+ * values. Just like in SQL, a null value never matches, neither IN nor NOT IN.
+ * Null values in the set of an IN predicate are ignored, since they can never
+ * match. A NOT IN predicate rejects null values in its set: in SQL such a
+ * predicate matches no rows at all, which is hardly ever what is intended.
+ *
+ * @author pemi
+ * @param <ENTITY> Entity type
+ * @param <V> Value type
+ */
+public class ReferenceSetPredicateBuilder<ENTITY, V> extends BasePredicate<ENTITY> implements Predicate<ENTITY>, SetPredicateBuilder<ENTITY, V> {
+
+    private final ReferenceField<ENTITY, V> field;
+    private final List<V> values;
+    private final Set<V> valueSet;
+    private final StandardSetOperator setOperator;
+
+    public ReferenceSetPredicateBuilder(
+        final ReferenceField<ENTITY, V> field,
+        final Collection<? extends V> values,
+        final StandardSetOperator setOperator
+    ) {
+        this.field = Objects.requireNonNull(field);
+        this.values = new ArrayList<>(values.size());
+        this.valueSet = new HashSet<>(values.size() * 2);
+        for (final V value : values) {
+            if (value == null && setOperator == StandardSetOperator.NOT_IN) {
+                throw new IllegalArgumentException("The values of a NOT IN predicate on " + field.getColumn().getName() + " contain null");
+            }
+            if (value != null && valueSet.add(value)) {
+                this.values.add(value);
+            }
+        }
+        this.setOperator = Objects.requireNonNull(setOperator);
+    }
+
+    @Override
+    public boolean test(ENTITY entity) {
+        final V value = field.getFrom(entity);
+        return value != null && setOperator.test(valueSet.contains(value));
+    }
+
+    @Override
+    public ReferenceField<ENTITY, V> getField() {
+        return field;
+    }
+
+    @Override
+    public StandardSetOperator getOperator() {
+        return setOperator;
+    }
+
+    @Override
+    public List<V> getValuesAsObjects() {
+        return values;
+    }
+
+}
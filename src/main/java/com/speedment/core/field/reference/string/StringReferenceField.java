@@ -41,6 +41,33 @@ public class StringReferenceField<ENTITY> extends ComparableReferenceField<ENTIT
         return newBinary(value, StandardStringBinaryOperator.NOT_EQUAL_IGNORE_CASE);
     }
 
+    /**
+     * Returns a predicate that compares the column with the given value using
+     * the collation of the column. When rendered to SQL, this becomes a plain
+     * equality that can use an index on the column, as opposed to
+     * {@link #equalIgnoreCase(String)}. It should only be used on columns with
+     * a case insensitive collation (like the MySQL default
+     * {@code utf8_general_ci}) since the database then decides what is equal.
+     * When evaluated in memory, {@link String#equalsIgnoreCase(String)} is
+     * used.
+     *
+     * @param value the value to compare with
+     * @return a predicate that compares using the collation of the column
+     */
+    public StringBinaryPredicateBuilder<ENTITY> equalByCollation(String value) {
+        return newBinary(value, StandardStringBinaryOperator.EQUAL_BY_COLLATION);
+    }
+
+    /**
+     * Returns the negation of {@link #equalByCollation(String)}.
+     *
+     * @param value the value to compare with
+     * @return a predicate that compares using the collation of the column
+     */
+    public StringBinaryPredicateBuilder<ENTITY> notEqualByCollation(String value) {
+        return newBinary(value, StandardStringBinaryOperator.NOT_EQUAL_BY_COLLATION);
+    }
+
     public StringBinaryPredicateBuilder<ENTITY> startsWith(String value) {
         return newBinary(value, StandardStringBinaryOperator.STARTS_WITH);
     }
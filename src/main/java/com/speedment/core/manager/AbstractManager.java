@@ -23,6 +23,8 @@ import com.speedment.core.core.Buildable;
 import com.speedment.core.platform.Platform;
 import com.speedment.core.platform.component.ManagerComponent;
 import com.speedment.util.json.Json;
+import static com.speedment.util.stream.OptionalUtil.unwrap;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -31,6 +33,7 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  *
@@ -59,38 +62,116 @@ public abstract class AbstractManager<PK, ENTITY, BUILDER extends Buildable<ENTI
 
     private void insertToIndexes(ENTITY entity) {
         indexes.entrySet().stream().forEach(e -> {
-            e.getValue().put(makeKey(e.getKey(), entity), entity);
+            final Object key = makeKey(e.getKey(), entity);
+            if (key != null) {
+                e.getValue().put(key, entity);
+            }
         });
     }
 
     protected void updateEvent(ENTITY entity) {
+        updateEvent(entity, entity);
+    }
+
+    /**
+     * Called when an entity has been updated. The previous version of the
+     * entity is used to remove the entity from the keys it was indexed by
+     * before the update.
+     *
+     * @param previousEntity the entity before the update
+     * @param entity the entity after the update
+     */
+    protected void updateEvent(ENTITY previousEntity, ENTITY entity) {
         //TODO Make atomic.
-        deleteFromIndexes(entity);
+        deleteFromIndexes(previousEntity);
         insertToIndexes(entity);
         updateListeners.stream().forEachOrdered(c -> c.accept(entity));
     }
 
     protected void deleteEvent(ENTITY entity) {
-        deleteFromIndexes(entity);
+        deleteEvent(entity, entity);
+    }
+
+    /**
+     * Called when an entity has been deleted. The previous version of the
+     * entity is used to remove the entity from the keys it was indexed by,
+     * since the deleted entity may only have its primary key set.
+     *
+     * @param previousEntity the entity as it was before the delete
+     * @param entity the deleted entity
+     */
+    protected void deleteEvent(ENTITY previousEntity, ENTITY entity) {
+        deleteFromIndexes(previousEntity);
         deleteListeners.stream().forEachOrdered(c -> c.accept(entity));
     }
 
     private void deleteFromIndexes(ENTITY entity) {
         indexes.entrySet().stream().forEach(e -> {
-            e.getValue().remove(makeKey(e.getKey(), entity));
+            final Object key = makeKey(e.getKey(), entity);
+            if (key != null) {
+                e.getValue().remove(key, entity);
+            }
         });
     }
 
+    /**
+     * Returns the key of the given entity for an index over the given columns.
+     * The key of a single column index is the value of the column and the key
+     * of a composite index is the list of the values of its columns. Entities
+     * with a null value in any of the columns are not indexed.
+     *
+     * @param columns the columns of the index
+     * @param entity the entity
+     * @return the key, or null if the entity shall not be indexed
+     */
     private Object makeKey(List<Column> columns, ENTITY entity) {
         if (columns.size() == 1) {
-            return get(entity, columns.get(0));
+            return unwrap(get(entity, columns.get(0)));
         } else {
-            return columns.stream()
-                .map(c -> get(entity, c))
+            final List<Object> key = columns.stream()
+                .map(c -> unwrap(get(entity, c)))
                 .collect(Collectors.toList());
+            return key.contains(null) ? null : key;
         }
     }
 
+    /**
+     * Adds an index over the given columns and puts all the given entities in
+     * it. Subsequent insert, update and delete events keep the index up to
+     * date.
+     *
+     * @param columns the columns of the index
+     * @param indexHolder the IndexHolder of the index
+     * @param entities the entities to put in the index
+     */
+    protected void addIndex(List<Column> columns, IndexHolder<Object, PK, ENTITY> indexHolder, Stream<ENTITY> entities) {
+        entities.forEach(entity -> {
+            final Object key = makeKey(columns, entity);
+            if (key != null) {
+                indexHolder.put(key, entity);
+            }
+        });
+        indexes.put(columns, indexHolder);
+    }
+
+    /**
+     * Removes all the indexes of this Manager.
+     */
+    protected void clearIndexes() {
+        indexes.values().forEach(IndexHolder::clear);
+        indexes.clear();
+    }
+
+    /**
+     * Returns the indexes of this Manager by the columns they index. Keys of
+     * composite indexes have the values in the order of the columns.
+     *
+     * @return the indexes of this Manager
+     */
+    protected Map<List<Column>, IndexHolder<Object, PK, ENTITY>> getIndexes() {
+        return Collections.unmodifiableMap(indexes);
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     public Optional<Object> find(ENTITY entity, Column column) {
@@ -0,0 +1,204 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.core.manager;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * An identity cache of the entities that a foreign key of another entity
+ * refers to. Each foreign entity is loaded at most once. Entities streamed
+ * through {@link #prefetch(Stream)} have their foreign entities loaded in
+ * chunks, so that a stream of entities and their foreign entities can be
+ * navigated with one query per chunk instead of one query per entity.
+ * <p>
+ * A cache is intended to be used by a single stream and is not thread safe.
+ *
+ * @author pemi
+ * @param <ENTITY> the type of the entities holding the foreign key
+ * @param <FK> the type of the foreign key
+ * @param <FOREIGN> the type of the entities that the foreign key refers to
+ */
+public class ForeignKeyCache<ENTITY, FK, FOREIGN> {
+
+    public static final int DEFAULT_CHUNK_SIZE = 128;
+
+    private final Function<? super ENTITY, ? extends FK> foreignKeyOf;
+    private final Function<? super Collection<FK>, ? extends Collection<FOREIGN>> loader;
+    private final Function<? super FOREIGN, ? extends FK> keyOf;
+    private final int chunkSize;
+    private final Map<FK, FOREIGN> cache;
+
+    /**
+     * Creates a new cache.
+     *
+     * @param foreignKeyOf the function that returns the foreign key of an
+     * entity, or null if the entity does not refer to any foreign entity
+     * @param loader the function that loads the foreign entities with the
+     * given keys
+     * @param keyOf the function that returns the key of a foreign entity
+     */
+    public ForeignKeyCache(
+        final Function<? super ENTITY, ? extends FK> foreignKeyOf,
+        final Function<? super Collection<FK>, ? extends Collection<FOREIGN>> loader,
+        final Function<? super FOREIGN, ? extends FK> keyOf
+    ) {
+        this(foreignKeyOf, loader, keyOf, DEFAULT_CHUNK_SIZE);
+    }
+
+    public ForeignKeyCache(
+        final Function<? super ENTITY, ? extends FK> foreignKeyOf,
+        final Function<? super Collection<FK>, ? extends Collection<FOREIGN>> loader,
+        final Function<? super FOREIGN, ? extends FK> keyOf,
+        final int chunkSize
+    ) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("The chunk size must be positive, was " + chunkSize);
+        }
+        this.foreignKeyOf = Objects.requireNonNull(foreignKeyOf);
+        this.loader = Objects.requireNonNull(loader);
+        this.keyOf = Objects.requireNonNull(keyOf);
+        this.chunkSize = chunkSize;
+        this.cache = new HashMap<>();
+    }
+
+    /**
+     * Returns the foreign entity that the given entity refers to. The foreign
+     * entity is loaded unless it is already cached.
+     *
+     * @param entity the entity holding the foreign key
+     * @return the foreign entity, or empty if the entity does not refer to
+     * any foreign entity or the foreign entity does not exist
+     */
+    public Optional<FOREIGN> find(ENTITY entity) {
+        final FK key = foreignKeyOf.apply(entity);
+        if (key == null) {
+            return Optional.empty();
+        }
+        if (!cache.containsKey(key)) {
+            load(Collections.singleton(key));
+        }
+        return Optional.ofNullable(cache.get(key));
+    }
+
+    /**
+     * Returns a stream of the given entities that loads the foreign entities
+     * of each chunk of entities with a single call to the loader before the
+     * entities of the chunk are passed on. The returned stream is sequential.
+     *
+     * @param entities the entities holding the foreign keys
+     * @return a stream of the given entities
+     */
+    public Stream<ENTITY> prefetch(Stream<ENTITY> entities) {
+        return chunked(entities, chunkSize, chunk -> {
+            final Set<FK> keys = new LinkedHashSet<>();
+            chunk.forEach(e -> keys.add(foreignKeyOf.apply(e)));
+            load(keys);
+        });
+    }
+
+    /**
+     * Returns a sequential stream of the given entities that passes each
+     * chunk of entities to the given consumer before the entities of the
+     * chunk are passed on.
+     *
+     * @param <E> the entity type
+     * @param entities the entities to stream
+     * @param chunkSize the maximum number of entities in a chunk
+     * @param chunkConsumer the consumer of each chunk
+     * @return a stream of the given entities
+     */
+    static <E> Stream<E> chunked(Stream<E> entities, int chunkSize, Consumer<List<E>> chunkConsumer) {
+        final Iterator<E> iterator = entities.iterator();
+        final Iterator<E> chunkIterator = new Iterator<E>() {
+
+            private final Deque<E> chunk = new ArrayDeque<>(chunkSize);
+
+            @Override
+            public boolean hasNext() {
+                if (chunk.isEmpty()) {
+                    final List<E> next = new ArrayList<>(chunkSize);
+                    while (next.size() < chunkSize && iterator.hasNext()) {
+                        next.add(iterator.next());
+                    }
+                    if (!next.isEmpty()) {
+                        chunkConsumer.accept(next);
+                        chunk.addAll(next);
+                    }
+                }
+                return !chunk.isEmpty();
+            }
+
+            @Override
+            public E next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return chunk.poll();
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(chunkIterator, Spliterator.ORDERED), false)
+            .onClose(entities::close);
+    }
+
+    /**
+     * Loads the foreign entities with the given keys that are not already
+     * cached. Keys without a foreign entity are remembered as such.
+     *
+     * @param keys the keys to load
+     */
+    private void load(Collection<FK> keys) {
+        final List<FK> missing = new ArrayList<>();
+        keys.stream()
+            .filter(Objects::nonNull)
+            .filter(k -> !cache.containsKey(k))
+            .forEachOrdered(missing::add);
+        if (missing.isEmpty()) {
+            return;
+        }
+        loader.apply(missing).forEach(f -> cache.put(keyOf.apply(f), f));
+        missing.forEach(k -> cache.putIfAbsent(k, null));
+    }
+
+    /**
+     * Returns the number of foreign keys that are cached.
+     *
+     * @return the number of foreign keys that are cached
+     */
+    public int size() {
+        return cache.size();
+    }
+
+}
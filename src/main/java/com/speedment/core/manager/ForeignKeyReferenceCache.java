@@ -0,0 +1,167 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.core.manager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * A cache of the entities that refer to other entities through a foreign key,
+ * grouped by the key they refer to. Entities streamed through
+ * {@link #prefetch(Stream)} have their referencing entities loaded in chunks,
+ * so that a stream of entities and the entities that refer to them can be
+ * navigated with one query per chunk instead of one query per entity.
+ * <p>
+ * When a prefetching stream loads the next chunk, the referencing entities of
+ * the previous chunk are dropped, so that only about one chunk of referencing
+ * entities is held in memory however long the stream is. An entity whose
+ * referencing entities have been dropped has them loaded again by
+ * {@link #find(Object)}.
+ * <p>
+ * A cache is intended to be used by a single stream and is not thread safe.
+ *
+ * @author pemi
+ * @param <ENTITY> the type of the referenced entities
+ * @param <KEY> the type of the referenced key
+ * @param <REFERENCING> the type of the entities holding the foreign key
+ */
+public class ForeignKeyReferenceCache<ENTITY, KEY, REFERENCING> {
+
+    private final Function<? super ENTITY, ? extends KEY> keyOf;
+    private final Function<? super Collection<KEY>, ? extends Collection<REFERENCING>> loader;
+    private final Function<? super REFERENCING, ? extends KEY> foreignKeyOf;
+    private final int chunkSize;
+    private final Map<KEY, List<REFERENCING>> cache;
+
+    /**
+     * Creates a new cache.
+     *
+     * @param keyOf the function that returns the referenced key of an entity
+     * @param loader the function that loads all the referencing entities with
+     * a foreign key among the given keys
+     * @param foreignKeyOf the function that returns the foreign key of a
+     * referencing entity
+     */
+    public ForeignKeyReferenceCache(
+        final Function<? super ENTITY, ? extends KEY> keyOf,
+        final Function<? super Collection<KEY>, ? extends Collection<REFERENCING>> loader,
+        final Function<? super REFERENCING, ? extends KEY> foreignKeyOf
+    ) {
+        this(keyOf, loader, foreignKeyOf, ForeignKeyCache.DEFAULT_CHUNK_SIZE);
+    }
+
+    public ForeignKeyReferenceCache(
+        final Function<? super ENTITY, ? extends KEY> keyOf,
+        final Function<? super Collection<KEY>, ? extends Collection<REFERENCING>> loader,
+        final Function<? super REFERENCING, ? extends KEY> foreignKeyOf,
+        final int chunkSize
+    ) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("The chunk size must be positive, was " + chunkSize);
+        }
+        this.keyOf = Objects.requireNonNull(keyOf);
+        this.loader = Objects.requireNonNull(loader);
+        this.foreignKeyOf = Objects.requireNonNull(foreignKeyOf);
+        this.chunkSize = chunkSize;
+        this.cache = new HashMap<>();
+    }
+
+    /**
+     * Returns the entities that refer to the given entity. They are loaded
+     * unless they are already cached.
+     *
+     * @param entity the referenced entity
+     * @return the entities that refer to the given entity
+     */
+    public Stream<REFERENCING> find(ENTITY entity) {
+        final KEY key = keyOf.apply(entity);
+        if (key == null) {
+            return Stream.empty();
+        }
+        if (!cache.containsKey(key)) {
+            load(Collections.singleton(key));
+        }
+        return cache.get(key).stream();
+    }
+
+    /**
+     * Returns a stream of the given entities that loads the referencing
+     * entities of each chunk of entities with a single call to the loader
+     * before the entities of the chunk are passed on. The referencing entities
+     * of the previous chunk are dropped at the same time. The returned stream
+     * is sequential.
+     *
+     * @param entities the referenced entities
+     * @return a stream of the given entities
+     */
+    public Stream<ENTITY> prefetch(Stream<ENTITY> entities) {
+        final Set<KEY> previousKeys = new HashSet<>();
+        return ForeignKeyCache.chunked(entities, chunkSize, chunk -> {
+            final Set<KEY> keys = new LinkedHashSet<>();
+            chunk.forEach(e -> keys.add(keyOf.apply(e)));
+            previousKeys.removeAll(keys);
+            previousKeys.forEach(cache::remove);
+            previousKeys.clear();
+            previousKeys.addAll(keys);
+            load(keys);
+        });
+    }
+
+    /**
+     * Loads the referencing entities of the given keys that are not already
+     * cached and groups them by key.
+     *
+     * @param keys the keys to load
+     */
+    private void load(Collection<KEY> keys) {
+        final List<KEY> missing = new ArrayList<>();
+        keys.stream()
+            .filter(Objects::nonNull)
+            .filter(k -> !cache.containsKey(k))
+            .forEachOrdered(missing::add);
+        if (missing.isEmpty()) {
+            return;
+        }
+        missing.forEach(k -> cache.put(k, new ArrayList<>()));
+        loader.apply(missing).forEach(r -> {
+            final List<REFERENCING> referencing = cache.get(foreignKeyOf.apply(r));
+            if (referencing != null) {
+                referencing.add(r);
+            }
+        });
+    }
+
+    /**
+     * Returns the number of keys that are cached.
+     *
+     * @return the number of keys that are cached
+     */
+    public int size() {
+        return cache.size();
+    }
+
+}
@@ -33,5 +33,17 @@ public interface IndexHolder<KEY, PK, ENTITY> {
 
     void put(KEY key, ENTITY entity);
 
-    void remove(KEY key);
+    /**
+     * Removes the given entity from the given key. Other entities with the
+     * same key are kept.
+     *
+     * @param key the key that the entity was put with
+     * @param entity the entity
+     */
+    void remove(KEY key, ENTITY entity);
+
+    /**
+     * Removes all the entities from this IndexHolder.
+     */
+    void clear();
 }
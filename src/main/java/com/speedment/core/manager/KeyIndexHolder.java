@@ -16,9 +16,9 @@
  */
 package com.speedment.core.manager;
 
-import com.speedment.core.core.Buildable;
 import static com.speedment.util.stream.StreamUtil.streamOfNullable;
 import java.util.Map;
+import static java.util.Objects.requireNonNull;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Stream;
 
@@ -31,11 +31,11 @@ import java.util.stream.Stream;
  */
 public class KeyIndexHolder<KEY, PK, ENTITY> implements IndexHolder<KEY, PK, ENTITY> {
 
-    private final Manager<PK, ENTITY, Buildable<ENTITY>> manager;
+    private final Manager<PK, ENTITY, ?> manager;
     private final Map<KEY, Map<PK, ENTITY>> entities;
 
-    public KeyIndexHolder(Manager<PK, ENTITY, Buildable<ENTITY>> manager) {
-        this.manager = manager;
+    public KeyIndexHolder(Manager<PK, ENTITY, ?> manager) {
+        this.manager = requireNonNull(manager);
         this.entities = new ConcurrentHashMap<>();
     }
 
@@ -51,13 +51,26 @@ public class KeyIndexHolder<KEY, PK, ENTITY> implements IndexHolder<KEY, PK, ENT
 
     @Override
     public void put(KEY key, ENTITY entity) {
-        entities.computeIfAbsent(key, k -> new ConcurrentHashMap<>())
-                .put(manager.primaryKeyFor(entity), entity);
+        final PK primaryKey = manager.primaryKeyFor(entity);
+        entities.compute(key, (k, bucket) -> {
+            final Map<PK, ENTITY> result = bucket == null ? new ConcurrentHashMap<>() : bucket;
+            result.put(primaryKey, entity);
+            return result;
+        });
     }
 
     @Override
-    public void remove(KEY key) {
-        entities.remove(key);
+    public void remove(KEY key, ENTITY entity) {
+        final PK primaryKey = manager.primaryKeyFor(entity);
+        entities.computeIfPresent(key, (k, bucket) -> {
+            bucket.remove(primaryKey);
+            return bucket.isEmpty() ? null : bucket;
+        });
+    }
+
+    @Override
+    public void clear() {
+        entities.clear();
     }
 
 }
@@ -28,8 +28,15 @@ import com.speedment.core.core.Buildable;
 import com.speedment.core.lifecycle.Lifecyclable;
 import com.speedment.core.manager.metaresult.MetaResult;
 import com.speedment.util.json.Json;
+import static com.speedment.util.stream.OptionalUtil.unwrap;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.Consumer;
+import static java.util.stream.Collectors.toList;
 import java.util.stream.Stream;
 
 /**
@@ -88,6 +95,50 @@ public interface Manager<PK, ENTITY, BUILDER extends Buildable<ENTITY>> extends
         return stream().count();
     }
 
+    /**
+     * Returns the entity with the given primary key, if any. For tables with
+     * a composite primary key, the key is the List produced by the
+     * PrimaryKeyFactoryComponent.
+     *
+     * @param primaryKey the primary key to look up
+     * @return the entity with the given primary key, or empty
+     */
+    default Optional<ENTITY> findByPrimaryKey(PK primaryKey) {
+        Objects.requireNonNull(primaryKey);
+        return stream().filter(e -> primaryKey.equals(primaryKeyFor(e))).findAny();
+    }
+
+    /**
+     * Returns the entities with the given primary keys. Keys without an
+     * entity are ignored and the entities are returned in no particular
+     * order.
+     *
+     * @param primaryKeys the primary keys to look up
+     * @return the entities with the given primary keys
+     */
+    default List<ENTITY> findAllByPrimaryKeys(Collection<PK> primaryKeys) {
+        final Set<PK> keys = new HashSet<>(primaryKeys);
+        return stream().filter(e -> keys.contains(primaryKeyFor(e))).collect(toList());
+    }
+
+    /**
+     * Returns the entities whose value of the given column is one of the
+     * given values. Null values are never matched and the entities are
+     * returned in no particular order.
+     *
+     * @param column the column to match
+     * @param values the values to match
+     * @return the entities whose value of the given column is one of the
+     * given values
+     */
+    default List<ENTITY> findAllBy(Column column, Collection<?> values) {
+        final Set<?> valueSet = new HashSet<>(values);
+        return stream().filter(e -> {
+            final Object value = unwrap(get(e, column));
+            return value != null && valueSet.contains(value);
+        }).collect(toList());
+    }
+
     // Add and remove
     void onInsert(Consumer<ENTITY> listener);
 
@@ -107,4 +158,39 @@ public interface Manager<PK, ENTITY, BUILDER extends Buildable<ENTITY>> extends
     Optional<ENTITY> update(ENTITY entity, Consumer<MetaResult<ENTITY>> listener);
 
     Optional<ENTITY> remove(ENTITY entity, Consumer<MetaResult<ENTITY>> listener);
+
+    // Bulk persistence
+    default List<ENTITY> persistAll(Stream<ENTITY> entities) {
+        return persistAll(entities, null);
+    }
+
+    default List<ENTITY> updateAll(Stream<ENTITY> entities) {
+        return updateAll(entities, null);
+    }
+
+    default List<ENTITY> removeAll(Stream<ENTITY> entities) {
+        return removeAll(entities, null);
+    }
+
+    /**
+     * Persists all the given entities. The listener, if any, is invoked once
+     * for each entity. Implementations may persist all entities in a single
+     * transaction, in which case either all or none of the entities are
+     * persisted.
+     *
+     * @param entities the entities to persist
+     * @param listener the listener to invoke for each entity, or null
+     * @return the persisted entities, in order
+     */
+    default List<ENTITY> persistAll(Stream<ENTITY> entities, Consumer<MetaResult<ENTITY>> listener) {
+        return entities.map(e -> persist(e, listener)).filter(Optional::isPresent).map(Optional::get).collect(toList());
+    }
+
+    default List<ENTITY> updateAll(Stream<ENTITY> entities, Consumer<MetaResult<ENTITY>> listener) {
+        return entities.map(e -> update(e, listener)).filter(Optional::isPresent).map(Optional::get).collect(toList());
+    }
+
+    default List<ENTITY> removeAll(Stream<ENTITY> entities, Consumer<MetaResult<ENTITY>> listener) {
+        return entities.map(e -> remove(e, listener)).filter(Optional::isPresent).map(Optional::get).collect(toList());
+    }
 }
@@ -18,6 +18,7 @@ package com.speedment.core.manager;
 
 import static com.speedment.util.stream.StreamUtil.streamOfNullable;
 import java.util.Map;
+import static java.util.Objects.requireNonNull;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Stream;
 
@@ -30,10 +31,12 @@ import java.util.stream.Stream;
  */
 public class UniqueKeyIndexHolder<KEY, PK, ENTITY> implements IndexHolder<KEY, PK, ENTITY> {
     
+    private final Manager<PK, ENTITY, ?> manager;
     private final Map<KEY, ENTITY> entities;
     
-    public UniqueKeyIndexHolder() {
-        entities = new ConcurrentHashMap<>();
+    public UniqueKeyIndexHolder(Manager<PK, ENTITY, ?> manager) {
+        this.manager = requireNonNull(manager);
+        this.entities = new ConcurrentHashMap<>();
     }
 
     @Override
@@ -52,8 +55,15 @@ public class UniqueKeyIndexHolder<KEY, PK, ENTITY> implements IndexHolder<KEY, P
     }
 
     @Override
-    public void remove(KEY key) {
-        entities.remove(key);
+    public void remove(KEY key, ENTITY entity) {
+        final PK primaryKey = manager.primaryKeyFor(entity);
+        // Only remove the entity if the key has not been taken over by another entity
+        entities.computeIfPresent(key, (k, e) -> primaryKey.equals(manager.primaryKeyFor(e)) ? null : e);
+    }
+
+    @Override
+    public void clear() {
+        entities.clear();
     }
     
 }
\ No newline at end of file
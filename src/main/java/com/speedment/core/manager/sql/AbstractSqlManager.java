@@ -18,23 +18,40 @@ package com.speedment.core.manager.sql;
 
 import com.speedment.core.config.model.Column;
 import com.speedment.core.config.model.Dbms;
+import com.speedment.core.config.model.Index;
+import com.speedment.core.config.model.IndexColumn;
 import com.speedment.core.config.model.PrimaryKeyColumn;
 import com.speedment.core.config.model.Schema;
 import com.speedment.core.config.model.Table;
+import com.speedment.core.config.model.parameters.ColumnCompressionType;
+import com.speedment.core.config.model.parameters.DbmsType;
+import com.speedment.core.config.model.parameters.StorageEngineType;
 import com.speedment.core.core.Buildable;
 import com.speedment.core.manager.AbstractManager;
+import com.speedment.core.manager.IndexHolder;
+import com.speedment.core.manager.KeyIndexHolder;
+import com.speedment.core.manager.UniqueKeyIndexHolder;
 import com.speedment.core.manager.metaresult.MetaResult;
 import com.speedment.core.manager.metaresult.SqlMetaResult;
+import com.speedment.core.manager.store.ColumnarEntityStore;
+import com.speedment.core.manager.store.EntityStore;
+import com.speedment.core.manager.store.EntityStoreStreamTerminator;
+import com.speedment.core.manager.store.OffHeapEntityStore;
+import com.speedment.core.manager.store.OnHeapEntityStore;
+import com.speedment.core.manager.store.RowLayout;
 import com.speedment.core.db.AsynchronousQueryResult;
 import com.speedment.core.db.DbmsHandler;
 import com.speedment.core.db.impl.SqlFunction;
+import com.speedment.core.exception.SpeedmentException;
 import com.speedment.core.platform.Platform;
 import com.speedment.core.platform.component.DbmsHandlerComponent;
 import com.speedment.core.runtime.typemapping.StandardJavaTypeMapping;
+import com.speedment.util.Deduplicator;
 import com.speedment.util.LongUtil;
 import static com.speedment.util.stream.OptionalUtil.unwrap;
 import com.speedment.util.stream.builder.ReferenceStreamBuilder;
 import com.speedment.util.stream.builder.pipeline.BasePipeline;
+import com.speedment.util.stream.builder.streamterminator.StreamTerminator;
 import java.math.BigDecimal;
 import java.net.URL;
 import java.sql.Array;
@@ -49,16 +66,24 @@ import java.sql.SQLException;
 import java.sql.SQLXML;
 import java.sql.Time;
 import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
 import java.util.stream.BaseStream;
-import java.util.stream.Collectors;
 import static java.util.stream.Collectors.joining;
+import static java.util.stream.Collectors.toList;
 import java.util.stream.Stream;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -75,11 +100,244 @@ public abstract class AbstractSqlManager<PK, ENTITY, BUILDER extends Buildable<E
 
     private static final Logger LOGGER = LogManager.getLogger(AbstractSqlManager.class);
 
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+
+    private static final long DEFAULT_MAX_STATEMENT_SIZE = 1 << 20;
+    private static final long STATEMENT_SIZE_MARGIN = 1 << 10;
+    private static final int MAX_STATEMENT_PARAMETERS = 65_535;
+    private static final int MAX_KEYS_PER_LOOKUP_LOG2 = 7;
+
     private SqlFunction<ResultSet, ENTITY> sqlEntityMapper;
+    private volatile SqlTemplates templates;
+    private volatile int batchSize = DEFAULT_BATCH_SIZE;
+    private volatile Integer fetchSize;
+    private volatile int maxSlabSize = OffHeapEntityStore.DEFAULT_MAX_SLAB_SIZE;
+    private volatile EntityStore<PK, ENTITY> store;
+    private volatile Deduplication deduplication;
+
+    @Override
+    public Boolean initialize() {
+        templates = new SqlTemplates(getTable());
+        return super.initialize();
+    }
+
+    /**
+     * Returns the SQL templates and column arrays for the table of this
+     * Manager. They are normally created by {@link #initialize()} but are
+     * created on demand if the Manager is used before it is initialized.
+     *
+     * @return the SQL templates for this Manager
+     */
+    private SqlTemplates templates() {
+        final SqlTemplates result = templates;
+        if (result == null) {
+            return templates = new SqlTemplates(getTable());
+        }
+        return result;
+    }
 
     @Override
     public Stream<ENTITY> stream() {
-        final AsynchronousQueryResult<ENTITY> asynchronousQueryResult = dbmsHandler().executeQueryAsync(sqlSelect(""), Collections.emptyList(), sqlEntityMapper.unWrap());
+        return stream(getFetchSize());
+    }
+
+    /**
+     * Reads an entity from the current row of the given ResultSet using the
+     * entity mapper. The values are not deduplicated, since entities that are
+     * read from the database are not kept by this Manager. Entities that are
+     * put in a store are deduplicated by {@link #deduplicate(Object, boolean)}
+     * instead.
+     *
+     * @param resultSet the ResultSet
+     * @return the entity
+     * @throws SQLException if the row could not be read
+     */
+    private ENTITY readEntity(ResultSet resultSet) throws SQLException {
+        return sqlEntityMapper.apply(resultSet);
+    }
+
+    /**
+     * Replaces the values of the columns that use
+     * {@link ColumnCompressionType#DEDUPLICATION} with their canonical
+     * instances, if the entity is to be kept in the given store. Only stores
+     * that keep the entities or their values as objects benefit from shared
+     * instances. The {@link OffHeapEntityStore} copies the values into its
+     * rows and deduplicates them when the rows are read back instead.
+     *
+     * @param store the store the entity is to be kept in
+     * @param entity the entity
+     * @param isNew if the entity has just been read, so that it may be
+     * modified if it is also a builder
+     * @return an entity with the canonical values
+     */
+    private ENTITY deduplicate(EntityStore<PK, ENTITY> store, ENTITY entity, boolean isNew) {
+        return store instanceof OffHeapEntityStore ? entity : deduplicate(entity, isNew);
+    }
+
+    /**
+     * Replaces the values of the columns that use
+     * {@link ColumnCompressionType#DEDUPLICATION} with their canonical
+     * instances.
+     *
+     * @param entity the entity
+     * @param isNew if the entity has just been read, so that it may be
+     * modified if it is also a builder
+     * @return an entity with the canonical values
+     */
+    @SuppressWarnings("unchecked")
+    private ENTITY deduplicate(ENTITY entity, boolean isNew) {
+        final Deduplication d = deduplication();
+        if (d.columns.length == 0) {
+            return entity;
+        }
+        BUILDER builder = null;
+        for (int i = 0; i < d.columns.length; i++) {
+            final Object value = unwrap(get(entity, d.columns[i]));
+            final Object canonical = d.deduplicators[i].deduplicate(value);
+            if (canonical != value) {
+                if (builder == null) {
+                    builder = isNew && getBuilderClass().isInstance(entity) ? (BUILDER) entity : toBuilder(entity);
+                }
+                set(builder, d.columns[i], canonical);
+            }
+        }
+        return builder == null ? entity : builder.build();
+    }
+
+    /**
+     * Returns the dictionary that deduplicates the values of the given
+     * column, if the column uses {@link ColumnCompressionType#DEDUPLICATION}.
+     * The dictionary tells how often values are found in it.
+     *
+     * @param column the column
+     * @return the dictionary of the column
+     */
+    public Optional<Deduplicator<Object>> getDeduplicator(Column column) {
+        final Deduplication d = deduplication();
+        for (int i = 0; i < d.columns.length; i++) {
+            if (d.columns[i].getName().equals(column.getName())) {
+                return Optional.of(d.deduplicators[i]);
+            }
+        }
+        return Optional.empty();
+    }
+
+    private Deduplication deduplication() {
+        final Deduplication result = deduplication;
+        if (result == null) {
+            return deduplication = new Deduplication(templates().columns);
+        }
+        return result;
+    }
+
+    @Override
+    public Boolean start() {
+        newStore().ifPresent(this::load);
+        return super.start();
+    }
+
+    @Override
+    public Boolean stop() {
+        final Deduplication d = deduplication;
+        if (d != null) {
+            for (int i = 0; i < d.columns.length; i++) {
+                LOGGER.info("Deduplication of " + templates().tableReference + "." + d.columns[i].getName() + ": " + d.deduplicators[i]);
+            }
+        }
+        final EntityStore<PK, ENTITY> oldStore = store;
+        store = null;
+        clearIndexes();
+        if (oldStore != null) {
+            oldStore.clear();
+        }
+        return super.stop();
+    }
+
+    /**
+     * Creates the store that the entities of the table shall be kept in, if
+     * any. A table is only kept in the JVM if the table itself selects a
+     * StorageEngineType that is implemented here. The StorageEngineType that
+     * a table inherits from its schema is not enough since ON_HEAP is also the
+     * default for schemas.
+     *
+     * @return the store for the table of this Manager, or empty if the table
+     * shall be read from the database
+     */
+    protected Optional<EntityStore<PK, ENTITY>> newStore() {
+        final StorageEngineType storageEngineType = getTable().getStorageEngineType();
+        if (storageEngineType == null) {
+            return Optional.empty();
+        }
+        switch (storageEngineType) {
+            case ON_HEAP:
+                return Optional.of(new OnHeapEntityStore<>());
+            case ON_HEAP_COLUMNAR:
+                return Optional.of(new ColumnarEntityStore<>(this, Arrays.asList(templates().columns)));
+            case OFF_HEAP: {
+                final List<Column> columns = Arrays.asList(templates().columns);
+                if (RowLayout.isSupported(columns)) {
+                    return Optional.of(new OffHeapEntityStore<>(new RowLayout<>(this, columns, this::getDeduplicator), maxSlabSize));
+                }
+                LOGGER.warn("The table " + templates().tableReference + " has columns without a binary layout and is kept on the heap");
+                return Optional.of(new OnHeapEntityStore<>());
+            }
+            default:
+                return Optional.empty();
+        }
+    }
+
+    /**
+     * Loads all the entities of the table into the given store and then
+     * starts serving streams and primary key lookups from it. Writes that are
+     * made by other Managers or applications are not seen by the store. If the
+     * entities are kept as objects on the heap, the indexes of the table are
+     * built as well so that equality filters on indexed columns do not scan
+     * the store.
+     *
+     * @param newStore the store to load
+     */
+    private void load(final EntityStore<PK, ENTITY> newStore) {
+        final SqlTemplates t = templates();
+        if (t.primaryKeyColumns.length == 0) {
+            LOGGER.warn("The table " + t.tableReference + " has no primary key and can not be kept in memory");
+            return;
+        }
+        try (final Stream<ENTITY> entities = sqlStream(getFetchSize())) {
+            entities.forEach(entity -> {
+                final ENTITY storedEntity = deduplicate(newStore, entity, true);
+                newStore.put(primaryKeyFor(storedEntity), storedEntity);
+            });
+        }
+        LOGGER.info("Loaded " + newStore.size() + " entities of " + t.tableReference + " into " + newStore);
+        if (newStore instanceof OnHeapEntityStore) {
+            getTable().streamOf(Index.class).forEachOrdered(index -> {
+                final List<Column> columns = index.stream().map(IndexColumn::getColumn).collect(toList());
+                final IndexHolder<Object, PK, ENTITY> indexHolder = Boolean.TRUE.equals(index.isUnique())
+                    ? new UniqueKeyIndexHolder<>(this)
+                    : new KeyIndexHolder<>(this);
+                addIndex(columns, indexHolder, newStore.stream());
+                LOGGER.info("Built the index " + index.getName() + " of " + t.tableReference);
+            });
+        }
+        store = newStore;
+    }
+
+    @Override
+    public Stream<ENTITY> stream(int fetchSize) {
+        final EntityStore<PK, ENTITY> currentStore = store;
+        if (currentStore != null) {
+            final Map<List<Column>, IndexHolder<Object, PK, ENTITY>> indexes = getIndexes();
+            final StreamTerminator terminator = indexes.isEmpty()
+                ? currentStore.streamTerminator()
+                : new EntityStoreStreamTerminator<>(currentStore, indexes);
+            return new ReferenceStreamBuilder<>(new BasePipeline<>(() -> currentStore.stream()), terminator);
+        }
+        return sqlStream(fetchSize);
+    }
+
+    private Stream<ENTITY> sqlStream(int fetchSize) {
+        final AsynchronousQueryResult<ENTITY> asynchronousQueryResult = dbmsHandler().executeQueryAsync(sqlSelect(""), Collections.emptyList(), ((SqlFunction<ResultSet, ENTITY>) this::readEntity).unWrap());
+        asynchronousQueryResult.setFetchSize(fetchSize);
         final SqlStreamTerminator<PK, ENTITY, BUILDER> terminator = new SqlStreamTerminator<>(this, asynchronousQueryResult);
         final Supplier<BaseStream<?, ?>> initialSupplier = () -> asynchronousQueryResult.stream();
         final Stream<ENTITY> result = new ReferenceStreamBuilder<>(new BasePipeline<>(initialSupplier), terminator);
@@ -87,22 +345,137 @@ public abstract class AbstractSqlManager<PK, ENTITY, BUILDER extends Buildable<E
         return result;
     }
 
+    @Override
+    public Optional<ENTITY> findByPrimaryKey(PK primaryKey) {
+        Objects.requireNonNull(primaryKey);
+        final EntityStore<PK, ENTITY> currentStore = store;
+        if (currentStore != null) {
+            return currentStore.get(primaryKey);
+        }
+        final SqlTemplates templates = templates();
+        requirePrimaryKey(templates);
+        return synchronousStreamOf(templates.selectByPrimaryKey, primaryKeyValues(templates, primaryKey), this::readEntity).findAny();
+    }
+
+    @Override
+    public List<ENTITY> findAllByPrimaryKeys(Collection<PK> primaryKeys) {
+        final EntityStore<PK, ENTITY> currentStore = store;
+        if (currentStore != null) {
+            return new LinkedHashSet<>(primaryKeys).stream()
+                .map(currentStore::get)
+                .filter(Optional::isPresent)
+                .map(Optional::get)
+                .collect(toList());
+        }
+        final SqlTemplates templates = templates();
+        requirePrimaryKey(templates);
+        return findAllIn(primaryKeys, log2 -> templates.selectByPrimaryKeys[log2], pk -> primaryKeyValues(templates, pk));
+    }
+
+    @Override
+    public List<ENTITY> findAllBy(Column column, Collection<?> values) {
+        if (store != null) {
+            final Optional<IndexHolder<Object, PK, ENTITY>> oIndex = getIndexes().entrySet().stream()
+                .filter(e -> e.getKey().size() == 1 && e.getKey().get(0).getName().equals(column.getName()))
+                .map(Map.Entry::getValue)
+                .findAny();
+            if (oIndex.isPresent()) {
+                return values.stream()
+                    .filter(Objects::nonNull)
+                    .distinct()
+                    .flatMap(oIndex.get()::stream)
+                    .collect(toList());
+            }
+            return SqlManager.super.findAllBy(column, values);
+        }
+        final String prefix = sqlSelect(" where " + column.getName() + " in (");
+        final List<?> nonNullValues = values.stream().filter(Objects::nonNull).collect(toList());
+        return findAllIn(
+            nonNullValues,
+            log2 -> prefix + Stream.generate(() -> "?").limit(1 << log2).collect(joining(",")) + ")",
+            Collections::singletonList
+        );
+    }
+
+    /**
+     * Returns the entities that match any of the given keys. The keys are
+     * looked up in chunks. Each chunk is padded to a power of two by repeating
+     * its last key, so that only a few distinct statements are prepared and
+     * cached.
+     *
+     * @param <K> the key type
+     * @param keys the keys to look up
+     * @param sqlForLog2 the statement that looks up 2^n keys, given n
+     * @param valuesOf the parameter values of a key
+     * @return the entities that match any of the given keys
+     */
+    private <K> List<ENTITY> findAllIn(
+        final Collection<K> keys,
+        final IntFunction<String> sqlForLog2,
+        final Function<K, ? extends Collection<?>> valuesOf
+    ) {
+        final List<K> distinctKeys = new ArrayList<>(new LinkedHashSet<>(keys));
+        final List<ENTITY> result = new ArrayList<>(distinctKeys.size());
+        final int maxKeysPerLookup = 1 << MAX_KEYS_PER_LOOKUP_LOG2;
+        for (int from = 0; from < distinctKeys.size(); from += maxKeysPerLookup) {
+            final List<K> chunk = distinctKeys.subList(from, Math.min(distinctKeys.size(), from + maxKeysPerLookup));
+            final int log2 = 32 - Integer.numberOfLeadingZeros(chunk.size() - 1);
+            final List<Object> values = new ArrayList<>();
+            for (int i = 0; i < (1 << log2); i++) {
+                values.addAll(valuesOf.apply(chunk.get(Math.min(i, chunk.size() - 1))));
+            }
+            synchronousStreamOf(sqlForLog2.apply(log2), values, this::readEntity).forEachOrdered(result::add);
+        }
+        return result;
+    }
+
+    private void requirePrimaryKey(final SqlTemplates templates) {
+        if (templates.primaryKeyColumns.length == 0) {
+            throw new SpeedmentException("The table " + templates.tableReference + " has no primary key");
+        }
+    }
+
+    private List<Object> primaryKeyValues(final SqlTemplates templates, final PK primaryKey) {
+        if (templates.primaryKeyColumns.length == 1) {
+            return Collections.singletonList(primaryKey);
+        }
+        // Composite keys are made by the PrimaryKeyFactoryComponent
+        if (primaryKey instanceof List && ((List<?>) primaryKey).size() == templates.primaryKeyColumns.length) {
+            return new ArrayList<>((List<?>) primaryKey);
+        }
+        throw new IllegalArgumentException(
+            "The primary key " + primaryKey + " does not match the "
+            + templates.primaryKeyColumns.length + " primary key columns of " + templates.tableReference
+        );
+    }
+
     public <T> Stream<T> synchronousStreamOf(final String sql, final List<Object> values, SqlFunction<ResultSet, T> rsMapper) {
         //LOGGER.debug(sql + " <- " + values);
         return dbmsHandler().executeQuery(sql, values, rsMapper);
     }
 
     public String sqlColumnList() {
-        return getTable().streamOf(Column.class).map(Column::getName).collect(Collectors.joining(","));
+        return templates().columnList;
     }
 
     public String sqlTableReference() {
-        return getTable().getRelativeName(Schema.class);
+        return templates().tableReference;
     }
 
     public String sqlSelect(String suffix) {
-        final String sql = "select " + sqlColumnList() + " from " + sqlTableReference() + suffix;
-        return sql;
+        return templates().select + suffix;
+    }
+
+    /**
+     * Returns the clause that skips and limits the rows of a query to the
+     * table of this Manager, as given by the type of its database.
+     *
+     * @return the clause that skips and limits rows, or empty if the rows
+     * must be skipped and limited in memory
+     * @see DbmsType#getLimitOffsetClause()
+     */
+    public Optional<String> sqlLimitOffsetClause() {
+        return templates().limitOffsetClause;
     }
 
     @Override
@@ -122,32 +495,7 @@ public abstract class AbstractSqlManager<PK, ENTITY, BUILDER extends Buildable<E
 
     @Override
     public Optional<ENTITY> persist(ENTITY entity, Consumer<MetaResult<ENTITY>> listener) {
-        final Table table = getTable();
-        final StringBuilder sb = new StringBuilder();
-        sb.append("insert into ").append(table.getRelativeName(Schema.class));
-        sb.append("(").append(table.streamOf(Column.class).map(Column::getName).collect(joining(", "))).append(")");
-        sb.append(" values ");
-        sb.append("(").append(table.streamOf(Column.class).map(c -> "?").collect(joining(", "))).append(")");
-
-        final List<Object> values = table.streamOf(Column.class).map(c -> unwrap(get(entity, c))).collect(Collectors.toList());
-
-        final Function<BUILDER, Consumer<List<Long>>> generatedKeyconsumer = builder -> {
-            return l -> {
-                if (!l.isEmpty()) {
-                    final AtomicInteger cnt = new AtomicInteger();
-                    // Just assume that they are in order, what else is there to do?
-                    table.streamOf(Column.class)
-                        .filter(Column::isAutoincrement)
-                        .forEachOrdered(column -> {
-                            // Cast from Long to the column target type
-                            final Object val = StandardJavaTypeMapping.parse(column.getMapping(), l.get(cnt.getAndIncrement()));
-                            set(builder, column, val);
-                        });
-                }
-            };
-        };
-
-        return executeUpdate(entity, sb.toString(), values, generatedKeyconsumer, listener);
+        return executeUpdate(entity, templates().insert, persistValues(entity), GENERATED_KEYS, listener, this::insertEvent);
     }
 
     @Override
@@ -157,18 +505,7 @@ public abstract class AbstractSqlManager<PK, ENTITY, BUILDER extends Buildable<E
 
     @Override
     public Optional<ENTITY> update(ENTITY entity, Consumer<MetaResult<ENTITY>> listener) {
-        final Table table = getTable();
-
-        final StringBuilder sb = new StringBuilder();
-        sb.append("update ").append(table.getRelativeName(Schema.class)).append(" set ");
-        sb.append(table.streamOf(Column.class).map(c -> c.getName() + " = ?").collect(joining(", ")));
-        sb.append(" where ");
-        sb.append(table.streamOf(PrimaryKeyColumn.class).map(pk -> "(" + pk.getName() + " = ?)").collect(joining(" AND ")));
-
-        final List<Object> values = table.streamOf(Column.class).map(c -> unwrap(get(entity, c))).collect(Collectors.toList());
-        table.streamOf(PrimaryKeyColumn.class).map(pkc -> pkc.getColumn()).forEachOrdered(c -> values.add(get(entity, c)));
-
-        return executeUpdate(entity, sb.toString(), values, NOTHING, listener);
+        return executeUpdate(entity, templates().update, updateValues(entity), NOTHING, listener, this::updateEvent);
     }
 
     @Override
@@ -178,30 +515,331 @@ public abstract class AbstractSqlManager<PK, ENTITY, BUILDER extends Buildable<E
 
     @Override
     public Optional<ENTITY> remove(ENTITY entity, Consumer<MetaResult<ENTITY>> listener) {
-        final Table table = getTable();
-        final StringBuilder sb = new StringBuilder();
-        sb.append("delete from ").append(table.getRelativeName(Schema.class)).append(" set ");
-        sb.append(" where ");
-        sb.append(table.streamOf(PrimaryKeyColumn.class).map(pk -> "(" + pk.getName() + " = ?)").collect(joining(" AND ")));
-        final List<Object> values = table.streamOf(PrimaryKeyColumn.class).map(pk -> get(entity, pk.getColumn())).collect(Collectors.toList());
+        return executeUpdate(entity, templates().delete, removeValues(entity), NOTHING, listener, this::deleteEvent);
+    }
+
+    @Override
+    public List<ENTITY> persistAll(Stream<ENTITY> entities, Consumer<MetaResult<ENTITY>> listener) {
+        if (templates().multiRowInsertSupported) {
+            final List<ENTITY> result = new ArrayList<>();
+            forEachChunk(entities, chunk -> {
+                final List<ENTITY> persisted = persistAllMultiRow(chunk, listener);
+                persisted.forEach(this::insertEvent);
+                result.addAll(persisted);
+                return !persisted.isEmpty();
+            });
+            return result;
+        }
+        return executeBatch(entities, templates().insert, this::persistValues, GENERATED_KEYS, listener, this::insertEvent);
+    }
+
+    @Override
+    public List<ENTITY> updateAll(Stream<ENTITY> entities, Consumer<MetaResult<ENTITY>> listener) {
+        return executeBatch(entities, templates().update, this::updateValues, NOTHING, listener, this::updateEvent);
+    }
+
+    @Override
+    public List<ENTITY> removeAll(Stream<ENTITY> entities, Consumer<MetaResult<ENTITY>> listener) {
+        return executeBatch(entities, templates().delete, this::removeValues, NOTHING, listener, this::deleteEvent);
+    }
+
+    @Override
+    protected void insertEvent(ENTITY entity) {
+        final EntityStore<PK, ENTITY> currentStore = store;
+        if (currentStore != null) {
+            final ENTITY storedEntity = deduplicate(currentStore, entity, false);
+            currentStore.put(primaryKeyFor(storedEntity), storedEntity);
+            super.insertEvent(storedEntity);
+        } else {
+            super.insertEvent(entity);
+        }
+    }
+
+    @Override
+    protected void updateEvent(ENTITY entity) {
+        final EntityStore<PK, ENTITY> currentStore = store;
+        if (currentStore != null) {
+            final PK primaryKey = primaryKeyFor(entity);
+            final ENTITY previousEntity = currentStore.get(primaryKey).orElse(entity);
+            final ENTITY storedEntity = deduplicate(currentStore, entity, false);
+            currentStore.put(primaryKey, storedEntity);
+            super.updateEvent(previousEntity, storedEntity);
+        } else {
+            super.updateEvent(entity);
+        }
+    }
+
+    @Override
+    protected void deleteEvent(ENTITY entity) {
+        final EntityStore<PK, ENTITY> currentStore = store;
+        if (currentStore != null) {
+            final PK primaryKey = primaryKeyFor(entity);
+            final ENTITY previousEntity = currentStore.get(primaryKey).orElse(entity);
+            currentStore.remove(primaryKey);
+            super.deleteEvent(previousEntity, entity);
+        } else {
+            super.deleteEvent(entity);
+        }
+    }
+
+    @Override
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    @Override
+    public void setBatchSize(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("The batch size must be positive, was " + batchSize);
+        }
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public int getFetchSize() {
+        final Integer result = fetchSize;
+        if (result != null) {
+            return result;
+        }
+        return getTable().ancestor(Dbms.class).flatMap(Dbms::getFetchSize).orElse(0);
+    }
+
+    @Override
+    public void setFetchSize(int fetchSize) {
+        this.fetchSize = fetchSize;
+    }
+
+    @Override
+    public int getMaxSlabSize() {
+        return maxSlabSize;
+    }
+
+    @Override
+    public void setMaxSlabSize(int maxSlabSize) {
+        if (maxSlabSize < 8) {
+            throw new IllegalArgumentException("The maximum slab size must be at least 8 bytes, was " + maxSlabSize);
+        }
+        this.maxSlabSize = maxSlabSize;
+    }
 
-        return executeUpdate(entity, sb.toString(), values, NOTHING, listener);
+    private List<Object> persistValues(ENTITY entity) {
+        final SqlTemplates t = templates();
+        final Object[] values = new Object[t.columns.length];
+        for (int i = 0; i < t.columns.length; i++) {
+            values[i] = unwrap(get(entity, t.columns[i]));
+        }
+        return Arrays.asList(values);
+    }
+
+    private List<Object> updateValues(ENTITY entity) {
+        final SqlTemplates t = templates();
+        final Object[] values = new Object[t.columns.length + t.primaryKeyColumns.length];
+        for (int i = 0; i < t.columns.length; i++) {
+            values[i] = unwrap(get(entity, t.columns[i]));
+        }
+        for (int i = 0; i < t.primaryKeyColumns.length; i++) {
+            values[t.columns.length + i] = get(entity, t.primaryKeyColumns[i]);
+        }
+        return Arrays.asList(values);
+    }
+
+    private List<Object> removeValues(ENTITY entity) {
+        final SqlTemplates t = templates();
+        final Object[] values = new Object[t.primaryKeyColumns.length];
+        for (int i = 0; i < t.primaryKeyColumns.length; i++) {
+            values[i] = get(entity, t.primaryKeyColumns[i]);
+        }
+        return Arrays.asList(values);
+    }
+
+    /**
+     * Executes one statement for each of the given entities. The entities are
+     * consumed in chunks of {@link #getBatchSize()} entities and each chunk is
+     * executed in a transaction of its own as soon as it is filled, so that
+     * the stream is never collected in full. If a chunk fails, the chunks
+     * before it remain committed and the rest of the stream is not consumed.
+     * The given event is invoked for each entity whose statement affected a
+     * row.
+     *
+     * @param entities the entities
+     * @param sql the SQL of the statements
+     * @param valueMapper the mapper of an entity to the statement parameters
+     * @param generatedKeyconsumer the consumer of generated keys
+     * @param listener the listener to invoke for each entity, or null
+     * @param event the event to invoke for each affected entity
+     * @return the entities of the committed chunks, in order
+     */
+    private List<ENTITY> executeBatch(
+        final Stream<ENTITY> entities,
+        final String sql,
+        final Function<ENTITY, List<Object>> valueMapper,
+        final Function<BUILDER, Consumer<List<Long>>> generatedKeyconsumer,
+        final Consumer<MetaResult<ENTITY>> listener,
+        final Consumer<ENTITY> event
+    ) {
+        final List<ENTITY> result = new ArrayList<>();
+        forEachChunk(entities, chunk -> {
+            final List<BUILDER> builders = new ArrayList<>(chunk.size());
+            final List<SqlUpdateStatement> sqlStatementList = new ArrayList<>(chunk.size());
+            final List<SqlMetaResult<ENTITY>> metas = new ArrayList<>();
+            for (final ENTITY entity : chunk) {
+                final List<Object> values = valueMapper.apply(entity);
+                final BUILDER builder = toBuilder(entity);
+                builders.add(builder);
+                sqlStatementList.add(new SqlUpdateStatement(sql, values, generatedKeyconsumer.apply(builder)));
+                if (listener != null) {
+                    metas.add(new SqlMetaResult<ENTITY>().setQuery(sql).setParameters(values));
+                }
+            }
+            final List<ENTITY> executed = executeBatch(sqlStatementList, builders, metas, listener);
+            for (int i = 0; i < executed.size(); i++) {
+                if (isAffectingRows(sqlStatementList.get(i))) {
+                    event.accept(executed.get(i));
+                }
+            }
+            result.addAll(executed);
+            return !executed.isEmpty();
+        });
+        return result;
+    }
+
+    /**
+     * Hands the given entities to the given action in chunks of at most
+     * {@link #getBatchSize()} entities, in order, until the stream is
+     * exhausted or the action returns false. The chunk is reused between
+     * invocations and must not be retained by the action.
+     *
+     * @param entities the entities
+     * @param action the action to invoke for each chunk
+     */
+    private void forEachChunk(final Stream<ENTITY> entities, final Predicate<List<ENTITY>> action) {
+        final int chunkSize = batchSize;
+        final Iterator<ENTITY> iterator = entities.iterator();
+        final List<ENTITY> chunk = new ArrayList<>(Math.min(chunkSize, DEFAULT_BATCH_SIZE));
+        while (iterator.hasNext()) {
+            chunk.add(iterator.next());
+            if (chunk.size() == chunkSize || !iterator.hasNext()) {
+                if (!action.test(chunk)) {
+                    return;
+                }
+                chunk.clear();
+            }
+        }
+    }
+
+    /**
+     * Persists the given chunk of entities using insert statements with
+     * multiple rows in their values clause. Rows are added to a statement
+     * until the estimated statement size would exceed the maximum statement
+     * size of the database or the statement would have too many parameters.
+     * The number of rows of each statement is then rounded down to a power of
+     * two, leaving the remaining rows to the next statement, so that the
+     * number of distinct statements, and thereby of prepared statements in
+     * the database and in the statement cache, stays logarithmic in the batch
+     * size. All statements of the chunk are executed in a single transaction.
+     *
+     * @param entityList the chunk of entities to persist
+     * @param listener the listener to invoke for each entity, or null
+     * @return the persisted entities, in order, or an empty list if the
+     * transaction failed
+     */
+    private List<ENTITY> persistAllMultiRow(
+        final List<ENTITY> entityList,
+        final Consumer<MetaResult<ENTITY>> listener
+    ) {
+        final SqlTemplates t = templates();
+        final long maxStatementSize = dbmsHandler().getMaxStatementSize().orElse(DEFAULT_MAX_STATEMENT_SIZE) - STATEMENT_SIZE_MARGIN;
+        final int maxRows = Integer.highestOneBit(Math.max(1, MAX_STATEMENT_PARAMETERS / Math.max(1, t.columns.length)));
+
+        final List<BUILDER> builders = new ArrayList<>(entityList.size());
+        final List<SqlUpdateStatement> sqlStatementList = new ArrayList<>();
+        final List<SqlMetaResult<ENTITY>> metas = new ArrayList<>();
+
+        int start = 0;
+        while (start < entityList.size()) {
+            final List<List<Object>> rowValueList = new ArrayList<>();
+            long statementSize = t.insertPrefix.length();
+            while (start + rowValueList.size() < entityList.size() && rowValueList.size() < maxRows) {
+                final List<Object> rowValues = persistValues(entityList.get(start + rowValueList.size()));
+                final long rowSize = t.insertRow.length() + 2 + estimateSize(rowValues);
+                if (!rowValueList.isEmpty() && statementSize + rowSize > maxStatementSize) {
+                    break;
+                }
+                statementSize += rowSize;
+                rowValueList.add(rowValues);
+            }
+            final int rows = Integer.highestOneBit(rowValueList.size());
+            final List<Object> values = new ArrayList<>(rows * t.columns.length);
+            final List<BUILDER> rowBuilders = new ArrayList<>(rows);
+            final List<SqlMetaResult<ENTITY>> rowMetas = new ArrayList<>();
+            final int end = start + rows;
+            for (int i = 0; i < rows; i++) {
+                final List<Object> rowValues = rowValueList.get(i);
+                values.addAll(rowValues);
+                rowBuilders.add(toBuilder(entityList.get(start + i)));
+                if (listener != null) {
+                    rowMetas.add(new SqlMetaResult<ENTITY>().setParameters(rowValues));
+                }
+            }
+            final String sql = t.insertPrefix + String.join(", ", Collections.nCopies(rows, t.insertRow));
+            rowMetas.forEach(meta -> meta.setQuery(sql));
+            builders.addAll(rowBuilders);
+            metas.addAll(rowMetas);
+            sqlStatementList.add(new SqlUpdateStatement(sql, values, l -> setGeneratedKeys(rowBuilders, l)));
+            start = end;
+        }
+        return executeBatch(sqlStatementList, builders, metas, listener);
+    }
+
+    private List<ENTITY> executeBatch(
+        final List<SqlUpdateStatement> sqlStatementList,
+        final List<BUILDER> builders,
+        final List<SqlMetaResult<ENTITY>> metas,
+        final Consumer<MetaResult<ENTITY>> listener
+    ) {
+        try {
+            dbmsHandler().executeBatch(sqlStatementList, batchSize);
+        } catch (SQLException sqle) {
+            LOGGER.error("Unable to execute batch", sqle);
+            metas.forEach(meta -> meta.setThrowable(sqle));
+            return Collections.emptyList();
+        } finally {
+            if (listener != null) {
+                metas.forEach(listener::accept);
+            }
+        }
+        return builders.stream().map(Buildable::build).collect(toList());
     }
 
+    /**
+     * Executes a single statement for the given entity. The given event is
+     * invoked if the statement affected a row, so that an update or a delete
+     * of a row that does not exist leaves the in-memory state untouched.
+     *
+     * @param entity the entity
+     * @param sql the SQL of the statement
+     * @param values the parameters of the statement
+     * @param generatedKeyconsumer the consumer of generated keys
+     * @param listener the listener to invoke, or null
+     * @param event the event to invoke if a row was affected
+     * @return the entity, or empty if the statement failed
+     */
     private Optional<ENTITY> executeUpdate(
         final ENTITY entity,
         final String sql,
         final List<Object> values,
         final Function<BUILDER, Consumer<List<Long>>> generatedKeyconsumer,
-        final Consumer<MetaResult<ENTITY>> listener
+        final Consumer<MetaResult<ENTITY>> listener,
+        final Consumer<ENTITY> event
     ) {
-        ENTITY newEntity;
+        final BUILDER builder = toBuilder(entity);
+        final SqlUpdateStatement sqlUpdateStatement = new SqlUpdateStatement(sql, values, generatedKeyconsumer.apply(builder));
         SqlMetaResult<ENTITY> meta = null;
         if (listener != null) {
             meta = new SqlMetaResult<ENTITY>().setQuery(sql).setParameters(values);
         }
         try {
-            newEntity = executeUpdate(entity, sql, values, generatedKeyconsumer);
+            dbmsHandler().executeBatch(Collections.singletonList(sqlUpdateStatement), 1);
         } catch (SQLException sqle) {
             LOGGER.error("Unable to persist", sqle);
             if (meta != null) {
@@ -213,21 +851,16 @@ public abstract class AbstractSqlManager<PK, ENTITY, BUILDER extends Buildable<E
                 listener.accept(meta);
             }
         }
+        final ENTITY newEntity = builder.build();
+        if (isAffectingRows(sqlUpdateStatement)) {
+            event.accept(newEntity);
+        }
         return Optional.of(newEntity);
     }
 
-    private ENTITY executeUpdate(
-        final ENTITY entity,
-        final String sql,
-        final List<Object> values,
-        final Function<BUILDER, Consumer<List<Long>>> generatedKeyconsumer
-    ) throws SQLException {
-        final Table table = getTable();
-        final Dbms dbms = table.ancestor(Dbms.class).get();
-        final DbmsHandler dbmsHandler = Platform.get().get(DbmsHandlerComponent.class).get(dbms);
-        final BUILDER builder = toBuilder(entity);
-        dbmsHandler.executeUpdate(sql, values, generatedKeyconsumer.apply(builder));
-        return builder.build();
+    private static boolean isAffectingRows(SqlUpdateStatement sqlUpdateStatement) {
+        // Drivers that do not know the count report a negative number
+        return sqlUpdateStatement.getUpdateCount() != 0;
     }
 
     private String sqlQuote(Object o) {
@@ -243,12 +876,118 @@ public abstract class AbstractSqlManager<PK, ENTITY, BUILDER extends Buildable<E
     private final Function<BUILDER, Consumer<List<Long>>> NOTHING = b -> l -> { // Nothing to do for updates...
     };
 
+    private final Function<BUILDER, Consumer<List<Long>>> GENERATED_KEYS = b -> l -> setGeneratedKeys(b, l);
+
+    private void setGeneratedKeys(final List<BUILDER> builders, final List<Long> generatedKeys) {
+        // A multi-row insert returns the keys of each row, in row order
+        final int keysPerRow = templates().autoIncrementColumns.length;
+        if (keysPerRow == 0 || generatedKeys.size() != keysPerRow * builders.size()) {
+            return;
+        }
+        for (int i = 0; i < builders.size(); i++) {
+            setGeneratedKeys(builders.get(i), generatedKeys.subList(i * keysPerRow, (i + 1) * keysPerRow));
+        }
+    }
+
+    private static long estimateSize(final List<Object> values) {
+        long result = 0;
+        for (final Object value : values) {
+            result += estimateSize(value);
+        }
+        return result;
+    }
+
+    private static long estimateSize(final Object value) {
+        // Be pessimistic: four bytes per character plus a length header
+        if (value == null) {
+            return 1;
+        }
+        if (value instanceof Number || value instanceof Boolean) {
+            return 9;
+        }
+        if (value instanceof byte[]) {
+            return ((byte[]) value).length + 9;
+        }
+        return 4L * value.toString().length() + 9;
+    }
+
+    private void setGeneratedKeys(final BUILDER builder, final List<Long> generatedKeys) {
+        // Just assume that they are in order, what else is there to do?
+        final Column[] autoIncrementColumns = templates().autoIncrementColumns;
+        for (int i = 0; i < autoIncrementColumns.length && i < generatedKeys.size(); i++) {
+            final Column column = autoIncrementColumns[i];
+            // Cast from Long to the column target type
+            set(builder, column, StandardJavaTypeMapping.parse(column.getMapping(), generatedKeys.get(i)));
+        }
+    }
+
     protected DbmsHandler dbmsHandler() {
         final Table table = getTable();
         final Dbms dbms = table.ancestor(Dbms.class).get();
         return Platform.get().get(DbmsHandlerComponent.class).get(dbms);
     }
 
+    /**
+     * Returns a mapper that reads the value of the given column from a
+     * ResultSet, using the same null safe getter as the entity mapper does
+     * for the Java type of the column.
+     *
+     * @param column the column to read
+     * @param ordinal the position of the column in the select list, starting
+     * at 1
+     * @return a mapper that reads the value of the given column
+     */
+    SqlFunction<ResultSet, Object> columnMapper(final Column column, final int ordinal) {
+        final StandardJavaTypeMapping mapping = Stream.of(StandardJavaTypeMapping.values())
+            .filter(m -> m.getJavaClass().equals(column.getMapping()))
+            .findAny()
+            .orElse(StandardJavaTypeMapping.OBJECT);
+        switch (mapping) {
+            case BOOLEAN:
+                return rs -> getBoolean(rs, ordinal);
+            case BYTE:
+                return rs -> getByte(rs, ordinal);
+            case SHORT:
+                return rs -> getShort(rs, ordinal);
+            case INTEGER:
+                return rs -> getInt(rs, ordinal);
+            case LONG:
+                return rs -> getLong(rs, ordinal);
+            case FLOAT:
+                return rs -> getFloat(rs, ordinal);
+            case DOUBLE:
+                return rs -> getDouble(rs, ordinal);
+            case STRING:
+                return rs -> getString(rs, ordinal);
+            case DATE:
+                return rs -> getDate(rs, ordinal);
+            case TIME:
+                return rs -> getTime(rs, ordinal);
+            case TIMESTAMP:
+                return rs -> getTimestamp(rs, ordinal);
+            case BIG_DECIMAL:
+                return rs -> getBigDecimal(rs, ordinal);
+            case BLOB:
+                return rs -> getBlob(rs, ordinal);
+            case CLOB:
+                return rs -> getClob(rs, ordinal);
+            case ARRAY:
+                return rs -> getArray(rs, ordinal);
+            case REF:
+                return rs -> getRef(rs, ordinal);
+            case URL:
+                return rs -> getURL(rs, ordinal);
+            case ROW_ID:
+                return rs -> getRowId(rs, ordinal);
+            case N_CLOB:
+                return rs -> getNClob(rs, ordinal);
+            case SQLXML:
+                return rs -> getSQLXML(rs, ordinal);
+            default:
+                return rs -> getObject(rs, ordinal);
+        }
+    }
+
     // Null safe RS getters, must have the same name as ResultSet getters
     protected Object getObject(final ResultSet resultSet, final String columnName) throws SQLException {
         return getNullableFrom(resultSet, rs -> rs.getObject(columnName));
@@ -334,6 +1073,91 @@ public abstract class AbstractSqlManager<PK, ENTITY, BUILDER extends Buildable<E
         return getNullableFrom(resultSet, rs -> rs.getSQLXML(columnName));
     }
 
+    // Null safe RS getters by column ordinal, used by generated entity mappers
+    protected Object getObject(final ResultSet resultSet, final int ordinal) throws SQLException {
+        return getNullableFrom(resultSet, rs -> rs.getObject(ordinal));
+    }
+
+    protected Boolean getBoolean(final ResultSet resultSet, final int ordinal) throws SQLException {
+        return getNullableFrom(resultSet, rs -> rs.getBoolean(ordinal));
+    }
+
+    protected Byte getByte(final ResultSet resultSet, final int ordinal) throws SQLException {
+        return getNullableFrom(resultSet, rs -> rs.getByte(ordinal));
+    }
+
+    protected Short getShort(final ResultSet resultSet, final int ordinal) throws SQLException {
+        return getNullableFrom(resultSet, rs -> rs.getShort(ordinal));
+    }
+
+    protected Integer getInt(final ResultSet resultSet, final int ordinal) throws SQLException {
+        return getNullableFrom(resultSet, rs -> rs.getInt(ordinal));
+    }
+
+    protected Long getLong(final ResultSet resultSet, final int ordinal) throws SQLException {
+        return getNullableFrom(resultSet, rs -> rs.getLong(ordinal));
+    }
+
+    protected Float getFloat(final ResultSet resultSet, final int ordinal) throws SQLException {
+        return getNullableFrom(resultSet, rs -> rs.getFloat(ordinal));
+    }
+
+    protected Double getDouble(final ResultSet resultSet, final int ordinal) throws SQLException {
+        return getNullableFrom(resultSet, rs -> rs.getDouble(ordinal));
+    }
+
+    protected String getString(final ResultSet resultSet, final int ordinal) throws SQLException {
+        return getNullableFrom(resultSet, rs -> rs.getString(ordinal));
+    }
+
+    protected Date getDate(final ResultSet resultSet, final int ordinal) throws SQLException {
+        return getNullableFrom(resultSet, rs -> rs.getDate(ordinal));
+    }
+
+    protected Time getTime(final ResultSet resultSet, final int ordinal) throws SQLException {
+        return getNullableFrom(resultSet, rs -> rs.getTime(ordinal));
+    }
+
+    protected Timestamp getTimestamp(final ResultSet resultSet, final int ordinal) throws SQLException {
+        return getNullableFrom(resultSet, rs -> rs.getTimestamp(ordinal));
+    }
+
+    protected BigDecimal getBigDecimal(final ResultSet resultSet, final int ordinal) throws SQLException {
+        return getNullableFrom(resultSet, rs -> rs.getBigDecimal(ordinal));
+    }
+
+    protected Blob getBlob(final ResultSet resultSet, final int ordinal) throws SQLException {
+        return getNullableFrom(resultSet, rs -> rs.getBlob(ordinal));
+    }
+
+    protected Clob getClob(final ResultSet resultSet, final int ordinal) throws SQLException {
+        return getNullableFrom(resultSet, rs -> rs.getClob(ordinal));
+    }
+
+    protected Array getArray(final ResultSet resultSet, final int ordinal) throws SQLException {
+        return getNullableFrom(resultSet, rs -> rs.getArray(ordinal));
+    }
+
+    protected Ref getRef(final ResultSet resultSet, final int ordinal) throws SQLException {
+        return getNullableFrom(resultSet, rs -> rs.getRef(ordinal));
+    }
+
+    protected URL getURL(final ResultSet resultSet, final int ordinal) throws SQLException {
+        return getNullableFrom(resultSet, rs -> rs.getURL(ordinal));
+    }
+
+    protected RowId getRowId(final ResultSet resultSet, final int ordinal) throws SQLException {
+        return getNullableFrom(resultSet, rs -> rs.getRowId(ordinal));
+    }
+
+    protected NClob getNClob(final ResultSet resultSet, final int ordinal) throws SQLException {
+        return getNullableFrom(resultSet, rs -> rs.getNClob(ordinal));
+    }
+
+    protected SQLXML getSQLXML(final ResultSet resultSet, final int ordinal) throws SQLException {
+        return getNullableFrom(resultSet, rs -> rs.getSQLXML(ordinal));
+    }
+
     private <T> T getNullableFrom(ResultSet rs, SqlFunction<ResultSet, T> mapper) throws SQLException {
         final T result = mapper.apply(rs);
         if (rs.wasNull()) {
@@ -344,4 +1168,115 @@ public abstract class AbstractSqlManager<PK, ENTITY, BUILDER extends Buildable<E
 
     }
 
+    /**
+     * The columns of a table that use
+     * {@link ColumnCompressionType#DEDUPLICATION} and their dictionaries.
+     * Only columns of immutable types are deduplicated, since the canonical
+     * instances are shared between entities.
+     */
+    private static final class Deduplication {
+
+        private final Column[] columns;
+        private final Deduplicator<Object>[] deduplicators;
+
+        private Deduplication(final Column[] allColumns) {
+            this.columns = Stream.of(allColumns)
+                .filter(c -> columnCompressionTypeOf(c) == ColumnCompressionType.DEDUPLICATION)
+                .filter(c -> isImmutable(c.getMapping()))
+                .toArray(Column[]::new);
+            @SuppressWarnings({"unchecked", "rawtypes"})
+            final Deduplicator<Object>[] newDeduplicators = new Deduplicator[columns.length];
+            this.deduplicators = newDeduplicators;
+            for (int i = 0; i < columns.length; i++) {
+                deduplicators[i] = new Deduplicator<>();
+            }
+        }
+
+        private static ColumnCompressionType columnCompressionTypeOf(final Column column) {
+            ColumnCompressionType type = column.getColumnCompressionType();
+            final Optional<Table> table = column.getParent();
+            if (type == ColumnCompressionType.INHERIT && table.isPresent()) {
+                type = table.get().getColumnCompressionType();
+                if (type == ColumnCompressionType.INHERIT) {
+                    type = table.get().getParent().map(Schema::getColumnCompressionType).orElse(null);
+                }
+            }
+            return type;
+        }
+
+        private static boolean isImmutable(final Class<?> mapping) {
+            return mapping != null && (String.class.equals(mapping)
+                || Boolean.class.equals(mapping)
+                || Character.class.equals(mapping)
+                || Number.class.isAssignableFrom(mapping));
+        }
+    }
+
+    /**
+     * The statement texts and column arrays of a table. They are computed once
+     * so that no SQL needs to be built when entities are persisted, updated
+     * or removed.
+     */
+    private static final class SqlTemplates {
+
+        private final Column[] columns;
+        private final Column[] primaryKeyColumns;
+        private final Column[] autoIncrementColumns;
+        private final String columnList;
+        private final String tableReference;
+        private final String select;
+        private final String selectByPrimaryKey;
+        private final String[] selectByPrimaryKeys;
+        private final String insert;
+        private final String insertPrefix;
+        private final String insertRow;
+        private final boolean multiRowInsertSupported;
+        private final Optional<String> limitOffsetClause;
+        private final String update;
+        private final String delete;
+
+        private SqlTemplates(final Table table) {
+            this.columns = table.streamOf(Column.class).toArray(Column[]::new);
+            this.primaryKeyColumns = table.streamOf(PrimaryKeyColumn.class).map(PrimaryKeyColumn::getColumn).toArray(Column[]::new);
+            this.autoIncrementColumns = Stream.of(columns).filter(Column::isAutoincrement).toArray(Column[]::new);
+            this.columnList = Stream.of(columns).map(Column::getName).collect(joining(","));
+            this.tableReference = table.getRelativeName(Schema.class);
+            this.select = "select " + columnList + " from " + tableReference;
+
+            final String pkCondition = Stream.of(primaryKeyColumns).map(c -> "(" + c.getName() + " = ?)").collect(joining(" AND "));
+
+            this.selectByPrimaryKey = select + " where " + pkCondition;
+            this.selectByPrimaryKeys = new String[MAX_KEYS_PER_LOOKUP_LOG2 + 1];
+            for (int i = 0; i < selectByPrimaryKeys.length; i++) {
+                final int keys = 1 << i;
+                if (primaryKeyColumns.length == 1) {
+                    selectByPrimaryKeys[i] = select + " where " + primaryKeyColumns[0].getName()
+                        + " in (" + Stream.generate(() -> "?").limit(keys).collect(joining(",")) + ")";
+                } else {
+                    selectByPrimaryKeys[i] = select + " where "
+                        + Stream.generate(() -> "(" + pkCondition + ")").limit(keys).collect(joining(" OR "));
+                }
+            }
+
+            this.insertPrefix = "insert into " + tableReference
+                + "(" + Stream.of(columns).map(Column::getName).collect(joining(", ")) + ")"
+                + " values ";
+            this.insertRow = "(" + Stream.of(columns).map(c -> "?").collect(joining(", ")) + ")";
+            this.insert = insertPrefix + insertRow;
+            this.multiRowInsertSupported = table.ancestor(Dbms.class)
+                .map(Dbms::getType)
+                .map(DbmsType::isMultiRowInsertSupported)
+                .orElse(false);
+            this.limitOffsetClause = table.ancestor(Dbms.class)
+                .map(Dbms::getType)
+                .flatMap(DbmsType::getLimitOffsetClause);
+
+            this.update = "update " + tableReference + " set "
+                + Stream.of(columns).map(c -> c.getName() + " = ?").collect(joining(", "))
+                + " where " + pkCondition;
+
+            this.delete = "delete from " + tableReference + " where " + pkCondition;
+        }
+    }
+
 }
@@ -20,6 +20,7 @@ import com.speedment.core.core.Buildable;
 import com.speedment.core.manager.Manager;
 import com.speedment.core.db.impl.SqlFunction;
 import java.sql.ResultSet;
+import java.util.stream.Stream;
 
 /**
  *
@@ -30,9 +31,61 @@ import java.sql.ResultSet;
  */
 public interface SqlManager<PK, ENTITY, BUILDER extends Buildable<ENTITY>> extends Manager<PK, ENTITY, BUILDER> {
 
+    /**
+     * Returns the mapper that creates entities from the rows selected by this
+     * manager. Generated mappers read the columns by ordinal, so the ResultSet
+     * must have all the columns of the table in the order they appear in the
+     * table.
+     *
+     * @return the entity mapper
+     */
     SqlFunction<ResultSet, ENTITY> getSqlEntityMapper();
 
     void setSqlEntityMapper(SqlFunction<ResultSet, ENTITY> sqlEntityMapper);
 
+    /**
+     * Returns the maximum number of statements that are sent to the database
+     * in a single JDBC batch by the bulk persistence methods. The bulk
+     * persistence methods consume their stream in chunks of this many
+     * entities and execute each chunk in a transaction of its own, so a
+     * failure only rolls back the chunk in which it occurred.
+     *
+     * @return the batch size
+     */
+    int getBatchSize();
+
+    void setBatchSize(int batchSize);
+
+    /**
+     * Returns the fetch size that is used when entities are streamed. Unless
+     * set explicitly, the fetch size of the Dbms is used.
+     *
+     * @return the fetch size
+     */
+    int getFetchSize();
+
+    void setFetchSize(int fetchSize);
+
+    /**
+     * Returns the maximum size in bytes of the slabs of direct memory that
+     * the entities of an OFF_HEAP table are kept in. The slabs start small and
+     * double in size up to this maximum. A new size takes effect when the
+     * Manager is next started.
+     *
+     * @return the maximum slab size
+     */
+    int getMaxSlabSize();
+
+    void setMaxSlabSize(int maxSlabSize);
+
+    /**
+     * Creates a stream of all entities using the given fetch size rather than
+     * the fetch size of this manager.
+     *
+     * @param fetchSize the fetch size hint given to the driver
+     * @return a stream of all entities
+     */
+    Stream<ENTITY> stream(int fetchSize);
+
 
 }
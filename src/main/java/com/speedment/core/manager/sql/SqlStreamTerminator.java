@@ -19,29 +19,53 @@ package com.speedment.core.manager.sql;
 import com.speedment.codegen.base.Generator;
 import com.speedment.core.core.Buildable;
 import com.speedment.core.manager.sql.generator.SQLGenerator;
+import com.speedment.core.manager.sql.generator.StringBinaryPredicateBuilderView;
 import com.speedment.core.db.AsynchronousQueryResult;
 import com.speedment.core.field.BinaryPredicateBuilder;
+import com.speedment.core.field.CombinedBasePredicate;
 import com.speedment.core.field.CombinedBasePredicate.AndCombinedBasePredicate;
+import com.speedment.core.field.FieldComparator;
 import com.speedment.core.field.PredicateBuilder;
+import com.speedment.core.field.RangePredicateBuilder;
+import com.speedment.core.field.SetPredicateBuilder;
+import com.speedment.core.field.reference.string.StringBinaryPredicateBuilder;
+import com.speedment.core.config.model.Column;
+import com.speedment.core.db.impl.SqlFunction;
+import com.speedment.core.field.Field;
 import com.speedment.util.Cast;
 import com.speedment.util.stream.builder.action.Action;
 import static com.speedment.util.stream.builder.action.Property.SIZE;
 import static com.speedment.util.stream.builder.action.Verb.PRESERVE;
 import com.speedment.util.stream.builder.action.reference.FilterAction;
+import com.speedment.util.stream.builder.action.reference.LimitAction;
+import com.speedment.util.stream.builder.action.reference.MapAction;
+import com.speedment.util.stream.builder.action.reference.MapToDoubleAction;
+import com.speedment.util.stream.builder.action.reference.MapToIntAction;
+import com.speedment.util.stream.builder.action.reference.MapToLongAction;
+import com.speedment.util.stream.builder.action.reference.SkipAction;
+import com.speedment.util.stream.builder.action.reference.SortedAction;
 import com.speedment.util.stream.builder.pipeline.DoublePipeline;
 import com.speedment.util.stream.builder.pipeline.IntPipeline;
 import com.speedment.util.stream.builder.pipeline.LongPipeline;
 import com.speedment.util.stream.builder.pipeline.Pipeline;
 import com.speedment.util.stream.builder.pipeline.ReferencePipeline;
 import com.speedment.util.stream.builder.streamterminator.StreamTerminator;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.OptionalInt;
+import java.util.OptionalLong;
+import java.util.function.Function;
 import java.util.function.LongSupplier;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import static java.util.stream.Collectors.joining;
-import static java.util.stream.Collectors.toList;
 
 /**
  *
@@ -52,6 +76,10 @@ import static java.util.stream.Collectors.toList;
  */
 public class SqlStreamTerminator<PK, ENTITY, BUILDER extends Buildable<ENTITY>> implements StreamTerminator {
 
+    private static final Logger LOGGER = LogManager.getLogger(SqlStreamTerminator.class);
+
+    private static final long NO_LIMIT = Long.MAX_VALUE;
+
     private final AbstractSqlManager<PK, ENTITY, BUILDER> manager;
     private final AsynchronousQueryResult<ENTITY> asynchronousQueryResult;
     private final Generator generator; // Todo: Static?
@@ -64,107 +92,567 @@ public class SqlStreamTerminator<PK, ENTITY, BUILDER extends Buildable<ENTITY>>
 
     @Override
     public <T extends Pipeline> T optimize(T initialPipeline) {
-        final List<PredicateBuilder<?>> andPredicateBuilders = new ArrayList<>();
+        modifySource(initialPipeline, pushDown(initialPipeline));
+        return initialPipeline;
+    }
+
+    /**
+     * Removes the actions that can be evaluated by the database from the
+     * given pipeline and returns what shall be pushed down instead.
+     *
+     * @param initialPipeline the pipeline to push down from
+     * @return what shall be pushed down
+     */
+    private PushDown pushDown(Pipeline initialPipeline) {
+        final List<Predicate<?>> conjuncts = new ArrayList<>();
+        Optional<String> orderBy = Optional.empty();
 
-        for (Action<?, ?> action : initialPipeline.stream().collect(toList())) {
+        // Filters are stateless so the leading filters commute with each
+        // other and with a sort. Collect all of them so that every conjunct
+        // that can be rendered is pushed down, wherever it appears.
+        while (!initialPipeline.isEmpty()) {
+            final Action<?, ?> action = initialPipeline.getFirst();
             @SuppressWarnings("rawtypes")
             final Optional<FilterAction> oFilterAction = Cast.cast(action, FilterAction.class);
             if (oFilterAction.isPresent()) {
                 @SuppressWarnings("unchecked")
-                final List<PredicateBuilder<?>> newAndPredicateBuilders = andPredicateBuilders(oFilterAction.get());
-                andPredicateBuilders.addAll(newAndPredicateBuilders);
+                final FilterAction<ENTITY> filterAction = oFilterAction.get();
+                conjuncts.addAll(conjuncts(filterAction.getPredicate()));
+                initialPipeline.removeFirst();
+            } else if (!orderBy.isPresent()) {
+                orderBy = orderBy(action);
+                if (!orderBy.isPresent()) {
+                    break; // Other actions do not commute with filters
+                }
+                initialPipeline.removeFirst();
             } else {
-                break; // We can only do initial consecutive FilterAction(s)
+                break; // Only the first sort can be pushed down
             }
         }
 
-        if (!andPredicateBuilders.isEmpty()) {
-            modifySource(andPredicateBuilders, asynchronousQueryResult);
+        final List<String> conditions = new ArrayList<>();
+        final List<Object> values = new ArrayList<>();
+        final List<Object> residuals = new ArrayList<>();
+        render(conjuncts, conditions, values, residuals);
+
+        // Predicates that can not be rendered stay in the pipeline, in their
+        // original order
+        int index = 0;
+        for (final Object residual : residuals) {
+            @SuppressWarnings("unchecked")
+            final Predicate<? super ENTITY> predicate = (Predicate<? super ENTITY>) residual;
+            initialPipeline.add(index++, new FilterAction<>(predicate));
         }
-        return initialPipeline;
+        final boolean completelyPushedDown = residuals.isEmpty();
+
+        // Skip and limit are only folded into the query if the database has
+        // a supported syntax for them
+        final boolean pagingSupported = manager.sqlLimitOffsetClause().isPresent();
+        long offset = 0;
+        long limit = NO_LIMIT;
+        while (completelyPushedDown && pagingSupported && index < initialPipeline.size()) {
+            final Action<?, ?> action = initialPipeline.get(index);
+            @SuppressWarnings("rawtypes")
+            final Optional<SkipAction> oSkipAction = Cast.cast(action, SkipAction.class);
+            @SuppressWarnings("rawtypes")
+            final Optional<LimitAction> oLimitAction = Cast.cast(action, LimitAction.class);
+            if (oSkipAction.isPresent()) {
+                final long n = oSkipAction.get().getN();
+                offset += n;
+                if (limit != NO_LIMIT) {
+                    limit = Math.max(0, limit - n);
+                }
+            } else if (oLimitAction.isPresent()) {
+                limit = Math.min(limit, oLimitAction.get().getMaxSize());
+            } else if (action instanceof MapAction) {
+                // A mapping yields one element per element, so skip and limit
+                // may be applied before it
+                index++;
+                continue;
+            } else {
+                break;
+            }
+            initialPipeline.remove(index);
+        }
+
+        return new PushDown(conditions, values, orderBy, offset, limit);
     }
 
-    public void modifySource(final List<PredicateBuilder<?>> predicateBuilders, AsynchronousQueryResult<ENTITY> qr) {
+    /**
+     * Modifies the source of the given residual pipeline so that it reflects
+     * what is pushed down. If the residual pipeline starts by mapping the
+     * entities to a field, only the column of that field is selected and no
+     * entities are created.
+     *
+     * @param pipeline the residual pipeline
+     * @param pushDown what is pushed down
+     */
+    private void modifySource(final Pipeline pipeline, final PushDown pushDown) {
+        final Optional<Field<?>> oProjection = project(pipeline);
+        if (oProjection.isPresent()) {
+            final Column column = oProjection.get().getColumn();
+            modifySource(pushDown, "select " + column.getName() + " from " + manager.sqlTableReference(), asynchronousQueryResult);
+            @SuppressWarnings("unchecked")
+            final Function<ResultSet, ENTITY> rsMapper = (Function<ResultSet, ENTITY>) (Function<ResultSet, ?>) manager.columnMapper(column, 1).unWrap();
+            asynchronousQueryResult.setRsMapper(rsMapper);
+        } else if (!pushDown.isEmpty()) {
+            modifySource(pushDown, asynchronousQueryResult);
+        }
+        LOGGER.debug("Residual pipeline after pushdown: " + pipeline + " for " + asynchronousQueryResult.getSql());
+    }
+
+    /**
+     * Replaces a leading mapping of the entities to a field in the given
+     * pipeline by a mapping of the column values that are selected instead.
+     * <p>
+     * A mapping to a primitive value is only replaced if the column is not
+     * nullable. How a NULL is mapped to a primitive is up to the field, so
+     * such a mapping must be applied to the entities.
+     *
+     * @param pipeline the residual pipeline
+     * @return the field whose column shall be selected, or empty
+     */
+    private Optional<Field<?>> project(final Pipeline pipeline) {
+        if (pipeline.isEmpty()) {
+            return Optional.empty();
+        }
+        final Action<?, ?> action = pipeline.getFirst();
+        final Optional<Field<?>> oField = mappedField(action)
+            .filter(field -> action instanceof MapAction || !field.getColumn().isNullable());
+        if (oField.isPresent()) {
+            pipeline.removeFirst();
+            if (action instanceof MapToIntAction) {
+                pipeline.addFirst(new MapToIntAction<>(v -> ((Number) v).intValue()));
+            } else if (action instanceof MapToLongAction) {
+                pipeline.addFirst(new MapToLongAction<>(v -> ((Number) v).longValue()));
+            } else if (action instanceof MapToDoubleAction) {
+                pipeline.addFirst(new MapToDoubleAction<>(v -> ((Number) v).doubleValue()));
+            }
+        }
+        return oField;
+    }
+
+    private void modifySource(final PushDown pushDown, final AsynchronousQueryResult<ENTITY> qr) {
+        modifySource(pushDown, manager.sqlSelect(""), qr);
+    }
+
+    private void modifySource(final PushDown pushDown, final String select, final AsynchronousQueryResult<ENTITY> qr) {
+        final StringBuilder suffix = new StringBuilder(pushDown.where());
+        pushDown.orderBy.ifPresent(o -> suffix.append(" ORDER BY ").append(o));
+        final List<Object> allValues = new ArrayList<>(pushDown.values);
+        if (pushDown.isLimited()) {
+            suffix.append(manager.sqlLimitOffsetClause().get());
+            allValues.add(pushDown.limit);
+            allValues.add(pushDown.offset);
+        }
+        qr.setSql(select + suffix);
+        qr.setValues(allValues);
+    }
 
-        if (predicateBuilders.isEmpty()) {
-            // Nothing to do...
-            return;
+    public void modifySource(final List<PredicateBuilder<?>> predicateBuilders, AsynchronousQueryResult<ENTITY> qr) {
+        final List<String> conditions = new ArrayList<>();
+        final List<Object> values = new ArrayList<>();
+        render(predicateBuilders, conditions, values, new ArrayList<>());
+        if (!conditions.isEmpty()) {
+            modifySource(new PushDown(conditions, values, Optional.empty(), 0, NO_LIMIT), qr);
         }
-        final String sql = manager.sqlSelect(" where " + generator.onEach(predicateBuilders)
-            .collect(joining(" AND ")));
+    }
 
-        @SuppressWarnings("rawtypes")
-        final List<Object> values = predicateBuilders.stream()
-            .map(pb -> Cast.cast(pb, BinaryPredicateBuilder.class))
-            .filter(Optional::isPresent)
-            .map(Optional::get)
-            .map(BinaryPredicateBuilder::getValueAsObject)
-            .collect(toList());
+    /**
+     * Renders the given predicates into SQL conditions and their parameter
+     * values. A predicate may be a predicate builder or an AND/OR combination
+     * of predicate builders. Predicates that can not be rendered, like
+     * lambdas, are added to the residuals.
+     *
+     * @param predicates the predicates to render
+     * @param conditions the list to add the SQL conditions to
+     * @param values the list to add the parameter values to
+     * @param residuals the list to add the predicates that could not be
+     * rendered to
+     */
+    private void render(
+        final List<?> predicates,
+        final List<String> conditions,
+        final List<Object> values,
+        final List<Object> residuals
+    ) {
+        for (final Object predicate : predicates) {
+            final Optional<String> oCondition = generator.on(predicate);
+            if (oCondition.isPresent()) {
+                conditions.add(oCondition.get());
+                addValues(predicate, values);
+            } else {
+                residuals.add(predicate);
+            }
+        }
+    }
 
-        qr.setSql(sql);
-        qr.setValues(values);
+    /**
+     * Adds the parameter values of the given predicate in the same order as
+     * their parameter markers are rendered by the generator.
+     *
+     * @param predicate the predicate
+     * @param values the list to add the parameter values to
+     */
+    private void addValues(final Object predicate, final List<Object> values) {
+        if (predicate instanceof CombinedBasePredicate) {
+            ((CombinedBasePredicate<?>) predicate).stream().forEachOrdered(p -> addValues(p, values));
+        } else if (predicate instanceof StringBinaryPredicateBuilder) {
+            values.addAll(StringBinaryPredicateBuilderView.valuesOf((StringBinaryPredicateBuilder<?>) predicate));
+        } else if (predicate instanceof BinaryPredicateBuilder) {
+            values.add(((BinaryPredicateBuilder<?, ?>) predicate).getValueAsObject());
+        } else if (predicate instanceof SetPredicateBuilder) {
+            values.addAll(((SetPredicateBuilder<?, ?>) predicate).getValuesAsObjects());
+        } else if (predicate instanceof RangePredicateBuilder) {
+            values.add(((RangePredicateBuilder<?, ?>) predicate).getLowerAsObject());
+            values.add(((RangePredicateBuilder<?, ?>) predicate).getUpperAsObject());
+        }
     }
 
-    @SuppressWarnings({"unchecked", "rawtypes"})
-    private List<PredicateBuilder<?>> andPredicateBuilders(FilterAction<ENTITY> action) {
-        final List<PredicateBuilder<?>> andPredicateBuilders = new ArrayList<>();
-        final Predicate<? super ENTITY> predicate = action.getPredicate();
+    /**
+     * Returns the ORDER BY column list for the given action if it is a
+     * SortedAction with a FieldComparator.
+     *
+     * @param action the action to inspect
+     * @return the ORDER BY column list, or empty if the action can not be
+     * pushed down
+     */
+    private Optional<String> orderBy(Action<?, ?> action) {
+        if (!(action instanceof SortedAction)) {
+            return Optional.empty();
+        }
+        return ((SortedAction<?>) action).getComparator()
+            .filter(c -> c instanceof FieldComparator)
+            .map(c -> (FieldComparator<?>) c)
+            .flatMap(generator::on);
+    }
 
-        final Optional<PredicateBuilder> oPredicateBuilder = Cast.cast(predicate, PredicateBuilder.class);
-        if (oPredicateBuilder.isPresent()) {
-            andPredicateBuilders.add(oPredicateBuilder.get()); // Just a top level predicate builder
+    /**
+     * Splits the given predicate into the predicates that must all hold.
+     *
+     * @param predicate the predicate to split
+     * @return the conjuncts of the predicate
+     */
+    private List<Predicate<?>> conjuncts(final Predicate<?> predicate) {
+        final List<Predicate<?>> result = new ArrayList<>();
+        if (predicate instanceof AndCombinedBasePredicate) {
+            ((AndCombinedBasePredicate<?>) predicate).stream()
+                .forEachOrdered(p -> result.addAll(conjuncts(p)));
         } else {
+            result.add(predicate);
+        }
+        return result;
+    }
+
+    @Override
+    public <T> Optional<T> findFirst(ReferencePipeline<T> pipeline) {
+        pipeline.add(new LimitAction<>(1));
+        return optimize(pipeline).getAsReferenceStream().findFirst();
+    }
 
-            final Optional<AndCombinedBasePredicate> oAndCombinedBasePredicate = Cast.cast(predicate, AndCombinedBasePredicate.class);
-            if (oAndCombinedBasePredicate.isPresent()) {
+    @Override
+    public <T> Optional<T> findAny(ReferencePipeline<T> pipeline) {
+        pipeline.add(new LimitAction<>(1));
+        return optimize(pipeline).getAsReferenceStream().findAny();
+    }
 
-                final AndCombinedBasePredicate<ENTITY> andCombinedBasePredicate = (AndCombinedBasePredicate<ENTITY>) oAndCombinedBasePredicate.get();
-                andCombinedBasePredicate.stream()
-                    .map(p -> Cast.cast(p, PredicateBuilder.class))
-                    .filter(p -> p.isPresent())
-                    .map(Optional::get)
-                    .forEachOrdered(andPredicateBuilders::add);
-            }
+    @Override
+    public <T> boolean anyMatch(ReferencePipeline<T> pipeline, Predicate<? super T> predicate) {
+        return existsHelper(pipeline, predicate);
+    }
+
+    @Override
+    public <T> boolean noneMatch(ReferencePipeline<T> pipeline, Predicate<? super T> predicate) {
+        return !existsHelper(pipeline, predicate);
+    }
+
+    /**
+     * Optimizer for anyMatch and noneMatch operations! If the given predicate
+     * and the pipeline can be evaluated completely by the database, a single
+     * EXISTS query is issued. Otherwise the first matching element of the
+     * residual pipeline is looked up.
+     *
+     * @param <T> the element type
+     * @param pipeline the pipeline to match
+     * @param predicate the predicate to match
+     * @return true if any element of the pipeline matches the predicate
+     */
+    private <T> boolean existsHelper(ReferencePipeline<T> pipeline, Predicate<? super T> predicate) {
+        pipeline.add(new FilterAction<>(predicate));
+        final PushDown pushDown = pushDown(pipeline);
+        if (pipeline.isEmpty() && !pushDown.isLimited()) {
+            final String sql = "select exists(select 1 from " + manager.sqlTableReference() + pushDown.where() + ")";
+            return manager.synchronousStreamOf(sql, pushDown.values, rs -> rs.getBoolean(1)).findAny().get();
         }
-        return andPredicateBuilders;
+        modifySource(pipeline, pushDown);
+        return pipeline.getAsReferenceStream().findAny().isPresent();
     }
 
     @Override
     public long count(DoublePipeline pipeline) {
-        return countHelper(pipeline, () -> StreamTerminator.super.count(pipeline));
+        return countHelper(pipeline, () -> pipeline.getAsDoubleStream().count());
     }
 
     @Override
     public <T> long count(IntPipeline pipeline) {
-        return countHelper(pipeline, () -> StreamTerminator.super.count(pipeline));
+        return countHelper(pipeline, () -> pipeline.getAsIntStream().count());
     }
 
     @Override
     public long count(LongPipeline pipeline) {
-        return countHelper(pipeline, () -> StreamTerminator.super.count(pipeline));
+        return countHelper(pipeline, () -> pipeline.getAsLongStream().count());
     }
 
     @Override
     public <T> long count(ReferencePipeline<T> pipeline) {
-        return countHelper(pipeline, () -> StreamTerminator.super.count(pipeline));
+        return countHelper(pipeline, () -> pipeline.getAsReferenceStream().count());
     }
 
     private static final Predicate<Action<?, ?>> CHECK_RETAIN_SIZE = action -> action.is(PRESERVE, SIZE);
 
     /**
-     * Optimizer for count operations!
+     * Optimizer for count operations! The pushed down conditions are combined
+     * with a count(*) if the residual pipeline retains the size of the
+     * stream. Otherwise the residual pipeline is counted by the given
+     * fallback.
      *
      * @param pipeline
-     * @param fallbackSupplier
+     * @param fallbackSupplier the counter of the residual pipeline
      * @return the number of rows
      */
     private long countHelper(Pipeline pipeline, LongSupplier fallbackSupplier) {
+        final PushDown pushDown = pushDown(pipeline);
         if (pipeline.stream().allMatch(CHECK_RETAIN_SIZE)) {
-            final String sql = "select count(*) from " + manager.sqlTableReference();
-            return manager.synchronousStreamOf(sql, Collections.emptyList(), rs -> rs.getLong(1)).findAny().get();
+            final String sql = "select count(*) from " + manager.sqlTableReference() + pushDown.where();
+            final long count = manager.synchronousStreamOf(sql, pushDown.values, rs -> rs.getLong(1)).findAny().get();
+            // Skip and limit are applied to the count instead of the query
+            return Math.max(0, Math.min(pushDown.limit, count - pushDown.offset));
         }
+        modifySource(pipeline, pushDown);
         return fallbackSupplier.getAsLong();
     }
+
+    @Override
+    public int sum(IntPipeline pipeline) {
+        return aggregateHelper(pipeline, "sum(%s)", rs -> sumOf(rs).intValue(), () -> pipeline.getAsIntStream().sum());
+    }
+
+    @Override
+    public OptionalInt min(IntPipeline pipeline) {
+        return aggregateHelper(pipeline, "min(%s)", SqlStreamTerminator::optionalInt, () -> pipeline.getAsIntStream().min());
+    }
+
+    @Override
+    public OptionalInt max(IntPipeline pipeline) {
+        return aggregateHelper(pipeline, "max(%s)", SqlStreamTerminator::optionalInt, () -> pipeline.getAsIntStream().max());
+    }
+
+    @Override
+    public OptionalDouble average(IntPipeline pipeline) {
+        return aggregateHelper(pipeline, AVERAGE, rs -> averageOf(rs, (double) sumOf(rs).longValue()), () -> pipeline.getAsIntStream().average());
+    }
+
+    @Override
+    public long sum(LongPipeline pipeline) {
+        return aggregateHelper(pipeline, "sum(%s)", rs -> sumOf(rs).longValue(), () -> pipeline.getAsLongStream().sum());
+    }
+
+    @Override
+    public OptionalLong min(LongPipeline pipeline) {
+        return aggregateHelper(pipeline, "min(%s)", SqlStreamTerminator::optionalLong, () -> pipeline.getAsLongStream().min());
+    }
+
+    @Override
+    public OptionalLong max(LongPipeline pipeline) {
+        return aggregateHelper(pipeline, "max(%s)", SqlStreamTerminator::optionalLong, () -> pipeline.getAsLongStream().max());
+    }
+
+    @Override
+    public OptionalDouble average(LongPipeline pipeline) {
+        return aggregateHelper(pipeline, AVERAGE, rs -> averageOf(rs, (double) sumOf(rs).longValue()), () -> pipeline.getAsLongStream().average());
+    }
+
+    @Override
+    public double sum(DoublePipeline pipeline) {
+        return aggregateHelper(pipeline, "sum(%s)", rs -> rs.getDouble(1), () -> pipeline.getAsDoubleStream().sum());
+    }
+
+    @Override
+    public OptionalDouble min(DoublePipeline pipeline) {
+        return aggregateHelper(pipeline, "min(%s)", SqlStreamTerminator::optionalDouble, () -> pipeline.getAsDoubleStream().min());
+    }
+
+    @Override
+    public OptionalDouble max(DoublePipeline pipeline) {
+        return aggregateHelper(pipeline, "max(%s)", SqlStreamTerminator::optionalDouble, () -> pipeline.getAsDoubleStream().max());
+    }
+
+    @Override
+    public OptionalDouble average(DoublePipeline pipeline) {
+        return aggregateHelper(pipeline, AVERAGE, rs -> averageOf(rs, rs.getDouble(1)), () -> pipeline.getAsDoubleStream().average());
+    }
+
+    // The database rounds AVG to a DECIMAL, so the average is computed from
+    // the sum and the count instead
+    private static final String AVERAGE = "sum(%1$s), count(%1$s)";
+
+    /**
+     * Optimizer for aggregate operations! If the residual pipeline only maps
+     * the entities to a field, the aggregate function is applied to the
+     * column of that field by the database. Otherwise the residual pipeline
+     * is aggregated by the given fallback.
+     * <p>
+     * Nullable columns are never aggregated by the database. Its aggregate
+     * functions skip NULLs, while mapping a NULL to a primitive in the
+     * pipeline does not, so the result would depend on the pushdown.
+     *
+     * @param <R> the result type
+     * @param pipeline the pipeline to aggregate
+     * @param selectFormat the format of the select list, where the column
+     * name is the only argument
+     * @param rsMapper the mapper of the aggregated value
+     * @param fallbackSupplier the aggregator of the residual pipeline
+     * @return the aggregated value
+     */
+    private <R> R aggregateHelper(Pipeline pipeline, String selectFormat, SqlFunction<ResultSet, R> rsMapper, Supplier<R> fallbackSupplier) {
+        final PushDown pushDown = pushDown(pipeline);
+        // An aggregate over a skipped or limited stream would need a sub query
+        if (pipeline.size() == 1 && !pushDown.isLimited()) {
+            final Optional<Field<?>> oField = mappedField(pipeline.getFirst())
+                .filter(field -> !field.getColumn().isNullable())
+                .filter(field -> isAggregatedExactly(pipeline.getFirst(), field.getColumn()));
+            if (oField.isPresent()) {
+                final String sql = "select " + String.format(selectFormat, oField.get().getColumn().getName()) + " from "
+                    + manager.sqlTableReference() + pushDown.where();
+                return manager.synchronousStreamOf(sql, pushDown.values, rsMapper).findAny().get();
+            }
+        }
+        modifySource(pipeline, pushDown);
+        return fallbackSupplier.get();
+    }
+
+    /**
+     * Returns if aggregating the given column in the database gives the same
+     * result as aggregating the values of the given mapping action. Values
+     * that are not integral are truncated one by one when they are mapped to
+     * an int or a long, which the database would only do to the aggregate.
+     *
+     * @param action the mapping action
+     * @param column the column of the mapped field
+     * @return if the aggregate may be computed by the database
+     */
+    private static boolean isAggregatedExactly(Action<?, ?> action, Column column) {
+        final Class<?> mapping = column.getMapping();
+        if (action instanceof MapToIntAction) {
+            return Integer.class.equals(mapping) || Short.class.equals(mapping) || Byte.class.equals(mapping);
+        } else if (action instanceof MapToLongAction) {
+            return Long.class.equals(mapping) || Integer.class.equals(mapping) || Short.class.equals(mapping) || Byte.class.equals(mapping);
+        }
+        return true;
+    }
+
+    /**
+     * Returns the field that the given action maps the entities to, if the
+     * action is a MapAction, MapToIntAction, MapToLongAction or
+     * MapToDoubleAction with a field as mapper.
+     *
+     * @param action the action to inspect
+     * @return the field that the entities are mapped to, or empty
+     */
+    private Optional<Field<?>> mappedField(Action<?, ?> action) {
+        final Object mapper;
+        if (action instanceof MapAction) {
+            mapper = ((MapAction<?, ?>) action).getMapper();
+        } else if (action instanceof MapToIntAction) {
+            mapper = ((MapToIntAction<?>) action).getMapper();
+        } else if (action instanceof MapToLongAction) {
+            mapper = ((MapToLongAction<?>) action).getMapper();
+        } else if (action instanceof MapToDoubleAction) {
+            mapper = ((MapToDoubleAction<?>) action).getMapper();
+        } else {
+            return Optional.empty();
+        }
+        if (mapper instanceof Field) {
+            return Optional.of((Field<?>) mapper);
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Returns the sum in the first column of the given ResultSet. Sums are
+     * read as decimals since they may not fit in a long, so that the
+     * narrowing to an int or a long wraps around like a sum in Java does.
+     *
+     * @param rs the ResultSet
+     * @return the sum, which is zero if there were no values
+     * @throws SQLException if the sum could not be read
+     */
+    private static BigDecimal sumOf(ResultSet rs) throws SQLException {
+        final BigDecimal sum = rs.getBigDecimal(1);
+        return sum == null ? BigDecimal.ZERO : sum;
+    }
+
+    private static OptionalDouble averageOf(ResultSet rs, double sum) throws SQLException {
+        final long count = rs.getLong(2);
+        return count == 0 ? OptionalDouble.empty() : OptionalDouble.of(sum / count);
+    }
+
+    private static OptionalInt optionalInt(ResultSet rs) throws SQLException {
+        final int value = rs.getInt(1);
+        return rs.wasNull() ? OptionalInt.empty() : OptionalInt.of(value);
+    }
+
+    private static OptionalLong optionalLong(ResultSet rs) throws SQLException {
+        final long value = rs.getLong(1);
+        return rs.wasNull() ? OptionalLong.empty() : OptionalLong.of(value);
+    }
+
+    private static OptionalDouble optionalDouble(ResultSet rs) throws SQLException {
+        final double value = rs.getDouble(1);
+        return rs.wasNull() ? OptionalDouble.empty() : OptionalDouble.of(value);
+    }
+
+    /**
+     * The parts of a stream pipeline that are evaluated by the database.
+     */
+    private static final class PushDown {
+
+        private final List<String> conditions;
+        private final List<Object> values;
+        private final Optional<String> orderBy;
+        private final long offset;
+        private final long limit;
+
+        private PushDown(
+            final List<String> conditions,
+            final List<Object> values,
+            final Optional<String> orderBy,
+            final long offset,
+            final long limit
+        ) {
+            this.conditions = conditions;
+            this.values = values;
+            this.orderBy = orderBy;
+            this.offset = offset;
+            this.limit = limit;
+        }
+
+        private String where() {
+            if (conditions.isEmpty()) {
+                return "";
+            }
+            return " where " + conditions.stream().collect(joining(" AND "));
+        }
+
+        private boolean isLimited() {
+            return limit != NO_LIMIT || offset > 0;
+        }
+
+        private boolean isEmpty() {
+            return conditions.isEmpty() && !orderBy.isPresent() && !isLimited();
+        }
+    }
+
 //
 //    private Supplier<Stream<Entity>> supplier(Collection<Field> fields) {
 //        final Dbms dbms = table.ancestor(Dbms.class).get();
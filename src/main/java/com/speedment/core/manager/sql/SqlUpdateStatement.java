@@ -16,6 +16,7 @@
  */
 package com.speedment.core.manager.sql;
 
+import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -30,11 +31,27 @@ public class SqlUpdateStatement extends SqlStatement {
 
     private final List<Long> generatedKeys;
     private final Consumer<List<Long>> generatedKeysConsumer;
+    private int updateCount;
 
     public SqlUpdateStatement(final String sql, final List<?> values, final Consumer<List<Long>> generatedKeysConsumer) {
         super(sql, values);
         this.generatedKeys = new ArrayList<>();
         this.generatedKeysConsumer = Objects.requireNonNull(generatedKeysConsumer);
+        this.updateCount = Statement.SUCCESS_NO_INFO;
+    }
+
+    /**
+     * Returns the number of rows affected by this statement, or
+     * {@link Statement#SUCCESS_NO_INFO} if the number is not known.
+     *
+     * @return the number of affected rows
+     */
+    public int getUpdateCount() {
+        return updateCount;
+    }
+
+    public void setUpdateCount(int updateCount) {
+        this.updateCount = updateCount;
     }
 
     public List<Long> getGeneratedKeys() {
@@ -45,6 +62,10 @@ public class SqlUpdateStatement extends SqlStatement {
         generatedKeys.add(generatedKey);
     }
 
+    public void clearGeneratedKeys() {
+        generatedKeys.clear();
+    }
+
     public void acceptGeneratedKeys() {
         generatedKeysConsumer.accept(generatedKeys);
     }
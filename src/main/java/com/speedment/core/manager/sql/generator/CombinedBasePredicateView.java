@@ -0,0 +1,65 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.core.manager.sql.generator;
+
+import com.speedment.codegen.base.Generator;
+import com.speedment.codegen.base.Transform;
+import com.speedment.core.field.CombinedBasePredicate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Predicate;
+import static java.util.stream.Collectors.joining;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Renders an AND or OR combination of predicates as a parenthesised SQL
+ * condition. If any of the combined predicates can not be rendered, nothing
+ * is rendered.
+ *
+ * @author pemi
+ */
+@SuppressWarnings("rawtypes")
+public class CombinedBasePredicateView implements Transform<CombinedBasePredicate, String> {
+
+    protected String render(CombinedBasePredicate.Type type) {
+        switch (type) {
+            case AND:
+                return " AND ";
+            case OR:
+                return " OR ";
+            default:
+                throw new UnsupportedOperationException(
+                    "Unknown enum constant " + type.name() + "."
+                );
+        }
+    }
+
+    @Override
+    public Optional<String> transform(Generator gen, CombinedBasePredicate model) {
+        final List<Predicate<?>> predicates = ((CombinedBasePredicate<?>) model).stream().collect(toList());
+        final List<String> conditions = new ArrayList<>();
+        for (final Predicate<?> predicate : predicates) {
+            final Optional<String> condition = gen.on(predicate);
+            if (!condition.isPresent()) {
+                return Optional.empty();
+            }
+            conditions.add(condition.get());
+        }
+        return Optional.of(conditions.stream().collect(joining(render(model.getType()), "(", ")")));
+    }
+}
@@ -0,0 +1,85 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.core.manager.sql.generator;
+
+import com.speedment.codegen.base.Generator;
+import com.speedment.codegen.base.Transform;
+import com.speedment.core.config.model.Column;
+import com.speedment.core.field.FieldComparator;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import static java.util.stream.Collectors.joining;
+
+/**
+ * Renders a FieldComparator as the column list of an ORDER BY clause.
+ * <p>
+ * A FieldComparator is only rendered if the database orders all of its
+ * columns exactly like the comparator does in the JVM. That holds for
+ * numeric, boolean and temporal columns. Strings are compared by their UTF-16
+ * code units in the JVM but by a collation in the database, which typically
+ * ignores case, so a FieldComparator with a string column is not rendered and
+ * the sort is made in the JVM instead.
+ * <p>
+ * The comparators of the fields order null values first and reversed
+ * comparators thus order them last. Databases do not agree on where null
+ * values go, so a nullable column is preceded by an explicit ordering on
+ * whether it is null.
+ *
+ * @author pemi
+ */
+@SuppressWarnings("rawtypes")
+public class FieldComparatorView implements Transform<FieldComparator, String> {
+
+    private static final Set<Class<?>> ORDERED_MAPPINGS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+        Byte.class, Short.class, Integer.class, Long.class, Float.class, Double.class,
+        BigInteger.class, BigDecimal.class, Boolean.class, Date.class, Time.class, Timestamp.class
+    )));
+
+    @Override
+    public Optional<String> transform(Generator gen, FieldComparator model) {
+        final FieldComparator<?> comparator = (FieldComparator<?>) model;
+        if (!comparator.stream().allMatch(sk -> isOrderedLikeInJava(sk.getField().getColumn()))) {
+            return Optional.empty();
+        }
+        return Optional.of(comparator.stream()
+            .map(sk -> render(sk.getField().getColumn(), sk.isAscending()))
+            .collect(joining(", "))
+        );
+    }
+
+    private static String render(Column column, boolean ascending) {
+        final String direction = ascending ? " ASC" : " DESC";
+        if (!column.isNullable()) {
+            return column.getName() + direction;
+        }
+        // Null values first when ascending and last when descending
+        return "(" + column.getName() + " IS NULL)" + (ascending ? " DESC" : " ASC")
+            + ", " + column.getName() + direction;
+    }
+
+    private static boolean isOrderedLikeInJava(Column column) {
+        return ORDERED_MAPPINGS.contains(column.getMapping());
+    }
+}
@@ -0,0 +1,54 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.core.manager.sql.generator;
+
+import com.speedment.codegen.base.Generator;
+import com.speedment.codegen.base.Transform;
+import com.speedment.core.field.RangePredicateBuilder;
+import com.speedment.core.field.StandardRangeOperator;
+import java.util.Optional;
+
+/**
+ * Renders a RangePredicateBuilder as a BETWEEN or NOT BETWEEN condition.
+ *
+ * @author pemi
+ */
+@SuppressWarnings("rawtypes")
+public class RangePredicateBuilderView implements Transform<RangePredicateBuilder, String> {
+
+    protected String render(StandardRangeOperator op) {
+        switch (op) {
+            case BETWEEN:
+                return " BETWEEN ";
+            case NOT_BETWEEN:
+                return " NOT BETWEEN ";
+            default:
+                throw new UnsupportedOperationException(
+                    "Unknown enum constant " + op.name() + "."
+                );
+        }
+    }
+
+    @Override
+    public Optional<String> transform(Generator gen, RangePredicateBuilder model) {
+        return Optional.of("("
+            + model.getField().getColumn().getName()
+            + render(model.getOperator())
+            + "? AND ?)"
+        );
+    }
+}
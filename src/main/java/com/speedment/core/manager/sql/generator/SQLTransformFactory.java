@@ -18,6 +18,10 @@ package com.speedment.core.manager.sql.generator;
 
 import com.speedment.codegen.base.DefaultTransformFactory;
 import com.speedment.core.field.BinaryPredicateBuilder;
+import com.speedment.core.field.CombinedBasePredicate;
+import com.speedment.core.field.FieldComparator;
+import com.speedment.core.field.RangePredicateBuilder;
+import com.speedment.core.field.SetPredicateBuilder;
 import com.speedment.core.field.UnaryPredicateBuilder;
 import com.speedment.core.field.reference.string.StringBinaryPredicateBuilder;
 
@@ -32,5 +36,9 @@ public class SQLTransformFactory extends DefaultTransformFactory {
         install(UnaryPredicateBuilder.class, UnaryPredicateBuilderView.class);
 		install(BinaryPredicateBuilder.class, BinaryPredicateBuilderView.class);
 		install(StringBinaryPredicateBuilder.class, StringBinaryPredicateBuilderView.class);
+		install(SetPredicateBuilder.class, SetPredicateBuilderView.class);
+		install(RangePredicateBuilder.class, RangePredicateBuilderView.class);
+		install(CombinedBasePredicate.class, CombinedBasePredicateView.class);
+		install(FieldComparator.class, FieldComparatorView.class);
     }
 }
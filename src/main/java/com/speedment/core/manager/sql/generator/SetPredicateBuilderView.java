@@ -0,0 +1,72 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.core.manager.sql.generator;
+
+import com.speedment.codegen.base.Generator;
+import com.speedment.codegen.base.Transform;
+import com.speedment.core.field.SetPredicateBuilder;
+import com.speedment.core.field.StandardSetOperator;
+import java.util.Optional;
+import static java.util.stream.Collectors.joining;
+import java.util.stream.Stream;
+
+/**
+ * Renders a SetPredicateBuilder as an IN or NOT IN condition with one
+ * parameter per value. An empty set can not be rendered as a list, so an
+ * empty IN matches nothing and an empty NOT IN matches every value that is
+ * not null, which is what the predicates do in memory. The set never holds
+ * null, since the predicate builders ignore or reject null values.
+ *
+ * @author pemi
+ */
+@SuppressWarnings("rawtypes")
+public class SetPredicateBuilderView implements Transform<SetPredicateBuilder, String> {
+
+    protected String render(StandardSetOperator op) {
+        switch (op) {
+            case IN:
+                return " IN ";
+            case NOT_IN:
+                return " NOT IN ";
+            default:
+                throw new UnsupportedOperationException(
+                    "Unknown enum constant " + op.name() + "."
+                );
+        }
+    }
+
+    @Override
+    public Optional<String> transform(Generator gen, SetPredicateBuilder model) {
+        final String columnName = model.getField().getColumn().getName();
+        final int size = model.getValuesAsObjects().size();
+        if (size == 0) {
+            // An empty list is not valid SQL
+            switch (model.getOperator()) {
+                case IN:
+                    return Optional.of("(1 = 0)");
+                case NOT_IN:
+                    return Optional.of("(" + columnName + " IS NOT NULL)");
+            }
+        }
+        return Optional.of("("
+            + columnName
+            + render(model.getOperator())
+            + Stream.generate(() -> "?").limit(size).collect(joining(",", "(", ")"))
+            + ")"
+        );
+    }
+}
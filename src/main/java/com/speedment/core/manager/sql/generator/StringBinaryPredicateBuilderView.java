@@ -20,27 +20,45 @@ import com.speedment.codegen.base.Generator;
 import com.speedment.codegen.base.Transform;
 import com.speedment.core.field.StandardStringBinaryOperator;
 import com.speedment.core.field.reference.string.StringBinaryPredicateBuilder;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 
 /**
+ * Renders a StringBinaryPredicateBuilder. Pattern operators are rendered as
+ * LIKE with a bound pattern where the value has been escaped so that
+ * {@code %} and {@code _} in the value are matched literally.
+ * <p>
+ * STARTS_WITH is rendered as a LIKE with a constant prefix using the collation
+ * of the column so that the database may use an index on the column for a
+ * range scan. The rows in that range are then checked with LIKE BINARY since
+ * the collation might be case insensitive.
  *
  * @author Emil Forslund
  */
 @SuppressWarnings("rawtypes")
 public class StringBinaryPredicateBuilderView implements Transform<StringBinaryPredicateBuilder, String> {
 
+    static final char ESCAPE_CHAR = '!';
+    private static final String ESCAPE = " ESCAPE '" + ESCAPE_CHAR + "'";
+
     protected String render(StandardStringBinaryOperator op, String columnName) {
         switch (op) {
             case CONTAINS:
-                return columnName + " LIKE BINARY CONCAT('%', ? ,'%')";
             case ENDS_WITH:
-                return columnName + " LIKE BINARY CONCAT('%', ?)";
+                return columnName + " LIKE BINARY ?" + ESCAPE;
             case EQUAL_IGNORE_CASE:
-                return "UPPER("+columnName+") = UPPER(?)";
+                return "UPPER(" + columnName + ") = UPPER(?)";
             case NOT_EQUAL_IGNORE_CASE:
-                return "UPPER("+columnName+") <> UPPER(?)";
+                return "UPPER(" + columnName + ") <> UPPER(?)";
+            case EQUAL_BY_COLLATION:
+                return columnName + " = ?";
+            case NOT_EQUAL_BY_COLLATION:
+                return columnName + " <> ?";
             case STARTS_WITH:
-                return columnName + " LIKE BINARY CONCAT(? ,'%')";
+                return columnName + " LIKE ?" + ESCAPE
+                    + " AND " + columnName + " LIKE BINARY ?" + ESCAPE;
             default:
                 throw new UnsupportedOperationException(
                     "Unknown enum constant " + op.name() + "."
@@ -55,4 +73,45 @@ public class StringBinaryPredicateBuilderView implements Transform<StringBinaryP
             + ")"
         );
     }
+
+    /**
+     * Returns the parameter values for the given model in the same order as
+     * the parameter markers are rendered by this view.
+     *
+     * @param model the model
+     * @return the parameter values
+     */
+    public static List<Object> valuesOf(StringBinaryPredicateBuilder<?> model) {
+        final String value = model.getValue();
+        switch (model.getOperator()) {
+            case CONTAINS:
+                return Collections.singletonList(value == null ? null : "%" + escapeLike(value) + "%");
+            case ENDS_WITH:
+                return Collections.singletonList(value == null ? null : "%" + escapeLike(value));
+            case STARTS_WITH:
+                final String pattern = value == null ? null : escapeLike(value) + "%";
+                return Arrays.asList(pattern, pattern);
+            default:
+                return Collections.singletonList(value);
+        }
+    }
+
+    /**
+     * Escapes the LIKE wildcards in the given value using
+     * {@link #ESCAPE_CHAR} so that it is matched literally.
+     *
+     * @param value the value to escape
+     * @return the escaped value
+     */
+    static String escapeLike(String value) {
+        final StringBuilder sb = new StringBuilder(value.length() + 8);
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c == ESCAPE_CHAR || c == '%' || c == '_') {
+                sb.append(ESCAPE_CHAR);
+            }
+            sb.append(c);
+        }
+        return sb.toString();
+    }
 }
@@ -30,14 +30,14 @@ import java.util.Optional;
  * @author Emil Forslund
  */
 @SuppressWarnings("rawtypes")
-public abstract class UnaryPredicateBuilderView implements Transform<UnaryPredicateBuilder, String> {
+public class UnaryPredicateBuilderView implements Transform<UnaryPredicateBuilder, String> {
 
     private String render(StandardUnaryOperator op) {
         switch (op) {
             case IS_NOT_NULL:
-                return " <> NULL";
+                return " IS NOT NULL";
             case IS_NULL:
-                return " == NULL";
+                return " IS NULL";
             default:
                 throw new UnsupportedOperationException(
                     "Unknown enum constant " + op.name() + "."
@@ -0,0 +1,95 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.core.manager.store;
+
+/**
+ * Operations on bitmaps that are stored as arrays of 64 bit words, where row
+ * {@code i} is bit {@code i & 63} of word {@code i >>> 6}.
+ *
+ * @author pemi
+ */
+final class Bitmaps {
+
+    private Bitmaps() {
+    }
+
+    static int words(int bits) {
+        return (bits + 63) >>> 6;
+    }
+
+    static boolean get(long[] bitmap, int index) {
+        return (bitmap[index >>> 6] & (1L << index)) != 0;
+    }
+
+    static void set(long[] bitmap, int index) {
+        bitmap[index >>> 6] |= 1L << index;
+    }
+
+    static void clear(long[] bitmap, int index) {
+        bitmap[index >>> 6] &= ~(1L << index);
+    }
+
+    /**
+     * Sets {@code target} to {@code target & other}, word by word.
+     *
+     * @param target the bitmap to modify
+     * @param other the other bitmap
+     */
+    static void and(long[] target, long[] other) {
+        final int common = Math.min(target.length, other.length);
+        for (int i = 0; i < common; i++) {
+            target[i] &= other[i];
+        }
+        for (int i = common; i < target.length; i++) {
+            target[i] = 0;
+        }
+    }
+
+    /**
+     * Sets {@code target} to {@code target | other}, word by word.
+     *
+     * @param target the bitmap to modify
+     * @param other the other bitmap
+     */
+    static void or(long[] target, long[] other) {
+        final int common = Math.min(target.length, other.length);
+        for (int i = 0; i < common; i++) {
+            target[i] |= other[i];
+        }
+    }
+
+    /**
+     * Sets {@code target} to {@code target & ~other}, word by word.
+     *
+     * @param target the bitmap to modify
+     * @param other the other bitmap
+     */
+    static void andNot(long[] target, long[] other) {
+        final int common = Math.min(target.length, other.length);
+        for (int i = 0; i < common; i++) {
+            target[i] &= ~other[i];
+        }
+    }
+
+    static long cardinality(long[] bitmap) {
+        long result = 0;
+        for (final long word : bitmap) {
+            result += Long.bitCount(word);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,99 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.core.manager.store;
+
+import java.util.Arrays;
+
+/**
+ * One column of a {@link ColumnarEntityStore}. The values are kept in arrays
+ * indexed by row, and nulls are kept in a bitmap.
+ *
+ * @author pemi
+ */
+abstract class ColumnVector {
+
+    protected long[] nulls;
+
+    protected ColumnVector(int capacity) {
+        this.nulls = new long[Bitmaps.words(capacity)];
+    }
+
+    /**
+     * Returns the number of rows that this vector can hold.
+     *
+     * @return the number of rows that this vector can hold
+     */
+    abstract int capacity();
+
+    /**
+     * Grows the arrays of this vector to the given capacity.
+     *
+     * @param capacity the new capacity
+     */
+    protected abstract void grow(int capacity);
+
+    /**
+     * Sets the non-null value of the given row.
+     *
+     * @param row the row
+     * @param value the value
+     */
+    protected abstract void setValue(int row, Object value);
+
+    /**
+     * Returns the value of the given row, which is known not to be null.
+     *
+     * @param row the row
+     * @return the value
+     */
+    protected abstract Object getValue(int row);
+
+    /**
+     * Clears any reference held for the given row.
+     *
+     * @param row the row
+     */
+    protected void clearValue(int row) {
+    }
+
+    final void ensureCapacity(int capacity) {
+        if (capacity > capacity()) {
+            final int newCapacity = Math.max(capacity, capacity() * 2);
+            grow(newCapacity);
+            nulls = Arrays.copyOf(nulls, Bitmaps.words(newCapacity));
+        }
+    }
+
+    final void set(int row, Object value) {
+        if (value == null) {
+            clearValue(row);
+            Bitmaps.set(nulls, row);
+        } else {
+            setValue(row, value);
+            Bitmaps.clear(nulls, row);
+        }
+    }
+
+    final Object get(int row) {
+        return Bitmaps.get(nulls, row) ? null : getValue(row);
+    }
+
+    final void clear(int row) {
+        clearValue(row);
+        Bitmaps.set(nulls, row);
+    }
+}
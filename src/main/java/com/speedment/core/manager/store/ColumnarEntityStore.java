@@ -0,0 +1,381 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.core.manager.store;
+
+import com.speedment.core.config.model.Column;
+import com.speedment.core.config.model.parameters.StorageEngineType;
+import com.speedment.core.core.Buildable;
+import com.speedment.core.field.CombinedBasePredicate.AndCombinedBasePredicate;
+import com.speedment.core.field.CombinedBasePredicate.OrCombinedBasePredicate;
+import com.speedment.core.field.doubles.DoubleBinaryPredicateBuilder;
+import com.speedment.core.field.ints.IntBinaryPredicateBuilder;
+import com.speedment.core.field.longs.LongBinaryPredicateBuilder;
+import com.speedment.core.field.reference.ReferenceBinaryPredicateBuilder;
+import com.speedment.core.field.reference.string.StringBinaryPredicateBuilder;
+import com.speedment.core.manager.Manager;
+import static com.speedment.util.stream.OptionalUtil.unwrap;
+import com.speedment.util.stream.builder.streamterminator.StreamTerminator;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import static java.util.Objects.requireNonNull;
+import java.util.Optional;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntFunction;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import static java.util.stream.Collectors.toList;
+import java.util.stream.Stream;
+
+/**
+ * An {@link EntityStore} for {@link StorageEngineType#ON_HEAP_COLUMNAR} that
+ * keeps each column of the table in a {@link ColumnVector} instead of keeping
+ * one object per row. Int, long and double columns are kept in primitive
+ * arrays and string columns are dictionary encoded.
+ * <p>
+ * Field predicates on those columns are evaluated as loops over the arrays
+ * that produce a bitmap of the selected rows, and only the selected rows are
+ * materialised into entities. Rows are materialised when a stream reaches
+ * them. If the store has been modified since the rows were selected, the
+ * entity is tested again with the original predicates.
+ *
+ * @author pemi
+ * @param <PK> PrimaryKey type
+ * @param <ENTITY> Entity type
+ * @param <BUILDER> Builder type
+ */
+public class ColumnarEntityStore<PK, ENTITY, BUILDER extends Buildable<ENTITY>> implements EntityStore<PK, ENTITY> {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final Manager<?, ENTITY, BUILDER> manager;
+    private final Column[] columns;
+    private final ColumnVector[] vectors;
+    private final Map<String, Integer> indexByName;
+    private final Map<PK, Integer> rowOf;
+    private final Deque<Integer> freeRows;
+    private final ReadWriteLock lock;
+    private long[] live;
+    private int rows;
+    private volatile long modCount;
+
+    public ColumnarEntityStore(Manager<?, ENTITY, BUILDER> manager, List<Column> columns) {
+        this.manager = requireNonNull(manager);
+        this.columns = columns.toArray(new Column[columns.size()]);
+        this.vectors = new ColumnVector[this.columns.length];
+        this.indexByName = new HashMap<>();
+        for (int i = 0; i < this.columns.length; i++) {
+            vectors[i] = newVector(this.columns[i].getMapping());
+            indexByName.put(this.columns[i].getName(), i);
+        }
+        this.rowOf = new HashMap<>();
+        this.freeRows = new ArrayDeque<>();
+        this.lock = new ReentrantReadWriteLock();
+        this.live = new long[Bitmaps.words(INITIAL_CAPACITY)];
+    }
+
+    private static ColumnVector newVector(Class<?> mapping) {
+        if (Integer.class.equals(mapping)) {
+            return new IntColumnVector(INITIAL_CAPACITY);
+        } else if (Long.class.equals(mapping)) {
+            return new LongColumnVector(INITIAL_CAPACITY);
+        } else if (Double.class.equals(mapping)) {
+            return new DoubleColumnVector(INITIAL_CAPACITY);
+        } else if (String.class.equals(mapping)) {
+            return new StringColumnVector(INITIAL_CAPACITY);
+        } else {
+            return new ObjectColumnVector(INITIAL_CAPACITY);
+        }
+    }
+
+    @Override
+    public Optional<ENTITY> get(PK primaryKey) {
+        requireNonNull(primaryKey);
+        return read(() -> Optional.ofNullable(rowOf.get(primaryKey)).map(this::materialize));
+    }
+
+    @Override
+    public void put(PK primaryKey, ENTITY entity) {
+        requireNonNull(primaryKey);
+        requireNonNull(entity);
+        final Object[] values = new Object[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            values[i] = unwrap(manager.get(entity, columns[i]));
+        }
+        write(() -> {
+            Integer row = rowOf.get(primaryKey);
+            if (row == null) {
+                row = freeRows.isEmpty() ? newRow() : freeRows.pop();
+                rowOf.put(primaryKey, row);
+                Bitmaps.set(live, row);
+            }
+            for (int i = 0; i < columns.length; i++) {
+                vectors[i].set(row, values[i]);
+            }
+        });
+    }
+
+    private int newRow() {
+        final int row = rows++;
+        for (final ColumnVector vector : vectors) {
+            vector.ensureCapacity(rows);
+        }
+        if (Bitmaps.words(rows) > live.length) {
+            live = Arrays.copyOf(live, Math.max(Bitmaps.words(rows), live.length * 2));
+        }
+        return row;
+    }
+
+    @Override
+    public void remove(PK primaryKey) {
+        requireNonNull(primaryKey);
+        write(() -> {
+            final Integer row = rowOf.remove(primaryKey);
+            if (row != null) {
+                Bitmaps.clear(live, row);
+                for (final ColumnVector vector : vectors) {
+                    vector.clear(row);
+                }
+                freeRows.push(row);
+            }
+        });
+    }
+
+    @Override
+    public Stream<ENTITY> stream() {
+        return selected(read(() -> live.clone()), modCount, e -> true);
+    }
+
+    /**
+     * Returns if the given predicate can be evaluated over the column
+     * vectors of this store.
+     *
+     * @param predicate the predicate
+     * @return if the given predicate can be evaluated over the column vectors
+     */
+    public boolean isSelectable(Predicate<?> predicate) {
+        return selectorOf(predicate).isPresent();
+    }
+
+    /**
+     * Returns a stream of the entities that match all the given predicates,
+     * which must be selectable. The rows are selected when the stream is
+     * created.
+     *
+     * @param predicates the predicates
+     * @return a stream of the entities that match all the given predicates
+     */
+    @SuppressWarnings("unchecked")
+    public Stream<ENTITY> stream(List<? extends Predicate<?>> predicates) {
+        final Predicate<ENTITY> recheck = predicates.stream()
+            .map(p -> (Predicate<ENTITY>) p)
+            .reduce(Predicate::and)
+            .orElse(e -> true);
+        return read(() -> selected(select(predicates), modCount, recheck));
+    }
+
+    /**
+     * Returns the number of entities that match all the given predicates,
+     * which must be selectable.
+     *
+     * @param predicates the predicates
+     * @return the number of entities that match all the given predicates
+     */
+    public long count(List<? extends Predicate<?>> predicates) {
+        return read(() -> Bitmaps.cardinality(select(predicates)));
+    }
+
+    private long[] select(List<? extends Predicate<?>> predicates) {
+        // Must be called when holding the read lock
+        final long[] result = live.clone();
+        for (final Predicate<?> predicate : predicates) {
+            Bitmaps.and(result, selectorOf(predicate)
+                .orElseThrow(() -> new IllegalArgumentException("The predicate " + predicate + " is not selectable"))
+                .apply(rows)
+            );
+        }
+        return result;
+    }
+
+    private Stream<ENTITY> selected(long[] selection, long selectionModCount, Predicate<ENTITY> recheck) {
+        return BitSet.valueOf(selection).stream()
+            .mapToObj(row -> read(() -> {
+                if (!Bitmaps.get(live, row)) {
+                    return null;
+                }
+                final ENTITY entity = materialize(row);
+                if (modCount != selectionModCount && !recheck.test(entity)) {
+                    return null;
+                }
+                return entity;
+            }))
+            .filter(Objects::nonNull);
+    }
+
+    /**
+     * Returns a function that computes the bitmap of the first rows that
+     * match the given predicate, if the predicate can be evaluated over the
+     * column vectors of this store.
+     *
+     * @param predicate the predicate
+     * @return the function that computes the bitmap of matching rows
+     */
+    private Optional<IntFunction<long[]>> selectorOf(Predicate<?> predicate) {
+        if (predicate instanceof AndCombinedBasePredicate || predicate instanceof OrCombinedBasePredicate) {
+            final boolean and = predicate instanceof AndCombinedBasePredicate;
+            final Stream<? extends Predicate<?>> parts = and
+                ? ((AndCombinedBasePredicate<?>) predicate).stream()
+                : ((OrCombinedBasePredicate<?>) predicate).stream();
+            final List<Optional<IntFunction<long[]>>> selectors = parts.map(this::selectorOf).collect(toList());
+            if (selectors.isEmpty() || !selectors.stream().allMatch(Optional::isPresent)) {
+                return Optional.empty();
+            }
+            return Optional.of(n -> {
+                final long[] result = selectors.get(0).get().apply(n);
+                for (int i = 1; i < selectors.size(); i++) {
+                    if (and) {
+                        Bitmaps.and(result, selectors.get(i).get().apply(n));
+                    } else {
+                        Bitmaps.or(result, selectors.get(i).get().apply(n));
+                    }
+                }
+                return result;
+            });
+        } else if (predicate instanceof IntBinaryPredicateBuilder) {
+            final IntBinaryPredicateBuilder<?> p = (IntBinaryPredicateBuilder<?>) predicate;
+            return vectorOf(p.getField().getColumn(), IntColumnVector.class)
+                .map(v -> n -> v.select(p.getOperator(), p.getValue(), n));
+        } else if (predicate instanceof LongBinaryPredicateBuilder) {
+            final LongBinaryPredicateBuilder<?> p = (LongBinaryPredicateBuilder<?>) predicate;
+            return vectorOf(p.getField().getColumn(), LongColumnVector.class)
+                .map(v -> n -> v.select(p.getOperator(), p.getValue(), n));
+        } else if (predicate instanceof DoubleBinaryPredicateBuilder) {
+            final DoubleBinaryPredicateBuilder<?> p = (DoubleBinaryPredicateBuilder<?>) predicate;
+            return vectorOf(p.getField().getColumn(), DoubleColumnVector.class)
+                .map(v -> n -> v.select(p.getOperator(), p.getValue(), n));
+        } else if (predicate instanceof StringBinaryPredicateBuilder) {
+            final StringBinaryPredicateBuilder<?> p = (StringBinaryPredicateBuilder<?>) predicate;
+            final Predicate<String> valuePredicate = s -> p.getValue() != null && p.getOperator().getComparator().test(s, p.getValue());
+            return vectorOf(p.getField().getColumn(), StringColumnVector.class)
+                .map(v -> n -> v.select(valuePredicate, n));
+        } else if (predicate instanceof ReferenceBinaryPredicateBuilder && isNumericNaturalOrder((ReferenceBinaryPredicateBuilder<?, ?>) predicate)) {
+            // Numeric columns of generated entities use ComparableReferenceField
+            final ReferenceBinaryPredicateBuilder<?, ?> p = (ReferenceBinaryPredicateBuilder<?, ?>) predicate;
+            final Object value = p.getValue();
+            final Column column = p.getField().getColumn();
+            if (value instanceof Integer) {
+                return vectorOf(column, IntColumnVector.class)
+                    .map(v -> n -> v.select(p.getOperator(), (Integer) value, n));
+            } else if (value instanceof Long) {
+                return vectorOf(column, LongColumnVector.class)
+                    .map(v -> n -> v.select(p.getOperator(), (Long) value, n));
+            } else {
+                return vectorOf(column, DoubleColumnVector.class)
+                    .map(v -> n -> v.select(p.getOperator(), (Double) value, n));
+            }
+        } else if (predicate instanceof ReferenceBinaryPredicateBuilder) {
+            @SuppressWarnings("unchecked")
+            final ReferenceBinaryPredicateBuilder<?, String> p = (ReferenceBinaryPredicateBuilder<?, String>) predicate;
+            if (!(p.getValue() == null || p.getValue() instanceof String)) {
+                return Optional.empty();
+            }
+            final Predicate<String> valuePredicate = s -> p.test(Objects.compare(s, p.getValue(), p.getComparator()));
+            return vectorOf(p.getField().getColumn(), StringColumnVector.class)
+                .map(v -> n -> v.select(valuePredicate, n));
+        }
+        return Optional.empty();
+    }
+
+    private static boolean isNumericNaturalOrder(ReferenceBinaryPredicateBuilder<?, ?> predicate) {
+        final Object value = predicate.getValue();
+        return (value instanceof Integer || value instanceof Long || value instanceof Double)
+            && predicate.getComparator() == Comparator.naturalOrder();
+    }
+
+    private <V extends ColumnVector> Optional<V> vectorOf(Column column, Class<V> vectorClass) {
+        return Optional.ofNullable(indexByName.get(column.getName()))
+            .map(i -> vectors[i])
+            .filter(vectorClass::isInstance)
+            .map(vectorClass::cast);
+    }
+
+    private ENTITY materialize(int row) {
+        // Must be called when holding the read lock
+        final BUILDER builder = manager.builder();
+        for (int i = 0; i < columns.length; i++) {
+            manager.set(builder, columns[i], vectors[i].get(row));
+        }
+        return builder.build();
+    }
+
+    @Override
+    public long size() {
+        return read(() -> (long) rowOf.size());
+    }
+
+    @Override
+    public void clear() {
+        write(() -> {
+            rowOf.clear();
+            freeRows.clear();
+            for (int i = 0; i < columns.length; i++) {
+                vectors[i] = newVector(columns[i].getMapping());
+            }
+            live = new long[Bitmaps.words(INITIAL_CAPACITY)];
+            rows = 0;
+        });
+    }
+
+    @Override
+    public StreamTerminator streamTerminator() {
+        return new ColumnarStreamTerminator<>(this);
+    }
+
+    private <T> T read(Supplier<T> supplier) {
+        final Lock readLock = lock.readLock();
+        readLock.lock();
+        try {
+            return supplier.get();
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    private void write(Runnable runnable) {
+        final Lock writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
+            runnable.run();
+            modCount++;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return read(() -> getClass().getSimpleName() + " {size=" + rowOf.size() + ", rows=" + rows + "}");
+    }
+}
@@ -0,0 +1,118 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.core.manager.store;
+
+import com.speedment.util.Cast;
+import com.speedment.util.stream.builder.action.reference.FilterAction;
+import com.speedment.util.stream.builder.pipeline.DoublePipeline;
+import com.speedment.util.stream.builder.pipeline.IntPipeline;
+import com.speedment.util.stream.builder.pipeline.LongPipeline;
+import com.speedment.util.stream.builder.pipeline.Pipeline;
+import com.speedment.util.stream.builder.pipeline.ReferencePipeline;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+/**
+ * The StreamTerminator for streams that are served from a
+ * {@link ColumnarEntityStore}. Leading filters with field predicates are
+ * evaluated over the column vectors of the store so that only the selected
+ * rows are materialised. Counts of size retaining pipelines are computed from
+ * the selection alone.
+ *
+ * @author pemi
+ * @param <PK> PrimaryKey type
+ * @param <ENTITY> Entity type
+ */
+public class ColumnarStreamTerminator<PK, ENTITY> extends EntityStoreStreamTerminator<PK, ENTITY> {
+
+    private final ColumnarEntityStore<PK, ENTITY, ?> store;
+
+    public ColumnarStreamTerminator(ColumnarEntityStore<PK, ENTITY, ?> store) {
+        super(store);
+        this.store = store;
+    }
+
+    @Override
+    public <T extends Pipeline> T optimize(T pipeline) {
+        final List<Predicate<?>> predicates = removeSelectableFilters(pipeline);
+        if (!predicates.isEmpty()) {
+            pipeline.setInitialSupplier(() -> store.stream(predicates));
+        }
+        return pipeline;
+    }
+
+    @Override
+    public long count(DoublePipeline pipeline) {
+        return countHelper(pipeline, () -> pipeline.getAsDoubleStream().count(), () -> super.count(pipeline));
+    }
+
+    @Override
+    public <T> long count(IntPipeline pipeline) {
+        return countHelper(pipeline, () -> pipeline.getAsIntStream().count(), () -> super.count(pipeline));
+    }
+
+    @Override
+    public long count(LongPipeline pipeline) {
+        return countHelper(pipeline, () -> pipeline.getAsLongStream().count(), () -> super.count(pipeline));
+    }
+
+    @Override
+    public <T> long count(ReferencePipeline<T> pipeline) {
+        return countHelper(pipeline, () -> pipeline.getAsReferenceStream().count(), () -> super.count(pipeline));
+    }
+
+    /**
+     * Counts the selected rows if the pipeline starts with selectable filters
+     * and the rest of it retains the size of the stream.
+     *
+     * @param pipeline the pipeline
+     * @param residualCounter the counter of the pipeline after the selectable
+     * filters have been removed
+     * @param fallbackCounter the counter of the pipeline if there are no
+     * selectable filters
+     * @return the number of elements
+     */
+    private long countHelper(Pipeline pipeline, LongSupplier residualCounter, LongSupplier fallbackCounter) {
+        final List<Predicate<?>> predicates = removeSelectableFilters(pipeline);
+        if (predicates.isEmpty()) {
+            return fallbackCounter.getAsLong();
+        }
+        if (pipeline.stream().allMatch(CHECK_RETAIN_SIZE)) {
+            return store.count(predicates);
+        }
+        pipeline.setInitialSupplier(() -> store.stream(predicates));
+        return residualCounter.getAsLong();
+    }
+
+    private List<Predicate<?>> removeSelectableFilters(Pipeline pipeline) {
+        final List<Predicate<?>> predicates = new ArrayList<>();
+        while (!pipeline.isEmpty()) {
+            final Optional<Predicate<?>> oPredicate = Cast.cast(pipeline.getFirst(), FilterAction.class)
+                .<Predicate<?>>map(filterAction -> filterAction.getPredicate())
+                .filter(store::isSelectable);
+            if (!oPredicate.isPresent()) {
+                break;
+            }
+            pipeline.removeFirst();
+            predicates.add(oPredicate.get());
+        }
+        return predicates;
+    }
+}
@@ -0,0 +1,88 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.core.manager.store;
+
+import com.speedment.util.stream.builder.streamterminator.StreamTerminator;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * An in-JVM store of all the entities of a table, keyed by primary key. A
+ * Manager that has a store serves its streams and primary key lookups from
+ * the store instead of from the database, and keeps the store coherent with
+ * the writes that go through the Manager.
+ *
+ * @author pemi
+ * @param <PK> PrimaryKey type
+ * @param <ENTITY> Entity type
+ */
+public interface EntityStore<PK, ENTITY> {
+
+    /**
+     * Returns the entity with the given primary key, if it is in the store.
+     *
+     * @param primaryKey the primary key
+     * @return the entity with the given primary key
+     */
+    Optional<ENTITY> get(PK primaryKey);
+
+    /**
+     * Stores the given entity, replacing any entity with the same primary key.
+     *
+     * @param primaryKey the primary key of the entity
+     * @param entity the entity
+     */
+    void put(PK primaryKey, ENTITY entity);
+
+    /**
+     * Removes the entity with the given primary key, if any.
+     *
+     * @param primaryKey the primary key
+     */
+    void remove(PK primaryKey);
+
+    /**
+     * Returns a stream of all the entities in the store. The stream reflects
+     * the writes that are made while it is consumed in the same way as a
+     * stream over a concurrent collection does.
+     *
+     * @return a stream of all the entities in the store
+     */
+    Stream<ENTITY> stream();
+
+    /**
+     * Returns the number of entities in the store.
+     *
+     * @return the number of entities in the store
+     */
+    long size();
+
+    /**
+     * Removes all the entities from the store.
+     */
+    void clear();
+
+    /**
+     * Returns a new StreamTerminator for streams of the entities of this
+     * store.
+     *
+     * @return a new StreamTerminator
+     */
+    default StreamTerminator streamTerminator() {
+        return new EntityStoreStreamTerminator<>(this);
+    }
+}
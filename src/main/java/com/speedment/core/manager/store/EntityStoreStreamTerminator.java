@@ -0,0 +1,203 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.core.manager.store;
+
+import com.speedment.core.config.model.Column;
+import com.speedment.core.field.BinaryPredicateBuilder;
+import com.speedment.core.field.CombinedBasePredicate.AndCombinedBasePredicate;
+import com.speedment.core.field.StandardBinaryOperator;
+import com.speedment.core.field.reference.ReferenceBinaryPredicateBuilder;
+import com.speedment.core.manager.IndexHolder;
+import com.speedment.core.manager.UniqueKeyIndexHolder;
+import com.speedment.util.Cast;
+import com.speedment.util.stream.builder.action.Action;
+import static com.speedment.util.stream.builder.action.Property.SIZE;
+import static com.speedment.util.stream.builder.action.Verb.PRESERVE;
+import com.speedment.util.stream.builder.pipeline.DoublePipeline;
+import com.speedment.util.stream.builder.pipeline.IntPipeline;
+import com.speedment.util.stream.builder.pipeline.LongPipeline;
+import com.speedment.util.stream.builder.pipeline.Pipeline;
+import com.speedment.util.stream.builder.pipeline.ReferencePipeline;
+import com.speedment.util.stream.builder.action.reference.FilterAction;
+import com.speedment.util.stream.builder.streamterminator.StreamTerminator;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import static java.util.Objects.requireNonNull;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import static java.util.stream.Collectors.toList;
+import java.util.stream.Stream;
+
+/**
+ * The StreamTerminator for streams that are served from an
+ * {@link EntityStore}. Pipelines are evaluated in memory over the entities of
+ * the store. If the leading filters of a pipeline test that the columns of an
+ * index are equal to some values, the stream starts with the entities of that
+ * key in the index rather than with all the entities of the store.
+ *
+ * @author pemi
+ * @param <PK> PrimaryKey type
+ * @param <ENTITY> Entity type
+ */
+public class EntityStoreStreamTerminator<PK, ENTITY> implements StreamTerminator {
+
+    static final Predicate<Action<?, ?>> CHECK_RETAIN_SIZE = action -> action.is(PRESERVE, SIZE);
+
+    private static final Set<Class<?>> EQUALS_CONSISTENT_CLASSES = new HashSet<>(Arrays.asList(
+        Boolean.class, Byte.class, Short.class, Integer.class, Long.class,
+        Float.class, Double.class, Character.class, String.class
+    ));
+
+    private final EntityStore<PK, ENTITY> store;
+    private final Map<List<Column>, IndexHolder<Object, PK, ENTITY>> indexes;
+
+    public EntityStoreStreamTerminator(EntityStore<PK, ENTITY> store) {
+        this(store, Collections.emptyMap());
+    }
+
+    public EntityStoreStreamTerminator(EntityStore<PK, ENTITY> store, Map<List<Column>, IndexHolder<Object, PK, ENTITY>> indexes) {
+        this.store = requireNonNull(store);
+        this.indexes = requireNonNull(indexes);
+    }
+
+    @Override
+    public <T extends Pipeline> T optimize(T pipeline) {
+        if (indexes.isEmpty()) {
+            return pipeline;
+        }
+        final Map<String, Object> values = new HashMap<>();
+        final Map<String, Integer> positions = new HashMap<>(); // The filters that only test a single equality
+        for (int i = 0; i < pipeline.size(); i++) {
+            final Optional<Predicate<?>> oPredicate = Cast.cast(pipeline.get(i), FilterAction.class)
+                .map(filterAction -> (Predicate<?>) filterAction.getPredicate());
+            if (!oPredicate.isPresent()) {
+                break;
+            }
+            final Predicate<?> predicate = oPredicate.get();
+            final Stream<? extends Predicate<?>> parts = predicate instanceof AndCombinedBasePredicate
+                ? ((AndCombinedBasePredicate<?>) predicate).stream()
+                : Stream.of(predicate);
+            final int position = i;
+            parts.map(EntityStoreStreamTerminator::equalityOf)
+                .filter(Optional::isPresent)
+                .map(Optional::get)
+                .forEachOrdered(p -> {
+                    final String columnName = p.getField().getColumn().getName();
+                    if (!values.containsKey(columnName)) {
+                        values.put(columnName, p.getValueAsObject());
+                        if (p == predicate) {
+                            positions.put(columnName, position);
+                        }
+                    }
+                });
+        }
+        final Optional<Map.Entry<List<Column>, IndexHolder<Object, PK, ENTITY>>> oIndex = indexes.entrySet().stream()
+            .filter(e -> e.getKey().stream().allMatch(c -> values.containsKey(c.getName())))
+            .max(Comparator.<Map.Entry<List<Column>, IndexHolder<Object, PK, ENTITY>>>comparingInt(e -> e.getValue() instanceof UniqueKeyIndexHolder ? 1 : 0)
+                .thenComparingInt(e -> e.getKey().size()));
+        if (oIndex.isPresent()) {
+            final List<Column> columns = oIndex.get().getKey();
+            final IndexHolder<Object, PK, ENTITY> index = oIndex.get().getValue();
+            final Object key = columns.size() == 1
+                ? values.get(columns.get(0).getName())
+                : columns.stream().map(c -> values.get(c.getName())).collect(toList());
+            columns.stream()
+                .map(c -> positions.get(c.getName()))
+                .filter(Objects::nonNull)
+                .sorted(Comparator.reverseOrder())
+                .forEachOrdered(position -> pipeline.remove((int) position));
+            pipeline.setInitialSupplier(() -> index.stream(key));
+        }
+        return pipeline;
+    }
+
+    /**
+     * Returns the given predicate if it tests that a column is equal to a non
+     * null value, and if that test gives the same result as a lookup of the
+     * value in a hash based index.
+     *
+     * @param predicate the predicate
+     * @return the given predicate, if it is such an equality
+     */
+    private static Optional<BinaryPredicateBuilder<?, ?>> equalityOf(Predicate<?> predicate) {
+        if (!(predicate instanceof BinaryPredicateBuilder)) {
+            return Optional.empty();
+        }
+        final BinaryPredicateBuilder<?, ?> p = (BinaryPredicateBuilder<?, ?>) predicate;
+        if (p.getOperator() != StandardBinaryOperator.EQUAL) {
+            return Optional.empty();
+        }
+        if (p instanceof ReferenceBinaryPredicateBuilder
+            && !Comparator.naturalOrder().equals(((ReferenceBinaryPredicateBuilder<?, ?>) p).getComparator())) {
+            return Optional.empty();
+        }
+        final Object value = p.getValueAsObject();
+        if (value == null
+            || !value.getClass().equals(p.getField().getColumn().getMapping())
+            || !EQUALS_CONSISTENT_CLASSES.contains(value.getClass())) {
+            return Optional.empty();
+        }
+        return Optional.of(p);
+    }
+
+    @Override
+    public long count(DoublePipeline pipeline) {
+        return countHelper(pipeline, () -> optimize(pipeline).getAsDoubleStream().count());
+    }
+
+    @Override
+    public <T> long count(IntPipeline pipeline) {
+        return countHelper(pipeline, () -> optimize(pipeline).getAsIntStream().count());
+    }
+
+    @Override
+    public long count(LongPipeline pipeline) {
+        return countHelper(pipeline, () -> optimize(pipeline).getAsLongStream().count());
+    }
+
+    @Override
+    public <T> long count(ReferencePipeline<T> pipeline) {
+        return countHelper(pipeline, () -> optimize(pipeline).getAsReferenceStream().count());
+    }
+
+    /**
+     * Returns the size of the store if the pipeline retains the size of the
+     * stream. Otherwise the pipeline is counted by the given fallback.
+     *
+     * @param pipeline the pipeline
+     * @param fallbackSupplier the counter of the pipeline
+     * @return the number of elements
+     */
+    private long countHelper(Pipeline pipeline, LongSupplier fallbackSupplier) {
+        if (pipeline.stream().allMatch(CHECK_RETAIN_SIZE)) {
+            return store.size();
+        }
+        return fallbackSupplier.getAsLong();
+    }
+
+    public EntityStore<PK, ENTITY> getStore() {
+        return store;
+    }
+}
@@ -0,0 +1,107 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.core.manager.store;
+
+import com.speedment.core.field.StandardBinaryOperator;
+import java.util.Arrays;
+
+/**
+ * A {@link ColumnVector} of long values.
+ *
+ * @author pemi
+ */
+final class LongColumnVector extends ColumnVector {
+
+    private long[] values;
+
+    LongColumnVector(int capacity) {
+        super(capacity);
+        this.values = new long[capacity];
+    }
+
+    @Override
+    int capacity() {
+        return values.length;
+    }
+
+    @Override
+    protected void grow(int capacity) {
+        values = Arrays.copyOf(values, capacity);
+    }
+
+    @Override
+    protected void setValue(int row, Object value) {
+        values[row] = (Long) value;
+    }
+
+    @Override
+    protected Object getValue(int row) {
+        return values[row];
+    }
+
+    /**
+     * Returns a bitmap of the first rows whose values are not null and match
+     * the given operator and operand.
+     *
+     * @param operator the operator
+     * @param operand the value to compare with
+     * @param rows the number of rows to select from
+     * @return a bitmap of the matching rows
+     */
+    long[] select(StandardBinaryOperator operator, long operand, int rows) {
+        final long[] v = values;
+        final long[] result = new long[Bitmaps.words(rows)];
+        switch (operator) {
+            case EQUAL:
+                for (int i = 0; i < rows; i++) {
+                    result[i >>> 6] |= (Long.compare(v[i], operand) == 0 ? 1L : 0L) << i;
+                }
+                break;
+            case NOT_EQUAL:
+                for (int i = 0; i < rows; i++) {
+                    result[i >>> 6] |= (Long.compare(v[i], operand) != 0 ? 1L : 0L) << i;
+                }
+                break;
+            case LESS_THAN:
+                for (int i = 0; i < rows; i++) {
+                    result[i >>> 6] |= (Long.compare(v[i], operand) < 0 ? 1L : 0L) << i;
+                }
+                break;
+            case LESS_OR_EQUAL:
+                for (int i = 0; i < rows; i++) {
+                    result[i >>> 6] |= (Long.compare(v[i], operand) <= 0 ? 1L : 0L) << i;
+                }
+                break;
+            case GREATER_THAN:
+                for (int i = 0; i < rows; i++) {
+                    result[i >>> 6] |= (Long.compare(v[i], operand) > 0 ? 1L : 0L) << i;
+                }
+                break;
+            case GREATER_OR_EQUAL:
+                for (int i = 0; i < rows; i++) {
+                    result[i >>> 6] |= (Long.compare(v[i], operand) >= 0 ? 1L : 0L) << i;
+                }
+                break;
+            default:
+                throw new UnsupportedOperationException(
+                    "Unknown enum constant " + operator.name() + "."
+                );
+        }
+        Bitmaps.andNot(result, nulls);
+        return result;
+    }
+}
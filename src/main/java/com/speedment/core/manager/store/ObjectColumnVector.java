@@ -0,0 +1,60 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.core.manager.store;
+
+import java.util.Arrays;
+
+/**
+ * A {@link ColumnVector} of any other type of values. Predicates on these
+ * columns are evaluated on the entities.
+ *
+ * @author pemi
+ */
+final class ObjectColumnVector extends ColumnVector {
+
+    private Object[] values;
+
+    ObjectColumnVector(int capacity) {
+        super(capacity);
+        this.values = new Object[capacity];
+    }
+
+    @Override
+    int capacity() {
+        return values.length;
+    }
+
+    @Override
+    protected void grow(int capacity) {
+        values = Arrays.copyOf(values, capacity);
+    }
+
+    @Override
+    protected void setValue(int row, Object value) {
+        values[row] = value;
+    }
+
+    @Override
+    protected Object getValue(int row) {
+        return values[row];
+    }
+
+    @Override
+    protected void clearValue(int row) {
+        values[row] = null;
+    }
+}
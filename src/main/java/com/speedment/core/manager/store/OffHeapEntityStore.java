@@ -0,0 +1,335 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.core.manager.store;
+
+import com.speedment.core.config.model.Column;
+import com.speedment.core.config.model.parameters.StorageEngineType;
+import com.speedment.core.field.CombinedBasePredicate.AndCombinedBasePredicate;
+import com.speedment.core.field.doubles.DoubleBinaryPredicateBuilder;
+import com.speedment.core.field.ints.IntBinaryPredicateBuilder;
+import com.speedment.core.field.longs.LongBinaryPredicateBuilder;
+import com.speedment.core.field.reference.ReferenceBinaryPredicateBuilder;
+import com.speedment.core.field.reference.string.StringBinaryPredicateBuilder;
+import com.speedment.util.stream.builder.streamterminator.StreamTerminator;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import static java.util.Objects.requireNonNull;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import static java.util.stream.Collectors.toList;
+import java.util.stream.Stream;
+
+/**
+ * An {@link EntityStore} for {@link StorageEngineType#OFF_HEAP} that keeps
+ * the entities as binary rows in direct memory outside of the Java heap, so
+ * that they are not traversed by the garbage collector. Only the primary keys
+ * and the location of each row are kept on the heap.
+ * <p>
+ * Rows are appended to slabs of direct memory. The first slab is small and
+ * each new slab is twice the size of the previous one, up to the maximum slab
+ * size, so that small tables only take a little memory and large tables are
+ * kept in a few large slabs. When an entity is updated or removed, the space
+ * of its old row becomes garbage. Once the garbage exceeds both the space of
+ * the live rows and the size of the first slab, the live rows are copied to
+ * fresh slabs and the old slabs are left to the garbage collector. Streams that are running while the rows are compacted
+ * keep reading the slabs they started with. Entities are decoded lazily when
+ * a stream reaches them, and field predicates on a single column are
+ * evaluated on the binary row before the entity is decoded.
+ * <p>
+ * The direct memory of the JVM is bounded by {@code -XX:MaxDirectMemorySize},
+ * which defaults to the maximum heap size. Tables that are larger than that
+ * fail to load with an {@link OutOfMemoryError}, so the limit must be raised
+ * for them. Direct memory that is no longer used is only returned when its
+ * slabs are garbage collected.
+ *
+ * @author pemi
+ * @param <PK> PrimaryKey type
+ * @param <ENTITY> Entity type
+ */
+public class OffHeapEntityStore<PK, ENTITY> implements EntityStore<PK, ENTITY> {
+
+    /**
+     * A predicate on a binary row.
+     */
+    @FunctionalInterface
+    public interface RowPredicate {
+
+        boolean test(ByteBuffer buffer, int rowOffset);
+
+        default RowPredicate and(RowPredicate other) {
+            requireNonNull(other);
+            return (buffer, rowOffset) -> test(buffer, rowOffset) && other.test(buffer, rowOffset);
+        }
+    }
+
+    public static final int DEFAULT_INITIAL_SLAB_SIZE = 1 << 16;
+    public static final int DEFAULT_MAX_SLAB_SIZE = 1 << 26;
+
+    private final RowLayout<ENTITY, ?> layout;
+    private final int initialSlabSize;
+    private final int maxSlabSize;
+    private volatile Generation generation; // Replaced when holding the lock of this
+
+    public OffHeapEntityStore(RowLayout<ENTITY, ?> layout) {
+        this(layout, DEFAULT_INITIAL_SLAB_SIZE, DEFAULT_MAX_SLAB_SIZE);
+    }
+
+    public OffHeapEntityStore(RowLayout<ENTITY, ?> layout, int maxSlabSize) {
+        this(layout, Math.min(DEFAULT_INITIAL_SLAB_SIZE, maxSlabSize), maxSlabSize);
+    }
+
+    public OffHeapEntityStore(RowLayout<ENTITY, ?> layout, int initialSlabSize, int maxSlabSize) {
+        if (initialSlabSize < 8) {
+            throw new IllegalArgumentException("The initial slab size must be at least 8 bytes, was " + initialSlabSize);
+        }
+        if (maxSlabSize < initialSlabSize) {
+            throw new IllegalArgumentException("The maximum slab size " + maxSlabSize + " is less than the initial slab size " + initialSlabSize);
+        }
+        this.layout = requireNonNull(layout);
+        this.initialSlabSize = initialSlabSize;
+        this.maxSlabSize = maxSlabSize;
+        this.generation = new Generation(initialSlabSize);
+    }
+
+    @Override
+    public Optional<ENTITY> get(PK primaryKey) {
+        requireNonNull(primaryKey);
+        final Generation g = generation;
+        return Optional.ofNullable(g.locations.get(primaryKey)).map(g::decode);
+    }
+
+    @Override
+    public void put(PK primaryKey, ENTITY entity) {
+        requireNonNull(primaryKey);
+        final byte[] row = layout.encode(requireNonNull(entity));
+        synchronized (this) {
+            final Generation g = generation;
+            final Long oldLocation = g.locations.put(primaryKey, g.append(row));
+            if (oldLocation != null) {
+                g.wastedBytes += 4 + g.rowLength(oldLocation);
+                compactIfNeeded();
+            }
+        }
+    }
+
+    @Override
+    public void remove(PK primaryKey) {
+        requireNonNull(primaryKey);
+        synchronized (this) {
+            final Generation g = generation;
+            final Long oldLocation = g.locations.remove(primaryKey);
+            if (oldLocation != null) {
+                g.wastedBytes += 4 + g.rowLength(oldLocation);
+                compactIfNeeded();
+            }
+        }
+    }
+
+    @Override
+    public Stream<ENTITY> stream() {
+        final Generation g = generation;
+        return g.locations.values().stream().map(g::decode);
+    }
+
+    /**
+     * Returns a stream of the entities whose rows match the given predicate.
+     * Rows that do not match are never decoded.
+     *
+     * @param rowPredicate the predicate on the binary rows
+     * @return a stream of the entities whose rows match the given predicate
+     */
+    public Stream<ENTITY> stream(RowPredicate rowPredicate) {
+        requireNonNull(rowPredicate);
+        final Generation g = generation;
+        return g.locations.values().stream()
+            .filter(location -> rowPredicate.test(g.slabOf(location), rowOffsetOf(location)))
+            .map(g::decode);
+    }
+
+    @Override
+    public long size() {
+        return generation.locations.size();
+    }
+
+    /**
+     * Returns the number of bytes of direct memory that are held by the slabs
+     * of this store, including the space that is not yet used.
+     *
+     * @return the number of bytes of direct memory held by this store
+     */
+    public synchronized long getAllocatedBytes() {
+        return generation.allocatedBytes;
+    }
+
+    @Override
+    public synchronized void clear() {
+        generation = new Generation(initialSlabSize);
+    }
+
+    @Override
+    public StreamTerminator streamTerminator() {
+        return new OffHeapStreamTerminator<>(this);
+    }
+
+    /**
+     * Returns a predicate on the binary rows that is equivalent to the given
+     * entity predicate, if the given predicate is a field predicate that
+     * can be evaluated on the binary rows of this store.
+     *
+     * @param predicate the entity predicate
+     * @return the equivalent predicate on the binary rows
+     */
+    public Optional<RowPredicate> rowPredicateOf(Predicate<?> predicate) {
+        if (predicate instanceof AndCombinedBasePredicate) {
+            final List<Optional<RowPredicate>> parts = ((AndCombinedBasePredicate<?>) predicate).stream()
+                .map(this::rowPredicateOf)
+                .collect(toList());
+            if (parts.isEmpty() || !parts.stream().allMatch(Optional::isPresent)) {
+                return Optional.empty();
+            }
+            return parts.stream().map(Optional::get).reduce(RowPredicate::and);
+        } else if (predicate instanceof IntBinaryPredicateBuilder) {
+            final IntBinaryPredicateBuilder<?> p = (IntBinaryPredicateBuilder<?>) predicate;
+            return columnPredicate(p.getField().getColumn(), v -> v instanceof Number && p.test(Integer.compare(((Number) v).intValue(), p.getValue())));
+        } else if (predicate instanceof LongBinaryPredicateBuilder) {
+            final LongBinaryPredicateBuilder<?> p = (LongBinaryPredicateBuilder<?>) predicate;
+            return columnPredicate(p.getField().getColumn(), v -> v instanceof Number && p.test(Long.compare(((Number) v).longValue(), p.getValue())));
+        } else if (predicate instanceof DoubleBinaryPredicateBuilder) {
+            final DoubleBinaryPredicateBuilder<?> p = (DoubleBinaryPredicateBuilder<?>) predicate;
+            return columnPredicate(p.getField().getColumn(), v -> v instanceof Number && p.test(Double.compare(((Number) v).doubleValue(), p.getValue())));
+        } else if (predicate instanceof StringBinaryPredicateBuilder) {
+            final StringBinaryPredicateBuilder<?> p = (StringBinaryPredicateBuilder<?>) predicate;
+            return columnPredicate(p.getField().getColumn(), v -> v instanceof String && p.getValue() != null && p.getOperator().getComparator().test((String) v, p.getValue()));
+        } else if (predicate instanceof ReferenceBinaryPredicateBuilder) {
+            // Numeric columns of generated entities use ComparableReferenceField
+            final ReferenceBinaryPredicateBuilder<?, ?> p = (ReferenceBinaryPredicateBuilder<?, ?>) predicate;
+            final Object value = p.getValue();
+            if (value == null || p.getComparator() != Comparator.naturalOrder()) {
+                return Optional.empty();
+            }
+            return columnPredicate(p.getField().getColumn(), v -> v != null && v.getClass() == value.getClass() && p.test(compareSameClass(v, value)));
+        }
+        return Optional.empty();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static int compareSameClass(Object first, Object second) {
+        return ((Comparable<Object>) first).compareTo(second);
+    }
+
+    private Optional<RowPredicate> columnPredicate(Column column, Predicate<Object> valuePredicate) {
+        return layout.indexOf(column).map(index -> (buffer, rowOffset) -> valuePredicate.test(layout.read(buffer, rowOffset, index)));
+    }
+
+    private static int rowOffsetOf(long location) {
+        return (int) location + 4;
+    }
+
+    private void compactIfNeeded() {
+        // Must be called when holding the lock of this
+        final Generation g = generation;
+        if (g.wastedBytes < initialSlabSize || g.wastedBytes <= g.usedBytes / 2) {
+            return;
+        }
+        // The live rows fit in the first slab of the compacted generation
+        final long liveBytes = g.usedBytes - g.wastedBytes;
+        final Generation compacted = new Generation((int) Math.min(maxSlabSize, Math.max(initialSlabSize, liveBytes)));
+        g.locations.forEach((primaryKey, location) -> {
+            final ByteBuffer source = g.slabOf(location).duplicate();
+            final int offset = rowOffsetOf(location);
+            source.limit(offset + g.rowLength(location));
+            source.position(offset);
+            final byte[] row = new byte[source.remaining()];
+            source.get(row);
+            compacted.locations.put(primaryKey, compacted.append(row));
+        });
+        generation = compacted;
+    }
+
+    @Override
+    public synchronized String toString() {
+        final Generation g = generation;
+        return getClass().getSimpleName() + " {size=" + g.locations.size()
+            + ", slabs=" + g.slabs.length
+            + ", allocatedBytes=" + g.allocatedBytes
+            + ", usedBytes=" + g.usedBytes
+            + ", wastedBytes=" + g.wastedBytes + "}";
+    }
+
+    /**
+     * The rows of the store in a set of slabs together with the location of
+     * the row of each primary key. A location holds the index of the slab in
+     * the upper 32 bits and the offset of the row in the lower.
+     */
+    private final class Generation {
+
+        private final Map<PK, Long> locations;
+        private volatile ByteBuffer[] slabs;
+        private long allocatedBytes, usedBytes, wastedBytes; // Guarded by the store
+        private int nextSlabSize; // Guarded by the store
+
+        private Generation(int firstSlabSize) {
+            this.locations = new ConcurrentHashMap<>();
+            this.slabs = new ByteBuffer[0];
+            this.nextSlabSize = firstSlabSize;
+        }
+
+        private ENTITY decode(long location) {
+            return layout.decode(slabOf(location), rowOffsetOf(location));
+        }
+
+        private ByteBuffer slabOf(long location) {
+            return slabs[(int) (location >>> 32)];
+        }
+
+        private int rowLength(long location) {
+            return slabOf(location).getInt((int) location);
+        }
+
+        /**
+         * Appends the given row, prefixed by its length, to the last slab. A
+         * new slab is allocated if the row does not fit in the last slab. A
+         * row that is larger than the maximum slab size gets a slab of its
+         * own.
+         *
+         * @param row the row
+         * @return the location of the row
+         */
+        private long append(byte[] row) {
+            // Must be called when holding the lock of the store
+            final int length = 4 + row.length;
+            ByteBuffer slab = slabs.length == 0 ? null : slabs[slabs.length - 1];
+            if (slab == null || slab.remaining() < length) {
+                slab = ByteBuffer.allocateDirect(Math.max(nextSlabSize, length));
+                allocatedBytes += slab.capacity();
+                nextSlabSize = (int) Math.min(maxSlabSize, 2L * nextSlabSize);
+                final ByteBuffer[] newSlabs = Arrays.copyOf(slabs, slabs.length + 1);
+                newSlabs[newSlabs.length - 1] = slab;
+                slabs = newSlabs;
+            }
+            final int offset = slab.position();
+            slab.putInt(row.length);
+            slab.put(row);
+            usedBytes += length;
+            return ((long) (slabs.length - 1) << 32) | offset;
+        }
+    }
+}
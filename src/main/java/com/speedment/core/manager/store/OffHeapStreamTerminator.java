@@ -0,0 +1,62 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.core.manager.store;
+
+import com.speedment.core.manager.store.OffHeapEntityStore.RowPredicate;
+import com.speedment.util.Cast;
+import com.speedment.util.stream.builder.action.reference.FilterAction;
+import com.speedment.util.stream.builder.pipeline.Pipeline;
+import java.util.Optional;
+
+/**
+ * The StreamTerminator for streams that are served from an
+ * {@link OffHeapEntityStore}. Leading filters with field predicates are
+ * evaluated on the binary rows of the store so that only the rows that pass
+ * them are decoded.
+ *
+ * @author pemi
+ * @param <PK> PrimaryKey type
+ * @param <ENTITY> Entity type
+ */
+public class OffHeapStreamTerminator<PK, ENTITY> extends EntityStoreStreamTerminator<PK, ENTITY> {
+
+    private final OffHeapEntityStore<PK, ENTITY> store;
+
+    public OffHeapStreamTerminator(OffHeapEntityStore<PK, ENTITY> store) {
+        super(store);
+        this.store = store;
+    }
+
+    @Override
+    public <T extends Pipeline> T optimize(T pipeline) {
+        RowPredicate rowPredicate = null;
+        while (!pipeline.isEmpty()) {
+            final Optional<RowPredicate> oRowPredicate = Cast.cast(pipeline.getFirst(), FilterAction.class)
+                .flatMap(filterAction -> store.rowPredicateOf(filterAction.getPredicate()));
+            if (!oRowPredicate.isPresent()) {
+                break;
+            }
+            pipeline.removeFirst();
+            rowPredicate = rowPredicate == null ? oRowPredicate.get() : rowPredicate.and(oRowPredicate.get());
+        }
+        if (rowPredicate != null) {
+            final RowPredicate finalRowPredicate = rowPredicate;
+            pipeline.setInitialSupplier(() -> store.stream(finalRowPredicate));
+        }
+        return pipeline;
+    }
+}
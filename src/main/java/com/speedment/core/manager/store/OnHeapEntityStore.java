@@ -0,0 +1,76 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.core.manager.store;
+
+import com.speedment.core.config.model.parameters.StorageEngineType;
+import java.util.Map;
+import static java.util.Objects.requireNonNull;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * An {@link EntityStore} for {@link StorageEngineType#ON_HEAP} that keeps the
+ * entities in a concurrent map on the Java heap.
+ *
+ * @author pemi
+ * @param <PK> PrimaryKey type
+ * @param <ENTITY> Entity type
+ */
+public class OnHeapEntityStore<PK, ENTITY> implements EntityStore<PK, ENTITY> {
+
+    private final Map<PK, ENTITY> entities;
+
+    public OnHeapEntityStore() {
+        this.entities = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public Optional<ENTITY> get(PK primaryKey) {
+        return Optional.ofNullable(entities.get(requireNonNull(primaryKey)));
+    }
+
+    @Override
+    public void put(PK primaryKey, ENTITY entity) {
+        entities.put(requireNonNull(primaryKey), requireNonNull(entity));
+    }
+
+    @Override
+    public void remove(PK primaryKey) {
+        entities.remove(requireNonNull(primaryKey));
+    }
+
+    @Override
+    public Stream<ENTITY> stream() {
+        return entities.values().stream();
+    }
+
+    @Override
+    public long size() {
+        return entities.size();
+    }
+
+    @Override
+    public void clear() {
+        entities.clear();
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + " {size=" + entities.size() + "}";
+    }
+}
@@ -0,0 +1,341 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.core.manager.store;
+
+import com.speedment.core.config.model.Column;
+import com.speedment.core.core.Buildable;
+import com.speedment.core.manager.Manager;
+import com.speedment.util.Deduplicator;
+import static com.speedment.util.stream.OptionalUtil.unwrap;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import static java.util.Objects.requireNonNull;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * The binary layout of the rows of a table. A row starts with a bitmap with
+ * one bit for each column that is set if the value is null. It is followed by
+ * the fixed size columns, which always have their space reserved so that each
+ * of them can be read at a constant offset. Last come the variable size
+ * columns, each prefixed by its length in bytes.
+ *
+ * @author pemi
+ * @param <ENTITY> Entity type
+ * @param <BUILDER> Builder type
+ */
+public class RowLayout<ENTITY, BUILDER extends Buildable<ENTITY>> {
+
+    enum Kind {
+
+        BOOLEAN(Boolean.class, 1),
+        BYTE(Byte.class, 1),
+        SHORT(Short.class, 2),
+        INT(Integer.class, 4),
+        LONG(Long.class, 8),
+        FLOAT(Float.class, 4),
+        DOUBLE(Double.class, 8),
+        DATE(Date.class, 8),
+        TIME(Time.class, 8),
+        TIMESTAMP(Timestamp.class, 12),
+        STRING(String.class, -1),
+        BIG_DECIMAL(BigDecimal.class, -1),
+        BYTES(byte[].class, -1);
+
+        private final Class<?> javaClass;
+        private final int size;
+
+        private Kind(Class<?> javaClass, int size) {
+            this.javaClass = javaClass;
+            this.size = size;
+        }
+
+        boolean isFixedSize() {
+            return size >= 0;
+        }
+
+        static Optional<Kind> of(Class<?> javaClass) {
+            for (final Kind kind : values()) {
+                if (kind.javaClass.equals(javaClass)) {
+                    return Optional.of(kind);
+                }
+            }
+            return Optional.empty();
+        }
+    }
+
+    private final Manager<?, ENTITY, BUILDER> manager;
+    private final Column[] columns;
+    private final Kind[] kinds;
+    private final int[] offsets; // Offset of fixed size columns, or the index among the variable size columns
+    private final Map<String, Integer> indexByName;
+    private final int bitmapSize;
+    private final int fixedSize;
+    private final Deduplicator<Object>[] deduplicators; // Null for columns that are not deduplicated
+
+    public RowLayout(Manager<?, ENTITY, BUILDER> manager, List<Column> columns) {
+        this(manager, columns, c -> Optional.empty());
+    }
+
+    /**
+     * Creates a layout where the decoded values of some columns are replaced
+     * by canonical instances.
+     *
+     * @param manager the manager of the entities
+     * @param columns the columns of the rows
+     * @param deduplicatorMapper the deduplicator of each column, if any
+     */
+    public RowLayout(Manager<?, ENTITY, BUILDER> manager, List<Column> columns, Function<Column, Optional<Deduplicator<Object>>> deduplicatorMapper) {
+        requireNonNull(deduplicatorMapper);
+        this.manager = requireNonNull(manager);
+        this.columns = columns.toArray(new Column[columns.size()]);
+        this.kinds = new Kind[this.columns.length];
+        this.offsets = new int[this.columns.length];
+        this.indexByName = new HashMap<>();
+        this.bitmapSize = (this.columns.length + 7) / 8;
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        final Deduplicator<Object>[] newDeduplicators = new Deduplicator[this.columns.length];
+        this.deduplicators = newDeduplicators;
+        int fixed = 0;
+        int variables = 0;
+        for (int i = 0; i < this.columns.length; i++) {
+            final Column column = this.columns[i];
+            kinds[i] = Kind.of(column.getMapping()).orElseThrow(()
+                -> new IllegalArgumentException("The column " + column.getName() + " of type " + column.getMapping().getName() + " has no binary layout")
+            );
+            offsets[i] = kinds[i].isFixedSize() ? fixed : variables++;
+            fixed += Math.max(0, kinds[i].size);
+            indexByName.put(column.getName(), i);
+            deduplicators[i] = deduplicatorMapper.apply(column).orElse(null);
+        }
+        this.fixedSize = fixed;
+    }
+
+    /**
+     * Returns if all the given columns have a binary layout.
+     *
+     * @param columns the columns
+     * @return if all the given columns have a binary layout
+     */
+    public static boolean isSupported(List<Column> columns) {
+        return columns.stream().allMatch(c -> Kind.of(c.getMapping()).isPresent());
+    }
+
+    /**
+     * Returns the index of the given column in this layout, if the column
+     * belongs to it.
+     *
+     * @param column the column
+     * @return the index of the column
+     */
+    public Optional<Integer> indexOf(Column column) {
+        return Optional.ofNullable(indexByName.get(column.getName()));
+    }
+
+    /**
+     * Encodes the given entity as a row.
+     *
+     * @param entity the entity
+     * @return the row
+     */
+    public byte[] encode(ENTITY entity) {
+        final Object[] values = new Object[columns.length];
+        final byte[][] variableBytes = new byte[columns.length][];
+        int size = bitmapSize + fixedSize;
+        for (int i = 0; i < columns.length; i++) {
+            values[i] = unwrap(manager.get(entity, columns[i]));
+            if (values[i] != null && !kinds[i].isFixedSize()) {
+                variableBytes[i] = toBytes(kinds[i], values[i]);
+                size += 4 + variableBytes[i].length;
+            } else if (!kinds[i].isFixedSize()) {
+                size += 4;
+            }
+        }
+        final ByteBuffer row = ByteBuffer.wrap(new byte[size]);
+        int position = bitmapSize + fixedSize;
+        for (int i = 0; i < columns.length; i++) {
+            if (values[i] == null) {
+                row.put(i >>> 3, (byte) (row.get(i >>> 3) | (1 << (i & 7))));
+            }
+            if (kinds[i].isFixedSize()) {
+                if (values[i] != null) {
+                    putFixed(row, bitmapSize + offsets[i], kinds[i], values[i]);
+                }
+            } else {
+                final byte[] bytes = variableBytes[i];
+                row.putInt(position, bytes == null ? 0 : bytes.length);
+                position += 4;
+                if (bytes != null) {
+                    row.position(position);
+                    row.put(bytes);
+                    position += bytes.length;
+                }
+            }
+        }
+        return row.array();
+    }
+
+    /**
+     * Decodes the row that starts at the given offset of the given buffer.
+     *
+     * @param buffer the buffer
+     * @param rowOffset the offset of the row
+     * @return the entity
+     */
+    public ENTITY decode(ByteBuffer buffer, int rowOffset) {
+        final BUILDER builder = manager.builder();
+        for (int i = 0; i < columns.length; i++) {
+            final Object value = read(buffer, rowOffset, i);
+            manager.set(builder, columns[i], deduplicators[i] == null ? value : deduplicators[i].deduplicate(value));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Reads the value of a single column of the row that starts at the given
+     * offset of the given buffer, without decoding the rest of the row.
+     *
+     * @param buffer the buffer
+     * @param rowOffset the offset of the row
+     * @param index the index of the column in this layout
+     * @return the value, or null
+     */
+    public Object read(ByteBuffer buffer, int rowOffset, int index) {
+        if ((buffer.get(rowOffset + (index >>> 3)) & (1 << (index & 7))) != 0) {
+            return null;
+        }
+        final Kind kind = kinds[index];
+        if (kind.isFixedSize()) {
+            return getFixed(buffer, rowOffset + bitmapSize + offsets[index], kind);
+        }
+        int position = rowOffset + bitmapSize + fixedSize;
+        for (int v = 0; v < offsets[index]; v++) {
+            position += 4 + buffer.getInt(position);
+        }
+        final byte[] bytes = new byte[buffer.getInt(position)];
+        final ByteBuffer duplicate = buffer.duplicate();
+        duplicate.position(position + 4);
+        duplicate.get(bytes);
+        return fromBytes(kind, bytes);
+    }
+
+    private static void putFixed(ByteBuffer row, int offset, Kind kind, Object value) {
+        switch (kind) {
+            case BOOLEAN:
+                row.put(offset, (byte) ((Boolean) value ? 1 : 0));
+                break;
+            case BYTE:
+                row.put(offset, (Byte) value);
+                break;
+            case SHORT:
+                row.putShort(offset, (Short) value);
+                break;
+            case INT:
+                row.putInt(offset, (Integer) value);
+                break;
+            case LONG:
+                row.putLong(offset, (Long) value);
+                break;
+            case FLOAT:
+                row.putFloat(offset, (Float) value);
+                break;
+            case DOUBLE:
+                row.putDouble(offset, (Double) value);
+                break;
+            case DATE:
+            case TIME:
+                row.putLong(offset, ((java.util.Date) value).getTime());
+                break;
+            case TIMESTAMP:
+                row.putLong(offset, ((Timestamp) value).getTime());
+                row.putInt(offset + 8, ((Timestamp) value).getNanos());
+                break;
+            default:
+                throw new UnsupportedOperationException(
+                    "Unknown enum constant " + kind.name() + "."
+                );
+        }
+    }
+
+    private static Object getFixed(ByteBuffer buffer, int offset, Kind kind) {
+        switch (kind) {
+            case BOOLEAN:
+                return buffer.get(offset) != 0;
+            case BYTE:
+                return buffer.get(offset);
+            case SHORT:
+                return buffer.getShort(offset);
+            case INT:
+                return buffer.getInt(offset);
+            case LONG:
+                return buffer.getLong(offset);
+            case FLOAT:
+                return buffer.getFloat(offset);
+            case DOUBLE:
+                return buffer.getDouble(offset);
+            case DATE:
+                return new Date(buffer.getLong(offset));
+            case TIME:
+                return new Time(buffer.getLong(offset));
+            case TIMESTAMP:
+                final Timestamp timestamp = new Timestamp(buffer.getLong(offset));
+                timestamp.setNanos(buffer.getInt(offset + 8));
+                return timestamp;
+            default:
+                throw new UnsupportedOperationException(
+                    "Unknown enum constant " + kind.name() + "."
+                );
+        }
+    }
+
+    private static byte[] toBytes(Kind kind, Object value) {
+        switch (kind) {
+            case STRING:
+                return ((String) value).getBytes(StandardCharsets.UTF_8);
+            case BIG_DECIMAL:
+                return ((BigDecimal) value).toString().getBytes(StandardCharsets.US_ASCII);
+            case BYTES:
+                return (byte[]) value;
+            default:
+                throw new UnsupportedOperationException(
+                    "Unknown enum constant " + kind.name() + "."
+                );
+        }
+    }
+
+    private static Object fromBytes(Kind kind, byte[] bytes) {
+        switch (kind) {
+            case STRING:
+                return new String(bytes, StandardCharsets.UTF_8);
+            case BIG_DECIMAL:
+                return new BigDecimal(new String(bytes, StandardCharsets.US_ASCII));
+            case BYTES:
+                return bytes;
+            default:
+                throw new UnsupportedOperationException(
+                    "Unknown enum constant " + kind.name() + "."
+                );
+        }
+    }
+}
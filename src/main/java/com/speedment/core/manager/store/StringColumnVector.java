@@ -0,0 +1,96 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.core.manager.store;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * A dictionary encoded {@link ColumnVector} of strings. Each row holds the
+ * code of its value in a dictionary of the distinct values of the column, so
+ * that predicates only need to be evaluated once for each distinct value.
+ * Values are never removed from the dictionary.
+ *
+ * @author pemi
+ */
+final class StringColumnVector extends ColumnVector {
+
+    private int[] codes;
+    private final List<String> dictionary;
+    private final Map<String, Integer> codeOf;
+
+    StringColumnVector(int capacity) {
+        super(capacity);
+        this.codes = new int[capacity];
+        this.dictionary = new ArrayList<>();
+        this.codeOf = new HashMap<>();
+    }
+
+    @Override
+    int capacity() {
+        return codes.length;
+    }
+
+    @Override
+    protected void grow(int capacity) {
+        codes = Arrays.copyOf(codes, capacity);
+    }
+
+    @Override
+    protected void setValue(int row, Object value) {
+        codes[row] = codeOf.computeIfAbsent((String) value, s -> {
+            dictionary.add(s);
+            return dictionary.size() - 1;
+        });
+    }
+
+    @Override
+    protected Object getValue(int row) {
+        return dictionary.get(codes[row]);
+    }
+
+    /**
+     * Returns a bitmap of the first rows whose values are not null and match
+     * the given predicate.
+     *
+     * @param predicate the predicate on the values
+     * @param rows the number of rows to select from
+     * @return a bitmap of the matching rows
+     */
+    long[] select(Predicate<String> predicate, int rows) {
+        // Rows that are null may hold any code, including 0 when the dictionary is empty
+        final boolean[] matches = new boolean[Math.max(1, dictionary.size())];
+        for (int code = 0; code < dictionary.size(); code++) {
+            matches[code] = predicate.test(dictionary.get(code));
+        }
+        final int[] c = codes;
+        final long[] result = new long[Bitmaps.words(rows)];
+        for (int i = 0; i < rows; i++) {
+            result[i >>> 6] |= (matches[c[i]] ? 1L : 0L) << i;
+        }
+        Bitmaps.andNot(result, nulls);
+        return result;
+    }
+
+    int dictionarySize() {
+        return dictionary.size();
+    }
+}
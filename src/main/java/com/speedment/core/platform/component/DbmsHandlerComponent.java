@@ -42,4 +42,11 @@ public interface DbmsHandlerComponent extends Component {
      */
     DbmsHandler get(Dbms dbms);
 
+    /**
+     * Closes and forgets all the DbmsHandlers that have been obtained using
+     * the get() method. DbmsHandlers created using the make() method are
+     * owned by the caller and must be closed by the caller.
+     */
+    void closeAll();
+
 }
@@ -59,4 +59,17 @@ public class DbmsHandlerComponentImpl implements DbmsHandlerComponent {
         return map.computeIfAbsent(dbms, d -> make(d));
     }
 
+    @Override
+    public void closeAll() {
+        map.keySet().forEach(dbms -> map.computeIfPresent(dbms, (d, handler) -> {
+            handler.close();
+            return null;
+        }));
+    }
+
+    @Override
+    public void onRemove() {
+        closeAll();
+    }
+
 }
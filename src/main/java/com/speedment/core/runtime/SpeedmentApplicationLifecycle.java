@@ -26,6 +26,7 @@ import com.speedment.core.lifecycle.AbstractLifecycle;
 import com.speedment.core.manager.Manager;
 import com.speedment.core.exception.SpeedmentException;
 import com.speedment.core.platform.Platform;
+import com.speedment.core.platform.component.DbmsHandlerComponent;
 import com.speedment.core.platform.component.ManagerComponent;
 import com.speedment.core.platform.component.ProjectComponent;
 import com.speedment.core.runtime.typemapping.StandardJavaTypeMapping;
@@ -113,6 +114,7 @@ public abstract class SpeedmentApplicationLifecycle<T extends SpeedmentApplicati
     @Override
     protected void onStop() {
         forEachManagerInSeparateThread(mgr -> mgr.stop());
+        Platform.get().get(DbmsHandlerComponent.class).closeAll();
     }
 
     protected void loadAndSetProject() {
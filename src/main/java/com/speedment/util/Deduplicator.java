@@ -0,0 +1,126 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.util;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded, concurrent dictionary that maps values to a canonical instance
+ * of each value, so that equal values may share a single object. The
+ * dictionary is a two-way set associative table of a fixed size. When both
+ * slots of a value are taken by other values, one of them is replaced, so
+ * the dictionary never holds more than its capacity and favours the values
+ * that are seen often.
+ * <p>
+ * Lookups are lock free. Concurrent lookups of the same new value may end up
+ * with different instances, which only affects the sharing, not correctness.
+ *
+ * @author pemi
+ * @param <T> the type of the values
+ */
+public final class Deduplicator<T> {
+
+    public static final int DEFAULT_CAPACITY = 1 << 12;
+
+    private final AtomicReferenceArray<T> slots;
+    private final int mask;
+    private final LongAdder hits;
+    private final LongAdder misses;
+
+    public Deduplicator() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public Deduplicator(int capacity) {
+        if (capacity < 2) {
+            throw new IllegalArgumentException("The capacity must be at least 2, was " + capacity);
+        }
+        final int size = Integer.highestOneBit(capacity - 1) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+        this.hits = new LongAdder();
+        this.misses = new LongAdder();
+    }
+
+    /**
+     * Returns the canonical instance of the given value. If the dictionary
+     * does not have an instance that is equal to the value, the given value
+     * becomes the canonical instance.
+     *
+     * @param value the value, may be null
+     * @return the canonical instance of the value
+     */
+    public T deduplicate(T value) {
+        if (value == null) {
+            return null;
+        }
+        final int hash = value.hashCode();
+        final int first = (hash ^ (hash >>> 16)) & mask;
+        final int second = first ^ 1;
+        final T firstValue = slots.get(first);
+        if (value.equals(firstValue)) {
+            hits.increment();
+            return firstValue;
+        }
+        final T secondValue = slots.get(second);
+        if (value.equals(secondValue)) {
+            hits.increment();
+            return secondValue;
+        }
+        misses.increment();
+        // Move the first slot to the second so that the second slot holds
+        // the value that was least recently added
+        if (firstValue != null) {
+            slots.lazySet(second, firstValue);
+        }
+        slots.lazySet(first, value);
+        return value;
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the share of the lookups that found a canonical instance, or 0
+     * if there have been no lookups.
+     *
+     * @return the share of the lookups that found a canonical instance
+     */
+    public double getHitRatio() {
+        final long h = hits.sum();
+        final long total = h + misses.sum();
+        return total == 0 ? 0 : (double) h / total;
+    }
+
+    public int getCapacity() {
+        return slots.length();
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + " {capacity=" + getCapacity()
+            + ", hits=" + getHitCount()
+            + ", misses=" + getMissCount()
+            + ", hitRatio=" + getHitRatio() + "}";
+    }
+}
@@ -0,0 +1,122 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.util;
+
+import java.util.Arrays;
+
+/**
+ * A set of primitive long values using open addressing, so that membership
+ * can be tested without boxing.
+ *
+ * @author pemi
+ */
+public final class LongHashSet {
+
+    private static final long GOLDEN_RATIO = 0x9E3779B97F4A7C15L;
+
+    private long[] table;
+    private boolean[] used;
+    private int size;
+
+    public LongHashSet() {
+        this(16);
+    }
+
+    public LongHashSet(int expectedSize) {
+        // Keep the load factor at or below one half
+        final int capacity = Integer.highestOneBit(Math.max(4, expectedSize) * 2 - 1) << 1;
+        this.table = new long[capacity];
+        this.used = new boolean[capacity];
+    }
+
+    /**
+     * Adds the given value to this set.
+     *
+     * @param value the value to add
+     * @return true if the value was not already in this set
+     */
+    public boolean add(long value) {
+        int index = indexOf(value);
+        if (used[index]) {
+            return false;
+        }
+        if ((size + 1) * 2 > table.length) {
+            rehash(table.length * 2);
+            index = indexOf(value);
+        }
+        table[index] = value;
+        used[index] = true;
+        size++;
+        return true;
+    }
+
+    public boolean contains(long value) {
+        return used[indexOf(value)];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the slot of the given value, or the empty slot where it would
+     * be added.
+     *
+     * @param value the value to locate
+     * @return the slot of the given value
+     */
+    private int indexOf(long value) {
+        final int mask = table.length - 1;
+        final long hash = value * GOLDEN_RATIO;
+        int index = (int) (hash ^ (hash >>> 32)) & mask;
+        while (used[index] && table[index] != value) {
+            index = (index + 1) & mask;
+        }
+        return index;
+    }
+
+    private void rehash(int capacity) {
+        final long[] oldTable = table;
+        final boolean[] oldUsed = used;
+        table = new long[capacity];
+        used = new boolean[capacity];
+        for (int i = 0; i < oldTable.length; i++) {
+            if (oldUsed[i]) {
+                final int index = indexOf(oldTable[i]);
+                table[index] = oldTable[i];
+                used[index] = true;
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        final long[] values = new long[size];
+        int i = 0;
+        for (int j = 0; j < table.length; j++) {
+            if (used[j]) {
+                values[i++] = table[j];
+            }
+        }
+        return Arrays.toString(values);
+    }
+
+}
@@ -0,0 +1,96 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.util;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Binds parameter values using the typed setter of the PreparedStatement
+ * that corresponds to the class of the value. This avoids the type dispatch
+ * that drivers otherwise do in {@link PreparedStatement#setObject(int, Object)}
+ * and lets primitive values be passed to the driver without any further
+ * conversion.
+ *
+ * @author pemi
+ */
+public class PreparedStatementUtil {
+
+    private PreparedStatementUtil() {
+    }
+
+    /**
+     * Binds the given values to the parameters of the given statement,
+     * starting with the first parameter.
+     *
+     * @param ps the statement
+     * @param values the values to bind
+     * @throws SQLException if a value could not be bound
+     */
+    public static void setValues(final PreparedStatement ps, final List<?> values) throws SQLException {
+        int i = 1;
+        for (final Object o : values) {
+            setValue(ps, i++, o);
+        }
+    }
+
+    /**
+     * Binds the given value to the parameter with the given index.
+     *
+     * @param ps the statement
+     * @param parameterIndex the first parameter is 1, the second is 2, ...
+     * @param value the value to bind, may be null
+     * @throws SQLException if the value could not be bound
+     */
+    public static void setValue(final PreparedStatement ps, final int parameterIndex, final Object value) throws SQLException {
+        if (value instanceof String) {
+            ps.setString(parameterIndex, (String) value);
+        } else if (value instanceof Integer) {
+            ps.setInt(parameterIndex, (Integer) value);
+        } else if (value instanceof Long) {
+            ps.setLong(parameterIndex, (Long) value);
+        } else if (value instanceof Double) {
+            ps.setDouble(parameterIndex, (Double) value);
+        } else if (value instanceof Boolean) {
+            ps.setBoolean(parameterIndex, (Boolean) value);
+        } else if (value instanceof Short) {
+            ps.setShort(parameterIndex, (Short) value);
+        } else if (value instanceof Byte) {
+            ps.setByte(parameterIndex, (Byte) value);
+        } else if (value instanceof Float) {
+            ps.setFloat(parameterIndex, (Float) value);
+        } else if (value instanceof BigDecimal) {
+            ps.setBigDecimal(parameterIndex, (BigDecimal) value);
+        } else if (value instanceof Timestamp) {
+            ps.setTimestamp(parameterIndex, (Timestamp) value);
+        } else if (value instanceof Date) {
+            ps.setDate(parameterIndex, (Date) value);
+        } else if (value instanceof Time) {
+            ps.setTime(parameterIndex, (Time) value);
+        } else if (value instanceof byte[]) {
+            ps.setBytes(parameterIndex, (byte[]) value);
+        } else {
+            // null and any other type is left to the driver
+            ps.setObject(parameterIndex, value);
+        }
+    }
+}
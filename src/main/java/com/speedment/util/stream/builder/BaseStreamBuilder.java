@@ -21,6 +21,7 @@ import com.speedment.util.stream.builder.streamterminator.StreamTerminator;
 import com.speedment.util.stream.builder.action.Action;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Supplier;
 
 /**
  *
@@ -96,9 +97,9 @@ public class BaseStreamBuilder<T extends BaseStreamBuilder<T, P>, P> {
         return thizz;
     }
 
-    protected <T> T finallyClose(T t) {
+    protected <T> T finallyClose(Supplier<T> s) {
         try {
-            return t;
+            return s.get();
         } finally {
             close();
         }
@@ -199,7 +199,7 @@ public class DoubleStreamBuilder extends BaseStreamBuilder<DoubleStreamBuilder,
      */
     @Override
     public OptionalDouble reduce(DoubleBinaryOperator op) {
-        return finallyClose(streamTerminator.reduce(pipeline(), op));
+        return finallyClose(() -> streamTerminator.reduce(pipeline(), op));
     }
 
     /**
@@ -212,7 +212,7 @@ public class DoubleStreamBuilder extends BaseStreamBuilder<DoubleStreamBuilder,
      */
     @Override
     public <R> R collect(Supplier<R> supplier, ObjDoubleConsumer<R> accumulator, BiConsumer<R, R> combiner) {
-        return finallyClose(streamTerminator.collect(pipeline(), supplier, accumulator, combiner));
+        return finallyClose(() -> streamTerminator.collect(pipeline(), supplier, accumulator, combiner));
     }
 
     /**
@@ -242,7 +242,7 @@ public class DoubleStreamBuilder extends BaseStreamBuilder<DoubleStreamBuilder,
      */
     @Override
     public OptionalDouble min() {
-        return finallyClose(streamTerminator.min(pipeline()));
+        return finallyClose(() -> streamTerminator.min(pipeline()));
     }
 
     /**
@@ -255,7 +255,7 @@ public class DoubleStreamBuilder extends BaseStreamBuilder<DoubleStreamBuilder,
      */
     @Override
     public OptionalDouble max() {
-        return finallyClose(streamTerminator.max(pipeline()));
+        return finallyClose(() -> streamTerminator.max(pipeline()));
     }
 
     /**
@@ -285,7 +285,7 @@ public class DoubleStreamBuilder extends BaseStreamBuilder<DoubleStreamBuilder,
      */
     @Override
     public OptionalDouble average() {
-        return finallyClose(streamTerminator.average(pipeline()));
+        return finallyClose(() -> streamTerminator.average(pipeline()));
     }
 
     /**
@@ -298,7 +298,7 @@ public class DoubleStreamBuilder extends BaseStreamBuilder<DoubleStreamBuilder,
      */
     @Override
     public DoubleSummaryStatistics summaryStatistics() {
-        return finallyClose(streamTerminator.summaryStatistics(pipeline()));
+        return finallyClose(() -> streamTerminator.summaryStatistics(pipeline()));
     }
 
     /**
@@ -362,7 +362,7 @@ public class DoubleStreamBuilder extends BaseStreamBuilder<DoubleStreamBuilder,
      */
     @Override
     public OptionalDouble findFirst() {
-        return finallyClose(streamTerminator.findFirst(pipeline()));
+        return finallyClose(() -> streamTerminator.findFirst(pipeline()));
     }
 
     /**
@@ -375,7 +375,7 @@ public class DoubleStreamBuilder extends BaseStreamBuilder<DoubleStreamBuilder,
      */
     @Override
     public OptionalDouble findAny() {
-        return finallyClose(streamTerminator.findAny(pipeline()));
+        return finallyClose(() -> streamTerminator.findAny(pipeline()));
     }
 
     /**
@@ -389,7 +389,7 @@ public class DoubleStreamBuilder extends BaseStreamBuilder<DoubleStreamBuilder,
      */
     @Override
     public PrimitiveIterator.OfDouble iterator() {
-        return finallyClose(streamTerminator.iterator(pipeline()));
+        return finallyClose(() -> streamTerminator.iterator(pipeline()));
     }
 
     /**
@@ -403,7 +403,7 @@ public class DoubleStreamBuilder extends BaseStreamBuilder<DoubleStreamBuilder,
      */
     @Override
     public Spliterator.OfDouble spliterator() {
-        return finallyClose(streamTerminator.spliterator(pipeline()));
+        return finallyClose(() -> streamTerminator.spliterator(pipeline()));
     }
 
 }
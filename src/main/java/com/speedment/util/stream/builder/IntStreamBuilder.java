@@ -211,7 +211,7 @@ public class IntStreamBuilder extends BaseStreamBuilder<IntStreamBuilder, IntPip
      */
     @Override
     public OptionalInt reduce(IntBinaryOperator op) {
-        return finallyClose(streamTerminator.reduce(pipeline(), op));
+        return finallyClose(() -> streamTerminator.reduce(pipeline(), op));
     }
 
     /**
@@ -224,7 +224,7 @@ public class IntStreamBuilder extends BaseStreamBuilder<IntStreamBuilder, IntPip
      */
     @Override
     public <R> R collect(Supplier<R> supplier, ObjIntConsumer<R> accumulator, BiConsumer<R, R> combiner) {
-        return finallyClose(streamTerminator.collect(pipeline(), supplier, accumulator, combiner));
+        return finallyClose(() -> streamTerminator.collect(pipeline(), supplier, accumulator, combiner));
     }
 
     /**
@@ -254,7 +254,7 @@ public class IntStreamBuilder extends BaseStreamBuilder<IntStreamBuilder, IntPip
      */
     @Override
     public OptionalInt min() {
-        return finallyClose(streamTerminator.min(pipeline()));
+        return finallyClose(() -> streamTerminator.min(pipeline()));
     }
 
     /**
@@ -267,7 +267,7 @@ public class IntStreamBuilder extends BaseStreamBuilder<IntStreamBuilder, IntPip
      */
     @Override
     public OptionalInt max() {
-        return finallyClose(streamTerminator.max(pipeline()));
+        return finallyClose(() -> streamTerminator.max(pipeline()));
     }
 
     /**
@@ -297,7 +297,7 @@ public class IntStreamBuilder extends BaseStreamBuilder<IntStreamBuilder, IntPip
      */
     @Override
     public OptionalDouble average() {
-        return finallyClose(streamTerminator.average(pipeline()));
+        return finallyClose(() -> streamTerminator.average(pipeline()));
     }
 
     /**
@@ -310,7 +310,7 @@ public class IntStreamBuilder extends BaseStreamBuilder<IntStreamBuilder, IntPip
      */
     @Override
     public IntSummaryStatistics summaryStatistics() {
-        return finallyClose(streamTerminator.summaryStatistics(pipeline()));
+        return finallyClose(() -> streamTerminator.summaryStatistics(pipeline()));
     }
 
     /**
@@ -374,7 +374,7 @@ public class IntStreamBuilder extends BaseStreamBuilder<IntStreamBuilder, IntPip
      */
     @Override
     public OptionalInt findFirst() {
-        return finallyClose(streamTerminator.findFirst(pipeline()));
+        return finallyClose(() -> streamTerminator.findFirst(pipeline()));
     }
 
     /**
@@ -387,7 +387,7 @@ public class IntStreamBuilder extends BaseStreamBuilder<IntStreamBuilder, IntPip
      */
     @Override
     public OptionalInt findAny() {
-        return finallyClose(streamTerminator.findAny(pipeline()));
+        return finallyClose(() -> streamTerminator.findAny(pipeline()));
     }
 
     /**
@@ -401,7 +401,7 @@ public class IntStreamBuilder extends BaseStreamBuilder<IntStreamBuilder, IntPip
      */
     @Override
     public PrimitiveIterator.OfInt iterator() {
-        return finallyClose(streamTerminator.iterator(pipeline()));
+        return finallyClose(() -> streamTerminator.iterator(pipeline()));
     }
 
     /**
@@ -415,7 +415,7 @@ public class IntStreamBuilder extends BaseStreamBuilder<IntStreamBuilder, IntPip
      */
     @Override
     public Spliterator.OfInt spliterator() {
-        return finallyClose(streamTerminator.spliterator(pipeline()));
+        return finallyClose(() -> streamTerminator.spliterator(pipeline()));
     }
 
 }
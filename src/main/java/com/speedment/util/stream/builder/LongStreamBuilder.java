@@ -206,7 +206,7 @@ public class LongStreamBuilder extends BaseStreamBuilder<LongStreamBuilder, Long
      */
     @Override
     public OptionalLong reduce(LongBinaryOperator op) {
-        return finallyClose(streamTerminator.reduce(pipeline(), op));
+        return finallyClose(() -> streamTerminator.reduce(pipeline(), op));
     }
 
     /**
@@ -219,7 +219,7 @@ public class LongStreamBuilder extends BaseStreamBuilder<LongStreamBuilder, Long
      */
     @Override
     public <R> R collect(Supplier<R> supplier, ObjLongConsumer<R> accumulator, BiConsumer<R, R> combiner) {
-        return finallyClose(streamTerminator.collect(pipeline(), supplier, accumulator, combiner));
+        return finallyClose(() -> streamTerminator.collect(pipeline(), supplier, accumulator, combiner));
     }
 
     /**
@@ -249,7 +249,7 @@ public class LongStreamBuilder extends BaseStreamBuilder<LongStreamBuilder, Long
      */
     @Override
     public OptionalLong min() {
-        return finallyClose(streamTerminator.min(pipeline()));
+        return finallyClose(() -> streamTerminator.min(pipeline()));
     }
 
     /**
@@ -262,7 +262,7 @@ public class LongStreamBuilder extends BaseStreamBuilder<LongStreamBuilder, Long
      */
     @Override
     public OptionalLong max() {
-        return finallyClose(streamTerminator.max(pipeline()));
+        return finallyClose(() -> streamTerminator.max(pipeline()));
     }
 
     /**
@@ -292,7 +292,7 @@ public class LongStreamBuilder extends BaseStreamBuilder<LongStreamBuilder, Long
      */
     @Override
     public OptionalDouble average() {
-        return finallyClose(streamTerminator.average(pipeline()));
+        return finallyClose(() -> streamTerminator.average(pipeline()));
     }
 
     /**
@@ -305,7 +305,7 @@ public class LongStreamBuilder extends BaseStreamBuilder<LongStreamBuilder, Long
      */
     @Override
     public LongSummaryStatistics summaryStatistics() {
-        return finallyClose(streamTerminator.summaryStatistics(pipeline()));
+        return finallyClose(() -> streamTerminator.summaryStatistics(pipeline()));
     }
 
     /**
@@ -369,7 +369,7 @@ public class LongStreamBuilder extends BaseStreamBuilder<LongStreamBuilder, Long
      */
     @Override
     public OptionalLong findFirst() {
-        return finallyClose(streamTerminator.findFirst(pipeline()));
+        return finallyClose(() -> streamTerminator.findFirst(pipeline()));
     }
 
     /**
@@ -382,7 +382,7 @@ public class LongStreamBuilder extends BaseStreamBuilder<LongStreamBuilder, Long
      */
     @Override
     public OptionalLong findAny() {
-        return finallyClose(streamTerminator.findAny(pipeline()));
+        return finallyClose(() -> streamTerminator.findAny(pipeline()));
     }
 
     /**
@@ -396,7 +396,7 @@ public class LongStreamBuilder extends BaseStreamBuilder<LongStreamBuilder, Long
      */
     @Override
     public PrimitiveIterator.OfLong iterator() {
-        return finallyClose(streamTerminator.iterator(pipeline()));
+        return finallyClose(() -> streamTerminator.iterator(pipeline()));
     }
 
     /**
@@ -410,7 +410,7 @@ public class LongStreamBuilder extends BaseStreamBuilder<LongStreamBuilder, Long
      */
     @Override
     public Spliterator.OfLong spliterator() {
-        return finallyClose(streamTerminator.spliterator(pipeline()));
+        return finallyClose(() -> streamTerminator.spliterator(pipeline()));
     }
 
 }
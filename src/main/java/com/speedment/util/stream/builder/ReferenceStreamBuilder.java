@@ -185,7 +185,7 @@ public class ReferenceStreamBuilder<T> extends BaseStreamBuilder<ReferenceStream
      */
     @Override
     public Object[] toArray() {
-        return finallyClose(streamTerminator.toArray(pipeline()));
+        return finallyClose(() -> streamTerminator.toArray(pipeline()));
     }
 
     /**
@@ -198,7 +198,7 @@ public class ReferenceStreamBuilder<T> extends BaseStreamBuilder<ReferenceStream
      */
     @Override
     public <A> A[] toArray(IntFunction<A[]> generator) {
-        return finallyClose(streamTerminator.toArray(pipeline(), generator));
+        return finallyClose(() -> streamTerminator.toArray(pipeline(), generator));
     }
 
     /**
@@ -211,7 +211,7 @@ public class ReferenceStreamBuilder<T> extends BaseStreamBuilder<ReferenceStream
      */
     @Override
     public T reduce(T identity, BinaryOperator<T> accumulator) {
-        return finallyClose(streamTerminator.reduce(pipeline(), identity, accumulator));
+        return finallyClose(() -> streamTerminator.reduce(pipeline(), identity, accumulator));
     }
 
     /**
@@ -224,7 +224,7 @@ public class ReferenceStreamBuilder<T> extends BaseStreamBuilder<ReferenceStream
      */
     @Override
     public Optional<T> reduce(BinaryOperator<T> accumulator) {
-        return finallyClose(streamTerminator.reduce(pipeline(), accumulator));
+        return finallyClose(() -> streamTerminator.reduce(pipeline(), accumulator));
     }
 
     /**
@@ -237,7 +237,7 @@ public class ReferenceStreamBuilder<T> extends BaseStreamBuilder<ReferenceStream
      */
     @Override
     public <U> U reduce(U identity, BiFunction<U, ? super T, U> accumulator, BinaryOperator<U> combiner) {
-        return finallyClose(streamTerminator.reduce(pipeline(), identity, accumulator, combiner));
+        return finallyClose(() -> streamTerminator.reduce(pipeline(), identity, accumulator, combiner));
     }
 
     /**
@@ -250,7 +250,7 @@ public class ReferenceStreamBuilder<T> extends BaseStreamBuilder<ReferenceStream
      */
     @Override
     public <R> R collect(Supplier<R> supplier, BiConsumer<R, ? super T> accumulator, BiConsumer<R, R> combiner) {
-        return finallyClose(streamTerminator.collect(pipeline(), supplier, accumulator, combiner));
+        return finallyClose(() -> streamTerminator.collect(pipeline(), supplier, accumulator, combiner));
     }
 
     /**
@@ -263,7 +263,7 @@ public class ReferenceStreamBuilder<T> extends BaseStreamBuilder<ReferenceStream
      */
     @Override
     public <R, A> R collect(Collector<? super T, A, R> collector) {
-        return finallyClose(streamTerminator.collect(pipeline(), collector));
+        return finallyClose(() -> streamTerminator.collect(pipeline(), collector));
     }
 
     /**
@@ -276,7 +276,7 @@ public class ReferenceStreamBuilder<T> extends BaseStreamBuilder<ReferenceStream
      */
     @Override
     public Optional<T> min(Comparator<? super T> comparator) {
-        return finallyClose(streamTerminator.min(pipeline(), comparator));
+        return finallyClose(() -> streamTerminator.min(pipeline(), comparator));
     }
 
     /**
@@ -289,7 +289,7 @@ public class ReferenceStreamBuilder<T> extends BaseStreamBuilder<ReferenceStream
      */
     @Override
     public Optional<T> max(Comparator<? super T> comparator) {
-        return finallyClose(streamTerminator.max(pipeline(), comparator));
+        return finallyClose(() -> streamTerminator.max(pipeline(), comparator));
     }
 
     /**
@@ -302,7 +302,7 @@ public class ReferenceStreamBuilder<T> extends BaseStreamBuilder<ReferenceStream
      */
     @Override
     public long count() {
-        return finallyClose(streamTerminator.count(pipeline()));
+        return finallyClose(() -> streamTerminator.count(pipeline()));
 
     }
 
@@ -316,7 +316,7 @@ public class ReferenceStreamBuilder<T> extends BaseStreamBuilder<ReferenceStream
      */
     @Override
     public boolean anyMatch(Predicate<? super T> predicate) {
-        return finallyClose(streamTerminator.anyMatch(pipeline(), predicate));
+        return finallyClose(() -> streamTerminator.anyMatch(pipeline(), predicate));
     }
 
     /**
@@ -329,7 +329,7 @@ public class ReferenceStreamBuilder<T> extends BaseStreamBuilder<ReferenceStream
      */
     @Override
     public boolean allMatch(Predicate<? super T> predicate) {
-        return finallyClose(streamTerminator.allMatch(pipeline(), predicate));
+        return finallyClose(() -> streamTerminator.allMatch(pipeline(), predicate));
     }
 
     /**
@@ -342,7 +342,7 @@ public class ReferenceStreamBuilder<T> extends BaseStreamBuilder<ReferenceStream
      */
     @Override
     public boolean noneMatch(Predicate<? super T> predicate) {
-        return finallyClose(streamTerminator.noneMatch(pipeline(), predicate));
+        return finallyClose(() -> streamTerminator.noneMatch(pipeline(), predicate));
     }
 
     /**
@@ -355,7 +355,7 @@ public class ReferenceStreamBuilder<T> extends BaseStreamBuilder<ReferenceStream
      */
     @Override
     public Optional<T> findFirst() {
-        return finallyClose(streamTerminator.findFirst(pipeline()));
+        return finallyClose(() -> streamTerminator.findFirst(pipeline()));
     }
 
     /**
@@ -368,7 +368,7 @@ public class ReferenceStreamBuilder<T> extends BaseStreamBuilder<ReferenceStream
      */
     @Override
     public Optional<T> findAny() {
-        return finallyClose(streamTerminator.findAny(pipeline()));
+        return finallyClose(() -> streamTerminator.findAny(pipeline()));
     }
 
     /**
@@ -381,7 +381,7 @@ public class ReferenceStreamBuilder<T> extends BaseStreamBuilder<ReferenceStream
      */
     @Override
     public Iterator<T> iterator() {
-        return finallyClose(streamTerminator.iterator(pipeline()));
+        return finallyClose(() -> streamTerminator.iterator(pipeline()));
     }
 
     /**
@@ -394,7 +394,7 @@ public class ReferenceStreamBuilder<T> extends BaseStreamBuilder<ReferenceStream
      */
     @Override
     public Spliterator<T> spliterator() {
-        return finallyClose(streamTerminator.spliterator(pipeline()));
+        return finallyClose(() -> streamTerminator.spliterator(pipeline()));
     }
 
 }
@@ -27,8 +27,15 @@ import java.util.stream.Stream;
  */
 public class LimitAction<T> extends Action<Stream<T>, Stream<T>> {
 
+    private final long maxSize;
+
     public LimitAction(long maxSize) {
         super(s -> s.limit(maxSize), Stream.class, LIMIT);
+        this.maxSize = maxSize;
+    }
+
+    public long getMaxSize() {
+        return maxSize;
     }
 
 }
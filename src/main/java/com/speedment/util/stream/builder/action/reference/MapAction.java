@@ -29,8 +29,15 @@ import java.util.stream.Stream;
  */
 public class MapAction<T, R> extends Action<Stream<T>, Stream<R>> {
 
+    private final Function<? super T, ? extends R> mapper;
+
     public MapAction(Function<? super T, ? extends R> mapper) {
         super(s -> s.map(mapper), Stream.class, MAP);
+        this.mapper = mapper;
+    }
+
+    public Function<? super T, ? extends R> getMapper() {
+        return mapper;
     }
 
 }
@@ -29,8 +29,15 @@ import java.util.stream.Stream;
  */
 public class MapToDoubleAction<T> extends Action<Stream<T>, DoubleStream> {
 
+    private final ToDoubleFunction<? super T> mapper;
+
     public MapToDoubleAction(ToDoubleFunction<? super T> mapper) {
         super(s -> s.mapToDouble(mapper), DoubleStream.class, MAP_TO);
+        this.mapper = mapper;
+    }
+
+    public ToDoubleFunction<? super T> getMapper() {
+        return mapper;
     }
 
 }
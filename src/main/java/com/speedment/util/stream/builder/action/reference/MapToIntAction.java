@@ -29,8 +29,15 @@ import java.util.stream.Stream;
  */
 public class MapToIntAction<T> extends Action<Stream<T>, IntStream> {
 
+    private final ToIntFunction<? super T> mapper;
+
     public MapToIntAction(ToIntFunction<? super T> mapper) {
         super(s -> s.mapToInt(mapper), IntStream.class, MAP_TO);
+        this.mapper = mapper;
+    }
+
+    public ToIntFunction<? super T> getMapper() {
+        return mapper;
     }
 
 }
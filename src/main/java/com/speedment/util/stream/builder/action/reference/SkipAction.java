@@ -27,8 +27,15 @@ import java.util.stream.Stream;
  */
 public class SkipAction<T> extends Action<Stream<T>, Stream<T>> {
 
+    private final long n;
+
     public SkipAction(long n) {
         super(s -> s.skip(n), Stream.class, SKIP);
+        this.n = n;
+    }
+
+    public long getN() {
+        return n;
     }
 
 }
@@ -19,6 +19,7 @@ package com.speedment.util.stream.builder.action.reference;
 import com.speedment.util.stream.builder.action.Action;
 import static com.speedment.util.stream.builder.action.StandardBasicAction.SORTED;
 import java.util.Comparator;
+import java.util.Optional;
 import java.util.stream.Stream;
 
 /**
@@ -28,12 +29,26 @@ import java.util.stream.Stream;
  */
 public class SortedAction<T> extends Action<Stream<T>, Stream<T>> {
 
+    private final Optional<Comparator<? super T>> comparator;
+
     public SortedAction() {
         super(s -> s.sorted(), Stream.class, SORTED);
+        this.comparator = Optional.empty();
     }
 
     public SortedAction(Comparator<? super T> comparator) {
         super(s -> s.sorted(comparator), Stream.class, SORTED);
+        this.comparator = Optional.of(comparator);
+    }
+
+    /**
+     * Returns the Comparator used for sorting, or empty if the elements are
+     * sorted in their natural order.
+     *
+     * @return the Comparator used for sorting
+     */
+    public Optional<Comparator<? super T>> getComparator() {
+        return comparator;
     }
 
 }
@@ -0,0 +1,142 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.core.db.impl;
+
+import com.speedment.core.db.impl.FakeJdbc.FakeConnection;
+import com.speedment.core.db.impl.FakeJdbc.FakeStatement;
+import com.speedment.core.exception.SpeedmentException;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author pemi
+ */
+public class AsynchronousQueryResultImplTest {
+
+    private FakeConnection connection;
+    private AsynchronousQueryResultImpl<Integer> result;
+
+    @Before
+    public void setUp() {
+        connection = new FakeConnection();
+        connection.rows = 3;
+        result = new AsynchronousQueryResultImpl<>(
+            "select id from t where a = ?",
+            Arrays.asList(42),
+            rs -> {
+                try {
+                    return rs.getInt(1);
+                } catch (SQLException sqle) {
+                    throw new SpeedmentException(sqle);
+                }
+            },
+            () -> connection.proxy
+        );
+    }
+
+    /**
+     * Test that the rows are read with the given parameters and that the
+     * Connection is closed as soon as the last row has been read.
+     */
+    @Test
+    public void testStreamClosesWhenExhausted() {
+        final Stream<Integer> stream = result.stream();
+        assertEquals(AsynchronousQueryResultImpl.State.OPEN, result.getState());
+        assertEquals(Arrays.asList(1, 2, 3), stream.collect(Collectors.toList()));
+
+        final FakeStatement statement = connection.statements.get(0);
+        assertEquals(Arrays.asList(42), statement.values);
+        assertTrue(statement.resultSet.closed);
+        assertTrue(statement.closed);
+        assertTrue(connection.closed);
+        assertEquals(AsynchronousQueryResultImpl.State.CLOSED, result.getState());
+    }
+
+    /**
+     * Test that closing a Stream that has not been fully consumed closes the
+     * Connection.
+     */
+    @Test
+    public void testStreamClosesOnClose() {
+        final Stream<Integer> stream = result.stream();
+        final Iterator<Integer> iterator = stream.iterator();
+        assertEquals(Integer.valueOf(1), iterator.next());
+        assertFalse(connection.closed);
+        stream.close();
+        assertTrue(connection.closed);
+        assertFalse(iterator.hasNext());
+    }
+
+    /**
+     * Test that the Connection is closed if the statement can not be
+     * prepared.
+     */
+    @Test
+    public void testPrepareFailureCloses() {
+        connection.prepareFailure = new SQLException("prepare");
+        try {
+            result.stream();
+            fail("The failure shall be propagated");
+        } catch (SpeedmentException se) {
+            assertTrue(se.getCause() instanceof SQLException);
+        }
+        assertTrue(connection.closed);
+        assertEquals(AsynchronousQueryResultImpl.State.CLOSED, result.getState());
+    }
+
+    /**
+     * Test that the statement and the Connection are closed if the query can
+     * not be executed.
+     */
+    @Test
+    public void testExecuteFailureCloses() {
+        connection.executeFailure = new SQLException("execute");
+        try {
+            result.stream();
+            fail("The failure shall be propagated");
+        } catch (SpeedmentException se) {
+            assertTrue(se.getCause() instanceof SQLException);
+        }
+        assertTrue(connection.statements.get(0).closed);
+        assertTrue(connection.closed);
+    }
+
+    /**
+     * Test that the Connection is closed if the row mapper throws.
+     */
+    @Test
+    public void testMapperFailureClosesWithStream() {
+        result.setRsMapper(rs -> {
+            throw new IllegalStateException("mapper");
+        });
+        try (final Stream<Integer> stream = result.stream()) {
+            stream.forEach(i -> {
+            });
+            fail("The failure shall be propagated");
+        } catch (IllegalStateException ise) {
+            assertEquals("mapper", ise.getMessage());
+        }
+        assertTrue(connection.closed);
+    }
+}
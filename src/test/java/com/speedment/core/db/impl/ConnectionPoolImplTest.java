@@ -0,0 +1,245 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.core.db.impl;
+
+import com.speedment.core.config.model.Dbms;
+import com.speedment.core.db.impl.FakeJdbc.FakeConnection;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author pemi
+ */
+public class ConnectionPoolImplTest {
+
+    private List<FakeConnection> opened;
+    private ConnectionPoolImpl pool;
+
+    @Before
+    public void setUp() {
+        final Dbms dbms = Dbms.newDbms();
+        dbms.setName("test");
+        dbms.setConnectionPoolMinSize(0);
+        dbms.setConnectionPoolMaxSize(2);
+        dbms.setConnectionPoolAcquireTimeout(50);
+        opened = new ArrayList<>();
+        pool = new ConnectionPoolImpl(dbms, () -> {
+            final FakeConnection connection = new FakeConnection();
+            opened.add(connection);
+            return connection.proxy;
+        });
+    }
+
+    @After
+    public void tearDown() {
+        pool.close();
+    }
+
+    /**
+     * Test that a returned Connection is reused by the next lease.
+     */
+    @Test
+    public void testLeaseAndRelease() throws SQLException {
+        final Connection first = pool.getConnection();
+        assertEquals(1, pool.getLeasedCount());
+        assertEquals(0, pool.getIdleCount());
+        first.close();
+        assertTrue(first.isClosed());
+        assertEquals(0, pool.getLeasedCount());
+        assertEquals(1, pool.getIdleCount());
+
+        final Connection second = pool.getConnection();
+        assertNotSame(first, second);
+        assertEquals(1, opened.size());
+        assertFalse(opened.get(0).closed);
+        second.close();
+        first.close(); // Returning a connection twice has no effect
+        assertEquals(1, pool.getIdleCount());
+    }
+
+    /**
+     * Test that a Connection can not be used after it has been returned.
+     */
+    @Test(expected = SQLException.class)
+    public void testUseAfterRelease() throws SQLException {
+        final Connection connection = pool.getConnection();
+        connection.close();
+        connection.setAutoCommit(false);
+    }
+
+    /**
+     * Test that a lease times out when all Connections are leased and
+     * succeeds once a Connection has been returned.
+     */
+    @Test
+    public void testAcquireTimeout() throws SQLException {
+        final Connection first = pool.getConnection();
+        final Connection second = pool.getConnection();
+        try {
+            pool.getConnection();
+            fail("A third connection shall not be leased");
+        } catch (SQLException sqle) {
+            assertTrue(sqle.getMessage().startsWith("Timeout"));
+        }
+        second.close();
+        pool.getConnection().close();
+        first.close();
+        assertEquals(2, opened.size());
+    }
+
+    /**
+     * Test that an open transaction is rolled back and autocommit is enabled
+     * again when a Connection is returned.
+     */
+    @Test
+    public void testReleaseRollsBack() throws SQLException {
+        final Connection connection = pool.getConnection();
+        connection.setAutoCommit(false);
+        connection.close();
+        assertEquals(1, opened.get(0).rollbacks);
+        assertTrue(opened.get(0).autoCommit);
+    }
+
+    /**
+     * Test that the read only flag, transaction isolation, catalog and
+     * holdability are restored when a Connection is returned.
+     */
+    @Test
+    public void testReleaseRestoresSessionState() throws SQLException {
+        final Connection connection = pool.getConnection();
+        connection.setReadOnly(true);
+        connection.setTransactionIsolation(Connection.TRANSACTION_SERIALIZABLE);
+        connection.setCatalog("other");
+        connection.setHoldability(ResultSet.CLOSE_CURSORS_AT_COMMIT);
+        connection.close();
+
+        final FakeConnection physical = opened.get(0);
+        assertFalse(physical.closed);
+        assertFalse(physical.readOnly);
+        assertEquals(Connection.TRANSACTION_REPEATABLE_READ, physical.transactionIsolation);
+        assertEquals("db", physical.catalog);
+        assertEquals(ResultSet.HOLD_CURSORS_OVER_COMMIT, physical.holdability);
+        assertEquals(1, pool.getIdleCount());
+    }
+
+    /**
+     * Test that a Connection whose schema was changed is discarded when it is
+     * returned, since the schema can not be restored.
+     */
+    @Test
+    public void testReleaseDiscardsUnrestorableState() throws SQLException {
+        final Connection connection = pool.getConnection();
+        connection.setSchema("other");
+        connection.close();
+        assertTrue(opened.get(0).closed);
+        assertEquals(0, pool.getIdleCount());
+
+        pool.getConnection().close();
+        assertEquals(2, opened.size());
+    }
+
+    /**
+     * Test that a Connection that has been closed by the driver is not leased
+     * again.
+     */
+    @Test
+    public void testClosedConnectionIsNotReused() throws SQLException {
+        pool.getConnection().close();
+        opened.get(0).closed = true;
+        pool.getConnection().close();
+        assertEquals(2, opened.size());
+    }
+
+    /**
+     * Test that statements prepared during different leases of the same
+     * physical Connection are taken from its statement cache.
+     */
+    @Test
+    public void testStatementCacheAcrossLeases() throws SQLException {
+        try (final Connection connection = pool.getConnection();
+            final PreparedStatement ps = connection.prepareStatement("select 1")) {
+            assertSame(connection, ps.getConnection());
+        }
+        try (final Connection connection = pool.getConnection();
+            final PreparedStatement ps = connection.prepareStatement("select 1")) {
+            assertNotNull(ps);
+        }
+        assertEquals(1, opened.get(0).statements.size());
+        assertEquals(1, pool.getStatementCacheHitCount());
+        assertEquals(1, pool.getStatementCacheMissCount());
+    }
+
+    /**
+     * Test that statements prepared with generated key columns or with a
+     * holdability are cached as well.
+     */
+    @Test
+    public void testStatementCacheOverloads() throws SQLException {
+        for (int i = 0; i < 2; i++) {
+            try (final Connection connection = pool.getConnection()) {
+                connection.prepareStatement("insert 1", new int[]{1}).close();
+                connection.prepareStatement("insert 1", new String[]{"id"}).close();
+                connection.prepareStatement("select 1", ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY, ResultSet.HOLD_CURSORS_OVER_COMMIT).close();
+            }
+        }
+        assertEquals(3, opened.get(0).statements.size());
+        assertEquals(3, pool.getStatementCacheHitCount());
+    }
+
+    /**
+     * Test that statements that are still open are handed back when their
+     * Connection is returned.
+     */
+    @Test
+    public void testReleaseClosesOpenStatements() throws SQLException {
+        final Connection connection = pool.getConnection();
+        final PreparedStatement ps = connection.prepareStatement("select 1");
+        connection.close();
+        assertTrue(ps.isClosed());
+        assertFalse(opened.get(0).statements.get(0).closed); // Still cached
+    }
+
+    /**
+     * Test that closing the pool closes idle Connections, closes leased
+     * Connections when they are returned and rejects new leases.
+     */
+    @Test
+    public void testClose() throws SQLException {
+        final Connection leased = pool.getConnection();
+        pool.getConnection().close();
+        pool.close();
+        assertTrue(opened.get(1).closed);
+        assertFalse(opened.get(0).closed);
+        leased.close();
+        assertTrue(opened.get(0).closed);
+        try {
+            pool.getConnection();
+            fail("A closed pool shall not lease connections");
+        } catch (SQLException sqle) {
+            assertEquals(0, pool.getLeasedCount());
+        }
+    }
+}
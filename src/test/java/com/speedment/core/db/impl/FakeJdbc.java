@@ -0,0 +1,225 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.core.db.impl;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Minimal in-memory JDBC objects that record how they are used. Only the
+ * methods that the connection pool, the statement cache and the query results
+ * invoke are implemented.
+ *
+ * @author pemi
+ */
+final class FakeJdbc {
+
+    private FakeJdbc() {
+    }
+
+    static final class FakeConnection implements InvocationHandler {
+
+        final Connection proxy = proxy(Connection.class, this);
+        final List<FakeStatement> statements = new ArrayList<>();
+        boolean closed;
+        boolean autoCommit = true;
+        boolean readOnly;
+        int transactionIsolation = Connection.TRANSACTION_REPEATABLE_READ;
+        String catalog = "db";
+        int holdability = ResultSet.HOLD_CURSORS_OVER_COMMIT;
+        int rollbacks;
+        int rows;
+        SQLException prepareFailure;
+        SQLException executeFailure;
+
+        @Override
+        public Object invoke(Object p, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    closed = true;
+                    return null;
+                case "isClosed":
+                    return closed;
+                case "isValid":
+                    return !closed;
+                case "getAutoCommit":
+                    return autoCommit;
+                case "setAutoCommit":
+                    autoCommit = (Boolean) args[0];
+                    return null;
+                case "rollback":
+                    rollbacks++;
+                    return null;
+                case "isReadOnly":
+                    return readOnly;
+                case "setReadOnly":
+                    readOnly = (Boolean) args[0];
+                    return null;
+                case "getTransactionIsolation":
+                    return transactionIsolation;
+                case "setTransactionIsolation":
+                    transactionIsolation = (Integer) args[0];
+                    return null;
+                case "getCatalog":
+                    return catalog;
+                case "setCatalog":
+                    catalog = (String) args[0];
+                    return null;
+                case "getHoldability":
+                    return holdability;
+                case "setHoldability":
+                    holdability = (Integer) args[0];
+                    return null;
+                case "setSchema":
+                case "clearWarnings":
+                    return null;
+                case "prepareStatement":
+                    if (prepareFailure != null) {
+                        throw prepareFailure;
+                    }
+                    final FakeStatement statement = new FakeStatement(this, (String) args[0], Arrays.asList(args).subList(1, args.length));
+                    statements.add(statement);
+                    return statement.proxy;
+                default:
+                    throw new UnsupportedOperationException(method.getName());
+            }
+        }
+    }
+
+    static final class FakeStatement implements InvocationHandler {
+
+        final PreparedStatement proxy = proxy(PreparedStatement.class, this);
+        final FakeConnection connection;
+        final String sql;
+        final List<Object> arguments;
+        final List<Object> values = new ArrayList<>();
+        FakeResultSet resultSet;
+        boolean closed;
+        int executions;
+
+        FakeStatement(FakeConnection connection, String sql, List<Object> arguments) {
+            this.connection = connection;
+            this.sql = sql;
+            this.arguments = arguments;
+        }
+
+        @Override
+        public Object invoke(Object p, Method method, Object[] args) throws Throwable {
+            final String name = method.getName();
+            if (name.startsWith("set") && args != null && args.length == 2 && args[0] instanceof Integer) {
+                final int index = (Integer) args[0];
+                while (values.size() < index) {
+                    values.add(null);
+                }
+                values.set(index - 1, args[1]);
+                return null;
+            }
+            switch (name) {
+                case "close":
+                    closed = true;
+                    return null;
+                case "isClosed":
+                    return closed;
+                case "executeQuery":
+                    executions++;
+                    if (connection.executeFailure != null) {
+                        throw connection.executeFailure;
+                    }
+                    resultSet = new FakeResultSet(proxy, connection.rows);
+                    return resultSet.proxy;
+                case "getResultSet":
+                    return resultSet == null ? null : resultSet.proxy;
+                case "getGeneratedKeys":
+                    return new FakeResultSet(proxy, 1).proxy;
+                case "getConnection":
+                    return connection.proxy;
+                case "clearParameters":
+                    values.clear();
+                    return null;
+                case "setFetchSize":
+                case "setMaxFieldSize":
+                case "setMaxRows":
+                case "setQueryTimeout":
+                case "clearBatch":
+                case "clearWarnings":
+                    return null;
+                default:
+                    throw new UnsupportedOperationException(name);
+            }
+        }
+    }
+
+    static final class FakeResultSet implements InvocationHandler {
+
+        final ResultSet proxy = proxy(ResultSet.class, this);
+        final PreparedStatement statement;
+        final int rows;
+        int row;
+        boolean closed;
+
+        FakeResultSet(PreparedStatement statement, int rows) {
+            this.statement = statement;
+            this.rows = rows;
+        }
+
+        @Override
+        public Object invoke(Object p, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    closed = true;
+                    return null;
+                case "isClosed":
+                    return closed;
+                case "next":
+                    if (closed) {
+                        throw new SQLException("The ResultSet is closed");
+                    }
+                    return ++row <= rows;
+                case "getInt":
+                    return row;
+                case "getStatement":
+                    return statement;
+                default:
+                    throw new UnsupportedOperationException(method.getName());
+            }
+        }
+    }
+
+    private static <T> T proxy(Class<T> iface, InvocationHandler handler) {
+        final InvocationHandler withObjectMethods = (p, method, args) -> {
+            switch (method.getName()) {
+                case "equals":
+                    return p == args[0];
+                case "hashCode":
+                    return System.identityHashCode(p);
+                case "toString":
+                    return iface.getSimpleName() + "@" + Integer.toHexString(System.identityHashCode(p));
+                default:
+                    return handler.invoke(p, method, args);
+            }
+        };
+        return iface.cast(Proxy.newProxyInstance(FakeJdbc.class.getClassLoader(), new Class<?>[]{iface}, withObjectMethods));
+    }
+}
@@ -0,0 +1,207 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.core.db.impl;
+
+import com.speedment.core.db.impl.FakeJdbc.FakeConnection;
+import com.speedment.core.db.impl.FakeJdbc.FakeStatement;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author pemi
+ */
+public class PreparedStatementCacheTest {
+
+    private FakeConnection connection;
+    private PreparedStatementCache cache;
+
+    @Before
+    public void setUp() {
+        connection = new FakeConnection();
+        cache = new PreparedStatementCache(2);
+    }
+
+    /**
+     * Test that the least recently used statement is closed when the cache
+     * is full.
+     */
+    @Test
+    public void testEviction() throws SQLException {
+        prepare("a").close();
+        prepare("b").close();
+        prepare("a").close(); // b is now the least recently used
+        prepare("c").close();
+        assertEquals(2, cache.size());
+        assertFalse(physical("a").closed);
+        assertTrue(physical("b").closed);
+        assertFalse(physical("c").closed);
+        assertEquals(1, cache.getHitCount());
+        assertEquals(3, cache.getMissCount());
+
+        prepare("b").close();
+        assertEquals(4, connection.statements.size());
+        assertTrue(physical("a").closed);
+    }
+
+    /**
+     * Test that a statement that is evicted while it is checked out is not
+     * closed until it is handed back.
+     */
+    @Test
+    public void testEvictionWhileCheckedOut() throws SQLException {
+        final PreparedStatement a = prepare("a");
+        prepare("b").close();
+        prepare("c").close();
+        assertFalse(physical("a").closed);
+        assertFalse(a.isClosed());
+        a.close();
+        assertTrue(physical("a").closed);
+        assertEquals(2, cache.size());
+    }
+
+    /**
+     * Test that a statement whose key is checked out is prepared anew and
+     * closed rather than cached when it is handed back.
+     */
+    @Test
+    public void testCheckedOutKeyIsNotShared() throws SQLException {
+        final PreparedStatement first = prepare("a");
+        final PreparedStatement second = prepare("a");
+        assertEquals(2, connection.statements.size());
+        second.close();
+        assertTrue(connection.statements.get(1).closed);
+        first.close();
+        assertFalse(connection.statements.get(0).closed);
+        assertEquals(1, cache.size());
+    }
+
+    /**
+     * Test that a statement with changed settings that can not be restored
+     * is closed when it is handed back, and that the defaults of the settings
+     * that can be restored are.
+     */
+    @Test
+    public void testReset() throws SQLException {
+        final PreparedStatement modified = prepare("a");
+        modified.setMaxFieldSize(10);
+        modified.close();
+        assertTrue(physical("a").closed);
+        assertEquals(0, cache.size());
+
+        final PreparedStatement restored = prepare("b");
+        restored.setFetchSize(10);
+        restored.setInt(1, 42);
+        restored.close();
+        assertFalse(physical("b").closed);
+        assertTrue(physical("b").values.isEmpty());
+    }
+
+    /**
+     * Test that the overloads of prepareStatement are cached separately, that
+     * array arguments are compared by value and that the arguments are passed
+     * on when the statement is prepared.
+     */
+    @Test
+    public void testKeys() throws SQLException {
+        cache = new PreparedStatementCache(10);
+        prepare(PreparedStatementCache.Key.of("a", new int[]{1})).close();
+        prepare(PreparedStatementCache.Key.of("a", new int[]{1})).close();
+        prepare(PreparedStatementCache.Key.of("a", new String[]{"id"})).close();
+        prepare(PreparedStatementCache.Key.of("a", new String[]{"id"})).close();
+        prepare(PreparedStatementCache.Key.of("a", ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY, ResultSet.CLOSE_CURSORS_AT_COMMIT)).close();
+        prepare(PreparedStatementCache.Key.of("a", ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)).close();
+        prepare(PreparedStatementCache.Key.of("a", Statement.RETURN_GENERATED_KEYS)).close();
+        prepare(PreparedStatementCache.Key.of("a")).close();
+        assertEquals(6, cache.size());
+        assertEquals(2, cache.getHitCount());
+        assertEquals(6, connection.statements.size());
+        assertArrayEquals(new int[]{1}, (int[]) connection.statements.get(0).arguments.get(0));
+        assertArrayEquals(new Object[]{"id"}, (String[]) connection.statements.get(1).arguments.get(0));
+        assertEquals(
+            Arrays.asList(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY, ResultSet.CLOSE_CURSORS_AT_COMMIT),
+            connection.statements.get(2).arguments
+        );
+        assertTrue(connection.statements.get(5).arguments.isEmpty());
+
+        final int[] columnIndexes = {2};
+        prepare(PreparedStatementCache.Key.of("b", columnIndexes)).close();
+        columnIndexes[0] = 3; // The key keeps a copy
+        prepare(PreparedStatementCache.Key.of("b", new int[]{2})).close();
+        assertEquals(3, cache.getHitCount());
+    }
+
+    /**
+     * Test that the ResultSets of a cached statement report the cached
+     * statement as their statement, so that closing the statement through
+     * its ResultSet hands it back to the cache.
+     */
+    @Test
+    public void testResultSetStatement() throws SQLException {
+        connection.rows = 1;
+        final PreparedStatement statement = prepare("a");
+        final ResultSet rs = statement.executeQuery();
+        assertSame(statement, rs.getStatement());
+        assertSame(rs, statement.getResultSet());
+        assertTrue(rs.next());
+        assertEquals(1, rs.getInt(1));
+        assertSame(statement, statement.getGeneratedKeys().getStatement());
+        assertTrue(rs.isWrapperFor(CachedResultSet.class));
+
+        rs.getStatement().close();
+        assertTrue(statement.isClosed());
+        assertFalse(physical("a").closed);
+        assertTrue(physical("a").resultSet.closed);
+        assertEquals(1, cache.size());
+    }
+
+    /**
+     * Test that closing the cache closes all statements, including those
+     * that are checked out.
+     */
+    @Test
+    public void testClose() throws SQLException {
+        final PreparedStatement a = prepare("a");
+        prepare("b").close();
+        cache.close();
+        assertTrue(a.isClosed());
+        assertTrue(physical("a").closed);
+        assertTrue(physical("b").closed);
+        assertEquals(0, cache.size());
+    }
+
+    private PreparedStatement prepare(String sql) throws SQLException {
+        return prepare(PreparedStatementCache.Key.of(sql));
+    }
+
+    private PreparedStatement prepare(PreparedStatementCache.Key key) throws SQLException {
+        return cache.prepare(connection.proxy, connection.proxy, key);
+    }
+
+    private FakeStatement physical(String sql) {
+        return connection.statements.stream()
+            .filter(s -> s.sql.equals(sql))
+            .findFirst()
+            .get();
+    }
+}
@@ -0,0 +1,106 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.core.field.doubles;
+
+import com.speedment.core.config.model.Column;
+import com.speedment.core.config.model.impl.ColumnImpl;
+import java.util.Arrays;
+import java.util.function.Predicate;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests that the equal, in and between predicates of a DoubleField agree
+ * with each other and with {@link Double#compare(double, double)}.
+ *
+ * @author pemi
+ */
+public class DoubleFieldTest {
+
+    private static final double[] VALUES = {
+        Double.NEGATIVE_INFINITY, -1.5, -0.0, 0.0, Double.MIN_VALUE, 1.5,
+        Double.POSITIVE_INFINITY, Double.NaN, Double.longBitsToDouble(0x7ff8000000000001L)
+    };
+
+    private DoubleField<Double> field;
+
+    @Before
+    public void setUp() {
+        final Column column = new ColumnImpl();
+        column.setName("score");
+        field = new DoubleField<>(() -> column, d -> d);
+    }
+
+    /**
+     * Test that equal and in match exactly the values that Double.compare
+     * considers equal, so that the zeros differ and NaN matches NaN.
+     */
+    @Test
+    public void testEqualAndInAgree() {
+        for (final double operand : VALUES) {
+            for (final double value : VALUES) {
+                final boolean expected = Double.compare(value, operand) == 0;
+                final String message = value + " vs " + operand;
+                assertEquals(message, expected, field.equal(operand).test(value));
+                assertEquals(message, !expected, field.notEqual(operand).test(value));
+                assertEquals(message, expected, field.in(operand).test(value));
+                assertEquals(message, !expected, field.notIn(operand).test(value));
+                assertEquals(message, expected, field.between(operand, operand).test(value));
+            }
+        }
+        assertFalse(field.equal(0.0).test(-0.0));
+        assertTrue(field.equal(Double.NaN).test(Double.NaN));
+    }
+
+    /**
+     * Test that between includes its bounds and orders the values like
+     * Double.compare and the comparator of the field do.
+     */
+    @Test
+    public void testBetweenAgreesWithComparator() {
+        for (final double lower : VALUES) {
+            for (final double upper : VALUES) {
+                for (final double value : VALUES) {
+                    final boolean expected = Double.compare(value, lower) >= 0 && Double.compare(value, upper) <= 0;
+                    final String message = value + " in [" + lower + ", " + upper + "]";
+                    assertEquals(message, expected, field.between(lower, upper).test(value));
+                    assertEquals(message, !expected, field.notBetween(lower, upper).test(value));
+                    assertEquals(message, expected,
+                        field.comparator().compare(value, lower) >= 0 && field.comparator().compare(value, upper) <= 0);
+                }
+            }
+        }
+        assertTrue(field.between(-0.0, 0.0).test(0.0));
+        assertFalse(field.between(0.0, 1.0).test(-0.0));
+        assertTrue(field.greaterThan(Double.POSITIVE_INFINITY).test(Double.NaN));
+    }
+
+    /**
+     * Test that duplicates are removed from the values of an in predicate
+     * and that the zeros and the NaN values are told apart like by
+     * Double.compare.
+     */
+    @Test
+    public void testInValues() {
+        final DoubleSetPredicateBuilder<Double> in = field.in(1.5, 1.5, 0.0, -0.0, Double.NaN, Double.longBitsToDouble(0x7ff8000000000001L));
+        assertEquals(Arrays.asList(1.5, 0.0, -0.0, Double.NaN), in.getValuesAsObjects());
+        final Predicate<Double> empty = field.in();
+        assertFalse(empty.test(0.0));
+        assertTrue(field.notIn().test(0.0));
+    }
+}
@@ -0,0 +1,283 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.core.manager;
+
+import com.speedment.core.config.model.Dbms;
+import com.speedment.core.config.model.Schema;
+import com.speedment.core.config.model.Table;
+import com.speedment.core.db.AsynchronousQueryResult;
+import com.speedment.core.db.DbmsHandler;
+import com.speedment.core.db.impl.SqlFunction;
+import com.speedment.core.exception.SpeedmentException;
+import com.speedment.core.manager.sql.SqlUpdateStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * A DbmsHandler that records the SQL it is asked to execute. Queries are
+ * answered with the rows returned by a configurable responder and updates
+ * report that they affected one row each.
+ *
+ * @author pemi
+ */
+public class FakeDbmsHandler implements DbmsHandler {
+
+    private final Dbms dbms;
+    private final List<Query> queries;
+    private final List<List<SqlUpdateStatement>> batches;
+    private Function<String, List<Object[]>> responder;
+    private int failingBatch = -1;
+
+    public FakeDbmsHandler() {
+        this.dbms = Dbms.newDbms();
+        this.queries = new ArrayList<>();
+        this.batches = new ArrayList<>();
+        this.responder = sql -> Collections.emptyList();
+    }
+
+    /**
+     * Sets the function that returns the rows of a query given its SQL text.
+     *
+     * @param responder the responder
+     */
+    public void respond(Function<String, List<Object[]>> responder) {
+        this.responder = Objects.requireNonNull(responder);
+    }
+
+    /**
+     * Makes the batch with the given index, counted from zero, fail with an
+     * SQLException. The failing batch is still recorded.
+     *
+     * @param failingBatch the index of the batch that shall fail
+     */
+    public void failBatch(int failingBatch) {
+        this.failingBatch = failingBatch;
+    }
+
+    /**
+     * Returns the queries that have been executed, in order.
+     *
+     * @return the executed queries
+     */
+    public List<Query> getQueries() {
+        return queries;
+    }
+
+    /**
+     * Returns the last query that was executed.
+     *
+     * @return the last query
+     */
+    public Query lastQuery() {
+        return queries.get(queries.size() - 1);
+    }
+
+    /**
+     * Returns the statement lists that have been executed by
+     * {@link #executeBatch(List, int)}, in order.
+     *
+     * @return the executed statement lists
+     */
+    public List<List<SqlUpdateStatement>> getBatches() {
+        return batches;
+    }
+
+    @Override
+    public Dbms getDbms() {
+        return dbms;
+    }
+
+    @Override
+    public <T> Stream<T> executeQuery(String sql, SqlFunction<ResultSet, T> rsMapper) {
+        return executeQuery(sql, Collections.emptyList(), rsMapper);
+    }
+
+    @Override
+    public <T> Stream<T> executeQuery(String sql, List<?> values, SqlFunction<ResultSet, T> rsMapper) {
+        return query(sql, values, rsMapper.unWrap());
+    }
+
+    @Override
+    public <T> AsynchronousQueryResult<T> executeQueryAsync(String sql, List<?> values, Function<ResultSet, T> rsMapper) {
+        return new FakeQueryResult<>(sql, values, rsMapper);
+    }
+
+    @Override
+    public void executeBatch(List<SqlUpdateStatement> sqlStatementList, int batchSize) throws SQLException {
+        batches.add(new ArrayList<>(sqlStatementList));
+        if (batches.size() - 1 == failingBatch) {
+            throw new SQLException("Batch " + failingBatch + " failed");
+        }
+        sqlStatementList.forEach(s -> s.setUpdateCount(1));
+    }
+
+    private <T> Stream<T> query(String sql, List<?> values, Function<ResultSet, T> rsMapper) {
+        queries.add(new Query(sql, new ArrayList<>(values)));
+        final ResultSet rs = FakeResultSet.of(responder.apply(sql));
+        final List<T> result = new ArrayList<>();
+        try {
+            while (rs.next()) {
+                result.add(rsMapper.apply(rs));
+            }
+        } catch (SQLException sqle) {
+            throw new SpeedmentException(sqle);
+        }
+        return result.stream();
+    }
+
+    @Override
+    public Stream<Schema> schemas() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Stream<Schema> schemasPopulated() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public <ENTITY> long readAll(Consumer<ENTITY> consumer) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public <PK> ResultSet read(Table table, PK primaryKey) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public <ENTITY> void insert(Table table, ENTITY entity) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public <ENTITY> void update(Table table, ENTITY entity) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public <ENTITY> void delete(Table table, ENTITY entity) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void executeUpdate(String sql, Consumer<List<Long>> generatedKeyConsumer) throws SQLException {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void executeUpdate(String sql, List<?> values, Consumer<List<Long>> generatedKeyConsumer) throws SQLException {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * The SQL text and parameter values of an executed query.
+     */
+    public static final class Query {
+
+        private final String sql;
+        private final List<Object> values;
+
+        private Query(String sql, List<Object> values) {
+            this.sql = sql;
+            this.values = values;
+        }
+
+        public String getSql() {
+            return sql;
+        }
+
+        public List<Object> getValues() {
+            return values;
+        }
+
+        @Override
+        public String toString() {
+            return sql + " <- " + values;
+        }
+    }
+
+    private final class FakeQueryResult<T> implements AsynchronousQueryResult<T> {
+
+        private String sql;
+        private List<?> values;
+        private Function<ResultSet, T> rsMapper;
+        private int fetchSize;
+
+        private FakeQueryResult(String sql, List<?> values, Function<ResultSet, T> rsMapper) {
+            this.sql = sql;
+            this.values = values;
+            this.rsMapper = rsMapper;
+        }
+
+        @Override
+        public Stream<T> stream() {
+            return query(sql, values, rsMapper);
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public String getSql() {
+            return sql;
+        }
+
+        @Override
+        public void setSql(String sql) {
+            this.sql = sql;
+        }
+
+        @Override
+        public List<?> getValues() {
+            return values;
+        }
+
+        @Override
+        public void setValues(List<?> values) {
+            this.values = values;
+        }
+
+        @Override
+        public Function<ResultSet, T> getRsMapper() {
+            return rsMapper;
+        }
+
+        @Override
+        public void setRsMapper(Function<ResultSet, T> rsMapper) {
+            this.rsMapper = rsMapper;
+        }
+
+        @Override
+        public int getFetchSize() {
+            return fetchSize;
+        }
+
+        @Override
+        public void setFetchSize(int fetchSize) {
+            this.fetchSize = fetchSize;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.core.manager;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * A forward only ResultSet over rows of values that are read by column
+ * ordinal. Only the getters that the managers and stream terminators use are
+ * implemented.
+ *
+ * @author pemi
+ */
+public final class FakeResultSet implements InvocationHandler {
+
+    private final List<Object[]> rows;
+    private int row = -1;
+    private boolean wasNull;
+    private boolean closed;
+
+    private FakeResultSet(List<Object[]> rows) {
+        this.rows = rows;
+    }
+
+    public static ResultSet of(List<Object[]> rows) {
+        return (ResultSet) Proxy.newProxyInstance(
+            FakeResultSet.class.getClassLoader(),
+            new Class<?>[]{ResultSet.class},
+            new FakeResultSet(rows)
+        );
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        switch (method.getName()) {
+            case "next":
+                if (closed) {
+                    throw new SQLException("The ResultSet is closed");
+                }
+                return ++row < rows.size();
+            case "close":
+                closed = true;
+                return null;
+            case "isClosed":
+                return closed;
+            case "wasNull":
+                return wasNull;
+            case "toString":
+                return "FakeResultSet {row=" + row + ", rows=" + rows.size() + "}";
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "equals":
+                return proxy == args[0];
+            default:
+        }
+        if (!method.getName().startsWith("get") || args == null || args.length != 1 || !(args[0] instanceof Integer)) {
+            throw new UnsupportedOperationException(method.getName());
+        }
+        final Object value = rows.get(row)[(Integer) args[0] - 1];
+        wasNull = value == null;
+        final Class<?> type = method.getReturnType();
+        if (type == int.class) {
+            return value == null ? 0 : ((Number) value).intValue();
+        } else if (type == long.class) {
+            return value == null ? 0L : ((Number) value).longValue();
+        } else if (type == double.class) {
+            return value == null ? 0d : ((Number) value).doubleValue();
+        } else if (type == boolean.class) {
+            return value == null ? false : (Boolean) value;
+        } else if (type == BigDecimal.class) {
+            return value == null ? null : new BigDecimal(value.toString());
+        } else if (type == String.class) {
+            return value == null ? null : value.toString();
+        }
+        return value;
+    }
+}
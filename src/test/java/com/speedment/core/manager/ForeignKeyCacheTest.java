@@ -0,0 +1,129 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.core.manager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author pemi
+ */
+public class ForeignKeyCacheTest {
+
+    private List<List<Integer>> loads;
+    private ForeignKeyCache<String, Integer, Integer> cache;
+
+    @Before
+    public void setUp() {
+        loads = new ArrayList<>();
+        // The entity "child:n" refers to the foreign entity n, which exists if n is even
+        cache = new ForeignKeyCache<>(
+            child -> child.endsWith(":") ? null : Integer.valueOf(child.substring(child.indexOf(':') + 1)),
+            this::load,
+            foreign -> foreign,
+            3
+        );
+    }
+
+    private Collection<Integer> load(Collection<Integer> keys) {
+        loads.add(new ArrayList<>(keys));
+        return keys.stream().filter(k -> k % 2 == 0).collect(Collectors.toList());
+    }
+
+    /**
+     * Test that the foreign entities are loaded once per chunk, before the
+     * entities of the chunk are passed on, and that each key is only loaded
+     * once.
+     */
+    @Test
+    public void testPrefetch() {
+        final List<Integer> loadsSeen = new ArrayList<>();
+        final List<Optional<Integer>> found = new ArrayList<>();
+        cache.prefetch(Stream.of("a:2", "b:2", "c:4", "d:1", "e:", "f:4", "g:6"))
+            .forEachOrdered(child -> {
+                loadsSeen.add(loads.size());
+                found.add(cache.find(child));
+            });
+        assertEquals(Arrays.asList(
+            Arrays.asList(2, 4),
+            Collections.singletonList(1),
+            Collections.singletonList(6)
+        ), loads);
+        assertEquals(Arrays.asList(1, 1, 1, 2, 2, 2, 3), loadsSeen);
+        assertEquals(Arrays.asList(
+            Optional.of(2), Optional.of(2), Optional.of(4), Optional.empty(), Optional.empty(), Optional.of(4), Optional.of(6)
+        ), found);
+        assertEquals(4, cache.size());
+    }
+
+    /**
+     * Test that a key without a foreign entity is remembered and not loaded
+     * again, and that entities without a foreign key load nothing.
+     */
+    @Test
+    public void testFind() {
+        assertEquals(Optional.of(2), cache.find("a:2"));
+        assertEquals(Optional.empty(), cache.find("b:3"));
+        assertEquals(Optional.empty(), cache.find("c:3"));
+        assertEquals(Optional.empty(), cache.find("d:"));
+        assertEquals(Optional.of(2), cache.find("e:2"));
+        assertEquals(Arrays.asList(Collections.singletonList(2), Collections.singletonList(3)), loads);
+    }
+
+    /**
+     * Test that the entities are only read from the source stream one chunk
+     * at a time and that closing the prefetching stream closes the source.
+     */
+    @Test
+    public void testLaziness() {
+        final AtomicInteger read = new AtomicInteger();
+        final AtomicBoolean closed = new AtomicBoolean();
+        final Stream<String> source = Stream.iterate(0, i -> i + 1)
+            .map(i -> "c:" + i)
+            .peek(c -> read.incrementAndGet())
+            .onClose(() -> closed.set(true));
+        try (final Stream<String> prefetched = cache.prefetch(source)) {
+            assertEquals(Arrays.asList("c:0", "c:1", "c:2", "c:3"), prefetched.limit(4).collect(Collectors.toList()));
+        }
+        assertEquals(6, read.get());
+        assertEquals(2, loads.size());
+        assertTrue(closed.get());
+    }
+
+    @Test
+    public void testEmpty() {
+        assertEquals(0, cache.prefetch(Stream.empty()).count());
+        assertTrue(loads.isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testChunkSize() {
+        new ForeignKeyCache<String, Integer, Integer>(c -> 1, keys -> keys, f -> f, 0);
+    }
+}
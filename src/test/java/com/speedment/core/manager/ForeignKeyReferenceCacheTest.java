@@ -0,0 +1,119 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.core.manager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author pemi
+ */
+public class ForeignKeyReferenceCacheTest {
+
+    private List<List<Integer>> loads;
+    private ForeignKeyReferenceCache<Integer, Integer, String> cache;
+
+    @Before
+    public void setUp() {
+        loads = new ArrayList<>();
+        // Each parent n has the children "n:0" ... "n:(n-1)"
+        cache = new ForeignKeyReferenceCache<>(
+            parent -> parent,
+            this::load,
+            child -> Integer.valueOf(child.substring(0, child.indexOf(':'))),
+            2
+        );
+    }
+
+    private Collection<String> load(Collection<Integer> keys) {
+        loads.add(new ArrayList<>(keys));
+        return keys.stream()
+            .flatMap(k -> Stream.iterate(0, i -> i + 1).limit(k).map(i -> k + ":" + i))
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Test that the children of a stream of parents are loaded once per chunk
+     * and that the children of earlier chunks are dropped.
+     */
+    @Test
+    public void testPrefetch() {
+        final List<String> children = new ArrayList<>();
+        final List<Integer> sizes = new ArrayList<>();
+        cache.prefetch(Stream.of(1, 2, 3, 4, 5)).forEachOrdered(parent -> {
+            cache.find(parent).forEachOrdered(children::add);
+            sizes.add(cache.size());
+        });
+        assertEquals(Arrays.asList(Arrays.asList(1, 2), Arrays.asList(3, 4), Collections.singletonList(5)), loads);
+        assertEquals(15, children.size());
+        assertEquals(Arrays.asList("3:0", "3:1", "3:2"), children.subList(3, 6));
+        assertEquals(Arrays.asList(2, 2, 2, 2, 1), sizes);
+    }
+
+    /**
+     * Test that a key that appears in consecutive chunks is neither dropped
+     * nor loaded again.
+     */
+    @Test
+    public void testPrefetchRepeatedKeys() {
+        final long count = cache.prefetch(Stream.of(2, 2, 2, 3, 3)).flatMap(cache::find).count();
+        assertEquals(2 + 2 + 2 + 3 + 3, count);
+        assertEquals(Arrays.asList(Collections.singletonList(2), Collections.singletonList(3)), loads);
+    }
+
+    /**
+     * Test that the children of a dropped chunk are loaded again by find.
+     */
+    @Test
+    public void testFindAfterDrop() {
+        final List<Integer> parents = cache.prefetch(Stream.of(1, 2, 3)).collect(Collectors.toList());
+        assertEquals(Arrays.asList(1, 2, 3), parents);
+        assertEquals(Collections.singletonList("1:0"), cache.find(1).collect(Collectors.toList()));
+        assertEquals(Collections.singletonList(1), loads.get(loads.size() - 1));
+        cache.find(1).count();
+        assertEquals(3, loads.size());
+    }
+
+    /**
+     * Test that a parent without key has no children and that a parent
+     * without children is only loaded once.
+     */
+    @Test
+    public void testFindWithoutChildren() {
+        assertEquals(0, cache.find(null).count());
+        assertEquals(0, cache.find(0).count());
+        assertEquals(0, cache.find(0).count());
+        assertEquals(Collections.singletonList(Collections.singletonList(0)), loads);
+    }
+
+    /**
+     * Test that the chunk size must be positive.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testIllegalChunkSize() {
+        new ForeignKeyReferenceCache<Integer, Integer, String>(p -> p, this::load, c -> 0, 0);
+    }
+}
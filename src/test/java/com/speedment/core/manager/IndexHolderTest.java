@@ -0,0 +1,144 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.core.manager;
+
+import com.speedment.core.config.model.Column;
+import com.speedment.core.config.model.parameters.StorageEngineType;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import static java.util.stream.Collectors.toList;
+import java.util.stream.Stream;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests that the index holders keep each entity under its current key only,
+ * both when used directly and when kept up to date by the Manager.
+ *
+ * @author pemi
+ */
+public class IndexHolderTest {
+
+    private PersonManager manager;
+
+    @Before
+    public void setUp() {
+        manager = new PersonManager();
+    }
+
+    /**
+     * Test that a key with several entities keeps the other entities when
+     * one is removed and that a key without entities is dropped.
+     */
+    @Test
+    public void testKeyIndexHolder() {
+        final KeyIndexHolder<Integer, Long, Person> holder = new KeyIndexHolder<>(manager);
+        holder.put(30, person(1, 30));
+        holder.put(30, person(2, 30));
+        holder.put(40, person(3, 40));
+        assertEquals(Arrays.asList(1L, 2L), ids(holder.stream(30)));
+
+        // A new version of an entity replaces the previous one under its key
+        holder.put(30, new Person(1L, "Ann", 30, 1.0));
+        assertEquals(Arrays.asList(1L, 2L), ids(holder.stream(30)));
+        assertEquals(1.0, holder.stream(30).filter(p -> p.getId() == 1L).findFirst().get().getScore(), 0.0);
+
+        // Entities are removed by primary key, so any version removes them
+        holder.remove(30, person(1, 99));
+        assertEquals(Collections.singletonList(2L), ids(holder.stream(30)));
+        holder.remove(30, person(3, 40));
+        assertEquals(Collections.singletonList(2L), ids(holder.stream(30)));
+        holder.remove(30, person(2, 30));
+        assertEquals(0, holder.stream(30).count());
+        assertEquals(Collections.singletonList(3L), ids(holder.stream()));
+
+        holder.remove(50, person(3, 40));
+        holder.clear();
+        assertEquals(0, holder.stream().count());
+    }
+
+    /**
+     * Test that a unique key is only removed by the entity that holds it,
+     * so that removing the previous holder of a key that has been taken
+     * over by another entity keeps the new holder.
+     */
+    @Test
+    public void testUniqueKeyIndexHolder() {
+        final UniqueKeyIndexHolder<String, Long, Person> holder = new UniqueKeyIndexHolder<>(manager);
+        holder.put("a", person(1, 30));
+        holder.put("a", person(2, 30));
+        holder.remove("a", person(1, 30));
+        assertEquals(Collections.singletonList(2L), ids(holder.stream("a")));
+        holder.remove("a", person(2, 99));
+        assertEquals(0, holder.stream("a").count());
+        holder.remove("b", person(2, 30));
+        assertEquals(0, holder.stream().count());
+    }
+
+    /**
+     * Test that updates move an entity from the keys of its stored version to
+     * its new keys and that deletes remove it from the keys of its stored
+     * version, even if the deleted entity only has its primary key set.
+     */
+    @Test
+    public void testManagerEvents() {
+        final StorageEngineType storageEngineType = Person.TABLE.getStorageEngineType();
+        Person.TABLE.setStorageEngineType(StorageEngineType.ON_HEAP);
+        try {
+            manager.getDbmsHandler().respond(sql -> Arrays.asList(
+                new Person(1L, "a", 30, null).toRow(),
+                new Person(2L, "b", 30, null).toRow(),
+                new Person(3L, "c", 40, null).toRow()
+            ));
+            manager.start();
+            final List<Column> byAge = Collections.singletonList(Person.AGE_COLUMN);
+            final List<Column> byName = Collections.singletonList(Person.NAME_COLUMN);
+            manager.addIndex(byAge, new KeyIndexHolder<>(manager), manager.stream());
+            manager.addIndex(byName, new UniqueKeyIndexHolder<>(manager), manager.stream());
+            final IndexHolder<Object, Long, Person> ages = manager.getIndexes().get(byAge);
+            final IndexHolder<Object, Long, Person> names = manager.getIndexes().get(byName);
+
+            assertTrue(manager.update(new Person(1L, "d", 40, null)).isPresent());
+            assertEquals(Collections.singletonList(2L), ids(ages.stream(30)));
+            assertEquals(Arrays.asList(1L, 3L), ids(ages.stream(40)));
+            assertEquals(0, names.stream("a").count());
+            assertEquals(Collections.singletonList(1L), ids(names.stream("d")));
+
+            assertTrue(manager.remove(new Person(3L, null, null, null)).isPresent());
+            assertEquals(Collections.singletonList(1L), ids(ages.stream(40)));
+            assertEquals(0, names.stream("c").count());
+
+            // A null value is not indexed
+            assertTrue(manager.update(new Person(2L, null, null, null)).isPresent());
+            assertEquals(0, ages.stream(30).count());
+            assertEquals(Collections.singletonList(1L), ids(names.stream()));
+        } finally {
+            manager.stop();
+            Person.TABLE.setStorageEngineType(storageEngineType);
+        }
+    }
+
+    private static Person person(long id, int age) {
+        return new Person(id, "P" + id, age, null);
+    }
+
+    private static List<Long> ids(Stream<Person> persons) {
+        return persons.map(Person::getId).sorted().collect(toList());
+    }
+}
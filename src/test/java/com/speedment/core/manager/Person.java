@@ -0,0 +1,196 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.core.manager;
+
+import com.speedment.core.config.model.Column;
+import com.speedment.core.config.model.Dbms;
+import com.speedment.core.config.model.PrimaryKeyColumn;
+import com.speedment.core.config.model.Schema;
+import com.speedment.core.config.model.Table;
+import com.speedment.core.config.model.impl.ColumnImpl;
+import com.speedment.core.core.Buildable;
+import com.speedment.core.field.reference.ComparableReferenceField;
+import com.speedment.core.field.reference.string.StringReferenceField;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A mutable entity that is its own builder, used by the tests of the managers,
+ * the entity stores and the stream terminators. The id column is not nullable,
+ * all other columns are.
+ *
+ * @author pemi
+ */
+public class Person implements Buildable<Person> {
+
+    public static final Column ID_COLUMN = column("id", Long.class, false, 1);
+    public static final Column NAME_COLUMN = column("name", String.class, true, 2);
+    public static final Column AGE_COLUMN = column("age", Integer.class, true, 3);
+    public static final Column SCORE_COLUMN = column("score", Double.class, true, 4);
+    public static final List<Column> COLUMNS = Collections.unmodifiableList(
+        Arrays.asList(ID_COLUMN, NAME_COLUMN, AGE_COLUMN, SCORE_COLUMN)
+    );
+    public static final Table TABLE = table();
+
+    public static final ComparableReferenceField<Person, Long> ID = new ComparableReferenceField<>(() -> ID_COLUMN, Person::getId);
+    public static final StringReferenceField<Person> NAME = new StringReferenceField<>(() -> NAME_COLUMN, Person::getName);
+    public static final ComparableReferenceField<Person, Integer> AGE = new ComparableReferenceField<>(() -> AGE_COLUMN, Person::getAge);
+    public static final ComparableReferenceField<Person, Double> SCORE = new ComparableReferenceField<>(() -> SCORE_COLUMN, Person::getScore);
+
+    private Long id;
+    private String name;
+    private Integer age;
+    private Double score;
+
+    public Person() {
+    }
+
+    public Person(Long id, String name, Integer age, Double score) {
+        this.id = id;
+        this.name = name;
+        this.age = age;
+        this.score = score;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Person setId(Long id) {
+        this.id = id;
+        return this;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Person setName(String name) {
+        this.name = name;
+        return this;
+    }
+
+    public Integer getAge() {
+        return age;
+    }
+
+    public Person setAge(Integer age) {
+        this.age = age;
+        return this;
+    }
+
+    public Double getScore() {
+        return score;
+    }
+
+    public Person setScore(Double score) {
+        this.score = score;
+        return this;
+    }
+
+    public Object get(Column column) {
+        switch (column.getName()) {
+            case "id":
+                return id;
+            case "name":
+                return name;
+            case "age":
+                return age;
+            case "score":
+                return score;
+            default:
+                throw new IllegalArgumentException(column.getName());
+        }
+    }
+
+    public Person set(Column column, Object value) {
+        switch (column.getName()) {
+            case "id":
+                return setId((Long) value);
+            case "name":
+                return setName((String) value);
+            case "age":
+                return setAge((Integer) value);
+            case "score":
+                return setScore((Double) value);
+            default:
+                throw new IllegalArgumentException(column.getName());
+        }
+    }
+
+    public Object[] toRow() {
+        return new Object[]{id, name, age, score};
+    }
+
+    public Person copy() {
+        return new Person(id, name, age, score);
+    }
+
+    @Override
+    public Person build() {
+        return this;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, name, age, score);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (!(obj instanceof Person)) {
+            return false;
+        }
+        final Person that = (Person) obj;
+        return Objects.equals(id, that.id)
+            && Objects.equals(name, that.name)
+            && Objects.equals(age, that.age)
+            && Objects.equals(score, that.score);
+    }
+
+    @Override
+    public String toString() {
+        return "Person {id=" + id + ", name=" + name + ", age=" + age + ", score=" + score + "}";
+    }
+
+    private static Column column(String name, Class<?> mapping, boolean nullable, int ordinal) {
+        final Column column = new ColumnImpl();
+        column.setName(name);
+        column.setMapping(mapping);
+        column.setNullable(nullable);
+        column.setOrdinalPosition(ordinal);
+        return column;
+    }
+
+    private static Table table() {
+        final Dbms dbms = Dbms.newDbms();
+        dbms.setName("test");
+        final Schema schema = Schema.newSchema();
+        schema.setName("db");
+        dbms.add(schema);
+        final Table table = Table.newTable();
+        table.setName("person");
+        schema.add(table);
+        COLUMNS.forEach(table::add);
+        final PrimaryKeyColumn primaryKey = PrimaryKeyColumn.newPrimaryKeyColumn();
+        primaryKey.setName(ID_COLUMN.getName());
+        table.add(primaryKey);
+        return table;
+    }
+}
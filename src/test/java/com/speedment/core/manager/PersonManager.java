@@ -0,0 +1,102 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.core.manager;
+
+import com.speedment.core.config.model.Column;
+import com.speedment.core.config.model.Table;
+import com.speedment.core.db.DbmsHandler;
+import com.speedment.core.manager.sql.AbstractSqlManager;
+
+/**
+ * A Manager of {@link Person} entities that sends its SQL to a
+ * {@link FakeDbmsHandler} so that the statements it generates can be
+ * inspected.
+ *
+ * @author pemi
+ */
+public class PersonManager extends AbstractSqlManager<Long, Person, Person> {
+
+    private final FakeDbmsHandler dbmsHandler;
+
+    public PersonManager() {
+        this(new FakeDbmsHandler());
+    }
+
+    public PersonManager(FakeDbmsHandler dbmsHandler) {
+        this.dbmsHandler = dbmsHandler;
+        setSqlEntityMapper(rs -> new Person(
+            getLong(rs, 1),
+            getString(rs, 2),
+            getInt(rs, 3),
+            getDouble(rs, 4)
+        ));
+    }
+
+    public FakeDbmsHandler getDbmsHandler() {
+        return dbmsHandler;
+    }
+
+    @Override
+    protected DbmsHandler dbmsHandler() {
+        return dbmsHandler;
+    }
+
+    @Override
+    public Long primaryKeyFor(Person entity) {
+        return entity.getId();
+    }
+
+    @Override
+    public Object get(Person entity, Column column) {
+        return entity.get(column);
+    }
+
+    @Override
+    public void set(Person builder, Column column, Object value) {
+        builder.set(column, value);
+    }
+
+    @Override
+    public Table getTable() {
+        return Person.TABLE;
+    }
+
+    @Override
+    public Class<PersonManager> getManagerClass() {
+        return PersonManager.class;
+    }
+
+    @Override
+    public Class<Person> getEntityClass() {
+        return Person.class;
+    }
+
+    @Override
+    public Class<Person> getBuilderClass() {
+        return Person.class;
+    }
+
+    @Override
+    public Person builder() {
+        return new Person();
+    }
+
+    @Override
+    public Person toBuilder(Person entity) {
+        return entity.copy();
+    }
+}
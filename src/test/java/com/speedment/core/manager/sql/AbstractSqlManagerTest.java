@@ -0,0 +1,175 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.core.manager.sql;
+
+import com.speedment.core.config.model.parameters.ColumnCompressionType;
+import com.speedment.core.manager.FakeDbmsHandler;
+import com.speedment.core.manager.Person;
+import com.speedment.core.manager.PersonManager;
+import com.speedment.core.manager.metaresult.MetaResult;
+import com.speedment.util.Deduplicator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests of the bulk persistence methods of the AbstractSqlManager.
+ *
+ * @author pemi
+ */
+public class AbstractSqlManagerTest {
+
+    private PersonManager manager;
+    private FakeDbmsHandler handler;
+
+    @Before
+    public void setUp() {
+        manager = new PersonManager();
+        handler = manager.getDbmsHandler();
+        manager.setBatchSize(3);
+    }
+
+    /**
+     * Test that updates are executed in chunks of the batch size as the
+     * stream is consumed, rather than after the whole stream is collected.
+     */
+    @Test
+    public void testUpdateAllChunks() {
+        final AtomicInteger consumed = new AtomicInteger();
+        final List<Integer> consumedAtBatch = new ArrayList<>();
+        final Stream<Person> persons = persons(7).peek(p -> {
+            if (consumed.getAndIncrement() % 3 == 0) {
+                consumedAtBatch.add(handler.getBatches().size());
+            }
+        });
+        final List<Person> result = manager.updateAll(persons);
+        assertEquals(persons(7).collect(Collectors.toList()), result);
+        assertEquals(3, handler.getBatches().size());
+        assertEquals(3, handler.getBatches().get(0).size());
+        assertEquals(3, handler.getBatches().get(1).size());
+        assertEquals(1, handler.getBatches().get(2).size());
+        // The first entity of each chunk is read after the previous chunk ran
+        assertEquals(0, (int) consumedAtBatch.get(0));
+        assertEquals(1, (int) consumedAtBatch.get(1));
+        assertEquals(2, (int) consumedAtBatch.get(2));
+    }
+
+    /**
+     * Test that a chunk that fails stops the consumption of the stream, that
+     * the entities of the committed chunks are returned and that the
+     * listener is informed of the failure.
+     */
+    @Test
+    public void testRemoveAllStopsAtFailedChunk() {
+        handler.failBatch(1);
+        final List<MetaResult<Person>> metas = new ArrayList<>();
+        final AtomicInteger consumed = new AtomicInteger();
+        final List<Person> result = manager.removeAll(persons(10).peek(p -> consumed.incrementAndGet()), metas::add);
+        assertEquals(persons(3).collect(Collectors.toList()), result);
+        assertEquals(2, handler.getBatches().size());
+        assertEquals(6, consumed.get());
+        assertEquals(6, metas.size());
+        assertFalse(metas.get(2).getSqlMetaResult().get().getThrowable().isPresent());
+        assertTrue(metas.get(3).getSqlMetaResult().get().getThrowable().isPresent());
+    }
+
+    /**
+     * Test that multi-row inserts are executed in chunks of the batch size
+     * and that each chunk is inserted by its own statements.
+     */
+    @Test
+    public void testPersistAllMultiRowChunks() {
+        final List<Person> result = manager.persistAll(persons(5));
+        assertEquals(persons(5).collect(Collectors.toList()), result);
+        final List<List<SqlUpdateStatement>> batches = handler.getBatches();
+        assertEquals(2, batches.size());
+        assertEquals(2, batches.get(0).size());
+        assertEquals(8, batches.get(0).get(0).getValues().size());
+        assertEquals(4, batches.get(0).get(1).getValues().size());
+        assertEquals(1, batches.get(1).size());
+        assertEquals(8, batches.get(1).get(0).getValues().size());
+    }
+
+    /**
+     * Test that the rows of a chunk are split into multi-row inserts whose
+     * row counts are powers of two, in order.
+     */
+    @Test
+    public void testPersistAllMultiRowPowerOfTwo() {
+        manager.setBatchSize(1000);
+        final List<Person> result = manager.persistAll(persons(13));
+        assertEquals(persons(13).collect(Collectors.toList()), result);
+        assertEquals(1, handler.getBatches().size());
+        final List<SqlUpdateStatement> statements = handler.getBatches().get(0);
+        assertEquals(3, statements.size());
+        assertEquals(Arrays.asList(8, 4, 1), statements.stream()
+            .map(s -> s.getValues().size() / Person.COLUMNS.size())
+            .collect(Collectors.toList()));
+        assertEquals(1L, statements.get(0).getValues().get(0));
+        assertEquals(9L, statements.get(1).getValues().get(0));
+        assertEquals(13L, statements.get(2).getValues().get(0));
+        for (final SqlUpdateStatement statement : statements) {
+            final int rows = statement.getValues().size() / Person.COLUMNS.size();
+            assertEquals(rows, statement.getSql().split("\\(\\?").length - 1);
+        }
+    }
+
+    /**
+     * Test that an empty stream executes nothing.
+     */
+    @Test
+    public void testEmpty() {
+        assertTrue(manager.persistAll(Stream.empty()).isEmpty());
+        assertTrue(manager.updateAll(Stream.empty()).isEmpty());
+        assertTrue(handler.getBatches().isEmpty());
+    }
+
+    /**
+     * Test that entities that are streamed from the database are not
+     * deduplicated, since they are not kept by the Manager.
+     */
+    @Test
+    public void testNoDeduplicationWithoutStore() {
+        final ColumnCompressionType type = Person.NAME_COLUMN.getColumnCompressionType();
+        Person.NAME_COLUMN.setColumnCompressionType(ColumnCompressionType.DEDUPLICATION);
+        try {
+            final PersonManager other = new PersonManager(handler);
+            handler.respond(sql -> Arrays.asList(
+                new Person(1L, new String("Ann"), null, null).toRow(),
+                new Person(2L, new String("Ann"), null, null).toRow()
+            ));
+            final List<Person> result = other.stream().collect(Collectors.toList());
+            assertEquals("Ann", result.get(1).getName());
+            assertNotSame(result.get(0).getName(), result.get(1).getName());
+            final Deduplicator<Object> deduplicator = other.getDeduplicator(Person.NAME_COLUMN).get();
+            assertEquals(0, deduplicator.getHitCount() + deduplicator.getMissCount());
+        } finally {
+            Person.NAME_COLUMN.setColumnCompressionType(type);
+        }
+    }
+
+    private static Stream<Person> persons(int count) {
+        return LongStream.rangeClosed(1, count).mapToObj(id -> new Person(id, "P" + id, (int) id, null));
+    }
+}
@@ -0,0 +1,357 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.core.manager.sql;
+
+import com.speedment.core.config.model.Dbms;
+import com.speedment.core.config.model.parameters.DbmsType;
+import com.speedment.core.manager.FakeDbmsHandler;
+import com.speedment.core.manager.FakeDbmsHandler.Query;
+import com.speedment.core.manager.Person;
+import com.speedment.core.manager.PersonManager;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.OptionalInt;
+import java.util.OptionalLong;
+import java.util.stream.Collectors;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests of the SQL and the parameter values that the SqlStreamTerminator
+ * pushes down to the database.
+ *
+ * @author pemi
+ */
+public class SqlStreamTerminatorTest {
+
+    private static final String SELECT = "select id,name,age,score from db.person";
+
+    private PersonManager manager;
+    private FakeDbmsHandler handler;
+    private List<Object[]> rows;
+
+    @Before
+    public void setUp() {
+        manager = new PersonManager();
+        handler = manager.getDbmsHandler();
+        rows = Arrays.asList(
+            new Person(1L, "Ann", 30, 1.5).toRow(),
+            new Person(2L, null, null, null).toRow()
+        );
+        handler.respond(sql -> rows);
+    }
+
+    /**
+     * Test that a leading mapping to a field selects only its column, which
+     * is read by ordinal, and that NULLs are kept.
+     */
+    @Test
+    public void testProjectReference() {
+        rows = Arrays.asList(new Object[]{"Ann"}, new Object[]{null});
+        final List<String> names = manager.stream()
+            .filter(Person.AGE.greaterThan(18))
+            .map(Person.NAME)
+            .collect(Collectors.toList());
+        assertEquals(Arrays.asList("Ann", null), names);
+        assertQuery("select name from db.person where (age > ?)", 18);
+    }
+
+    /**
+     * Test that a mapping to a primitive is pushed down for a column that is
+     * not nullable.
+     */
+    @Test
+    public void testProjectNotNullablePrimitive() {
+        rows = Arrays.asList(new Object[]{1L}, new Object[]{2L});
+        final long[] ids = manager.stream().mapToLong(Person.ID.asLong()).toArray();
+        assertEquals(2, ids.length);
+        assertEquals(3, ids[0] + ids[1]);
+        assertQuery("select id from db.person");
+    }
+
+    /**
+     * Test that a mapping to a primitive is applied to the entities for a
+     * nullable column, so that a NULL behaves as it does without pushdown.
+     */
+    @Test
+    public void testProjectNullablePrimitive() {
+        rows = Collections.singletonList(new Person(1L, "Ann", 30, 1.5).toRow());
+        assertArrayEquals(new int[]{30}, manager.stream().mapToInt(Person.AGE.asInt()).toArray());
+        assertQuery(SELECT);
+
+        rows = Collections.singletonList(new Person(2L, null, null, null).toRow());
+        try {
+            manager.stream().mapToInt(Person.AGE.asInt()).toArray();
+            fail("Unboxing a NULL shall fail as it does in memory");
+        } catch (NullPointerException npe) {
+            assertQuery(SELECT);
+        }
+    }
+
+    /**
+     * Test that aggregates over a column that is not nullable are computed by
+     * the database.
+     */
+    @Test
+    public void testAggregateNotNullable() {
+        rows = Collections.singletonList(new Object[]{new BigDecimal(3)});
+        assertEquals(3L, manager.stream().filter(Person.AGE.lessThan(65)).mapToLong(Person.ID.asLong()).sum());
+        assertQuery("select sum(id) from db.person where (age < ?)", 65);
+
+        rows = Collections.singletonList(new Object[]{2L});
+        assertEquals(OptionalLong.of(2), manager.stream().mapToLong(Person.ID.asLong()).max());
+        assertQuery("select max(id) from db.person");
+
+        rows = Collections.singletonList(new Object[]{null});
+        assertEquals(OptionalLong.empty(), manager.stream().mapToLong(Person.ID.asLong()).min());
+        assertQuery("select min(id) from db.person");
+
+        rows = Collections.singletonList(new Object[]{new BigDecimal(3), 2L});
+        assertEquals(OptionalDouble.of(1.5), manager.stream().mapToLong(Person.ID.asLong()).average());
+        assertQuery("select sum(id), count(id) from db.person");
+
+        rows = Collections.singletonList(new Object[]{null, 0L});
+        assertEquals(OptionalDouble.empty(), manager.stream().mapToDouble(Person.ID.asDouble()).average());
+        assertQuery("select sum(id), count(id) from db.person");
+    }
+
+    /**
+     * Test that aggregates over a nullable column are computed in memory, so
+     * that they give the same result as without pushdown.
+     */
+    @Test
+    public void testAggregateNullable() {
+        rows = Arrays.asList(new Person(1L, "Ann", 30, 1.5).toRow(), new Person(2L, "Bo", 12, 2.5).toRow());
+        assertEquals(42, manager.stream().mapToInt(Person.AGE.asInt()).sum());
+        assertQuery(SELECT);
+        assertEquals(OptionalInt.of(12), manager.stream().mapToInt(Person.AGE.asInt()).min());
+        assertEquals(OptionalDouble.of(2.0), manager.stream().filter(Person.ID.greaterThan(0L)).mapToDouble(Person.SCORE.asDouble()).average());
+        assertQuery(SELECT + " where (id > ?)", 0L);
+
+        rows = Arrays.asList(new Person(1L, "Ann", 30, 1.5).toRow(), new Person(2L, null, null, null).toRow());
+        try {
+            manager.stream().mapToInt(Person.AGE.asInt()).sum();
+            fail("Unboxing a NULL shall fail as it does in memory");
+        } catch (NullPointerException npe) {
+            assertQuery(SELECT);
+        }
+    }
+
+    /**
+     * Test that an int aggregate over a long column is computed in memory,
+     * since each value is truncated in the pipeline, but that the column is
+     * still projected.
+     */
+    @Test
+    public void testAggregateNarrowing() {
+        rows = Arrays.asList(new Object[]{1L}, new Object[]{2L});
+        assertEquals(3, manager.stream().mapToInt(Person.ID.asInt()).sum());
+        assertQuery("select id from db.person");
+    }
+
+    /**
+     * Test that skip and limit after the pushed down filters are folded into
+     * one clause, whose parameters follow the filter values.
+     */
+    @Test
+    public void testLimitFolding() {
+        manager.stream().filter(Person.AGE.greaterThan(18)).skip(1).limit(3).collect(Collectors.toList());
+        assertQuery(SELECT + " where (age > ?) LIMIT ? OFFSET ?", 18, 3L, 1L);
+
+        manager.stream().limit(5).skip(2).map(Person.ID).collect(Collectors.toList());
+        assertQuery("select id from db.person LIMIT ? OFFSET ?", 3L, 2L);
+
+        manager.stream().filter(Person.AGE.greaterThan(18)).findFirst();
+        assertQuery(SELECT + " where (age > ?) LIMIT ? OFFSET ?", 18, 1L, 0L);
+    }
+
+    /**
+     * Test that skip and limit are not folded after a filter that can not be
+     * pushed down, since they must be applied to the filtered rows.
+     */
+    @Test
+    public void testNoLimitFoldingAfterResidualFilter() {
+        final List<Person> result = manager.stream()
+            .filter(p -> p.getName() == null)
+            .limit(1)
+            .collect(Collectors.toList());
+        assertEquals(Collections.singletonList(new Person(2L, null, null, null)), result);
+        assertQuery(SELECT);
+    }
+
+    /**
+     * Test that skip and limit are applied in memory if the type of the
+     * database has no supported paging syntax.
+     */
+    @Test
+    public void testPagingUnsupported() {
+        final Dbms dbms = Person.TABLE.ancestor(Dbms.class).get();
+        final DbmsType type = dbms.getType();
+        dbms.setType(withoutPaging(type));
+        try {
+            final PersonManager other = new PersonManager(handler);
+            final List<Person> result = other.stream()
+                .filter(Person.ID.greaterThan(0L))
+                .skip(1)
+                .limit(1)
+                .collect(Collectors.toList());
+            assertEquals(Collections.singletonList(new Person(2L, null, null, null)), result);
+            assertQuery(SELECT + " where (id > ?)", 0L);
+
+            assertEquals(1, other.stream().skip(1).count());
+            assertQuery(SELECT);
+        } finally {
+            dbms.setType(type);
+        }
+    }
+
+    /**
+     * Test that a count over pushed down filters is computed by the database
+     * and that skip and limit are applied to the count.
+     */
+    @Test
+    public void testCount() {
+        rows = Collections.singletonList(new Object[]{5L});
+        assertEquals(5, manager.stream().filter(Person.AGE.greaterThan(18)).count());
+        assertQuery("select count(*) from db.person where (age > ?)", 18);
+
+        assertEquals(3, manager.stream().filter(Person.AGE.greaterThan(18)).skip(1).limit(3).map(Person.NAME).count());
+        assertQuery("select count(*) from db.person where (age > ?)", 18);
+
+        assertEquals(0, manager.stream().skip(7).count());
+    }
+
+    /**
+     * Test that a count after a filter that can not be pushed down is
+     * computed in memory.
+     */
+    @Test
+    public void testCountResidual() {
+        assertEquals(1, manager.stream().filter(Person.ID.lessThan(10L)).filter(p -> p.getAge() != null).count());
+        assertQuery(SELECT + " where (id < ?)", 10L);
+    }
+
+    /**
+     * Test that anyMatch and noneMatch with predicates that can be pushed
+     * down are computed with a single EXISTS query.
+     */
+    @Test
+    public void testExists() {
+        rows = Collections.singletonList(new Object[]{true});
+        assertTrue(manager.stream().filter(Person.AGE.greaterThan(18)).anyMatch(Person.ID.equal(1L)));
+        assertQuery("select exists(select 1 from db.person where (age > ?) AND (id = ?))", 18, 1L);
+
+        rows = Collections.singletonList(new Object[]{false});
+        assertTrue(manager.stream().noneMatch(Person.ID.in(Arrays.asList(3L, 4L))));
+        assertQuery("select exists(select 1 from db.person where (id IN (?,?)))", 3L, 4L);
+    }
+
+    /**
+     * Test that anyMatch with a predicate that can not be pushed down looks
+     * up the first matching entity.
+     */
+    @Test
+    public void testExistsResidual() {
+        assertTrue(manager.stream().filter(Person.ID.greaterThan(1L)).anyMatch(p -> p.getName() == null));
+        assertQuery(SELECT + " where (id > ?)", 1L);
+    }
+
+    private static DbmsType withoutPaging(DbmsType type) {
+        return (DbmsType) Proxy.newProxyInstance(
+            DbmsType.class.getClassLoader(),
+            new Class<?>[]{DbmsType.class},
+            (proxy, method, args) -> "getLimitOffsetClause".equals(method.getName())
+                ? Optional.empty()
+                : method.invoke(type, args)
+        );
+    }
+
+    /**
+     * Test that a sort on a column that is not nullable is pushed down as is
+     * and that skip and limit are folded after it.
+     */
+    @Test
+    public void testOrderBy() {
+        final List<Person> result = manager.stream()
+            .filter(Person.AGE.greaterThan(18))
+            .sorted(Person.ID.comparator().reversed())
+            .limit(2)
+            .collect(Collectors.toList());
+        assertEquals(2, result.size());
+        assertQuery(SELECT + " where (age > ?) ORDER BY id DESC LIMIT ? OFFSET ?", 18, 2L, 0L);
+    }
+
+    /**
+     * Test that the nulls of a nullable column are ordered explicitly, first
+     * when ascending and last when descending, like the comparators of the
+     * fields order them.
+     */
+    @Test
+    public void testOrderByNullable() {
+        manager.stream().sorted(Person.AGE.comparator()).forEach(p -> {
+        });
+        assertQuery(SELECT + " ORDER BY (age IS NULL) DESC, age ASC");
+        manager.stream().sorted(Person.SCORE.comparator().reversed()).forEach(p -> {
+        });
+        assertQuery(SELECT + " ORDER BY (score IS NULL) ASC, score DESC");
+        manager.stream().sorted(Person.ID.comparator().thenComparing(Person.AGE.comparator().reversed())).forEach(p -> {
+        });
+        assertQuery(SELECT + " ORDER BY id ASC, (age IS NULL) ASC, age DESC");
+    }
+
+    /**
+     * Test that a sort on a string column, which the database orders by its
+     * collation, is made in the JVM and that skip and limit are then not
+     * folded into the query.
+     */
+    @Test
+    public void testOrderByStringInJvm() {
+        rows = Arrays.asList(
+            new Person(1L, "b", null, null).toRow(),
+            new Person(2L, null, null, null).toRow(),
+            new Person(3L, "B", null, null).toRow(),
+            new Person(4L, "a", null, null).toRow()
+        );
+        final List<Long> ids = manager.stream()
+            .filter(Person.ID.greaterThan(0L))
+            .sorted(Person.NAME.comparator())
+            .limit(3)
+            .map(Person::getId)
+            .collect(Collectors.toList());
+        assertEquals(Arrays.asList(2L, 3L, 4L), ids);
+        assertQuery(SELECT + " where (id > ?)", 0L);
+
+        final List<Long> mixed = manager.stream()
+            .sorted(Person.ID.comparator().thenComparing(Person.NAME.comparator()))
+            .map(Person::getId)
+            .collect(Collectors.toList());
+        assertEquals(Arrays.asList(1L, 2L, 3L, 4L), mixed);
+        assertQuery(SELECT);
+    }
+
+    private void assertQuery(String sql, Object... values) {
+        final Query query = handler.lastQuery();
+        assertEquals(sql, query.getSql());
+        assertEquals(Arrays.asList(values), query.getValues());
+    }
+}
@@ -0,0 +1,103 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.core.manager.sql.generator;
+
+import com.speedment.codegen.base.Generator;
+import com.speedment.core.config.model.Column;
+import com.speedment.core.config.model.impl.ColumnImpl;
+import com.speedment.core.field.longs.LongField;
+import com.speedment.core.field.reference.ComparableReferenceField;
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests of the rendering of the in and between predicates and of how they
+ * treat null values.
+ *
+ * @author pemi
+ */
+public class SetPredicateBuilderViewTest {
+
+    private LongField<Long> longField;
+    private ComparableReferenceField<Integer, Integer> referenceField;
+    private Generator generator;
+
+    @Before
+    public void setUp() {
+        final Column column = new ColumnImpl();
+        column.setName("age");
+        longField = new LongField<>(() -> column, l -> l);
+        referenceField = new ComparableReferenceField<>(() -> column, i -> i);
+        generator = new SQLGenerator();
+    }
+
+    /**
+     * Test that duplicate values are rendered once and that empty sets are
+     * rendered as conditions that match like the predicates do in memory.
+     */
+    @Test
+    public void testIn() {
+        assertEquals("(age IN (?,?))", generator.on(longField.in(1, 2, 1)).get());
+        assertEquals(Arrays.asList(1L, 2L), longField.in(1, 2, 1).getValuesAsObjects());
+        assertEquals("(age NOT IN (?))", generator.on(longField.notIn(3)).get());
+        assertEquals("(1 = 0)", generator.on(longField.in()).get());
+        assertEquals("(age IS NOT NULL)", generator.on(referenceField.notIn(Collections.emptyList())).get());
+        assertTrue(longField.in(1, 2).test(2L));
+        assertFalse(longField.notIn(1, 2).test(2L));
+    }
+
+    /**
+     * Test that null never matches an in or not in predicate and that null
+     * values in the set of an in predicate are ignored.
+     */
+    @Test
+    public void testInNull() {
+        assertEquals(Collections.singletonList(1), referenceField.in(Arrays.asList(1, null)).getValuesAsObjects());
+        assertTrue(referenceField.in(Arrays.asList(1, null)).test(1));
+        assertFalse(referenceField.in(Arrays.asList(1, null)).test(null));
+        assertFalse(referenceField.notIn(Collections.singletonList(1)).test(null));
+        assertFalse(referenceField.notIn(Collections.emptyList()).test(null));
+        assertTrue(referenceField.notIn(Collections.emptyList()).test(2));
+    }
+
+    /**
+     * Test that a not in predicate with a null value is rejected, since it
+     * would match nothing in SQL.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testNotInNullRejected() {
+        referenceField.notIn(Arrays.asList(1, null));
+    }
+
+    /**
+     * Test that between is rendered with its bounds and includes them.
+     */
+    @Test
+    public void testBetween() {
+        assertEquals("(age BETWEEN ? AND ?)", generator.on(longField.between(1, 3)).get());
+        assertEquals("(age NOT BETWEEN ? AND ?)", generator.on(referenceField.notBetween(1, 3)).get());
+        assertTrue(longField.between(1, 3).test(1L));
+        assertTrue(longField.between(1, 3).test(3L));
+        assertFalse(longField.between(1, 3).test(4L));
+        assertTrue(longField.notBetween(1, 3).test(0L));
+        assertFalse(referenceField.between(1, 3).test(null));
+        assertFalse(referenceField.notBetween(1, 3).test(null));
+    }
+}
@@ -0,0 +1,86 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.core.manager.sql.generator;
+
+import com.speedment.codegen.base.Generator;
+import com.speedment.core.config.model.Column;
+import com.speedment.core.config.model.impl.ColumnImpl;
+import com.speedment.core.field.reference.string.StringBinaryPredicateBuilder;
+import com.speedment.core.field.reference.string.StringReferenceField;
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author pemi
+ */
+public class StringBinaryPredicateBuilderViewTest {
+
+    private StringReferenceField<String> field;
+    private Generator generator;
+
+    @Before
+    public void setUp() {
+        final Column column = new ColumnImpl();
+        column.setName("name");
+        field = new StringReferenceField<>(() -> column, s -> s);
+        generator = new SQLGenerator();
+    }
+
+    /**
+     * Test of startsWith, which shall be rendered with a constant prefix so
+     * that an index on the column can be used.
+     */
+    @Test
+    public void testStartsWith() {
+        final StringBinaryPredicateBuilder<String> predicate = field.startsWith("50%_off!");
+        assertEquals(
+            "(name LIKE ? ESCAPE '!' AND name LIKE BINARY ? ESCAPE '!')",
+            generator.on(predicate).get()
+        );
+        assertEquals(
+            Arrays.asList("50!%!_off!!%", "50!%!_off!!%"),
+            StringBinaryPredicateBuilderView.valuesOf(predicate)
+        );
+    }
+
+    /**
+     * Test of contains and endsWith, which shall escape the wildcards of the
+     * value.
+     */
+    @Test
+    public void testContainsAndEndsWith() {
+        assertEquals("(name LIKE BINARY ? ESCAPE '!')", generator.on(field.contains("a_b")).get());
+        assertEquals(Collections.singletonList("%a!_b%"), StringBinaryPredicateBuilderView.valuesOf(field.contains("a_b")));
+        assertEquals(Collections.singletonList("%a!_b"), StringBinaryPredicateBuilderView.valuesOf(field.endsWith("a_b")));
+    }
+
+    /**
+     * Test of equalByCollation, which shall be rendered as a plain equality.
+     */
+    @Test
+    public void testEqualByCollation() {
+        assertEquals("(name = ?)", generator.on(field.equalByCollation("Abc")).get());
+        assertEquals("(name <> ?)", generator.on(field.notEqualByCollation("Abc")).get());
+        assertEquals("(UPPER(name) = UPPER(?))", generator.on(field.equalIgnoreCase("Abc")).get());
+        assertTrue(field.equalByCollation("Abc").test("aBC"));
+    }
+
+}
@@ -0,0 +1,77 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.core.manager.store;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author pemi
+ */
+public class BitmapsTest {
+
+    @Test
+    public void testWords() {
+        assertEquals(0, Bitmaps.words(0));
+        assertEquals(1, Bitmaps.words(1));
+        assertEquals(1, Bitmaps.words(64));
+        assertEquals(2, Bitmaps.words(65));
+    }
+
+    /**
+     * Test that bits on both sides of a word boundary are set and cleared
+     * independently.
+     */
+    @Test
+    public void testSetGetClear() {
+        final long[] bitmap = new long[Bitmaps.words(130)];
+        for (final int index : new int[]{0, 63, 64, 127, 129}) {
+            assertFalse(Bitmaps.get(bitmap, index));
+            Bitmaps.set(bitmap, index);
+            assertTrue(Bitmaps.get(bitmap, index));
+        }
+        assertEquals(5, Bitmaps.cardinality(bitmap));
+        Bitmaps.clear(bitmap, 63);
+        assertFalse(Bitmaps.get(bitmap, 63));
+        assertTrue(Bitmaps.get(bitmap, 64));
+        assertEquals(1L, bitmap[0]);
+        assertEquals(4, Bitmaps.cardinality(bitmap));
+    }
+
+    /**
+     * Test the word wise operations, including on bitmaps of different
+     * lengths where the missing words of the other bitmap count as zero.
+     */
+    @Test
+    public void testOperations() {
+        final long[] and = {0b1100, 0b1111, -1L};
+        Bitmaps.and(and, new long[]{0b1010, 0b0110});
+        assertArrayEquals(new long[]{0b1000, 0b0110, 0}, and);
+
+        final long[] or = {0b1100, 0b0001, 0b1000};
+        Bitmaps.or(or, new long[]{0b1010, 0b0110});
+        assertArrayEquals(new long[]{0b1110, 0b0111, 0b1000}, or);
+
+        final long[] andNot = {0b1100, -1L, -1L};
+        Bitmaps.andNot(andNot, new long[]{0b1010, 1L});
+        assertArrayEquals(new long[]{0b0100, -2L, -1L}, andNot);
+
+        assertEquals(1 + 63 + 64, Bitmaps.cardinality(andNot));
+        assertEquals(0, Bitmaps.cardinality(new long[0]));
+    }
+}
@@ -0,0 +1,157 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.core.manager.store;
+
+import com.speedment.core.field.StandardBinaryOperator;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests that the selections of the column vectors match the rows that a
+ * comparison of each value would select.
+ *
+ * @author pemi
+ */
+public class ColumnVectorTest {
+
+    private static final int ROWS = 130;
+
+    @Test
+    public void testIntSelect() {
+        final IntColumnVector vector = new IntColumnVector(4);
+        final Integer[] values = new Integer[ROWS];
+        for (int i = 0; i < ROWS; i++) {
+            values[i] = i % 7 == 0 ? null : (i % 2 == 0 ? i : -i) % 20;
+            vector.ensureCapacity(i + 1);
+            vector.set(i, values[i]);
+        }
+        for (final int operand : new int[]{Integer.MIN_VALUE, -5, 0, 6, Integer.MAX_VALUE}) {
+            for (final StandardBinaryOperator operator : StandardBinaryOperator.values()) {
+                assertSelection(operator + " " + operand, values, vector.select(operator, operand, ROWS),
+                    v -> operator.getComparator().test(Integer.compare((Integer) v, operand)));
+            }
+        }
+    }
+
+    @Test
+    public void testLongSelect() {
+        final LongColumnVector vector = new LongColumnVector(4);
+        final Long[] values = new Long[ROWS];
+        for (int i = 0; i < ROWS; i++) {
+            values[i] = i % 5 == 0 ? null : (i % 3 == 0 ? Long.MAX_VALUE - i : (long) i << 33);
+            vector.ensureCapacity(i + 1);
+            vector.set(i, values[i]);
+        }
+        for (final long operand : new long[]{Long.MIN_VALUE, 0L, 7L << 33, Long.MAX_VALUE - 9}) {
+            for (final StandardBinaryOperator operator : StandardBinaryOperator.values()) {
+                assertSelection(operator + " " + operand, values, vector.select(operator, operand, ROWS),
+                    v -> operator.getComparator().test(Long.compare((Long) v, operand)));
+            }
+        }
+    }
+
+    /**
+     * Test that doubles are selected like Double.compare orders them, so
+     * that -0.0 is less than 0.0 and NaN equals itself and is greater than
+     * all other values.
+     */
+    @Test
+    public void testDoubleSelect() {
+        final double[] special = {-0.0, 0.0, Double.NaN, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, 1.5};
+        final DoubleColumnVector vector = new DoubleColumnVector(4);
+        final Double[] values = new Double[ROWS];
+        for (int i = 0; i < ROWS; i++) {
+            values[i] = i % 11 == 0 ? null : special[i % special.length];
+            vector.ensureCapacity(i + 1);
+            vector.set(i, values[i]);
+        }
+        for (final double operand : special) {
+            for (final StandardBinaryOperator operator : StandardBinaryOperator.values()) {
+                assertSelection(operator + " " + operand, values, vector.select(operator, operand, ROWS),
+                    v -> operator.getComparator().test(Double.compare((Double) v, operand)));
+            }
+        }
+        // Row 6 holds -0.0 and row 2 holds NaN
+        assertFalse(Bitmaps.get(vector.select(StandardBinaryOperator.EQUAL, 0.0, ROWS), 6));
+        assertTrue(Bitmaps.get(vector.select(StandardBinaryOperator.EQUAL, Double.NaN, ROWS), 2));
+        assertTrue(Bitmaps.get(vector.select(StandardBinaryOperator.GREATER_THAN, Double.POSITIVE_INFINITY, ROWS), 2));
+    }
+
+    /**
+     * Test that strings are selected through their dictionary codes and that
+     * null rows are not selected even if the predicate matches their code.
+     */
+    @Test
+    public void testStringSelect() {
+        final StringColumnVector vector = new StringColumnVector(4);
+        final String[] values = new String[ROWS];
+        for (int i = 0; i < ROWS; i++) {
+            values[i] = i % 4 == 0 ? null : "v" + (i % 9);
+            vector.ensureCapacity(i + 1);
+            vector.set(i, values[i]);
+        }
+        assertEquals(9, vector.dictionarySize());
+        final Predicate<String> predicate = s -> s.compareTo("v5") >= 0;
+        assertSelection("v5", values, vector.select(predicate, ROWS), v -> predicate.test((String) v));
+        assertSelection("all", values, vector.select(s -> true, ROWS), v -> true);
+        assertEquals(0, Bitmaps.cardinality(new StringColumnVector(4).select(s -> true, 0)));
+    }
+
+    /**
+     * Test that values and nulls survive when a vector grows and that a
+     * cleared row is null.
+     */
+    @Test
+    public void testGrowAndClear() {
+        final ObjectColumnVector vector = new ObjectColumnVector(2);
+        vector.set(0, "a");
+        vector.set(1, null);
+        vector.ensureCapacity(100);
+        assertTrue(vector.capacity() >= 100);
+        vector.set(99, "b");
+        assertEquals("a", vector.get(0));
+        assertNull(vector.get(1));
+        assertEquals("b", vector.get(99));
+        vector.clear(0);
+        assertNull(vector.get(0));
+    }
+
+    /**
+     * Test that only the first rows are selected, even if the vector holds
+     * more rows.
+     */
+    @Test
+    public void testSelectFirstRows() {
+        final IntColumnVector vector = new IntColumnVector(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            vector.set(i, 1);
+        }
+        final long[] selection = vector.select(StandardBinaryOperator.EQUAL, 1, 65);
+        assertEquals(2, selection.length);
+        assertEquals(65, Bitmaps.cardinality(selection));
+    }
+
+    private static void assertSelection(String message, Object[] values, long[] selection, Predicate<Object> predicate) {
+        assertEquals(message, Bitmaps.words(values.length), selection.length);
+        final IntPredicate expected = i -> values[i] != null && predicate.test(values[i]);
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(message + " at row " + i, expected.test(i), Bitmaps.get(selection, i));
+        }
+    }
+}
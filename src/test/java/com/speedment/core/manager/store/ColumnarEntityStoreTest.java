@@ -0,0 +1,126 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.core.manager.store;
+
+import com.speedment.core.manager.Person;
+import com.speedment.core.manager.PersonManager;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Predicate;
+import static java.util.stream.Collectors.toList;
+import java.util.stream.Stream;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author pemi
+ */
+public class ColumnarEntityStoreTest {
+
+    private ColumnarEntityStore<Long, Person, Person> store;
+
+    @Before
+    public void setUp() {
+        store = new ColumnarEntityStore<>(new PersonManager(), Person.COLUMNS);
+        for (long id = 1; id <= 100; id++) {
+            store.put(id, new Person(id, "P" + id % 10, (int) id, id % 4 == 0 ? null : id / 4.0));
+        }
+    }
+
+    /**
+     * Test that the rows of removed entities are reused by new entities and
+     * that a reused row holds none of the values of the removed entity.
+     */
+    @Test
+    public void testRowReuseAfterRemove() {
+        store.remove(10L);
+        store.remove(20L);
+        store.remove(999L);
+        assertEquals(98, store.size());
+        assertFalse(store.get(10L).isPresent());
+        store.put(101L, new Person(101L, null, null, null));
+        store.put(102L, new Person(102L, "new", 5, null));
+        store.put(103L, new Person(103L, null, null, null));
+        assertTrue(store.toString().contains("rows=101"));
+        assertEquals(Optional.of(new Person(101L, null, null, null)), store.get(101L));
+        assertEquals(Optional.of(new Person(102L, "new", 5, null)), store.get(102L));
+        assertEquals(101, store.stream().count());
+        assertEquals(0, store.count(Collections.singletonList(Person.AGE.equal(10))));
+        assertEquals(Arrays.asList(5L, 102L), ids(store.stream(Collections.singletonList(Person.AGE.equal(5)))));
+    }
+
+    /**
+     * Test that selections on the column vectors match the predicates of the
+     * fields.
+     */
+    @Test
+    public void testSelect() {
+        final List<Predicate<Person>> predicates = Arrays.asList(
+            Person.AGE.greaterThan(90),
+            Person.AGE.lessOrEqual(3),
+            Person.ID.greaterOrEqual(97L),
+            Person.NAME.equal("P1"),
+            Person.NAME.startsWith("P"),
+            Person.NAME.equalIgnoreCase("p2"),
+            Person.AGE.greaterThan(50).and(Person.NAME.equal("P5")),
+            Person.AGE.lessThan(5).or(Person.AGE.greaterThan(95))
+        );
+        for (final Predicate<Person> predicate : predicates) {
+            assertTrue(predicate.toString(), store.isSelectable(predicate));
+            final List<Predicate<Person>> selection = Collections.singletonList(predicate);
+            final List<Long> expected = ids(store.stream().filter(predicate));
+            assertEquals(predicate.toString(), expected, ids(store.stream(selection)));
+            assertEquals(predicate.toString(), expected.size(), store.count(selection));
+        }
+        assertFalse(store.isSelectable(p -> true));
+        // Rows with null values are never selected
+        assertEquals(Arrays.asList(1L, 2L, 3L, 5L, 6L, 7L), ids(store.stream(Collections.singletonList(Person.SCORE.lessThan(2.0)))));
+        assertEquals(75, store.count(Collections.singletonList(Person.SCORE.notEqual(2.0))));
+        store.put(1L, new Person(1L, null, 1, null));
+        assertEquals(99, store.count(Collections.singletonList(Person.NAME.startsWith("P"))));
+        assertEquals(Arrays.asList(91L, 92L, 93L), ids(store.stream(Arrays.asList(Person.AGE.greaterThan(90), Person.AGE.lessThan(94)))));
+    }
+
+    /**
+     * Test that entities that are changed after the rows of a stream were
+     * selected are checked against the predicates again.
+     */
+    @Test
+    public void testChangeAfterSelect() {
+        final Stream<Person> selected = store.stream(Collections.singletonList(Person.AGE.greaterThan(97)));
+        store.put(98L, new Person(98L, null, 1, null));
+        store.remove(99L);
+        assertEquals(Collections.singletonList(100L), ids(selected));
+    }
+
+    @Test
+    public void testClear() {
+        store.clear();
+        assertEquals(0, store.size());
+        assertEquals(0, store.stream().count());
+        store.put(1L, new Person(1L, "a", 1, 1.0));
+        assertEquals(Optional.of(new Person(1L, "a", 1, 1.0)), store.get(1L));
+    }
+
+    private static List<Long> ids(Stream<Person> persons) {
+        return persons.map(Person::getId).sorted().collect(toList());
+    }
+}
@@ -0,0 +1,165 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.core.manager.store;
+
+import com.speedment.core.manager.Person;
+import com.speedment.core.manager.PersonManager;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import static java.util.stream.Collectors.toList;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author pemi
+ */
+public class OffHeapEntityStoreTest {
+
+    private RowLayout<Person, Person> layout;
+    private OffHeapEntityStore<Long, Person> store;
+
+    @Before
+    public void setUp() {
+        layout = new RowLayout<>(new PersonManager(), Person.COLUMNS);
+        store = new OffHeapEntityStore<>(layout, 64, 256);
+    }
+
+    /**
+     * Test that the slabs start at the initial size and double in size up to
+     * the maximum size.
+     */
+    @Test
+    public void testSlabGrowth() {
+        assertEquals(0, store.getAllocatedBytes());
+        store.put(1L, person(1));
+        assertEquals(64, store.getAllocatedBytes());
+        final int length = 4 + layout.encode(person(1)).length;
+        long used = length;
+        for (long id = 2; id <= 100; id++) {
+            store.put(id, person(id));
+            used += length;
+        }
+        final long allocated = store.getAllocatedBytes();
+        assertTrue(allocated >= used);
+        assertTrue(allocated < 2 * used);
+        assertEquals(0, (allocated - 64 - 128) % 256);
+        assertEquals(100, store.size());
+        assertEquals(Optional.of(person(100)), store.get(100L));
+    }
+
+    /**
+     * Test that a row that is larger than the maximum slab size is kept in a
+     * slab of its own.
+     */
+    @Test
+    public void testLargeRow() {
+        final Person large = new Person(1L, new String(new char[300]).replace('\0', 'x'), null, null);
+        store.put(1L, large);
+        store.put(2L, person(2));
+        assertEquals(Optional.of(large), store.get(1L));
+        assertEquals(Optional.of(person(2)), store.get(2L));
+    }
+
+    /**
+     * Test that updates and removals leave the latest version of each entity
+     * and that the garbage they leave is reclaimed by compaction.
+     */
+    @Test
+    public void testUpdateRemoveAndCompaction() {
+        for (int round = 0; round < 50; round++) {
+            for (long id = 1; id <= 10; id++) {
+                store.put(id, new Person(id, "P" + id, round, null));
+            }
+        }
+        store.remove(3L);
+        store.remove(42L);
+        assertEquals(9, store.size());
+        assertFalse(store.get(3L).isPresent());
+        assertEquals(Optional.of(new Person(4L, "P4", 49, null)), store.get(4L));
+        assertTrue(store.stream().allMatch(p -> p.getAge() == 49));
+        assertTrue(store.getAllocatedBytes() < 50 * 10 * (4 + layout.encode(person(1)).length) / 4);
+    }
+
+    /**
+     * Test that a stream that is running when the rows are compacted keeps
+     * reading the rows it started with.
+     */
+    @Test
+    public void testStreamDuringCompaction() {
+        for (long id = 1; id <= 10; id++) {
+            store.put(id, person(id));
+        }
+        final Iterator<Person> iterator = store.stream().iterator();
+        final Person first = iterator.next();
+        for (int round = 0; round < 20; round++) {
+            for (long id = 1; id <= 10; id++) {
+                store.put(id, new Person(id, null, -1, null));
+            }
+        }
+        // Rows that are replaced before the compaction may be seen in either version
+        assertTrue(first.equals(person(first.getId())));
+        int count = 1;
+        while (iterator.hasNext()) {
+            final Person next = iterator.next();
+            assertTrue(next.equals(person(next.getId())) || next.equals(new Person(next.getId(), null, -1, null)));
+            count++;
+        }
+        assertEquals(10, count);
+        assertTrue(store.stream().allMatch(p -> p.getAge() == -1));
+    }
+
+    /**
+     * Test that field predicates are evaluated on the binary rows.
+     */
+    @Test
+    public void testRowPredicate() {
+        for (long id = 1; id <= 10; id++) {
+            store.put(id, person(id));
+        }
+        store.put(11L, new Person(11L, null, null, null));
+        final OffHeapEntityStore.RowPredicate predicate = store.rowPredicateOf(Person.AGE.greaterThan(7)).get();
+        final List<Long> ids = store.stream(predicate).map(Person::getId).sorted().collect(toList());
+        assertEquals(Arrays.asList(8L, 9L, 10L), ids);
+        assertFalse(store.rowPredicateOf(p -> true).isPresent());
+    }
+
+    /**
+     * Test that clearing the store releases its slabs.
+     */
+    @Test
+    public void testClear() {
+        store.put(1L, person(1));
+        store.clear();
+        assertEquals(0, store.size());
+        assertEquals(0, store.getAllocatedBytes());
+        store.put(1L, person(1));
+        assertEquals(64, store.getAllocatedBytes());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMaxSmallerThanInitial() {
+        new OffHeapEntityStore<>(layout, 128, 64);
+    }
+
+    private static Person person(long id) {
+        return new Person(id, "P" + id, (int) id, id / 2.0);
+    }
+}
@@ -0,0 +1,241 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.core.manager.store;
+
+import com.speedment.core.config.model.Column;
+import com.speedment.core.config.model.Table;
+import com.speedment.core.config.model.impl.ColumnImpl;
+import com.speedment.core.core.Buildable;
+import com.speedment.core.manager.sql.AbstractSqlManager;
+import com.speedment.util.Deduplicator;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests that rows survive a round trip through their binary layout.
+ *
+ * @author pemi
+ */
+public class RowLayoutTest {
+
+    private static final List<Column> COLUMNS = Collections.unmodifiableList(Arrays.asList(
+        column("b", Boolean.class),
+        column("s", String.class),
+        column("i8", Byte.class),
+        column("i16", Short.class),
+        column("bytes", byte[].class),
+        column("i32", Integer.class),
+        column("i64", Long.class),
+        column("f", Float.class),
+        column("d", Double.class),
+        column("decimal", BigDecimal.class),
+        column("date", Date.class),
+        column("time", Time.class),
+        column("timestamp", Timestamp.class),
+        column("text", String.class)
+    ));
+
+    private final RowManager manager = new RowManager();
+
+    /**
+     * Test that all values, including those of several variable size
+     * columns, are decoded to what was encoded.
+     */
+    @Test
+    public void testRoundTrip() {
+        final Timestamp timestamp = new Timestamp(1_400_000_000_123L);
+        timestamp.setNanos(123_456_789);
+        final Row row = new Row(
+            true, "Ann åäö €", (byte) -1, (short) 300, new byte[]{1, 2, 3},
+            Integer.MIN_VALUE, Long.MAX_VALUE, 1.5f, -0.0,
+            new BigDecimal("-12345678901234567890.0012"),
+            new Date(1_400_000_000_000L), new Time(3_600_000L), timestamp, ""
+        );
+        assertRoundTrip(row);
+    }
+
+    /**
+     * Test that null values are told apart from zeros and empty values in
+     * both fixed and variable size columns.
+     */
+    @Test
+    public void testNulls() {
+        assertRoundTrip(new Row(new Object[COLUMNS.size()]));
+        assertRoundTrip(new Row(false, "", (byte) 0, (short) 0, new byte[0], 0, 0L, 0f, 0.0, BigDecimal.ZERO,
+            new Date(0), new Time(0), new Timestamp(0), ""));
+        for (int i = 0; i < COLUMNS.size(); i++) {
+            final Row row = new Row(true, "a", (byte) 1, (short) 1, new byte[]{1}, 1, 1L, 1f, 1.0, BigDecimal.ONE,
+                new Date(1), new Time(1), new Timestamp(1), "b");
+            row.values[i] = null;
+            assertRoundTrip(row);
+        }
+    }
+
+    /**
+     * Test that a single column can be read at an offset into a buffer that
+     * holds several rows.
+     */
+    @Test
+    public void testReadAtOffset() {
+        final RowLayout<Row, Row> layout = new RowLayout<>(manager, COLUMNS);
+        final byte[] first = layout.encode(new Row(null, "first", null, null, null, 1, null, null, null, null, null, null, null, "x"));
+        final byte[] second = layout.encode(new Row(null, null, null, null, new byte[]{9}, 2, null, null, null, null, null, null, null, "second"));
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(3 + first.length + second.length);
+        buffer.position(3);
+        buffer.put(first);
+        buffer.put(second);
+        final int secondOffset = 3 + first.length;
+        assertEquals("first", layout.read(buffer, 3, 1));
+        assertEquals("x", layout.read(buffer, 3, 13));
+        assertNull(layout.read(buffer, secondOffset, 1));
+        assertEquals(2, layout.read(buffer, secondOffset, 5));
+        assertArrayEquals(new byte[]{9}, (byte[]) layout.read(buffer, secondOffset, 4));
+        assertEquals("second", layout.read(buffer, secondOffset, 13));
+        assertEquals(Optional.of(13), layout.indexOf(COLUMNS.get(13)));
+        assertEquals(Optional.empty(), layout.indexOf(column("other", String.class)));
+    }
+
+    /**
+     * Test that the decoded values of deduplicated columns are canonical.
+     */
+    @Test
+    public void testDeduplication() {
+        final Deduplicator<Object> deduplicator = new Deduplicator<>();
+        final RowLayout<Row, Row> layout = new RowLayout<>(manager, COLUMNS,
+            c -> c.getName().equals("s") ? Optional.of(deduplicator) : Optional.empty()
+        );
+        final ByteBuffer row = ByteBuffer.wrap(layout.encode(new Row(null, "abc", null, null, null, null, null, null, null, null, null, null, null, "abc")));
+        final Row first = layout.decode(row, 0);
+        final Row second = layout.decode(row, 0);
+        assertSame(first.values[1], second.values[1]);
+        assertNotSame(first.values[13], second.values[13]);
+        assertEquals(1, deduplicator.getHitCount());
+    }
+
+    @Test
+    public void testSupported() {
+        assertTrue(RowLayout.isSupported(COLUMNS));
+        assertFalse(RowLayout.isSupported(Collections.singletonList(column("list", List.class))));
+    }
+
+    private void assertRoundTrip(Row row) {
+        final RowLayout<Row, Row> layout = new RowLayout<>(manager, COLUMNS);
+        final byte[] bytes = layout.encode(row);
+        final Row decoded = layout.decode(ByteBuffer.wrap(bytes), 0);
+        for (int i = 0; i < COLUMNS.size(); i++) {
+            final String message = COLUMNS.get(i).getName();
+            if (row.values[i] instanceof byte[]) {
+                assertArrayEquals(message, (byte[]) row.values[i], (byte[]) decoded.values[i]);
+            } else {
+                assertEquals(message, row.values[i], decoded.values[i]);
+            }
+            assertEquals(message, row.values[i] == null, layout.read(ByteBuffer.wrap(bytes), 0, i) == null);
+        }
+    }
+
+    private static Column column(String name, Class<?> mapping) {
+        final Column column = new ColumnImpl();
+        column.setName(name);
+        column.setMapping(mapping);
+        column.setNullable(true);
+        return column;
+    }
+
+    /**
+     * An entity with one value for each of the columns of the test.
+     */
+    static final class Row implements Buildable<Row> {
+
+        private final Object[] values;
+
+        Row(Object... values) {
+            this.values = values.clone();
+        }
+
+        @Override
+        public Row build() {
+            return this;
+        }
+    }
+
+    private static final class RowManager extends AbstractSqlManager<Long, Row, Row> {
+
+        private int indexOf(Column column) {
+            for (int i = 0; i < COLUMNS.size(); i++) {
+                if (COLUMNS.get(i).getName().equals(column.getName())) {
+                    return i;
+                }
+            }
+            throw new IllegalArgumentException(column.getName());
+        }
+
+        @Override
+        public Long primaryKeyFor(Row entity) {
+            return (Long) entity.values[6];
+        }
+
+        @Override
+        public Object get(Row entity, Column column) {
+            return entity.values[indexOf(column)];
+        }
+
+        @Override
+        public void set(Row builder, Column column, Object value) {
+            builder.values[indexOf(column)] = value;
+        }
+
+        @Override
+        public Table getTable() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Class<RowManager> getManagerClass() {
+            return RowManager.class;
+        }
+
+        @Override
+        public Class<Row> getEntityClass() {
+            return Row.class;
+        }
+
+        @Override
+        public Class<Row> getBuilderClass() {
+            return Row.class;
+        }
+
+        @Override
+        public Row builder() {
+            return new Row(new ArrayList<>(Collections.nCopies(COLUMNS.size(), null)).toArray());
+        }
+
+        @Override
+        public Row toBuilder(Row entity) {
+            return new Row(entity.values);
+        }
+    }
+}
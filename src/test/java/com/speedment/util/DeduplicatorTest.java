@@ -0,0 +1,81 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.util;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author pemi
+ */
+public class DeduplicatorTest {
+
+    /**
+     * Test that equal values are replaced by the first instance that was
+     * seen and that the lookups are counted.
+     */
+    @Test
+    public void testDeduplicate() {
+        final Deduplicator<String> deduplicator = new Deduplicator<>();
+        final String first = new String("abc");
+        final String second = new String("abc");
+        assertSame(first, deduplicator.deduplicate(first));
+        assertSame(first, deduplicator.deduplicate(second));
+        assertSame(first, deduplicator.deduplicate(first));
+        assertEquals(2, deduplicator.getHitCount());
+        assertEquals(1, deduplicator.getMissCount());
+        assertEquals(2.0 / 3, deduplicator.getHitRatio(), 1e-9);
+    }
+
+    @Test
+    public void testNull() {
+        final Deduplicator<String> deduplicator = new Deduplicator<>();
+        assertNull(deduplicator.deduplicate(null));
+        assertEquals(0, deduplicator.getHitCount());
+        assertEquals(0, deduplicator.getMissCount());
+        assertEquals(0, deduplicator.getHitRatio(), 0);
+    }
+
+    /**
+     * Test that the capacity is rounded up to a power of two and that the
+     * dictionary never holds more values than its capacity, while the values
+     * that are looked up often are kept.
+     */
+    @Test
+    public void testBounded() {
+        assertEquals(8, new Deduplicator<Integer>(5).getCapacity());
+        assertEquals(2, new Deduplicator<Integer>(2).getCapacity());
+        final Deduplicator<Integer> deduplicator = new Deduplicator<>(8);
+        final Integer hot = Integer.valueOf(1_000_000); // Not cached by Integer
+        for (int i = 0; i < 10_000; i++) {
+            assertSame(hot, deduplicator.deduplicate(i == 0 ? hot : Integer.valueOf(1_000_000)));
+            // The value that is seen every other time keeps its slot
+            deduplicator.deduplicate(Integer.valueOf(2_000_000 + i));
+        }
+        assertEquals(9_999, deduplicator.getHitCount());
+        assertEquals(10_001, deduplicator.getMissCount());
+        // Values that were evicted are no longer canonical
+        final Integer evicted = Integer.valueOf(2_000_000);
+        assertSame(evicted, deduplicator.deduplicate(evicted));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCapacityTooSmall() {
+        new Deduplicator<String>(1);
+    }
+}
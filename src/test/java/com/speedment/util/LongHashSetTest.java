@@ -0,0 +1,75 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.util;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author pemi
+ */
+public class LongHashSetTest {
+
+    /**
+     * Test that values are added once and that zero, which is also the value
+     * of an empty slot, is a member like any other value.
+     */
+    @Test
+    public void testAddAndContains() {
+        final LongHashSet set = new LongHashSet();
+        assertTrue(set.isEmpty());
+        assertFalse(set.contains(0));
+        assertTrue(set.add(0));
+        assertTrue(set.add(-1));
+        assertTrue(set.add(Long.MIN_VALUE));
+        assertTrue(set.add(Long.MAX_VALUE));
+        assertFalse(set.add(0));
+        assertFalse(set.add(Long.MIN_VALUE));
+        assertEquals(4, set.size());
+        assertTrue(set.contains(0));
+        assertTrue(set.contains(-1));
+        assertTrue(set.contains(Long.MIN_VALUE));
+        assertTrue(set.contains(Long.MAX_VALUE));
+        assertFalse(set.contains(1));
+    }
+
+    /**
+     * Test that all values are kept when the set grows past its expected
+     * size, including values whose hashes collide.
+     */
+    @Test
+    public void testRehash() {
+        final LongHashSet set = new LongHashSet(1);
+        for (long i = 0; i < 10_000; i++) {
+            assertTrue(set.add(i << 32));
+        }
+        assertEquals(10_000, set.size());
+        for (long i = 0; i < 10_000; i++) {
+            assertTrue(set.contains(i << 32));
+            assertFalse(set.contains((i << 32) + 1));
+        }
+    }
+
+    @Test
+    public void testToString() {
+        final LongHashSet set = new LongHashSet();
+        assertEquals("[]", set.toString());
+        set.add(42);
+        assertEquals("[42]", set.toString());
+    }
+}